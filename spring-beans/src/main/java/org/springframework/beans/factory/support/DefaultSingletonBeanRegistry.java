@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,6 +36,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -57,6 +59,11 @@ import org.springframework.util.StringUtils;
  * the {@link org.springframework.beans.factory.config.ConfigurableBeanFactory}
  * interface extends the {@link SingletonBeanRegistry} interface.
  *
+ * <p>By default, singleton creation is serialized through the
+ * {@link #getSingletonMutex() singleton mutex}. Alternatively, singletons may be
+ * {@link #setPerBeanSingletonLocking locked per bean name}, allowing different
+ * singletons to be created concurrently by different threads.
+ *
  * <p>Note that this class assumes neither a bean definition concept
  * nor a specific creation process for bean instances, in contrast to
  * {@link AbstractBeanFactory} and {@link DefaultListableBeanFactory}
@@ -103,10 +110,26 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
 	/** List of suppressed Exceptions, available for associating related causes */
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions during singleton creation");
 
 	/** Flag that indicates whether we're currently within destroySingletons */
-	private boolean singletonsCurrentlyInDestruction = false;
+	private volatile boolean singletonsCurrentlyInDestruction = false;
+
+	/** Whether singleton creation is locked per bean name rather than through the singleton mutex */
+	private volatile boolean perBeanSingletonLocking = false;
+
+	/** Threads currently creating a singleton with per-bean locking: bean name --> Thread */
+	private final Map<String, Thread> singletonCreationOwners = new HashMap<>(16);
+
+	/** Singletons that threads are waiting for with per-bean locking: Thread --> bean name */
+	private final Map<Thread, String> singletonCreationWaiters = new HashMap<>(16);
+
+	/** Waiting threads that may resolve a circular reference through an early singleton reference */
+	private final Set<Thread> earlyReferenceWaiters = new HashSet<>(16);
+
+	/** Total time spent waiting for singleton locks, in nanoseconds */
+	private final LongAdder singletonLockWaitTime = new LongAdder();
 
 	/** Disposable bean instances: bean name --> disposable instance */
 	private final Map<String, Object> disposableBeans = new LinkedHashMap<>();
@@ -121,6 +144,54 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Set whether singleton creation should be locked per bean name, rather than
+	 * serialized through the {@link #getSingletonMutex() singleton mutex}.
+	 * <p>Default is "false". Switch this on to let different singletons, e.g. lazy-init
+	 * singletons obtained at runtime, be created concurrently by different threads.
+	 * Threads asking for a singleton currently in creation by another thread wait
+	 * for its creation to complete, without holding the singleton mutex.
+	 * An early reference to such a singleton is only exposed to the creating thread
+	 * itself or to a thread that the creating thread is (transitively) waiting for,
+	 * resolving a circular reference just like within a single thread. A
+	 * {@link BeanCurrentlyInCreationException} is thrown if threads would otherwise
+	 * wait for each other's singletons, as for an unresolvable circular reference
+	 * within a single thread.
+	 * <p>Note that code synchronizing on the singleton mutex is therefore not
+	 * guaranteed to be free of concurrent singleton creation in this mode. Such code
+	 * must not request a singleton that is in creation by another thread: since that
+	 * thread cannot complete the creation while the mutex is held, and waiting would
+	 * release the mutex held by the caller, a {@link BeanCurrentlyInCreationException}
+	 * is thrown instead.
+	 * @since 5.0
+	 * @see #getSingletonLockWaitTime()
+	 */
+	public void setPerBeanSingletonLocking(boolean perBeanSingletonLocking) {
+		this.perBeanSingletonLocking = perBeanSingletonLocking;
+	}
+
+	/**
+	 * Return whether singleton creation is locked per bean name.
+	 * @since 5.0
+	 */
+	public boolean isPerBeanSingletonLocking() {
+		return this.perBeanSingletonLocking;
+	}
+
+	/**
+	 * Return the total time that threads have spent waiting to create or obtain
+	 * a singleton through {@link #getSingleton(String, ObjectFactory)}, that is,
+	 * the time spent acquiring the singleton mutex or, with
+	 * {@link #setPerBeanSingletonLocking per-bean locking}, waiting for the creation
+	 * of the same singleton by another thread.
+	 * @return the accumulated wait time in nanoseconds
+	 * @since 5.0
+	 */
+	public long getSingletonLockWaitTime() {
+		return this.singletonLockWaitTime.sum();
+	}
+
+
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		Assert.notNull(beanName, "'beanName' must not be null");
@@ -184,7 +255,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
 		Object singletonObject = this.singletonObjects.get(beanName);
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+			boolean mutexHeld = Thread.holdsLock(this.singletonObjects);
 			synchronized (this.singletonObjects) {
+				if (!this.singletonCreationOwners.isEmpty() && !awaitSingletonCreation(beanName, mutexHeld)) {
+					// In creation by another thread: never expose its early reference
+					singletonObject = this.singletonObjects.get(beanName);
+					return (singletonObject != NULL_OBJECT ? singletonObject : null);
+				}
 				singletonObject = this.earlySingletonObjects.get(beanName);
 				if (singletonObject == null && allowEarlyReference) {
 					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
@@ -209,54 +286,233 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "'beanName' must not be null");
+		if (this.perBeanSingletonLocking) {
+			return getSingletonWithBeanLock(beanName, singletonFactory);
+		}
+		long startTime = System.nanoTime();
 		synchronized (this.singletonObjects) {
+			this.singletonLockWaitTime.add(System.nanoTime() - startTime);
 			Object singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
-				if (this.singletonsCurrentlyInDestruction) {
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
-							"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+				singletonObject = createSingleton(beanName, singletonFactory);
+			}
+			return (singletonObject != NULL_OBJECT ? singletonObject : null);
+		}
+	}
+
+	/**
+	 * Obtain the given singleton with per-bean locking, creating it if necessary
+	 * while holding the lock for its bean name.
+	 */
+	private Object getSingletonWithBeanLock(String beanName, ObjectFactory<?> singletonFactory) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject == null) {
+			boolean acquired = acquireSingletonLock(beanName);
+			try {
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					singletonObject = createSingleton(beanName, singletonFactory);
 				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+			}
+			finally {
+				if (acquired) {
+					releaseSingletonLock(beanName);
 				}
-				beforeSingletonCreation(beanName);
-				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
-				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+			}
+		}
+		return (singletonObject != NULL_OBJECT ? singletonObject : null);
+	}
+
+	/**
+	 * Create the given singleton through the given factory and register it.
+	 * @return the new singleton object, or a singleton object that implicitly
+	 * appeared in the meantime
+	 */
+	private Object createSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+		if (this.singletonsCurrentlyInDestruction) {
+			throw new BeanCreationNotAllowedException(beanName,
+					"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+					"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+		}
+		beforeSingletonCreation(beanName);
+		Object singletonObject;
+		boolean newSingleton = false;
+		boolean recordSuppressedExceptions = (this.suppressedExceptions.get() == null);
+		if (recordSuppressedExceptions) {
+			this.suppressedExceptions.set(new LinkedHashSet<>());
+		}
+		try {
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		catch (BeanCreationException ex) {
+			if (recordSuppressedExceptions) {
+				for (Exception suppressedException : this.suppressedExceptions.get()) {
+					ex.addRelatedCause(suppressedException);
 				}
+			}
+			throw ex;
+		}
+		finally {
+			if (recordSuppressedExceptions) {
+				this.suppressedExceptions.remove();
+			}
+			afterSingletonCreation(beanName);
+		}
+		if (newSingleton) {
+			addSingleton(beanName, singletonObject);
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Acquire the per-bean lock for the given singleton, waiting for its creation
+	 * by another thread to complete if necessary.
+	 * @return {@code true} if the lock has been acquired, or {@code false} if
+	 * the current thread holds it already
+	 * @throws BeanCurrentlyInCreationException if the thread creating the singleton
+	 * is (transitively) waiting for a singleton created by the current thread, or
+	 * if the current thread holds the singleton mutex and therefore cannot wait
+	 */
+	boolean acquireSingletonLock(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		boolean mutexHeld = Thread.holdsLock(this.singletonObjects);
+		synchronized (this.singletonObjects) {
+			Thread owner = this.singletonCreationOwners.get(beanName);
+			if (owner == currentThread) {
+				return false;
+			}
+			if (owner != null && mutexHeld) {
+				throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently " +
+						"in creation in thread [" + owner.getName() + "], which cannot complete while the " +
+						"current thread holds the singleton mutex: Do not request beans from code that " +
+						"synchronizes on the singleton mutex with per-bean singleton locking");
+			}
+			if (owner != null) {
+				long startTime = System.nanoTime();
+				this.singletonCreationWaiters.put(currentThread, beanName);
+				// Let threads waiting for an early reference re-check for a circular reference
+				this.singletonObjects.notifyAll();
 				try {
-					singletonObject = singletonFactory.getObject();
-					newSingleton = true;
-				}
-				catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						throw ex;
-					}
-				}
-				catch (BeanCreationException ex) {
-					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
+					while ((owner = this.singletonCreationOwners.get(beanName)) != null) {
+						if (isWaitingForSingletonOf(owner, currentThread, true)) {
+							throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently " +
+									"in creation in thread [" + owner.getName() + "], which is waiting for a bean " +
+									"in creation in the current thread: Is there an unresolvable circular reference?");
 						}
+						// The caller does not hold the mutex: only our own monitor entry is released
+						this.singletonObjects.wait();
 					}
-					throw ex;
+				}
+				catch (InterruptedException ex) {
+					currentThread.interrupt();
+					throw new BeanCreationException(beanName,
+							"Interrupted while waiting for singleton creation in another thread", ex);
 				}
 				finally {
-					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
-					}
-					afterSingletonCreation(beanName);
+					this.singletonCreationWaiters.remove(currentThread);
+					this.singletonLockWaitTime.add(System.nanoTime() - startTime);
 				}
-				if (newSingleton) {
-					addSingleton(beanName, singletonObject);
+			}
+			this.singletonCreationOwners.put(beanName, currentThread);
+			return true;
+		}
+	}
+
+	/**
+	 * Wait for the creation of the given singleton by another thread with per-bean
+	 * locking, unless the creating thread is (transitively) waiting for a singleton
+	 * created by the current thread, in which case the current thread may resolve
+	 * the circular reference through the early reference of the given singleton.
+	 * <p>To be called while synchronized on the singleton mutex. If the caller
+	 * held the mutex already, the current thread does not wait, since waiting
+	 * would release the mutex within the caller's synchronized block.
+	 * @param mutexHeld whether the caller held the singleton mutex before
+	 * @return {@code true} if the current thread may access the early reference,
+	 * or {@code false} if the creation by another thread has completed in the
+	 * meantime or cannot be waited for
+	 */
+	private boolean awaitSingletonCreation(String beanName, boolean mutexHeld) {
+		Thread currentThread = Thread.currentThread();
+		Thread owner = this.singletonCreationOwners.get(beanName);
+		if (owner == null || owner == currentThread) {
+			return true;
+		}
+		if (mutexHeld) {
+			return isWaitingForSingletonOf(owner, currentThread, false);
+		}
+		long startTime = System.nanoTime();
+		this.singletonCreationWaiters.put(currentThread, beanName);
+		this.earlyReferenceWaiters.add(currentThread);
+		try {
+			while ((owner = this.singletonCreationOwners.get(beanName)) != null) {
+				if (isWaitingForSingletonOf(owner, currentThread, false)) {
+					return true;
 				}
+				// The caller does not hold the mutex: only our own monitor entry is released
+				this.singletonObjects.wait();
 			}
-			return (singletonObject != NULL_OBJECT ? singletonObject : null);
+			return false;
+		}
+		catch (InterruptedException ex) {
+			currentThread.interrupt();
+			throw new BeanCreationException(beanName,
+					"Interrupted while waiting for singleton creation in another thread", ex);
+		}
+		finally {
+			this.singletonCreationWaiters.remove(currentThread);
+			this.earlyReferenceWaiters.remove(currentThread);
+			this.singletonLockWaitTime.add(System.nanoTime() - startTime);
+		}
+	}
+
+	/**
+	 * Determine whether the given thread is (transitively) waiting for a singleton
+	 * whose creation is owned by the given owner thread.
+	 * <p>To be called while synchronized on the singleton mutex.
+	 * @param lockWaitersOnly whether to only follow threads waiting for a singleton
+	 * lock, not threads that may resolve the wait through an early reference
+	 */
+	private boolean isWaitingForSingletonOf(Thread thread, Thread owner, boolean lockWaitersOnly) {
+		Thread current = thread;
+		for (int i = 0; i <= this.singletonCreationWaiters.size(); i++) {
+			if (lockWaitersOnly && this.earlyReferenceWaiters.contains(current)) {
+				return false;
+			}
+			String awaitedBeanName = this.singletonCreationWaiters.get(current);
+			if (awaitedBeanName == null) {
+				return false;
+			}
+			current = this.singletonCreationOwners.get(awaitedBeanName);
+			if (current == null) {
+				return false;
+			}
+			if (current == owner) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Release the per-bean lock for the given singleton, acquired through
+	 * {@link #acquireSingletonLock}.
+	 */
+	void releaseSingletonLock(String beanName) {
+		synchronized (this.singletonObjects) {
+			this.singletonCreationOwners.remove(beanName);
+			this.singletonObjects.notifyAll();
 		}
 	}
 
@@ -266,10 +522,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @param ex the Exception to register
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
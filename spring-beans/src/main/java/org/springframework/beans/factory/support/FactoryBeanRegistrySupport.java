@@ -27,6 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.FactoryBeanNotInitializedException;
 
@@ -97,30 +98,21 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 	 */
 	protected Object getObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
 		if (factory.isSingleton() && containsSingleton(beanName)) {
-			synchronized (getSingletonMutex()) {
-				Object object = this.factoryBeanObjectCache.get(beanName);
-				if (object == null) {
-					object = doGetObjectFromFactoryBean(factory, beanName);
-					// Only post-process and store if not put there already during getObject() call above
-					// (e.g. because of circular reference processing triggered by custom getBean calls)
-					Object alreadyThere = this.factoryBeanObjectCache.get(beanName);
-					if (alreadyThere != null) {
-						object = alreadyThere;
-					}
-					else {
-						if (object != null && shouldPostProcess) {
-							try {
-								object = postProcessObjectFromFactoryBean(object, beanName);
-							}
-							catch (Throwable ex) {
-								throw new BeanCreationException(beanName,
-										"Post-processing of FactoryBean's singleton object failed", ex);
-							}
-						}
-						this.factoryBeanObjectCache.put(beanName, (object != null ? object : NULL_OBJECT));
+			if (isPerBeanSingletonLocking()) {
+				// Lock the FactoryBean's object separately from the FactoryBean itself
+				String lockName = BeanFactory.FACTORY_BEAN_PREFIX + beanName;
+				boolean acquired = acquireSingletonLock(lockName);
+				try {
+					return getSingletonObjectFromFactoryBean(factory, beanName, shouldPostProcess);
+				}
+				finally {
+					if (acquired) {
+						releaseSingletonLock(lockName);
 					}
 				}
-				return (object != NULL_OBJECT ? object : null);
+			}
+			synchronized (getSingletonMutex()) {
+				return getSingletonObjectFromFactoryBean(factory, beanName, shouldPostProcess);
 			}
 		}
 		else {
@@ -137,6 +129,38 @@ public abstract class FactoryBeanRegistrySupport extends DefaultSingletonBeanReg
 		}
 	}
 
+	/**
+	 * Obtain the singleton object to expose from the given FactoryBean, caching it
+	 * for subsequent calls.
+	 * <p>To be called while holding the singleton mutex or, with per-bean singleton
+	 * locking, the lock for the FactoryBean's object.
+	 */
+	private Object getSingletonObjectFromFactoryBean(FactoryBean<?> factory, String beanName, boolean shouldPostProcess) {
+		Object object = this.factoryBeanObjectCache.get(beanName);
+		if (object == null) {
+			object = doGetObjectFromFactoryBean(factory, beanName);
+			// Only post-process and store if not put there already during getObject() call above
+			// (e.g. because of circular reference processing triggered by custom getBean calls)
+			Object alreadyThere = this.factoryBeanObjectCache.get(beanName);
+			if (alreadyThere != null) {
+				object = alreadyThere;
+			}
+			else {
+				if (object != null && shouldPostProcess) {
+					try {
+						object = postProcessObjectFromFactoryBean(object, beanName);
+					}
+					catch (Throwable ex) {
+						throw new BeanCreationException(beanName,
+								"Post-processing of FactoryBean's singleton object failed", ex);
+					}
+				}
+				this.factoryBeanObjectCache.put(beanName, (object != null ? object : NULL_OBJECT));
+			}
+		}
+		return (object != NULL_OBJECT ? object : null);
+	}
+
 	/**
 	 * Obtain an object to expose from the given FactoryBean.
 	 * @param factory the FactoryBean instance
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Instantiation strategy that generates a CGLIB {@link FastClass} per bean class
+ * and factory class, creating bean instances through direct calls on the
+ * generated class rather than through reflection. This speeds up the repeated
+ * creation of prototype and other non-singleton beans.
+ *
+ * <p>The {@code FastClass} index of a constructor or factory method is resolved
+ * once, as soon as the {@link RootBeanDefinition} has resolved the constructor or
+ * factory method to use. Constructors and factory methods that cannot be invoked
+ * through a {@code FastClass}, i.e. private and static ones, constructors of
+ * abstract classes, or those of types for which no {@code FastClass} can be
+ * generated, are invoked through reflection. Method Injection is supported as
+ * in {@link CglibSubclassingInstantiationStrategy}.
+ *
+ * <p>To be set on the bean factory through
+ * {@link AbstractAutowireCapableBeanFactory#setInstantiationStrategy}.
+ *
+ * @since 5.0
+ */
+public class FastClassInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	private static final Log logger = LogFactory.getLog(FastClassInstantiationStrategy.class);
+
+	/** Cache entry for a constructor or factory method to invoke through reflection */
+	private static final Object REFLECTIVE_INVOCATION = new Object();
+
+
+	private final Map<Class<?>, FastClass> fastClassCache = new ConcurrentReferenceHashMap<>(64);
+
+	private final Map<Member, Object> invokerCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	@Override
+	protected Object instantiateClass(Constructor<?> ctor, Object... args) throws BeanInstantiationException {
+		Object invoker = getInvoker(ctor);
+		if (invoker == REFLECTIVE_INVOCATION) {
+			return super.instantiateClass(ctor, args);
+		}
+		FastClassInvoker fastClassInvoker = (FastClassInvoker) invoker;
+		if (!fastClassInvoker.isApplicableTo(args)) {
+			throw new BeanInstantiationException(ctor, "Illegal arguments for constructor",
+					new IllegalArgumentException("argument type mismatch"));
+		}
+		try {
+			return fastClassInvoker.newInstance(args);
+		}
+		catch (InvocationTargetException ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex.getTargetException());
+		}
+	}
+
+	@Override
+	protected Object invokeFactoryMethod(Object factoryBean, Method factoryMethod, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		Object invoker = getInvoker(factoryMethod);
+		if (invoker == REFLECTIVE_INVOCATION) {
+			return super.invokeFactoryMethod(factoryBean, factoryMethod, args);
+		}
+		FastClassInvoker fastClassInvoker = (FastClassInvoker) invoker;
+		if (!factoryMethod.getDeclaringClass().isInstance(factoryBean)) {
+			throw new IllegalArgumentException("object is not an instance of declaring class");
+		}
+		if (!fastClassInvoker.isApplicableTo(args)) {
+			throw new IllegalArgumentException("argument type mismatch");
+		}
+		return fastClassInvoker.invoke(factoryBean, args);
+	}
+
+	/**
+	 * Clear the cache of generated classes and resolved invokers.
+	 */
+	public void clearCache() {
+		this.invokerCache.clear();
+		this.fastClassCache.clear();
+	}
+
+
+	private Object getInvoker(Member member) {
+		Object invoker = this.invokerCache.get(member);
+		if (invoker == null) {
+			invoker = createInvoker(member);
+			this.invokerCache.put(member, invoker);
+		}
+		return invoker;
+	}
+
+	private Object createInvoker(Member member) {
+		Class<?> declaringClass = member.getDeclaringClass();
+		int modifiers = member.getModifiers();
+		if (Modifier.isPrivate(modifiers) || Modifier.isStatic(modifiers) ||
+				(member instanceof Constructor && Modifier.isAbstract(declaringClass.getModifiers()))) {
+			return REFLECTIVE_INVOCATION;
+		}
+		try {
+			FastClass fastClass = getFastClass(declaringClass);
+			if (member instanceof Constructor) {
+				Class<?>[] parameterTypes = ((Constructor<?>) member).getParameterTypes();
+				int index = fastClass.getIndex(parameterTypes);
+				if (index >= 0) {
+					return new FastClassInvoker(fastClass, index, parameterTypes);
+				}
+			}
+			else {
+				Method method = (Method) member;
+				int index = fastClass.getIndex(method.getName(), method.getParameterTypes());
+				if (index >= 0) {
+					return new FastClassInvoker(fastClass, index, method.getParameterTypes());
+				}
+			}
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not generate FastClass for " + member + ": falling back to reflection", ex);
+			}
+		}
+		return REFLECTIVE_INVOCATION;
+	}
+
+	private FastClass getFastClass(Class<?> type) {
+		FastClass fastClass = this.fastClassCache.get(type);
+		if (fastClass == null) {
+			fastClass = FastClass.create(type.getClassLoader(), type);
+			this.fastClassCache.put(type, fastClass);
+		}
+		return fastClass;
+	}
+
+
+	/**
+	 * Invoker for a constructor or method through its index in a {@code FastClass}.
+	 */
+	private static class FastClassInvoker {
+
+		private final FastClass fastClass;
+
+		private final int index;
+
+		private final Class<?>[] parameterTypes;
+
+		public FastClassInvoker(FastClass fastClass, int index, Class<?>[] parameterTypes) {
+			this.fastClass = fastClass;
+			this.index = index;
+			this.parameterTypes = parameterTypes;
+		}
+
+		public boolean isApplicableTo(Object[] args) {
+			int argCount = (args != null ? args.length : 0);
+			if (argCount != this.parameterTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < argCount; i++) {
+				if (!ClassUtils.isAssignableValue(this.parameterTypes[i], args[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		public Object newInstance(Object[] args) throws InvocationTargetException {
+			return this.fastClass.newInstance(this.index, args);
+		}
+
+		public Object invoke(Object target, Object[] args) throws InvocationTargetException {
+			return this.fastClass.invoke(this.index, target, args);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -86,7 +86,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				}
 			}
-			return BeanUtils.instantiateClass(constructorToUse);
+			return instantiateClass(constructorToUse);
 		}
 		else {
 			// Must generate CGLIB subclass.
@@ -119,7 +119,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				});
 			}
-			return BeanUtils.instantiateClass(ctor, args);
+			return instantiateClass(ctor, args);
 		}
 		else {
 			return instantiateWithMethodInjection(bd, beanName, owner, ctor, args);
@@ -159,7 +159,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 			Method priorInvokedFactoryMethod = currentlyInvokedFactoryMethod.get();
 			try {
 				currentlyInvokedFactoryMethod.set(factoryMethod);
-				return factoryMethod.invoke(factoryBean, args);
+				return invokeFactoryMethod(factoryBean, factoryMethod, args);
 			}
 			finally {
 				if (priorInvokedFactoryMethod != null) {
@@ -190,4 +190,35 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		}
 	}
 
+	/**
+	 * Instantiate a bean through the given constructor.
+	 * <p>The default implementation delegates to {@link BeanUtils#instantiateClass}.
+	 * Subclasses may override this to use a different invocation mechanism.
+	 * @param ctor the constructor to use
+	 * @param args the constructor arguments to apply
+	 * @return the new bean instance
+	 * @throws BeanInstantiationException if the bean could not be instantiated
+	 * @since 5.0
+	 */
+	protected Object instantiateClass(Constructor<?> ctor, Object... args) throws BeanInstantiationException {
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
+	/**
+	 * Invoke the given factory method on the given factory bean.
+	 * <p>The default implementation calls {@link Method#invoke}. Subclasses
+	 * may override this to use a different invocation mechanism, with the
+	 * same exception semantics.
+	 * @param factoryBean the factory bean instance, or {@code null} for a static factory method
+	 * @param factoryMethod the (accessible) factory method to invoke
+	 * @param args the factory method arguments to apply
+	 * @return the object returned by the factory method
+	 * @since 5.0
+	 */
+	protected Object invokeFactoryMethod(Object factoryBean, Method factoryMethod, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		return factoryMethod.invoke(factoryBean, args);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,19 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.tests.sample.beans.DerivedTestBean;
 import org.springframework.tests.sample.beans.TestBean;
 
@@ -101,4 +110,320 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testPerBeanLockingCreatesSingletonsConcurrently() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setPerBeanSingletonLocking(true);
+		CountDownLatch aInCreation = new CountDownLatch(1);
+		CountDownLatch bCreated = new CountDownLatch(1);
+		AtomicReference<Object> a = new AtomicReference<>();
+
+		Thread thread = new Thread(() -> a.set(beanRegistry.getSingleton("a", () -> {
+			aInCreation.countDown();
+			try {
+				assertTrue(bCreated.await(5, TimeUnit.SECONDS));
+			}
+			catch (InterruptedException ex) {
+				throw new IllegalStateException(ex);
+			}
+			return new TestBean("a");
+		})));
+		thread.start();
+		assertTrue(aInCreation.await(5, TimeUnit.SECONDS));
+		Object b = beanRegistry.getSingleton("b", () -> new TestBean("b"));
+		bCreated.countDown();
+		thread.join(5000);
+
+		assertSame(b, beanRegistry.getSingleton("b"));
+		assertNotNull(a.get());
+		assertSame(a.get(), beanRegistry.getSingleton("a"));
+	}
+
+	@Test
+	public void testPerBeanLockingWaitsForSingletonInCreation() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setPerBeanSingletonLocking(true);
+		CountDownLatch aInCreation = new CountDownLatch(1);
+		CountDownLatch aRelease = new CountDownLatch(1);
+		AtomicReference<Object> a = new AtomicReference<>();
+		AtomicReference<Object> otherA = new AtomicReference<>();
+
+		Thread thread = new Thread(() -> a.set(beanRegistry.getSingleton("a", () -> {
+			aInCreation.countDown();
+			awaitQuietly(aRelease);
+			return new TestBean("a");
+		})));
+		thread.start();
+		assertTrue(aInCreation.await(5, TimeUnit.SECONDS));
+		Thread otherThread = new Thread(() -> otherA.set(beanRegistry.getSingleton("a", () -> new TestBean("otherA"))));
+		otherThread.start();
+		awaitWaitingState(otherThread);
+		aRelease.countDown();
+		thread.join(5000);
+		otherThread.join(5000);
+
+		assertNotNull(a.get());
+		assertSame(a.get(), otherA.get());
+		assertTrue(beanRegistry.getSingletonLockWaitTime() > 0);
+	}
+
+	@Test
+	public void testPerBeanLockingDetectsCircularReferenceAcrossThreads() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setPerBeanSingletonLocking(true);
+		CountDownLatch aInCreation = new CountDownLatch(1);
+		CountDownLatch bInCreation = new CountDownLatch(1);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Thread thread = new Thread(() -> {
+			try {
+				beanRegistry.getSingleton("a", () -> {
+					aInCreation.countDown();
+					awaitQuietly(bInCreation);
+					return beanRegistry.getSingleton("b", () -> new TestBean("b"));
+				});
+			}
+			catch (Throwable ex) {
+				failure.set(ex);
+			}
+		});
+		thread.start();
+		try {
+			beanRegistry.getSingleton("b", () -> {
+				bInCreation.countDown();
+				awaitQuietly(aInCreation);
+				return beanRegistry.getSingleton("a", () -> new TestBean("a"));
+			});
+		}
+		catch (BeanCurrentlyInCreationException ex) {
+			assertNull(failure.getAndSet(ex));
+		}
+		thread.join(5000);
+
+		assertFalse(thread.isAlive());
+		assertTrue(failure.get() instanceof BeanCurrentlyInCreationException);
+	}
+
+	@Test
+	public void testPerBeanLockingDoesNotExposeEarlyReferenceToOtherThread() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setPerBeanSingletonLocking(true);
+		CountDownLatch aInitializing = new CountDownLatch(1);
+		CountDownLatch aRelease = new CountDownLatch(1);
+		beanFactory.registerBeanDefinition("a", circularBeanDefinition("b", () -> {
+			aInitializing.countDown();
+			awaitQuietly(aRelease);
+		}));
+		beanFactory.registerBeanDefinition("b", circularBeanDefinition("a", null));
+		AtomicReference<Object> a = new AtomicReference<>();
+		AtomicReference<CircularBean> otherA = new AtomicReference<>();
+		AtomicReference<Boolean> otherAInitialized = new AtomicReference<>();
+
+		Thread thread = new Thread(() -> a.set(beanFactory.getBean("a")));
+		thread.start();
+		assertTrue(aInitializing.await(5, TimeUnit.SECONDS));
+		Thread otherThread = new Thread(() -> {
+			CircularBean bean = (CircularBean) beanFactory.getBean("a");
+			otherAInitialized.set(bean.initialized);
+			otherA.set(bean);
+		});
+		otherThread.start();
+		awaitWaitingState(otherThread);
+		assertNull(otherA.get());
+		aRelease.countDown();
+		thread.join(5000);
+		otherThread.join(5000);
+
+		assertNotNull(a.get());
+		assertSame(a.get(), otherA.get());
+		assertTrue(otherAInitialized.get());
+		assertSame(a.get(), ((CircularBean) beanFactory.getBean("b")).other);
+	}
+
+	@Test
+	public void testPerBeanLockingResolvesCircularReferenceAcrossThreads() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setPerBeanSingletonLocking(true);
+		CountDownLatch bInstantiating = new CountDownLatch(1);
+		CountDownLatch bRelease = new CountDownLatch(1);
+		beanFactory.registerBeanDefinition("a", circularBeanDefinition("b", null));
+		RootBeanDefinition bd = new RootBeanDefinition(CircularBean.class, () -> {
+			bInstantiating.countDown();
+			awaitQuietly(bRelease);
+			return new CircularBean(null);
+		});
+		bd.getPropertyValues().add("other", new RuntimeBeanReference("a"));
+		beanFactory.registerBeanDefinition("b", bd);
+		AtomicReference<Object> a = new AtomicReference<>();
+		AtomicReference<Object> b = new AtomicReference<>();
+
+		Thread bThread = new Thread(() -> b.set(beanFactory.getBean("b")));
+		bThread.start();
+		assertTrue(bInstantiating.await(5, TimeUnit.SECONDS));
+		Thread aThread = new Thread(() -> a.set(beanFactory.getBean("a")));
+		aThread.start();
+		awaitWaitingState(aThread);
+		bRelease.countDown();
+		aThread.join(5000);
+		bThread.join(5000);
+
+		assertNotNull(a.get());
+		assertNotNull(b.get());
+		assertSame(b.get(), ((CircularBean) a.get()).other);
+		assertSame(a.get(), ((CircularBean) b.get()).other);
+	}
+
+	@Test
+	public void testPerBeanLockingWaitsForSingletonFromFactoryBean() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.setPerBeanSingletonLocking(true);
+		CountDownLatch targetInCreation = new CountDownLatch(1);
+		CountDownLatch targetRelease = new CountDownLatch(1);
+		beanFactory.registerBeanDefinition("target", new RootBeanDefinition(TestBean.class, () -> {
+			targetInCreation.countDown();
+			awaitQuietly(targetRelease);
+			return new TestBean("target");
+		}));
+		beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(SpouseFactoryBean.class,
+				() -> new SpouseFactoryBean(beanFactory, "target")));
+		AtomicReference<Object> target = new AtomicReference<>();
+		AtomicReference<Object> product = new AtomicReference<>();
+
+		Thread targetThread = new Thread(() -> target.set(beanFactory.getBean("target")));
+		targetThread.start();
+		assertTrue(targetInCreation.await(5, TimeUnit.SECONDS));
+		Thread factoryThread = new Thread(() -> product.set(beanFactory.getBean("factory")));
+		factoryThread.start();
+		awaitWaitingState(factoryThread);
+		targetRelease.countDown();
+		targetThread.join(5000);
+		factoryThread.join(5000);
+
+		assertNotNull(target.get());
+		assertNotNull(product.get());
+		assertSame(target.get(), ((TestBean) product.get()).getSpouse());
+		assertSame(product.get(), beanFactory.getBean("factory"));
+	}
+
+	@Test
+	public void testPerBeanLockingDoesNotReleaseSingletonMutexHeldByCaller() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.setPerBeanSingletonLocking(true);
+		CountDownLatch aInCreation = new CountDownLatch(1);
+		CountDownLatch aRelease = new CountDownLatch(1);
+		AtomicReference<Boolean> mutexEntered = new AtomicReference<>(false);
+
+		Thread thread = new Thread(() -> beanRegistry.getSingleton("a", () -> {
+			aInCreation.countDown();
+			awaitQuietly(aRelease);
+			return new TestBean("a");
+		}));
+		thread.start();
+		assertTrue(aInCreation.await(5, TimeUnit.SECONDS));
+		Thread mutexThread = new Thread(() -> {
+			synchronized (beanRegistry.getSingletonMutex()) {
+				mutexEntered.set(true);
+			}
+		});
+		synchronized (beanRegistry.getSingletonMutex()) {
+			mutexThread.start();
+			while (mutexThread.getState() != Thread.State.BLOCKED) {
+				Thread.yield();
+			}
+			try {
+				beanRegistry.getSingleton("a", () -> new TestBean("otherA"));
+				fail("Should have thrown BeanCurrentlyInCreationException");
+			}
+			catch (BeanCurrentlyInCreationException ex) {
+				// expected
+			}
+			assertNull(beanRegistry.getSingleton("a"));
+			assertFalse(mutexEntered.get());
+		}
+		aRelease.countDown();
+		thread.join(5000);
+		mutexThread.join(5000);
+
+		assertTrue(mutexEntered.get());
+		assertEquals("a", ((TestBean) beanRegistry.getSingleton("a")).getName());
+	}
+
+	private static RootBeanDefinition circularBeanDefinition(String otherBeanName, Runnable onInit) {
+		RootBeanDefinition bd = new RootBeanDefinition(CircularBean.class, () -> new CircularBean(onInit));
+		bd.getPropertyValues().add("other", new RuntimeBeanReference(otherBeanName));
+		return bd;
+	}
+
+	private static void awaitWaitingState(Thread thread) {
+		while (thread.getState() != Thread.State.WAITING) {
+			assertTrue("Thread terminated instead of waiting", thread.isAlive());
+			Thread.yield();
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	public static class SpouseFactoryBean implements FactoryBean<TestBean> {
+
+		private final BeanFactory beanFactory;
+
+		private final String spouseBeanName;
+
+		public SpouseFactoryBean(BeanFactory beanFactory, String spouseBeanName) {
+			this.beanFactory = beanFactory;
+			this.spouseBeanName = spouseBeanName;
+		}
+
+		@Override
+		public TestBean getObject() {
+			TestBean bean = new TestBean("product");
+			bean.setSpouse(this.beanFactory.getBean(this.spouseBeanName, TestBean.class));
+			return bean;
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return TestBean.class;
+		}
+
+		@Override
+		public boolean isSingleton() {
+			return true;
+		}
+	}
+
+
+	public static class CircularBean implements InitializingBean {
+
+		private final Runnable onInit;
+
+		private CircularBean other;
+
+		private volatile boolean initialized;
+
+		public CircularBean(Runnable onInit) {
+			this.onInit = onInit;
+		}
+
+		public void setOther(CircularBean other) {
+			this.other = other;
+		}
+
+		@Override
+		public void afterPropertiesSet() {
+			if (this.onInit != null) {
+				this.onInit.run();
+			}
+			this.initialized = true;
+		}
+	}
+
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link FastClassInstantiationStrategy}.
+ */
+public class FastClassInstantiationStrategyTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Before
+	public void setUp() {
+		this.beanFactory.setInstantiationStrategy(new FastClassInstantiationStrategy());
+	}
+
+
+	@Test
+	public void prototypeWithDefaultConstructor() {
+		registerPrototype("bean", new RootBeanDefinition(TestBean.class));
+
+		TestBean bean = (TestBean) this.beanFactory.getBean("bean");
+		assertNotNull(bean);
+		assertNotSame(bean, this.beanFactory.getBean("bean"));
+	}
+
+	@Test
+	public void prototypeWithConstructorArguments() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, "42");
+		registerPrototype("bean", bd);
+
+		for (int i = 0; i < 3; i++) {
+			TestBean bean = (TestBean) this.beanFactory.getBean("bean");
+			assertEquals("juergen", bean.getName());
+			assertEquals(42, bean.getAge());
+		}
+	}
+
+	@Test
+	public void prototypeWithExplicitConstructorArguments() {
+		registerPrototype("bean", new RootBeanDefinition(TestBean.class));
+
+		TestBean bean = (TestBean) this.beanFactory.getBean("bean", "juergen", 42);
+		assertEquals("juergen", bean.getName());
+		assertEquals(42, bean.getAge());
+	}
+
+	@Test
+	public void prototypeWithFactoryMethod() {
+		this.beanFactory.registerSingleton("factory", new TestBeanFactory());
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setFactoryBeanName("factory");
+		bd.setFactoryMethodName("createTestBean");
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, "juergen");
+		registerPrototype("bean", bd);
+
+		TestBean bean = (TestBean) this.beanFactory.getBean("bean");
+		assertEquals("juergen", bean.getName());
+		assertNotSame(bean, this.beanFactory.getBean("bean"));
+	}
+
+	@Test
+	public void prototypeWithStaticFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBeanFactory.class);
+		bd.setFactoryMethodName("createStaticTestBean");
+		registerPrototype("bean", bd);
+
+		TestBean bean = (TestBean) this.beanFactory.getBean("bean");
+		assertEquals("static", bean.getName());
+	}
+
+	@Test
+	public void prototypeWithPrivateConstructor() {
+		registerPrototype("bean", new RootBeanDefinition(PrivateConstructorBean.class));
+
+		assertNotNull(this.beanFactory.getBean("bean"));
+	}
+
+	@Test
+	public void constructorThrowingException() {
+		registerPrototype("bean", new RootBeanDefinition(FailingBean.class));
+
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof BeanInstantiationException);
+			assertTrue(ex.getCause().getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void factoryMethodThrowingException() {
+		this.beanFactory.registerSingleton("factory", new TestBeanFactory());
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setFactoryBeanName("factory");
+		bd.setFactoryMethodName("createFailingBean");
+		registerPrototype("bean", bd);
+
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof BeanInstantiationException);
+			assertTrue(ex.getCause().getCause() instanceof IllegalStateException);
+		}
+	}
+
+
+	private void registerPrototype(String beanName, RootBeanDefinition bd) {
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+	}
+
+
+	public static class TestBeanFactory {
+
+		public TestBean createTestBean(String name) {
+			return new TestBean(name);
+		}
+
+		public TestBean createFailingBean() {
+			throw new IllegalStateException("Expected");
+		}
+
+		public static TestBean createStaticTestBean() {
+			return new TestBean("static");
+		}
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Expected");
+		}
+	}
+
+
+	public static class PrivateConstructorBean {
+
+		private PrivateConstructorBean() {
+		}
+	}
+
+}
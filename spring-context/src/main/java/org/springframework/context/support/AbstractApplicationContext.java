@@ -76,6 +76,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
@@ -214,6 +215,10 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	 */
 	public AbstractApplicationContext() {
 		this.resourcePatternResolver = getResourcePatternResolver();
+		if (this.resourcePatternResolver instanceof PathMatchingResourcePatternResolver) {
+			// Index jar entries for repeated scans, cleared in resetCommonCaches()
+			((PathMatchingResourcePatternResolver) this.resourcePatternResolver).setJarEntryIndexing(true);
+		}
 	}
 
 	/**
@@ -898,16 +903,24 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 
 	/**
 	 * Reset Spring's common core caches, in particular the {@link ReflectionUtils},
-	 * {@link ResolvableType} and {@link CachedIntrospectionResults} caches.
+	 * {@link ResolvableType}, {@link CachedIntrospectionResults} and shared
+	 * {@link CachingMetadataReaderFactory} caches, as well as the jar entry index
+	 * of this context's resource pattern resolver.
 	 * @since 4.2
 	 * @see ReflectionUtils#clearCache()
 	 * @see ResolvableType#clearCache()
 	 * @see CachedIntrospectionResults#clearClassLoader(ClassLoader)
+	 * @see CachingMetadataReaderFactory#clearSharedCache(ClassLoader)
+	 * @see PathMatchingResourcePatternResolver#clearCache()
 	 */
 	protected void resetCommonCaches() {
 		ReflectionUtils.clearCache();
 		ResolvableType.clearCache();
 		CachedIntrospectionResults.clearClassLoader(getClassLoader());
+		CachingMetadataReaderFactory.clearSharedCache(getClassLoader());
+		if (this.resourcePatternResolver instanceof PathMatchingResourcePatternResolver) {
+			((PathMatchingResourcePatternResolver) this.resourcePatternResolver).clearCache();
+		}
 	}
 
 
@@ -1009,6 +1022,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			// Close the state of this context itself.
 			closeBeanFactory();
 
+			// Release class metadata cached for this context's ClassLoader.
+			CachingMetadataReaderFactory.clearSharedCache(getClassLoader());
+
 			// Let subclasses do some final clean-up if they wish...
 			onClose();
 
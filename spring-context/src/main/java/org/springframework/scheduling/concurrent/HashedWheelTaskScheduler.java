@@ -0,0 +1,666 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ErrorHandler;
+
+/**
+ * {@link TaskScheduler} implementation based on a hashed timing wheel, as
+ * described by George Varghese and Tony Lauck in "Hashed and Hierarchical
+ * Timing Wheels". Suited for very large numbers of coarse-grained timers
+ * such as per-session heartbeats and inactivity timeouts.
+ *
+ * <p>Scheduling and cancellation are O(1), in contrast to the O(log n) heap
+ * of a {@link java.util.concurrent.ScheduledThreadPoolExecutor}. The price
+ * is precision: a task fires on the first tick of a single "ticker" thread
+ * after its deadline, so execution may be late by up to one
+ * {@link #setTickDuration tick duration}. Expired tasks are handed off to a
+ * separate pool of worker threads, so the ticker thread is never blocked by
+ * task execution.
+ *
+ * <p>Can be passed wherever a {@code TaskScheduler} is accepted for heartbeat
+ * or timeout tracking, e.g.
+ * {@link org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler#setTaskScheduler}
+ * or the SockJS service configuration.
+ *
+ * @since 5.0
+ * @see #setTickDuration
+ * @see #setTicksPerWheel
+ * @see #setPoolSize
+ */
+@SuppressWarnings("serial")
+public class HashedWheelTaskScheduler extends ExecutorConfigurationSupport implements TaskScheduler {
+
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+
+	private volatile long tickDuration = 100;
+
+	private volatile int ticksPerWheel = 512;
+
+	private volatile int poolSize = 1;
+
+	private volatile ErrorHandler errorHandler;
+
+	private final Queue<WheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+	private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong scheduledTaskCount = new AtomicLong();
+
+	private volatile ThreadPoolExecutor workerExecutor;
+
+	private volatile Thread tickerThread;
+
+	private volatile boolean shutdown;
+
+	private long startTime;
+
+
+	/**
+	 * Set the duration of a single tick of the wheel, in milliseconds.
+	 * This is the granularity of the scheduler: tasks run on the first tick
+	 * after their deadline.
+	 * <p>Default is 100 milliseconds.
+	 */
+	public void setTickDuration(long tickDuration) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be 1 or higher");
+		this.tickDuration = tickDuration;
+	}
+
+	/**
+	 * Return the duration of a single tick, in milliseconds.
+	 */
+	public long getTickDuration() {
+		return this.tickDuration;
+	}
+
+	/**
+	 * Set the number of buckets in the wheel, rounded up to the next power of two.
+	 * Larger wheels mean fewer rounds per bucket scan for long delays.
+	 * <p>Default is 512.
+	 */
+	public void setTicksPerWheel(int ticksPerWheel) {
+		Assert.isTrue(ticksPerWheel > 0, "'ticksPerWheel' must be 1 or higher");
+		Assert.isTrue(ticksPerWheel <= (1 << 30), "'ticksPerWheel' may not be greater than 2^30");
+		this.ticksPerWheel = ticksPerWheel;
+	}
+
+	/**
+	 * Return the number of buckets in the wheel.
+	 */
+	public int getTicksPerWheel() {
+		return this.ticksPerWheel;
+	}
+
+	/**
+	 * Set the number of worker threads that execute expired tasks.
+	 * Default is 1.
+	 * <p><b>This setting can be modified at runtime, for example through JMX.</b>
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		this.poolSize = poolSize;
+		ThreadPoolExecutor executor = this.workerExecutor;
+		if (executor != null) {
+			if (poolSize > executor.getMaximumPoolSize()) {
+				executor.setMaximumPoolSize(poolSize);
+				executor.setCorePoolSize(poolSize);
+			}
+			else {
+				executor.setCorePoolSize(poolSize);
+				executor.setMaximumPoolSize(poolSize);
+			}
+		}
+	}
+
+	/**
+	 * Return the configured number of worker threads.
+	 */
+	public int getPoolSize() {
+		return this.poolSize;
+	}
+
+	/**
+	 * Set a custom {@link ErrorHandler} strategy, applied to all scheduled tasks.
+	 * <p>By default, errors thrown by repeating tasks, i.e. fixed-rate,
+	 * fixed-delay and trigger-based tasks, are logged and suppressed, whereas
+	 * errors thrown by one-time tasks are propagated to their
+	 * {@link ScheduledFuture}.
+	 */
+	public void setErrorHandler(ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+	}
+
+	/**
+	 * Return the number of tasks currently waiting in the wheel,
+	 * including tasks not yet transferred into a bucket.
+	 */
+	public long getScheduledTaskCount() {
+		return this.scheduledTaskCount.get();
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		this.workerExecutor = new ThreadPoolExecutor(this.poolSize, this.poolSize, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+		this.shutdown = false;
+		this.startTime = System.nanoTime();
+		Thread ticker = threadFactory.newThread(new Ticker(this.startTime, this.tickDuration, this.ticksPerWheel));
+		ticker.start();
+		this.tickerThread = ticker;
+		return this.workerExecutor;
+	}
+
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		Thread ticker = this.tickerThread;
+		if (ticker != null) {
+			ticker.interrupt();
+			this.tickerThread = null;
+		}
+		super.shutdown();
+		this.pendingTimeouts.clear();
+		this.cancelledTimeouts.clear();
+		this.scheduledTaskCount.set(0);
+	}
+
+
+	// TaskScheduler implementation
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+		TriggerTimeout timeout = new TriggerTimeout(errorHandlingTask(task, true), trigger);
+		return (timeout.scheduleNext() ? timeout : null);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable task, Date startTime) {
+		long delay = startTime.getTime() - System.currentTimeMillis();
+		return schedule(new WheelTimeout(errorHandlingTask(task, false), 0, false), delay);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Date startTime, long period) {
+		long delay = startTime.getTime() - System.currentTimeMillis();
+		return schedule(new WheelTimeout(errorHandlingTask(task, true), period, true), delay);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period) {
+		return schedule(new WheelTimeout(errorHandlingTask(task, true), period, true), 0);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Date startTime, long delay) {
+		long initialDelay = startTime.getTime() - System.currentTimeMillis();
+		return schedule(new WheelTimeout(errorHandlingTask(task, true), delay, false), initialDelay);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long delay) {
+		return schedule(new WheelTimeout(errorHandlingTask(task, true), delay, false), 0);
+	}
+
+
+	private WheelTimeout schedule(WheelTimeout timeout, long delayMillis) {
+		Assert.state(this.tickerThread != null, "HashedWheelTaskScheduler not initialized");
+		timeout.deadline = currentTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+		enqueue(timeout);
+		return timeout;
+	}
+
+	private void enqueue(WheelTimeout timeout) {
+		if (this.shutdown) {
+			throw new TaskRejectedException("HashedWheelTaskScheduler has been shut down");
+		}
+		this.scheduledTaskCount.incrementAndGet();
+		this.pendingTimeouts.add(timeout);
+	}
+
+	/**
+	 * Return the current time in nanoseconds relative to the start of the wheel.
+	 */
+	private long currentTime() {
+		return System.nanoTime() - this.startTime;
+	}
+
+	private void expire(WheelTimeout timeout) {
+		this.scheduledTaskCount.decrementAndGet();
+		if (timeout.state.compareAndSet(WheelTimeout.WAITING, WheelTimeout.RUNNING)) {
+			try {
+				this.workerExecutor.execute(timeout);
+			}
+			catch (RejectedExecutionException ex) {
+				timeout.complete(WheelTimeout.DONE, ex);
+				if (!this.shutdown) {
+					logger.warn("Worker executor did not accept expired task: " + timeout.task, ex);
+				}
+			}
+		}
+	}
+
+	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
+		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+	}
+
+
+	/**
+	 * The single thread that advances the wheel.
+	 */
+	private class Ticker implements Runnable {
+
+		private final long startTime;
+
+		private final long tickDuration;
+
+		private final Bucket[] wheel;
+
+		private final int mask;
+
+		private long tick;
+
+		public Ticker(long startTime, long tickDurationMillis, int ticksPerWheel) {
+			this.startTime = startTime;
+			this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickDurationMillis);
+			int normalized = 1;
+			while (normalized < ticksPerWheel) {
+				normalized <<= 1;
+			}
+			this.wheel = new Bucket[normalized];
+			for (int i = 0; i < normalized; i++) {
+				this.wheel[i] = new Bucket();
+			}
+			this.mask = normalized - 1;
+		}
+
+		@Override
+		public void run() {
+			while (!shutdown) {
+				long deadline = waitForNextTick();
+				if (deadline < 0) {
+					break;
+				}
+				removeCancelledTimeouts();
+				transferPendingTimeouts();
+				this.wheel[(int) (this.tick & this.mask)].expireTimeouts(deadline);
+				this.tick++;
+			}
+		}
+
+		/**
+		 * Sleep until the end of the current tick.
+		 * @return the tick deadline relative to the start time,
+		 * or -1 if interrupted for shutdown
+		 */
+		private long waitForNextTick() {
+			long deadline = this.tickDuration * (this.tick + 1);
+			while (true) {
+				long currentTime = System.nanoTime() - this.startTime;
+				long sleepTimeMs = (deadline - currentTime + 999999) / 1000000;
+				if (sleepTimeMs <= 0) {
+					return currentTime;
+				}
+				try {
+					Thread.sleep(sleepTimeMs);
+				}
+				catch (InterruptedException ex) {
+					if (shutdown) {
+						return -1;
+					}
+				}
+			}
+		}
+
+		private void removeCancelledTimeouts() {
+			WheelTimeout timeout;
+			while ((timeout = cancelledTimeouts.poll()) != null) {
+				if (timeout.bucket != null) {
+					timeout.bucket.remove(timeout);
+					scheduledTaskCount.decrementAndGet();
+				}
+			}
+		}
+
+		private void transferPendingTimeouts() {
+			for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+				WheelTimeout timeout = pendingTimeouts.poll();
+				if (timeout == null) {
+					break;
+				}
+				if (timeout.state.get() != WheelTimeout.WAITING) {
+					// Cancelled before it made it into a bucket
+					scheduledTaskCount.decrementAndGet();
+					continue;
+				}
+				long calculated = timeout.deadline / this.tickDuration;
+				timeout.remainingRounds = (calculated - this.tick) / this.wheel.length;
+				// Deadlines in the past go into the current bucket
+				long ticks = Math.max(calculated, this.tick);
+				this.wheel[(int) (ticks & this.mask)].add(timeout);
+			}
+		}
+	}
+
+
+	/**
+	 * A doubly-linked list of timeouts, only ever accessed by the ticker thread.
+	 */
+	private class Bucket {
+
+		private WheelTimeout head;
+
+		private WheelTimeout tail;
+
+		public void add(WheelTimeout timeout) {
+			timeout.bucket = this;
+			if (this.head == null) {
+				this.head = this.tail = timeout;
+			}
+			else {
+				this.tail.next = timeout;
+				timeout.prev = this.tail;
+				this.tail = timeout;
+			}
+		}
+
+		public void expireTimeouts(long deadline) {
+			WheelTimeout timeout = this.head;
+			while (timeout != null) {
+				WheelTimeout next = timeout.next;
+				if (timeout.remainingRounds <= 0) {
+					remove(timeout);
+					if (timeout.deadline <= deadline) {
+						expire(timeout);
+					}
+					else {
+						// Placed into a bucket too early: try again on the next tick
+						pendingTimeouts.add(timeout);
+					}
+				}
+				else {
+					timeout.remainingRounds--;
+				}
+				timeout = next;
+			}
+		}
+
+		public void remove(WheelTimeout timeout) {
+			if (timeout.prev != null) {
+				timeout.prev.next = timeout.next;
+			}
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			}
+			if (timeout == this.head) {
+				this.head = timeout.next;
+			}
+			if (timeout == this.tail) {
+				this.tail = timeout.prev;
+			}
+			timeout.prev = null;
+			timeout.next = null;
+			timeout.bucket = null;
+		}
+	}
+
+
+	/**
+	 * A task in the wheel, also serving as its own {@link ScheduledFuture}.
+	 * Periodic tasks are put back into the wheel after each execution.
+	 */
+	private class WheelTimeout implements Runnable, ScheduledFuture<Object> {
+
+		static final int WAITING = 0;
+
+		static final int RUNNING = 1;
+
+		static final int CANCELLED = 2;
+
+		static final int DONE = 3;
+
+		final Runnable task;
+
+		private final long period;
+
+		private final boolean fixedRate;
+
+		final AtomicInteger state = new AtomicInteger(WAITING);
+
+		volatile long deadline;
+
+		private volatile Throwable failure;
+
+		// Accessed by the ticker thread only
+		long remainingRounds;
+
+		Bucket bucket;
+
+		WheelTimeout prev;
+
+		WheelTimeout next;
+
+		public WheelTimeout(Runnable task, long period, boolean fixedRate) {
+			this.task = task;
+			this.period = period;
+			this.fixedRate = fixedRate;
+		}
+
+		@Override
+		public void run() {
+			if (this.state.get() != RUNNING) {
+				// Cancelled while waiting for a worker thread
+				return;
+			}
+			try {
+				this.task.run();
+			}
+			catch (Throwable ex) {
+				complete(DONE, ex);
+				return;
+			}
+			long next = nextDeadline();
+			if (next >= 0) {
+				this.deadline = next;
+				if (this.state.compareAndSet(RUNNING, WAITING)) {
+					try {
+						enqueue(this);
+					}
+					catch (TaskRejectedException ex) {
+						complete(CANCELLED, null);
+					}
+					return;
+				}
+			}
+			complete(DONE, null);
+		}
+
+		/**
+		 * Determine the next deadline after an execution, or -1 for none.
+		 */
+		protected long nextDeadline() {
+			if (this.period <= 0) {
+				return -1;
+			}
+			long periodNanos = TimeUnit.MILLISECONDS.toNanos(this.period);
+			return (this.fixedRate ? this.deadline + periodNanos : currentTime() + periodNanos);
+		}
+
+		void complete(int finalState, Throwable failure) {
+			synchronized (this) {
+				this.failure = failure;
+				if (!this.state.compareAndSet(RUNNING, finalState)) {
+					this.state.compareAndSet(WAITING, finalState);
+				}
+				notifyAll();
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if (this.state.compareAndSet(WAITING, CANCELLED)) {
+				cancelledTimeouts.add(this);
+			}
+			else if (!this.state.compareAndSet(RUNNING, CANCELLED)) {
+				return false;
+			}
+			synchronized (this) {
+				notifyAll();
+			}
+			return true;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return (this.state.get() == CANCELLED);
+		}
+
+		@Override
+		public boolean isDone() {
+			int current = this.state.get();
+			return (current == CANCELLED || current == DONE);
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			synchronized (this) {
+				while (!isDone()) {
+					wait();
+				}
+			}
+			return report();
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+
+			long end = System.nanoTime() + unit.toNanos(timeout);
+			synchronized (this) {
+				while (!isDone()) {
+					long remaining = end - System.nanoTime();
+					if (remaining <= 0) {
+						throw new TimeoutException();
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+			}
+			return report();
+		}
+
+		private Object report() throws ExecutionException {
+			if (isCancelled()) {
+				throw new CancellationException();
+			}
+			if (this.failure != null) {
+				throw new ExecutionException(this.failure);
+			}
+			return null;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadline - currentTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : ((diff < 0) ? -1 : 1));
+		}
+	}
+
+
+	/**
+	 * A timeout that determines each deadline through a {@link Trigger}.
+	 */
+	private class TriggerTimeout extends WheelTimeout {
+
+		private final Trigger trigger;
+
+		private final SimpleTriggerContext triggerContext = new SimpleTriggerContext();
+
+		private Date scheduledExecutionTime;
+
+		private Date actualExecutionTime;
+
+		public TriggerTimeout(Runnable task, Trigger trigger) {
+			super(task, 0, false);
+			this.trigger = trigger;
+		}
+
+		public boolean scheduleNext() {
+			this.scheduledExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+			if (this.scheduledExecutionTime == null) {
+				return false;
+			}
+			schedule(this, this.scheduledExecutionTime.getTime() - System.currentTimeMillis());
+			return true;
+		}
+
+		@Override
+		public void run() {
+			this.actualExecutionTime = new Date();
+			super.run();
+		}
+
+		@Override
+		protected long nextDeadline() {
+			synchronized (this.triggerContext) {
+				this.triggerContext.update(this.scheduledExecutionTime, this.actualExecutionTime, new Date());
+				this.scheduledExecutionTime = this.trigger.nextExecutionTime(this.triggerContext);
+				if (this.scheduledExecutionTime == null) {
+					return -1;
+				}
+				long delay = this.scheduledExecutionTime.getTime() - System.currentTimeMillis();
+				return currentTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+			}
+		}
+	}
+
+}
@@ -21,6 +21,10 @@ import org.junit.Test;
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
 
 import static org.junit.Assert.*;
 
@@ -111,4 +115,19 @@ public class GenericApplicationContextTests {
 		}
 	}
 
+	@Test
+	public void sharedMetadataReaderCacheClearedOnClose() throws Exception {
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.refresh();
+
+		Resource resource = new ClassPathResource(getClass().getName().replace('.', '/') + ".class");
+		MetadataReader reader1 = new CachingMetadataReaderFactory(ac.getClassLoader()).getMetadataReader(resource);
+		MetadataReader reader2 = new CachingMetadataReaderFactory(ac.getClassLoader()).getMetadataReader(resource);
+		assertSame(reader1.getAnnotationMetadata(), reader2.getAnnotationMetadata());
+
+		ac.close();
+		MetadataReader reader3 = new CachingMetadataReaderFactory(ac.getClassLoader()).getMetadataReader(resource);
+		assertNotSame(reader1.getAnnotationMetadata(), reader3.getAnnotationMetadata());
+	}
+
 }
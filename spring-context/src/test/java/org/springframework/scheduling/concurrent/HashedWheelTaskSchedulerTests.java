@@ -0,0 +1,271 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link HashedWheelTaskScheduler}.
+ *
+ * @since 5.0
+ */
+public class HashedWheelTaskSchedulerTests {
+
+	private static final String THREAD_NAME_PREFIX = "wheel-";
+
+	private final HashedWheelTaskScheduler scheduler = new HashedWheelTaskScheduler();
+
+
+	@Before
+	public void initScheduler() {
+		this.scheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		this.scheduler.setTickDuration(10);
+		this.scheduler.setTicksPerWheel(8);
+		this.scheduler.afterPropertiesSet();
+	}
+
+	@After
+	public void shutdownScheduler() {
+		this.scheduler.destroy();
+	}
+
+
+	@Test
+	public void scheduleOneTimeTask() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			count.incrementAndGet();
+			latch.countDown();
+		}, new Date(System.currentTimeMillis() + 50));
+
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertNull(future.get(1, TimeUnit.SECONDS));
+		assertTrue(future.isDone());
+		assertFalse(future.isCancelled());
+		assertEquals(1, count.get());
+	}
+
+	@Test
+	public void scheduleTaskBeyondOneRevolution() throws Exception {
+		// 8 ticks of 10ms per revolution: 250ms requires several rounds
+		AtomicReference<ScheduledFuture<?>> futureRef = new AtomicReference<>();
+		CountDownLatch scheduled = new CountDownLatch(1);
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicLong remainingDelay = new AtomicLong(Long.MAX_VALUE);
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			try {
+				scheduled.await(1, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			remainingDelay.set(futureRef.get().getDelay(TimeUnit.NANOSECONDS));
+			latch.countDown();
+		}, new Date(System.currentTimeMillis() + 250));
+		futureRef.set(future);
+		scheduled.countDown();
+
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertTrue("Task ran before its deadline", remainingDelay.get() <= 0);
+	}
+
+	@Test
+	public void scheduleOneTimeFailingTask() throws Exception {
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("intentional test failure");
+		}, new Date());
+
+		try {
+			future.get(1, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException ex) {
+			assertTrue(ex.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void cancelBeforeExecution() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(
+				count::incrementAndGet, new Date(System.currentTimeMillis() + 100));
+
+		assertTrue(future.cancel(false));
+		assertTrue(future.isCancelled());
+		assertTrue(future.isDone());
+		awaitTaskAfter(150);
+		assertEquals(0, count.get());
+		assertEquals(0, this.scheduler.getScheduledTaskCount());
+	}
+
+	@Test(expected = CancellationException.class)
+	public void getAfterCancel() throws Exception {
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 1000));
+		future.cancel(false);
+		future.get();
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(latch::countDown, 20);
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		future.cancel(false);
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void scheduleWithFixedDelayKeepsRunningAfterFailure() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(() -> {
+			latch.countDown();
+			throw new IllegalStateException("intentional test failure");
+		}, 20);
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		future.cancel(false);
+	}
+
+	@Test
+	public void scheduleWithTrigger() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.schedule(latch::countDown, new CountingTrigger(3, 20));
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertNull(future.get(1, TimeUnit.SECONDS));
+		assertTrue(future.isDone());
+	}
+
+	@Test
+	public void scheduleWithTriggerKeepsRunningAfterFailure() throws Exception {
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = this.scheduler.schedule(() -> {
+			latch.countDown();
+			throw new IllegalStateException("intentional test failure");
+		}, new CountingTrigger(3, 20));
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertNull(future.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void errorHandlerAppliedToAllTasks() throws Exception {
+		List<Throwable> errors = new CopyOnWriteArrayList<>();
+		CountDownLatch latch = new CountDownLatch(3);
+		this.scheduler.setErrorHandler(ex -> {
+			errors.add(ex);
+			latch.countDown();
+		});
+		ScheduledFuture<?> oneTime = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("one-time");
+		}, new Date());
+		ScheduledFuture<?> triggered = this.scheduler.schedule(() -> {
+			throw new IllegalStateException("trigger");
+		}, new CountingTrigger(1, 0));
+		ScheduledFuture<?> fixedDelay = this.scheduler.scheduleWithFixedDelay(() -> {
+			throw new IllegalStateException("fixed-delay");
+		}, 60000);
+
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertNull(oneTime.get(1, TimeUnit.SECONDS));
+		assertNull(triggered.get(1, TimeUnit.SECONDS));
+		fixedDelay.cancel(false);
+		assertEquals(3, errors.size());
+	}
+
+	@Test
+	public void scheduleWithTriggerReturningNull() {
+		assertNull(this.scheduler.schedule(() -> {}, new CountingTrigger(0, 20)));
+	}
+
+	@Test
+	public void manyTimers() throws Exception {
+		int count = 10000;
+		AtomicInteger executed = new AtomicInteger();
+		ScheduledFuture<?>[] futures = new ScheduledFuture<?>[count];
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < count; i++) {
+			futures[i] = this.scheduler.schedule(executed::incrementAndGet, new Date(now + 500 + (i % 200)));
+		}
+		for (int i = 0; i < count; i += 2) {
+			assertTrue(futures[i].cancel(false));
+		}
+		awaitTaskAfter(now + 1000 - System.currentTimeMillis());
+		assertEquals(count / 2, executed.get());
+		assertEquals(0, this.scheduler.getScheduledTaskCount());
+	}
+
+	@Test
+	public void workerThreadNamePrefix() throws Exception {
+		String[] threadName = new String[1];
+		ScheduledFuture<?> future = this.scheduler.schedule(
+				() -> threadName[0] = Thread.currentThread().getName(), new Date());
+		future.get(1, TimeUnit.SECONDS);
+		assertTrue(threadName[0].startsWith(THREAD_NAME_PREFIX));
+	}
+
+
+	/**
+	 * Wait for a task scheduled with the given delay to run. With a single
+	 * worker thread, all tasks with an earlier deadline have been expired or
+	 * removed by then, and have run.
+	 */
+	private void awaitTaskAfter(long delay) throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		this.scheduler.schedule(latch::countDown, new Date(System.currentTimeMillis() + delay));
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+	}
+
+
+	private static class CountingTrigger implements Trigger {
+
+		private final AtomicInteger remaining;
+
+		private final long delay;
+
+		CountingTrigger(int executions, long delay) {
+			this.remaining = new AtomicInteger(executions);
+			this.delay = delay;
+		}
+
+		@Override
+		public Date nextExecutionTime(TriggerContext triggerContext) {
+			if (this.remaining.getAndDecrement() <= 0) {
+				return null;
+			}
+			return new Date(System.currentTimeMillis() + this.delay);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.core.SerializableTypeWrapper.FieldTypeProvider;
 import org.springframework.core.SerializableTypeWrapper.MethodParameterTypeProvider;
@@ -92,6 +93,9 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * The underlying Java type being managed (only ever {@code null} for {@link #NONE}).
@@ -126,6 +130,12 @@ public class ResolvableType implements Serializable {
 
 	private ResolvableType[] generics;
 
+	/**
+	 * Results of {@link #as} lookups that needed a search of the type hierarchy,
+	 * created on the first such lookup only (see {@link #getAsCache()}).
+	 */
+	private transient volatile Map<Class<?>, ResolvableType> asCache;
+
 
 	/**
 	 * Private constructor used to create a new {@link ResolvableType} for cache key purposes,
@@ -237,6 +247,10 @@ public class ResolvableType implements Serializable {
 	 * @see #isAssignableFrom(ResolvableType)
 	 */
 	public boolean isAssignableFrom(Class<?> other) {
+		if (isPlainClass()) {
+			// Plain class without generics: no need to build a ResolvableType for the other side
+			return ClassUtils.isAssignable(this.resolved, (other != null ? other : Object.class));
+		}
 		return isAssignableFrom(forClass(other), null);
 	}
 
@@ -252,9 +266,21 @@ public class ResolvableType implements Serializable {
 	 * {@code ResolvableType}; {@code false} otherwise
 	 */
 	public boolean isAssignableFrom(ResolvableType other) {
+		if (other != null && other != NONE && other.type instanceof Class && isPlainClass()) {
+			return ClassUtils.isAssignable(this.resolved, other.resolved);
+		}
 		return isAssignableFrom(other, null);
 	}
 
+	/**
+	 * Determine whether this type is a plain non-array {@link Class} without any
+	 * generic parameters, in which case assignability checks against another
+	 * {@code Class} reduce to {@link ClassUtils#isAssignable}.
+	 */
+	private boolean isPlainClass() {
+		return (this.type instanceof Class && !this.resolved.isArray() && getGenerics().length == 0);
+	}
+
 	private boolean isAssignableFrom(ResolvableType other, Map<Type, Type> matchedBefore) {
 		Assert.notNull(other, "ResolvableType must not be null");
 
@@ -423,6 +449,33 @@ public class ResolvableType implements Serializable {
 		if (ObjectUtils.nullSafeEquals(resolve(), type)) {
 			return this;
 		}
+		if (type == null || this.resolved == null) {
+			// No hierarchy search worth caching
+			return searchAs(type);
+		}
+		Map<Class<?>, ResolvableType> asCache = getAsCache();
+		ResolvableType result = asCache.get(type);
+		if (result == null) {
+			result = searchAs(type);
+			asCache.put(type, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the cache of {@link #as} results, lazily creating it: most types
+	 * are never asked for a supertype, and do not need to allocate one.
+	 */
+	private Map<Class<?>, ResolvableType> getAsCache() {
+		Map<Class<?>, ResolvableType> asCache = this.asCache;
+		if (asCache == null) {
+			asCache = new ConcurrentHashMap<>(4);
+			this.asCache = asCache;
+		}
+		return asCache;
+	}
+
+	private ResolvableType searchAs(Class<?> type) {
 		for (ResolvableType interfaceType : getInterfaces()) {
 			ResolvableType interfaceAsType = interfaceType.as(type);
 			if (interfaceAsType != NONE) {
@@ -438,12 +491,14 @@ public class ResolvableType implements Serializable {
 	 * @see #getInterfaces()
 	 */
 	public ResolvableType getSuperType() {
-		Class<?> resolved = resolve();
-		if (resolved == null || resolved.getGenericSuperclass() == null) {
-			return NONE;
-		}
 		if (this.superType == null) {
-			this.superType = forType(SerializableTypeWrapper.forGenericSuperclass(resolved), asVariableResolver());
+			Class<?> resolved = resolve();
+			if (resolved == null || resolved.getGenericSuperclass() == null) {
+				this.superType = NONE;
+			}
+			else {
+				this.superType = forType(SerializableTypeWrapper.forGenericSuperclass(resolved), asVariableResolver());
+			}
 		}
 		return this.superType;
 	}
@@ -455,12 +510,14 @@ public class ResolvableType implements Serializable {
 	 * @see #getSuperType()
 	 */
 	public ResolvableType[] getInterfaces() {
-		Class<?> resolved = resolve();
-		if (resolved == null || ObjectUtils.isEmpty(resolved.getGenericInterfaces())) {
-			return EMPTY_TYPES_ARRAY;
-		}
 		if (this.interfaces == null) {
-			this.interfaces = forTypes(SerializableTypeWrapper.forGenericInterfaces(resolved), asVariableResolver());
+			Class<?> resolved = resolve();
+			if (resolved == null || ObjectUtils.isEmpty(resolved.getGenericInterfaces())) {
+				this.interfaces = EMPTY_TYPES_ARRAY;
+			}
+			else {
+				this.interfaces = forTypes(SerializableTypeWrapper.forGenericInterfaces(resolved), asVariableResolver());
+			}
 		}
 		return this.interfaces;
 	}
@@ -923,6 +980,8 @@ public class ResolvableType implements Serializable {
 	 * Return a {@link ResolvableType} for the specified {@link Class},
 	 * using the full generic type information for assignability checks.
 	 * For example: {@code ResolvableType.forClass(MyArrayList.class)}.
+	 * <p>As of 5.0, the returned instance is shared per class, so that its
+	 * memoized supertype, interface and generic resolution can be reused.
 	 * @param clazz the class to introspect ({@code null} is semantically
 	 * equivalent to {@code Object.class} for typical use cases here}
 	 * @return a {@link ResolvableType} for the specified class
@@ -930,7 +989,16 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(Class<?> clazz) {
-		return new ResolvableType(clazz);
+		Class<?> key = (clazz != null ? clazz : Object.class);
+		ResolvableType resolvableType = classCache.get(key);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(key);
+			ResolvableType existing = classCache.putIfAbsent(key, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1337,8 +1405,11 @@ public class ResolvableType implements Serializable {
 		}
 
 		// For simple Class references, build the wrapper right away -
-		// no expensive resolution necessary, so not worth caching...
+		// no expensive resolution necessary, so only shared if not bound to a context...
 		if (type instanceof Class) {
+			if (typeProvider == null && variableResolver == null) {
+				return forClass((Class<?>) type);
+			}
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
@@ -1356,11 +1427,12 @@ public class ResolvableType implements Serializable {
 	}
 
 	/**
-	 * Clear the internal {@code ResolvableType} cache.
+	 * Clear the internal {@code ResolvableType} caches.
 	 * @since 4.2
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
 	}
 
 
@@ -18,17 +18,22 @@ package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -85,6 +90,13 @@ import org.springframework.util.MultiValueMap;
  * traverses type and method hierarchies and thereby implicitly supports
  * annotation inheritance without the need for {@code @Inherited}.
  *
+ * <h3>Caching</h3>
+ * <p>For classes and class members, the names of all annotation types found
+ * with either search algorithm are computed once per element, so that presence
+ * checks and searches for absent annotations do not traverse the annotation
+ * hierarchy again. Merged, synthesized annotations are cached per element as
+ * well, since they are immutable.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -105,6 +117,9 @@ public class AnnotatedElementUtils {
 
 	private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+	private static final Map<AnnotatedElement, AnnotatedElementIndex> indexCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -273,6 +288,10 @@ public class AnnotatedElementUtils {
 			return true;
 		}
 
+		AnnotatedElementIndex index = getIndex(element);
+		if (index != null) {
+			return index.isPresent(annotationType.getName());
+		}
 		return Boolean.TRUE.equals(searchWithGetSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
 	}
 
@@ -292,6 +311,10 @@ public class AnnotatedElementUtils {
 		Assert.notNull(element, "AnnotatedElement must not be null");
 		Assert.hasLength(annotationName, "'annotationName' must not be null or empty");
 
+		AnnotatedElementIndex index = getIndex(element);
+		if (index != null) {
+			return index.isPresent(annotationName);
+		}
 		return Boolean.TRUE.equals(searchWithGetSemantics(element, null, annotationName, alwaysTrueAnnotationProcessor));
 	}
 
@@ -316,6 +339,10 @@ public class AnnotatedElementUtils {
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
 		Assert.notNull(annotationType, "'annotationType' must not be null");
+		AnnotatedElementIndex index = getIndex(element);
+		if (index != null && !index.isPresent(annotationType.getName())) {
+			return null;
+		}
 		AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
 				new MergedAnnotationAttributesProcessor());
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
@@ -374,6 +401,10 @@ public class AnnotatedElementUtils {
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
 		Assert.hasLength(annotationName, "'annotationName' must not be null or empty");
+		AnnotatedElementIndex index = getIndex(element);
+		if (index != null && !index.isPresent(annotationName)) {
+			return null;
+		}
 		AnnotationAttributes attributes = searchWithGetSemantics(element, null, annotationName,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
@@ -401,6 +432,14 @@ public class AnnotatedElementUtils {
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		Assert.notNull(annotationType, "'annotationType' must not be null");
 
+		AnnotatedElementIndex index = getIndex(element, annotationType);
+		if (index != null) {
+			return index.getMergedAnnotation(annotationType, () -> doGetMergedAnnotation(element, annotationType));
+		}
+		return doGetMergedAnnotation(element, annotationType);
+	}
+
+	private static <A extends Annotation> A doGetMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		if (!(element instanceof Class)) {
 			// Do not use this shortcut against a Class: Inherited annotations
@@ -600,6 +639,10 @@ public class AnnotatedElementUtils {
 			return true;
 		}
 
+		AnnotatedElementIndex index = getIndex(element);
+		if (index != null) {
+			return index.isAvailable(annotationType.getName());
+		}
 		return Boolean.TRUE.equals(searchWithFindSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
 	}
 
@@ -635,6 +678,10 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
+		AnnotatedElementIndex index = getIndex(element);
+		if (index != null && annotationType != null && !index.isAvailable(annotationType.getName())) {
+			return null;
+		}
 		AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
@@ -671,6 +718,10 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
+		AnnotatedElementIndex index = getIndex(element);
+		if (index != null && annotationName != null && !index.isAvailable(annotationName)) {
+			return null;
+		}
 		AnnotationAttributes attributes = searchWithFindSemantics(element, null, annotationName,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
@@ -698,6 +749,14 @@ public class AnnotatedElementUtils {
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		Assert.notNull(annotationType, "'annotationType' must not be null");
 
+		AnnotatedElementIndex index = getIndex(element, annotationType);
+		if (index != null) {
+			return index.findMergedAnnotation(annotationType, () -> doFindMergedAnnotation(element, annotationType));
+		}
+		return doFindMergedAnnotation(element, annotationType);
+	}
+
+	private static <A extends Annotation> A doFindMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		if (!(element instanceof Class)) {
 			// Do not use this shortcut against a Class: Inherited annotations
@@ -817,6 +876,64 @@ public class AnnotatedElementUtils {
 		return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
 	}
 
+	/**
+	 * Get the {@link AnnotatedElementIndex} for the supplied element.
+	 * <p>Only classes and class members are indexed: other elements, such as
+	 * the adapters returned by {@link #forAnnotations}, are not expected to be
+	 * introspected repeatedly.
+	 * @param element the annotated element
+	 * @return the index, or {@code null} if the element is not indexed
+	 * @since 5.0
+	 */
+	private static AnnotatedElementIndex getIndex(AnnotatedElement element) {
+		if (!(element instanceof Class || element instanceof Member)) {
+			return null;
+		}
+		AnnotatedElementIndex index = indexCache.get(element);
+		if (index == null) {
+			index = new AnnotatedElementIndex(element);
+			indexCache.put(element, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Get the {@link AnnotatedElementIndex} for the supplied element, unless
+	 * the supplied annotation type is one of the JDK's meta-annotations, which
+	 * are never included in the index.
+	 * @since 5.0
+	 */
+	private static AnnotatedElementIndex getIndex(AnnotatedElement element, Class<? extends Annotation> annotationType) {
+		return (AnnotationUtils.isInJavaLangAnnotationPackage(annotationType) ? null : getIndex(element));
+	}
+
+	/**
+	 * Collect the fully qualified class names of all annotation types found on
+	 * the supplied {@code element}, following either <em>get semantics</em> or
+	 * <em>find semantics</em>.
+	 * @param element the annotated element
+	 * @param findSemantics whether to follow <em>find semantics</em>
+	 * @return the names of all annotation types found (never {@code null})
+	 * @since 5.0
+	 */
+	private static Set<String> collectAnnotationTypes(AnnotatedElement element, boolean findSemantics) {
+		final Set<String> types = new HashSet<>();
+		Processor<Object> processor = new SimpleAnnotationProcessor<Object>(true) {
+			@Override
+			public Object process(AnnotatedElement annotatedElement, Annotation annotation, int metaDepth) {
+				types.add(annotation.annotationType().getName());
+				return CONTINUE;
+			}
+		};
+		if (findSemantics) {
+			searchWithFindSemantics(element, null, null, processor);
+		}
+		else {
+			searchWithGetSemantics(element, null, null, processor);
+		}
+		return (!types.isEmpty() ? Collections.unmodifiableSet(types) : Collections.emptySet());
+	}
+
 	/**
 	 * Search for annotations of the specified {@code annotationName} or
 	 * {@code annotationType} on the specified {@code element}, following
@@ -1594,4 +1711,85 @@ public class AnnotatedElementUtils {
 		}
 	}
 
+
+	/**
+	 * Index of the annotations on a given {@link AnnotatedElement}.
+	 * <p>The names of the annotation types found with <em>get semantics</em>
+	 * and <em>find semantics</em> are each computed on first access in a single
+	 * traversal of the annotation hierarchy, and never change afterwards.
+	 * Merged, synthesized annotations are resolved on first access for each
+	 * annotation type and then shared, since they are immutable.
+	 * @since 5.0
+	 */
+	private static final class AnnotatedElementIndex {
+
+		private static final Object NOT_FOUND = new Object();
+
+		private final AnnotatedElement element;
+
+		private volatile Set<String> presentAnnotationTypes;
+
+		private volatile Set<String> availableAnnotationTypes;
+
+		private final Map<Class<? extends Annotation>, Object> mergedAnnotations = new ConcurrentHashMap<>(4);
+
+		private final Map<Class<? extends Annotation>, Object> foundMergedAnnotations = new ConcurrentHashMap<>(4);
+
+		AnnotatedElementIndex(AnnotatedElement element) {
+			this.element = element;
+		}
+
+		/**
+		 * Determine if an annotation of the specified type is found with
+		 * <em>get semantics</em>.
+		 */
+		public boolean isPresent(String annotationName) {
+			Set<String> types = this.presentAnnotationTypes;
+			if (types == null) {
+				types = collectAnnotationTypes(this.element, false);
+				this.presentAnnotationTypes = types;
+			}
+			return types.contains(annotationName);
+		}
+
+		/**
+		 * Determine if an annotation of the specified type is found with
+		 * <em>find semantics</em>.
+		 */
+		public boolean isAvailable(String annotationName) {
+			Set<String> types = this.availableAnnotationTypes;
+			if (types == null) {
+				types = collectAnnotationTypes(this.element, true);
+				this.availableAnnotationTypes = types;
+			}
+			return types.contains(annotationName);
+		}
+
+		public <A extends Annotation> A getMergedAnnotation(Class<A> annotationType, Supplier<A> resolver) {
+			if (!isPresent(annotationType.getName())) {
+				return null;
+			}
+			return getCachedAnnotation(this.mergedAnnotations, annotationType, resolver);
+		}
+
+		public <A extends Annotation> A findMergedAnnotation(Class<A> annotationType, Supplier<A> resolver) {
+			if (!isAvailable(annotationType.getName())) {
+				return null;
+			}
+			return getCachedAnnotation(this.foundMergedAnnotations, annotationType, resolver);
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <A extends Annotation> A getCachedAnnotation(Map<Class<? extends Annotation>, Object> cache,
+				Class<A> annotationType, Supplier<A> resolver) {
+
+			Object annotation = cache.get(annotationType);
+			if (annotation == null) {
+				annotation = resolver.get();
+				cache.put(annotationType, (annotation != null ? annotation : NOT_FOUND));
+			}
+			return (annotation != NOT_FOUND ? (A) annotation : null);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -83,9 +83,15 @@ final class CollectionToCollectionConverter implements ConditionalGenericConvert
 			target.addAll(sourceCollection);
 		}
 		else {
+			GenericConversionService.ElementConverter elementConverter = null;
+			if (this.conversionService instanceof GenericConversionService) {
+				elementConverter = ((GenericConversionService) this.conversionService)
+						.getElementConverter(sourceType, elementDesc);
+			}
 			for (Object sourceElement : sourceCollection) {
-				Object targetElement = this.conversionService.convert(sourceElement,
-						sourceType.elementTypeDescriptor(sourceElement), elementDesc);
+				Object targetElement = (elementConverter != null ? elementConverter.convert(sourceElement) :
+						this.conversionService.convert(sourceElement,
+								sourceType.elementTypeDescriptor(sourceElement), elementDesc));
 				target.add(targetElement);
 				if (sourceElement != targetElement) {
 					copyRequired = true;
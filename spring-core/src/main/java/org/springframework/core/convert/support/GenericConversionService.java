@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,9 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -46,6 +48,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -78,6 +81,10 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	private final Map<ConvertiblePair, ResolvedConverter> classConverterCache = new ConcurrentReferenceHashMap<>(64);
+
+	private final boolean resolveByClass = usesDefaultConversion(getClass());
+
 
 	// ConverterRegistry implementation
 
@@ -170,6 +177,12 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@SuppressWarnings("unchecked")
 	public <T> T convert(Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
+		if (source != null && this.resolveByClass) {
+			ResolvedConverter resolved = getResolvedConverter(source.getClass(), targetType);
+			if (resolved != null) {
+				return (T) resolved.convert(source);
+			}
+		}
 		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
 	}
 
@@ -209,6 +222,50 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return convert(source, TypeDescriptor.forObject(source), targetType);
 	}
 
+	/**
+	 * Convert all elements of the given collection to the specified target type,
+	 * resolving the converter once per distinct element class rather than once
+	 * per element.
+	 * @param source the source collection (may contain {@code null} elements)
+	 * @param targetElementType the element type to convert to (required)
+	 * @return a new list holding the converted elements, in iteration order
+	 * @throws ConversionException if a conversion exception occurred
+	 * @since 5.0
+	 * @see #convertElements(Collection, TypeDescriptor, TypeDescriptor)
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> convertElements(Collection<?> source, Class<T> targetElementType) {
+		Assert.notNull(targetElementType, "Target element type to convert to cannot be null");
+		return (List<T>) convertElements(source, null, TypeDescriptor.valueOf(targetElementType));
+	}
+
+	/**
+	 * Convert all elements of the given collection to the specified target element
+	 * type, resolving the converter once per distinct element class rather than once
+	 * per element. Each element is converted as by
+	 * {@link #convert(Object, TypeDescriptor, TypeDescriptor)}.
+	 * @param source the source collection (may contain {@code null} elements)
+	 * @param sourceType context about the source collection, used to describe its
+	 * elements (may be {@code null}, in which case each element is described by
+	 * its own class)
+	 * @param targetElementType the element type to convert to (required)
+	 * @return a new list holding the converted elements, in iteration order
+	 * @throws ConversionException if a conversion exception occurred
+	 * @since 5.0
+	 */
+	public List<Object> convertElements(Collection<?> source, TypeDescriptor sourceType,
+			TypeDescriptor targetElementType) {
+
+		Assert.notNull(source, "Source collection must not be null");
+		Assert.notNull(targetElementType, "Target element type to convert to cannot be null");
+		ElementConverter elementConverter = getElementConverter(sourceType, targetElementType);
+		List<Object> result = new ArrayList<>(source.size());
+		for (Object element : source) {
+			result.add(elementConverter.convert(element));
+		}
+		return result;
+	}
+
 	@Override
 	public String toString() {
 		return this.converters.toString();
@@ -295,8 +352,54 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	/**
+	 * Return a converter for the elements of a collection of the given type,
+	 * reusing the converter resolved for an element as long as subsequent
+	 * elements are of the same class.
+	 * @param sourceType context about the source collection (may be {@code null})
+	 * @param targetElementType the element type to convert to
+	 */
+	ElementConverter getElementConverter(TypeDescriptor sourceType, TypeDescriptor targetElementType) {
+		return new ElementConverter(sourceType, targetElementType);
+	}
+
+	/**
+	 * Return the converter for the given raw source and target classes,
+	 * resolving it once through {@link #getConverter} and keeping it along
+	 * with the corresponding type descriptors.
+	 * @return the resolved converter, or {@code null} if none is available
+	 * for the given classes, in which case the full conversion algorithm applies
+	 */
+	private ResolvedConverter getResolvedConverter(Class<?> sourceClass, Class<?> targetClass) {
+		ConvertiblePair key = new ConvertiblePair(sourceClass, targetClass);
+		ResolvedConverter resolved = this.classConverterCache.get(key);
+		if (resolved == null) {
+			TypeDescriptor sourceType = TypeDescriptor.valueOf(sourceClass);
+			TypeDescriptor targetType = TypeDescriptor.valueOf(targetClass);
+			GenericConverter converter = getConverter(sourceType, targetType);
+			if (converter == null) {
+				return null;
+			}
+			resolved = new ResolvedConverter(sourceType, targetType, converter);
+			this.classConverterCache.put(key, resolved);
+		}
+		return resolved;
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.classConverterCache.clear();
+	}
+
+	/**
+	 * Determine whether the given conversion service class keeps the default
+	 * {@link #convert(Object, TypeDescriptor, TypeDescriptor)} algorithm, which
+	 * converters resolved by class may bypass.
+	 */
+	private static boolean usesDefaultConversion(Class<?> clazz) {
+		Method convert = ReflectionUtils.findMethod(
+				clazz, "convert", Object.class, TypeDescriptor.class, TypeDescriptor.class);
+		return (convert != null && convert.getDeclaringClass() == GenericConversionService.class);
 	}
 
 	private Object handleConverterNotFound(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
@@ -664,6 +767,76 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * A converter resolved for a pair of raw classes, along with the
+	 * type descriptors it has been resolved for.
+	 */
+	private final class ResolvedConverter {
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		private final GenericConverter converter;
+
+		public ResolvedConverter(TypeDescriptor sourceType, TypeDescriptor targetType, GenericConverter converter) {
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+
+		public Object convert(Object source) {
+			Object result = ConversionUtils.invokeConverter(this.converter, source, this.sourceType, this.targetType);
+			return handleResult(this.sourceType, this.targetType, result);
+		}
+	}
+
+
+	/**
+	 * Converts the elements of a collection to a common target type, keeping
+	 * the converter resolved for the last element class. Not thread-safe:
+	 * to be used for a single collection at a time.
+	 */
+	final class ElementConverter {
+
+		private final TypeDescriptor sourceType;
+
+		private final TypeDescriptor targetType;
+
+		private Class<?> elementClass;
+
+		private TypeDescriptor elementType;
+
+		private GenericConverter converter;
+
+		ElementConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+		}
+
+		public Object convert(Object element) {
+			if (element == null || !resolveByClass) {
+				return GenericConversionService.this.convert(element, getElementTypeDescriptor(element), this.targetType);
+			}
+			if (element.getClass() != this.elementClass) {
+				this.elementType = getElementTypeDescriptor(element);
+				this.converter = getConverter(this.elementType, this.targetType);
+				this.elementClass = element.getClass();
+			}
+			if (this.converter == null) {
+				return handleConverterNotFound(element, this.elementType, this.targetType);
+			}
+			Object result = ConversionUtils.invokeConverter(this.converter, element, this.elementType, this.targetType);
+			return handleResult(this.elementType, this.targetType, result);
+		}
+
+		private TypeDescriptor getElementTypeDescriptor(Object element) {
+			return (this.sourceType != null ? this.sourceType.elementTypeDescriptor(element) :
+					TypeDescriptor.forObject(element));
+		}
+	}
+
+
 	/**
 	 * Internal converter that performs no operation.
 	 */
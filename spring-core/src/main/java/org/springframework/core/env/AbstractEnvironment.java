@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -107,7 +107,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
 	private final MutablePropertySources propertySources = new MutablePropertySources(this.logger);
 
-	private final ConfigurablePropertyResolver propertyResolver =
+	private final PropertySourcesPropertyResolver propertyResolver =
 			new PropertySourcesPropertyResolver(this.propertySources);
 
 
@@ -444,6 +444,18 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		}
 	}
 
+	/**
+	 * Set whether resolved property values should be cached, until property
+	 * sources are added to, removed from or replaced in this environment.
+	 * <p>Default is "false". Only switch this on if the contents of the property
+	 * sources do not change at runtime, e.g. through {@link System#setProperty}.
+	 * @since 5.0
+	 * @see PropertySourcesPropertyResolver#setCacheProperties
+	 */
+	public void setCacheProperties(boolean cacheProperties) {
+		this.propertyResolver.setCacheProperties(cacheProperties);
+	}
+
 	@Override
 	public void merge(ConfigurableEnvironment parent) {
 		for (PropertySource<?> ps : parent.getPropertySources()) {
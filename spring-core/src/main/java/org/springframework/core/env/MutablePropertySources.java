@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.core.env;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -45,6 +46,8 @@ public class MutablePropertySources implements PropertySources {
 
 	private final List<PropertySource<?>> propertySourceList = new CopyOnWriteArrayList<>();
 
+	private final AtomicLong modificationCount = new AtomicLong();
+
 
 	/**
 	 * Create a new {@link MutablePropertySources} object.
@@ -99,6 +102,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(0, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -111,6 +115,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -159,7 +164,12 @@ public class MutablePropertySources implements PropertySources {
 			logger.debug(String.format("Removing [%s] PropertySource", name));
 		}
 		int index = this.propertySourceList.indexOf(PropertySource.named(name));
-		return (index != -1 ? this.propertySourceList.remove(index) : null);
+		if (index == -1) {
+			return null;
+		}
+		PropertySource<?> propertySource = this.propertySourceList.remove(index);
+		this.modificationCount.incrementAndGet();
+		return propertySource;
 	}
 
 	/**
@@ -176,6 +186,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		int index = assertPresentAndGetIndex(name);
 		this.propertySourceList.set(index, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
@@ -185,6 +196,18 @@ public class MutablePropertySources implements PropertySources {
 		return this.propertySourceList.size();
 	}
 
+	/**
+	 * Return the number of modifications made to the contained property sources
+	 * so far, that is, the number of additions, removals and replacements.
+	 * <p>This allows resolvers to find out whether state derived from the
+	 * property sources, such as cached property values, is still current.
+	 * Note that changes within individual property sources are not tracked.
+	 * @since 5.0
+	 */
+	public long getModificationCount() {
+		return this.modificationCount.get();
+	}
+
 	@Override
 	public String toString() {
 		String[] names = new String[this.size()];
@@ -209,7 +232,9 @@ public class MutablePropertySources implements PropertySources {
 	 * Remove the given property source if it is present.
 	 */
 	protected void removeIfPresent(PropertySource<?> propertySource) {
-		this.propertySourceList.remove(propertySource);
+		if (this.propertySourceList.remove(propertySource)) {
+			this.modificationCount.incrementAndGet();
+		}
 	}
 
 	/**
@@ -218,6 +243,7 @@ public class MutablePropertySources implements PropertySources {
 	private void addAtIndex(int index, PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(index, propertySource);
+		this.modificationCount.incrementAndGet();
 	}
 
 	/**
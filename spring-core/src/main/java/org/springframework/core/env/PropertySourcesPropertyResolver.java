@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,22 @@
 
 package org.springframework.core.env;
 
+import java.lang.reflect.Array;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.convert.support.ConfigurableConversionService;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>Resolved property values may be cached through {@link #setCacheProperties},
+ * in which case the cache is invalidated whenever property sources are added to,
+ * removed from or replaced in the underlying {@link MutablePropertySources}.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -29,8 +41,19 @@ package org.springframework.core.env;
  */
 public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
+	/** Cache entry for a property that is not found in any property source */
+	private static final PropertySource<?> NO_PROPERTY_SOURCE = new PropertySource.StubPropertySource("none");
+
+	/** Cache entry for a property that resolves to {@code null} */
+	private static final Object NULL_VALUE = new Object();
+
+
 	private final PropertySources propertySources;
 
+	private volatile boolean cacheProperties = false;
+
+	private volatile PropertyCache propertyCache;
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -41,6 +64,73 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Set whether resolved property values should be cached, along with the
+	 * property source that each key has been found in.
+	 * <p>Default is "false". The cache is invalidated whenever the underlying
+	 * {@link MutablePropertySources} are modified, or the conversion service or
+	 * placeholder settings of this resolver are changed, but not when the contents
+	 * of individual property sources change: only switch this on if property values
+	 * do not change at runtime, or call {@link #clearCache()} after such changes.
+	 * The same applies to converters added to the current conversion service.
+	 * <p>Only values of immutable types, such as strings, primitive wrappers and
+	 * enums, are cached; arrays of such types are cached as well but copied for
+	 * each caller. Values of other types are converted for each lookup.
+	 * @since 5.0
+	 * @see MutablePropertySources#getModificationCount()
+	 */
+	public void setCacheProperties(boolean cacheProperties) {
+		this.cacheProperties = cacheProperties;
+		this.propertyCache = null;
+	}
+
+	/**
+	 * Return whether resolved property values are cached.
+	 * @since 5.0
+	 */
+	public boolean isCacheProperties() {
+		return this.cacheProperties;
+	}
+
+	/**
+	 * Clear the cache of resolved property values, if any.
+	 * @since 5.0
+	 */
+	public void clearCache() {
+		this.propertyCache = null;
+	}
+
+	@Override
+	public void setConversionService(ConfigurableConversionService conversionService) {
+		super.setConversionService(conversionService);
+		clearCache();
+	}
+
+	@Override
+	public void setPlaceholderPrefix(String placeholderPrefix) {
+		super.setPlaceholderPrefix(placeholderPrefix);
+		clearCache();
+	}
+
+	@Override
+	public void setPlaceholderSuffix(String placeholderSuffix) {
+		super.setPlaceholderSuffix(placeholderSuffix);
+		clearCache();
+	}
+
+	@Override
+	public void setValueSeparator(String valueSeparator) {
+		super.setValueSeparator(valueSeparator);
+		clearCache();
+	}
+
+	@Override
+	public void setIgnoreUnresolvableNestedPlaceholders(boolean ignoreUnresolvableNestedPlaceholders) {
+		super.setIgnoreUnresolvableNestedPlaceholders(ignoreUnresolvableNestedPlaceholders);
+		clearCache();
+	}
+
+
 	@Override
 	public boolean containsProperty(String key) {
 		if (this.propertySources != null) {
@@ -68,7 +158,12 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return getProperty(key, String.class, false);
 	}
 
+	@SuppressWarnings("unchecked")
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		PropertyCache cache = getPropertyCache();
+		if (cache != null && key != null) {
+			return (T) cache.getProperty(key, targetValueType, resolveNestedPlaceholders);
+		}
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
@@ -76,11 +171,7 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 				}
 				Object value = propertySource.getProperty(key);
 				if (value != null) {
-					if (resolveNestedPlaceholders && value instanceof String) {
-						value = resolveNestedPlaceholders((String) value);
-					}
-					logKeyFound(key, propertySource, value);
-					return convertValueIfNecessary(value, targetValueType);
+					return resolveValue(key, propertySource, value, targetValueType, resolveNestedPlaceholders);
 				}
 			}
 		}
@@ -90,6 +181,35 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	private <T> T resolveValue(String key, PropertySource<?> propertySource, Object value,
+			Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+
+		if (resolveNestedPlaceholders && value instanceof String) {
+			value = resolveNestedPlaceholders((String) value);
+		}
+		logKeyFound(key, propertySource, value);
+		return convertValueIfNecessary(value, targetValueType);
+	}
+
+	/**
+	 * Return the current property cache, creating a new one if the property
+	 * sources have been modified since the current one has been created.
+	 * @return the property cache, or {@code null} if caching is switched off
+	 */
+	private PropertyCache getPropertyCache() {
+		if (!this.cacheProperties) {
+			return null;
+		}
+		long modificationCount = (this.propertySources instanceof MutablePropertySources ?
+				((MutablePropertySources) this.propertySources).getModificationCount() : 0);
+		PropertyCache cache = this.propertyCache;
+		if (cache == null || cache.modificationCount != modificationCount) {
+			cache = new PropertyCache(modificationCount);
+			this.propertyCache = cache;
+		}
+		return cache;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -109,4 +229,122 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		}
 	}
 
+
+	/**
+	 * Resolved property values for a given state of the property sources,
+	 * along with a merged index of the property source each key is found in,
+	 * shared across lookups of the same key for different target types.
+	 */
+	private class PropertyCache {
+
+		private final long modificationCount;
+
+		private final Map<String, PropertySource<?>> propertySourceIndex = new ConcurrentHashMap<>(64);
+
+		private final Map<PropertyCacheKey, Object> resolvedValues = new ConcurrentHashMap<>(64);
+
+		public PropertyCache(long modificationCount) {
+			this.modificationCount = modificationCount;
+		}
+
+		public Object getProperty(String key, Class<?> targetValueType, boolean resolveNestedPlaceholders) {
+			PropertyCacheKey cacheKey = new PropertyCacheKey(key, targetValueType, resolveNestedPlaceholders);
+			Object value = this.resolvedValues.get(cacheKey);
+			if (value == null) {
+				PropertySource<?> propertySource = getPropertySource(key);
+				Object rawValue = (propertySource != null ? propertySource.getProperty(key) : null);
+				value = (rawValue != null ?
+						resolveValue(key, propertySource, rawValue, targetValueType, resolveNestedPlaceholders) : null);
+				if (value == null) {
+					this.resolvedValues.put(cacheKey, NULL_VALUE);
+					return null;
+				}
+				if (!isCacheable(value.getClass())) {
+					return value;
+				}
+				this.resolvedValues.put(cacheKey, value);
+			}
+			else if (value == NULL_VALUE) {
+				return null;
+			}
+			// Do not share cached arrays between callers
+			return (value.getClass().isArray() ? copyArray(value) : value);
+		}
+
+		/**
+		 * Return whether values of the given type can be cached, i.e. whether
+		 * they are immutable or arrays of immutable elements.
+		 */
+		private boolean isCacheable(Class<?> type) {
+			Class<?> elementType = (type.isArray() ? type.getComponentType() : type);
+			return (elementType == String.class || ClassUtils.isPrimitiveOrWrapper(elementType) ||
+					Enum.class.isAssignableFrom(elementType) || elementType == Class.class);
+		}
+
+		private Object copyArray(Object array) {
+			int length = Array.getLength(array);
+			Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+			System.arraycopy(array, 0, copy, 0, length);
+			return copy;
+		}
+
+		private PropertySource<?> getPropertySource(String key) {
+			PropertySource<?> propertySource = this.propertySourceIndex.get(key);
+			if (propertySource == null) {
+				propertySource = NO_PROPERTY_SOURCE;
+				if (propertySources != null) {
+					for (PropertySource<?> candidate : propertySources) {
+						if (candidate.getProperty(key) != null) {
+							propertySource = candidate;
+							break;
+						}
+					}
+				}
+				if (propertySource == NO_PROPERTY_SOURCE && logger.isDebugEnabled()) {
+					logger.debug(String.format("Could not find key '%s' in any property source", key));
+				}
+				this.propertySourceIndex.put(key, propertySource);
+			}
+			return (propertySource != NO_PROPERTY_SOURCE ? propertySource : null);
+		}
+	}
+
+
+	/**
+	 * Cache key for a resolved property value.
+	 */
+	private static final class PropertyCacheKey {
+
+		private final String key;
+
+		private final Class<?> targetValueType;
+
+		private final boolean resolveNestedPlaceholders;
+
+		public PropertyCacheKey(String key, Class<?> targetValueType, boolean resolveNestedPlaceholders) {
+			this.key = key;
+			this.targetValueType = targetValueType;
+			this.resolveNestedPlaceholders = resolveNestedPlaceholders;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof PropertyCacheKey)) {
+				return false;
+			}
+			PropertyCacheKey otherKey = (PropertyCacheKey) other;
+			return (this.key.equals(otherKey.key) && this.targetValueType == otherKey.targetValueType &&
+					this.resolveNestedPlaceholders == otherKey.resolveNestedPlaceholders);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.key.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.targetValueType)) * 2 +
+					(this.resolveNestedPlaceholders ? 1 : 0);
+		}
+	}
+
 }
@@ -18,6 +18,7 @@ package org.springframework.core.io.support;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
@@ -26,11 +27,19 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -166,6 +175,21 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p><b>Parallel scanning:</b> By default, the root directories and jar files
+ * matching a pattern are searched one after another. A {@link ForkJoinPool}
+ * may be configured through {@link #setScanningPool} in order to search them
+ * concurrently, which can considerably speed up scanning across many jar files.
+ * The order of the resolved resources is the same in either mode.
+ *
+ * <p><b>Jar entry index:</b> If enabled through {@link #setJarEntryIndexing},
+ * the entry names of each jar file in the file system that is searched are
+ * indexed on first access, so that subsequent patterns against the same jar
+ * file do not iterate over all of its entries again. An index is rebuilt when
+ * the last-modified timestamp of its jar file changes, and all indexes are
+ * kept until {@link #clearCache()} is called. Application contexts enable
+ * indexing for their own resolver and clear this cache once their refresh
+ * is complete.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -201,6 +225,12 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private ForkJoinPool scanningPool;
+
+	private boolean jarEntryIndexing = false;
+
+	private final Map<String, JarEntryIndex> jarEntryIndexCache = new ConcurrentHashMap<>(64);
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -263,6 +293,58 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set the {@link ForkJoinPool} to search the root directories and jar files
+	 * of a location pattern with, concurrently.
+	 * <p>Default is none, searching them sequentially in the calling thread.
+	 * Note that, when a pool is configured, the {@code doFindPathMatching*}
+	 * template methods are invoked concurrently and need to be thread-safe.
+	 * @since 5.0
+	 * @see ForkJoinPool#commonPool()
+	 */
+	public void setScanningPool(ForkJoinPool scanningPool) {
+		this.scanningPool = scanningPool;
+	}
+
+	/**
+	 * Return the {@link ForkJoinPool} used for concurrent scanning, if any.
+	 * @since 5.0
+	 */
+	public ForkJoinPool getScanningPool() {
+		return this.scanningPool;
+	}
+
+	/**
+	 * Set whether to index the entry names of jar files in the file system on
+	 * first access, for subsequent searches in the same jar file to be faster.
+	 * <p>Default is "false", iterating over all entries of a jar file for every
+	 * search. When enabled, indexes are kept until {@link #clearCache()} is
+	 * called, and rebuilt when the last-modified timestamp of a jar file changes.
+	 * @since 5.0
+	 */
+	public void setJarEntryIndexing(boolean jarEntryIndexing) {
+		this.jarEntryIndexing = jarEntryIndexing;
+		if (!jarEntryIndexing) {
+			this.jarEntryIndexCache.clear();
+		}
+	}
+
+	/**
+	 * Return whether the entry names of jar files are indexed.
+	 * @since 5.0
+	 */
+	public boolean isJarEntryIndexing() {
+		return this.jarEntryIndexing;
+	}
+
+	/**
+	 * Clear the index of jar file entries built up during previous searches.
+	 * @since 5.0
+	 */
+	public void clearCache() {
+		this.jarEntryIndexCache.clear();
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -459,23 +541,19 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirURL = rootDirResource.getURL();
-			if (equinoxResolveMethod != null) {
-				if (rootDirURL.getProtocol().startsWith("bundle")) {
-					rootDirURL = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirURL);
-					rootDirResource = new UrlResource(rootDirURL);
-				}
+		ForkJoinPool pool = getScanningPool();
+		if (pool != null && rootDirResources.length > 1) {
+			List<ForkJoinTask<Set<Resource>>> tasks = new ArrayList<>(rootDirResources.length);
+			for (Resource rootDirResource : rootDirResources) {
+				tasks.add(pool.submit(() -> findPathMatchingResources(rootDirResource, subPattern)));
 			}
-			if (rootDirURL.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirURL, subPattern, getPathMatcher()));
+			for (ForkJoinTask<Set<Resource>> task : tasks) {
+				result.addAll(getScanningResult(task, locationPattern));
 			}
-			else if (ResourceUtils.isJarURL(rootDirURL) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirURL, subPattern));
-			}
-			else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+		}
+		else {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(findPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isDebugEnabled()) {
@@ -484,6 +562,59 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[result.size()]);
 	}
 
+	/**
+	 * Find all resources below the given root directory that match the given
+	 * sub pattern, delegating to the appropriate {@code doFindPathMatching*}
+	 * method for the type of the root directory.
+	 */
+	private Set<Resource> findPathMatchingResources(Resource rootDirResource, String subPattern) throws IOException {
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirURL = rootDirResource.getURL();
+		if (equinoxResolveMethod != null) {
+			if (rootDirURL.getProtocol().startsWith("bundle")) {
+				rootDirURL = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirURL);
+				rootDirResource = new UrlResource(rootDirURL);
+			}
+		}
+		if (rootDirURL.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirURL, subPattern, getPathMatcher());
+		}
+		else if (ResourceUtils.isJarURL(rootDirURL) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirURL, subPattern);
+		}
+		else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+
+	/**
+	 * Wait for the given scanning task to complete, unwrapping its failure.
+	 */
+	private Set<Resource> getScanningResult(ForkJoinTask<Set<Resource>> task, String locationPattern)
+			throws IOException {
+
+		try {
+			return task.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while resolving location pattern [" + locationPattern + "]");
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Failed to resolve location pattern [" + locationPattern + "]", cause);
+		}
+	}
+
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
@@ -607,14 +738,10 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				rootEntryPath = rootEntryPath + "/";
 			}
 			Set<Resource> result = new LinkedHashSet<>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
-					}
+			for (String entryPath : getJarEntryPaths(jarFile, jarFileUrl, rootEntryPath)) {
+				String relativePath = entryPath.substring(rootEntryPath.length());
+				if (getPathMatcher().match(subPattern, relativePath)) {
+					result.add(rootDirResource.createRelative(relativePath));
 				}
 			}
 			return result;
@@ -626,6 +753,32 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Return the paths of the entries of the given jar file below the given
+	 * root entry path, through the cached index of the jar file if
+	 * {@link #setJarEntryIndexing indexing} is enabled.
+	 */
+	private List<String> getJarEntryPaths(JarFile jarFile, String jarFileUrl, String rootEntryPath) {
+		// Only jar files in the file system can be checked for modifications
+		long lastModified = (this.jarEntryIndexing ? new File(jarFile.getName()).lastModified() : 0);
+		if (lastModified == 0) {
+			List<String> entryPaths = new ArrayList<>();
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				String entryPath = entries.nextElement().getName();
+				if (entryPath.startsWith(rootEntryPath)) {
+					entryPaths.add(entryPath);
+				}
+			}
+			return entryPaths;
+		}
+		JarEntryIndex index = this.jarEntryIndexCache.get(jarFileUrl);
+		if (index == null || index.getLastModified() != lastModified) {
+			index = new JarEntryIndex(jarFile, lastModified);
+			this.jarEntryIndexCache.put(jarFileUrl, index);
+		}
+		return index.getEntryPaths(rootEntryPath);
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
@@ -776,6 +929,73 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	}
 
 
+	/**
+	 * Index of the entry names of a jar file, allowing for retrieving the
+	 * entries below a given path without iterating over all entries.
+	 */
+	private static class JarEntryIndex {
+
+		private final String[] entryPaths;
+
+		private final Integer[] sortedPositions;
+
+		private final long lastModified;
+
+		public JarEntryIndex(JarFile jarFile, long lastModified) {
+			List<String> entryPaths = new ArrayList<>();
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				entryPaths.add(entries.nextElement().getName());
+			}
+			this.entryPaths = entryPaths.toArray(new String[entryPaths.size()]);
+			this.sortedPositions = new Integer[this.entryPaths.length];
+			for (int i = 0; i < this.sortedPositions.length; i++) {
+				this.sortedPositions[i] = i;
+			}
+			Arrays.sort(this.sortedPositions, Comparator.comparing(position -> this.entryPaths[position]));
+			this.lastModified = lastModified;
+		}
+
+		public long getLastModified() {
+			return this.lastModified;
+		}
+
+		/**
+		 * Return the paths of all entries starting with the given root path,
+		 * in the order of the entries in the jar file.
+		 */
+		public List<String> getEntryPaths(String rootPath) {
+			if (rootPath.isEmpty()) {
+				return Arrays.asList(this.entryPaths);
+			}
+			int low = 0;
+			int high = this.sortedPositions.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (this.entryPaths[this.sortedPositions[mid]].compareTo(rootPath) < 0) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			int end = low;
+			while (end < this.sortedPositions.length && this.entryPaths[this.sortedPositions[end]].startsWith(rootPath)) {
+				end++;
+			}
+			int[] positions = new int[end - low];
+			for (int i = 0; i < positions.length; i++) {
+				positions[i] = this.sortedPositions[low + i];
+			}
+			Arrays.sort(positions);
+			List<String> result = new ArrayList<>(positions.length);
+			for (int position : positions) {
+				result.add(this.entryPaths[position]);
+			}
+			return result;
+		}
+	}
+
+
 	/**
 	 * Inner delegate class, avoiding a hard JBoss VFS API dependency at runtime.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,12 +24,22 @@ import java.util.concurrent.ConcurrentMap;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * Caching implementation of the {@link MetadataReaderFactory} interface,
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>As of 5.0, cache misses are additionally resolved against a shared cache
+ * per {@link ClassLoader}, keyed by the URL of the class file and validated
+ * against its last-modified timestamp. This allows independent factory instances
+ * (e.g. for configuration class processing, component scanning and JPA
+ * persistence unit scanning) to reuse class metadata that another factory
+ * has already parsed, even if obtained through a different {@link Resource} handle.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -39,6 +49,10 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	/** Default maximum number of entries for a local MetadataReader cache: 256 */
 	public static final int DEFAULT_CACHE_LIMIT = 256;
 
+	/** Shared MetadataReader caches per ClassLoader, keyed by class file URL */
+	private static final ConcurrentMap<ClassLoader, Map<String, SharedMetadataReader>> sharedMetadataReaderCaches =
+			new ConcurrentReferenceHashMap<>(16);
+
 	/** MetadataReader cache: either local or shared at the ResourceLoader level */
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
@@ -118,7 +132,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = getSharedMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
@@ -127,7 +141,7 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			synchronized (this.metadataReaderCache) {
 				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
+					metadataReader = getSharedMetadataReader(resource);
 					this.metadataReaderCache.put(resource, metadataReader);
 				}
 				return metadataReader;
@@ -138,6 +152,31 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		}
 	}
 
+	/**
+	 * Obtain a MetadataReader for the given resource from the shared cache for
+	 * this factory's ClassLoader, parsing the class file if not cached yet or
+	 * if the cached metadata is outdated.
+	 */
+	private MetadataReader getSharedMetadataReader(Resource resource) throws IOException {
+		String url;
+		long lastModified;
+		try {
+			url = resource.getURL().toExternalForm();
+			lastModified = resource.lastModified();
+		}
+		catch (IOException ex) {
+			// Not resolvable to a URL-based class file: local caching only
+			return super.getMetadataReader(resource);
+		}
+		Map<String, SharedMetadataReader> sharedCache = getSharedCache(getResourceLoader().getClassLoader());
+		SharedMetadataReader shared = sharedCache.get(url);
+		if (shared == null || shared.lastModified != lastModified) {
+			shared = new SharedMetadataReader(super.getMetadataReader(resource), lastModified);
+			sharedCache.put(url, shared);
+		}
+		return shared.forResource(resource);
+	}
+
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
 	 */
@@ -149,6 +188,70 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		}
 	}
 
+	/**
+	 * Clear the MetadataReader cache shared by all factories for the given
+	 * {@link ClassLoader}, removing all cached class metadata for it.
+	 * @param classLoader the ClassLoader to clear the shared cache for
+	 * @since 5.0
+	 */
+	public static void clearSharedCache(ClassLoader classLoader) {
+		sharedMetadataReaderCaches.remove(classLoader);
+	}
+
+	private static Map<String, SharedMetadataReader> getSharedCache(ClassLoader classLoader) {
+		Map<String, SharedMetadataReader> sharedCache = sharedMetadataReaderCaches.get(classLoader);
+		if (sharedCache == null) {
+			sharedCache = new ConcurrentReferenceHashMap<>(DEFAULT_CACHE_LIMIT);
+			Map<String, SharedMetadataReader> existing =
+					sharedMetadataReaderCaches.putIfAbsent(classLoader, sharedCache);
+			if (existing != null) {
+				sharedCache = existing;
+			}
+		}
+		return sharedCache;
+	}
+
+
+	/**
+	 * Shared cache entry: a MetadataReader along with the last-modified
+	 * timestamp of the class file that it has been read from.
+	 */
+	private static class SharedMetadataReader {
+
+		private final MetadataReader metadataReader;
+
+		private final long lastModified;
+
+		public SharedMetadataReader(MetadataReader metadataReader, long lastModified) {
+			this.metadataReader = metadataReader;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Expose the shared metadata for the given resource handle, which may
+		 * differ from the handle that the metadata has originally been read from.
+		 */
+		public MetadataReader forResource(final Resource resource) {
+			if (resource.equals(this.metadataReader.getResource())) {
+				return this.metadataReader;
+			}
+			return new MetadataReader() {
+				@Override
+				public Resource getResource() {
+					return resource;
+				}
+				@Override
+				public ClassMetadata getClassMetadata() {
+					return metadataReader.getClassMetadata();
+				}
+				@Override
+				public AnnotationMetadata getAnnotationMetadata() {
+					return metadataReader.getAnnotationMetadata();
+				}
+			};
+		}
+	}
+
 
 	@SuppressWarnings("serial")
 	private static class LocalResourceCache extends LinkedHashMap<Resource, MetadataReader> {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,14 @@
 
 package org.springframework.util;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -73,7 +75,8 @@ public class AntPathMatcher implements PathMatcher {
 	/** Default path separator: "/" */
 	public static final String DEFAULT_PATH_SEPARATOR = "/";
 
-	private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+	/** Default maximum number of patterns to cache: 65536 */
+	public static final int DEFAULT_CACHE_LIMIT = 65536;
 
 	private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{[^/]+?\\}");
 
@@ -90,9 +93,11 @@ public class AntPathMatcher implements PathMatcher {
 
 	private volatile Boolean cachePatterns;
 
-	private final Map<String, String[]> tokenizedPatternCache = new ConcurrentHashMap<>(256);
+	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
-	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
+	private final PatternCache<String[]> tokenizedPatternCache = new PatternCache<>();
+
+	final PatternCache<AntPathStringMatcher> stringMatcherCache = new PatternCache<>();
 
 
 	/**
@@ -146,23 +151,68 @@ public class AntPathMatcher implements PathMatcher {
 	 * into this matcher's {@link #match} method. A value of {@code true}
 	 * activates an unlimited pattern cache; a value of {@code false} turns
 	 * the pattern cache off completely.
-	 * <p>Default is for the cache to be on, but with the variant to automatically
-	 * turn it off when encountering too many patterns to cache at runtime
-	 * (the threshold is 65536), assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>Default is for the cache to be on, but limited to the number of
+	 * patterns given by {@link #setCacheLimit}. Once the limit is reached,
+	 * patterns that have not been used since they were last considered for
+	 * eviction make room for new ones, so that frequently used patterns
+	 * remain cached even when many arbitrary patterns are coming in.
 	 * @since 4.0.1
 	 * @see #getStringMatcher(String)
 	 */
 	public void setCachePatterns(boolean cachePatterns) {
 		this.cachePatterns = cachePatterns;
+		clearPatternCache();
+	}
+
+	/**
+	 * Specify the maximum number of patterns to cache when the pattern cache
+	 * is on by default, i.e. when {@link #setCachePatterns} has not been called.
+	 * <p>Default is 65536. Setting the limit clears the pattern cache.
+	 * @since 5.0
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		Assert.isTrue(cacheLimit >= 0, "'cacheLimit' must not be negative");
+		this.cacheLimit = cacheLimit;
+		clearPatternCache();
+	}
+
+	/**
+	 * Return the maximum number of patterns to cache by default.
+	 * @since 5.0
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Return the number of lookups in the pattern cache which found a cached
+	 * tokenized pattern or string matcher.
+	 * @since 5.0
+	 * @see #getPatternCacheMissCount()
+	 */
+	public long getPatternCacheHitCount() {
+		return this.tokenizedPatternCache.getHitCount() + this.stringMatcherCache.getHitCount();
 	}
 
-	private void deactivatePatternCache() {
-		this.cachePatterns = false;
+	/**
+	 * Return the number of lookups in the pattern cache which required a
+	 * pattern to be parsed.
+	 * @since 5.0
+	 * @see #getPatternCacheHitCount()
+	 */
+	public long getPatternCacheMissCount() {
+		return this.tokenizedPatternCache.getMissCount() + this.stringMatcherCache.getMissCount();
+	}
+
+	private void clearPatternCache() {
 		this.tokenizedPatternCache.clear();
 		this.stringMatcherCache.clear();
 	}
 
+	private int getEffectiveCacheLimit(Boolean cachePatterns) {
+		return (cachePatterns != null ? Integer.MAX_VALUE : this.cacheLimit);
+	}
+
 
 	@Override
 	public boolean isPattern(String path) {
@@ -384,15 +434,8 @@ public class AntPathMatcher implements PathMatcher {
 		}
 		if (tokenized == null) {
 			tokenized = tokenizePath(pattern);
-			if (cachePatterns == null && this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return tokenized;
-			}
 			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.tokenizedPatternCache.put(pattern, tokenized);
+				this.tokenizedPatternCache.put(pattern, tokenized, getEffectiveCacheLimit(cachePatterns));
 			}
 		}
 		return tokenized;
@@ -422,9 +465,8 @@ public class AntPathMatcher implements PathMatcher {
 	 * <p>The default implementation checks this AntPathMatcher's internal cache
 	 * (see {@link #setCachePatterns}), creating a new AntPathStringMatcher instance
 	 * if no cached copy is found.
-	 * <p>When encountering too many patterns to cache at runtime (the threshold is 65536),
-	 * it turns the default cache off, assuming that arbitrary permutations of patterns
-	 * are coming in, with little chance for encountering a recurring pattern.
+	 * <p>When encountering more patterns than the {@link #setCacheLimit cache limit}
+	 * at runtime, the default cache evicts patterns that have not been used recently.
 	 * <p>This method may be overridden to implement a custom cache strategy.
 	 * @param pattern the pattern to match against (never {@code null})
 	 * @return a corresponding AntPathStringMatcher (never {@code null})
@@ -438,15 +480,8 @@ public class AntPathMatcher implements PathMatcher {
 		}
 		if (matcher == null) {
 			matcher = new AntPathStringMatcher(pattern, this.caseSensitive);
-			if (cachePatterns == null && this.stringMatcherCache.size() >= CACHE_TURNOFF_THRESHOLD) {
-				// Try to adapt to the runtime situation that we're encountering:
-				// There are obviously too many different patterns coming in here...
-				// So let's turn off the cache since the patterns are unlikely to be reoccurring.
-				deactivatePatternCache();
-				return matcher;
-			}
 			if (cachePatterns == null || cachePatterns.booleanValue()) {
-				this.stringMatcherCache.put(pattern, matcher);
+				this.stringMatcherCache.put(pattern, matcher, getEffectiveCacheLimit(cachePatterns));
 			}
 		}
 		return matcher;
@@ -886,6 +921,99 @@ public class AntPathMatcher implements PathMatcher {
 	}
 
 
+	/**
+	 * A concurrent cache of parsed pattern metadata, keyed by pattern.
+	 * <p>Lookups do not block: they only mark the cached entry as recently used.
+	 * Once the given limit is reached, entries are evicted following the CLOCK
+	 * algorithm, i.e. the first entry that has not been marked since the clock
+	 * hand last passed it makes room for the new one.
+	 */
+	static final class PatternCache<T> {
+
+		private final Map<String, CacheEntry<T>> entries = new ConcurrentHashMap<>(256);
+
+		private final List<CacheEntry<T>> clock = new ArrayList<>();
+
+		private int hand;
+
+		private final LongAdder hitCount = new LongAdder();
+
+		private final LongAdder missCount = new LongAdder();
+
+		public T get(String pattern) {
+			CacheEntry<T> entry = this.entries.get(pattern);
+			if (entry == null) {
+				this.missCount.increment();
+				return null;
+			}
+			if (!entry.used) {
+				entry.used = true;
+			}
+			this.hitCount.increment();
+			return entry.value;
+		}
+
+		public synchronized void put(String pattern, T value, int limit) {
+			if (limit <= 0 || this.entries.containsKey(pattern)) {
+				return;
+			}
+			CacheEntry<T> entry = new CacheEntry<>(pattern, value);
+			if (this.clock.size() < limit) {
+				this.clock.add(entry);
+			}
+			else {
+				while (true) {
+					CacheEntry<T> candidate = this.clock.get(this.hand);
+					if (candidate.used) {
+						candidate.used = false;
+						this.hand = (this.hand + 1) % this.clock.size();
+					}
+					else {
+						this.entries.remove(candidate.pattern);
+						this.clock.set(this.hand, entry);
+						this.hand = (this.hand + 1) % this.clock.size();
+						break;
+					}
+				}
+			}
+			this.entries.put(pattern, entry);
+		}
+
+		public int size() {
+			return this.entries.size();
+		}
+
+		public synchronized void clear() {
+			this.entries.clear();
+			this.clock.clear();
+			this.hand = 0;
+		}
+
+		public long getHitCount() {
+			return this.hitCount.sum();
+		}
+
+		public long getMissCount() {
+			return this.missCount.sum();
+		}
+	}
+
+
+	private static final class CacheEntry<T> {
+
+		private final String pattern;
+
+		private final T value;
+
+		private volatile boolean used;
+
+		public CacheEntry(String pattern, T value) {
+			this.pattern = pattern;
+			this.value = value;
+		}
+	}
+
+
 	/**
 	 * A simple cache for patterns that depend on the configured path separator.
 	 */
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative {@code long} values such as latencies
+ * in nanoseconds, with a fixed memory footprint and a relative precision of
+ * about 3% across the entire value range.
+ *
+ * <p>Similar to an HDR histogram, values are counted in buckets whose width
+ * doubles with every power of two, each power of two being subdivided into
+ * 32 linear sub-buckets. Recording a value is a single atomic increment and
+ * does not allocate, so that it may be used on hot request paths.
+ *
+ * <p>Statistics are computed from the live counts, and are therefore only
+ * approximately consistent with each other while values are being recorded.
+ *
+ * <p>Mainly for use within the framework, e.g. for request instrumentation.
+ *
+ * @since 5.0
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+	private final LongAdder totalCount = new LongAdder();
+
+	private final LongAdder totalValue = new LongAdder();
+
+	private final AtomicLong maxValue = new AtomicLong();
+
+
+	/**
+	 * Record the given value.
+	 * @param value the value to record; negative values are recorded as 0
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		this.counts.incrementAndGet(bucketIndex(value));
+		this.totalCount.increment();
+		this.totalValue.add(value);
+		long max = this.maxValue.get();
+		while (value > max && !this.maxValue.compareAndSet(max, value)) {
+			max = this.maxValue.get();
+		}
+	}
+
+	/**
+	 * Record the time elapsed since the given {@link System#nanoTime()} value.
+	 * @param startNanos the start time, as returned by {@link System#nanoTime()}
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Return the number of recorded values.
+	 */
+	public long getCount() {
+		return this.totalCount.sum();
+	}
+
+	/**
+	 * Return the largest recorded value, or 0 if none.
+	 */
+	public long getMax() {
+		return this.maxValue.get();
+	}
+
+	/**
+	 * Return the mean of the recorded values, or 0 if none.
+	 */
+	public double getMean() {
+		long count = this.totalCount.sum();
+		return (count != 0 ? (double) this.totalValue.sum() / count : 0);
+	}
+
+	/**
+	 * Return the value below which the given percentage of the recorded values
+	 * fall, rounded up to the upper bound of its bucket, or 0 if none.
+	 * @param percentile the percentile, between 0 and 100
+	 */
+	public long getValueAtPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+		long count = this.totalCount.sum();
+		if (count == 0) {
+			return 0;
+		}
+		long threshold = Math.max(1, (long) Math.ceil(count * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += this.counts.get(i);
+			if (seen >= threshold) {
+				return Math.min(highestValueInBucket(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Clear all recorded values. Values recorded concurrently may or may not
+	 * be retained.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			this.counts.set(i, 0);
+		}
+		this.totalCount.reset();
+		this.totalValue.reset();
+		this.maxValue.set(0);
+	}
+
+	/**
+	 * Return a short summary of the recorded values, interpreted as durations
+	 * in the given time unit and converted to milliseconds.
+	 */
+	public String toSummaryString(TimeUnit unit) {
+		return "count=" + getCount() + ", mean=" + toMillis(getMean(), unit) +
+				"ms, p50=" + toMillis(getValueAtPercentile(50), unit) +
+				"ms, p99=" + toMillis(getValueAtPercentile(99), unit) +
+				"ms, max=" + toMillis(getMax(), unit) + "ms";
+	}
+
+	@Override
+	public String toString() {
+		return "LatencyHistogram [" + toSummaryString(TimeUnit.NANOSECONDS) + "]";
+	}
+
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long highestValueInBucket(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+		long subBucket = index % SUB_BUCKET_COUNT;
+		long lowest = (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+		long width = 1L << (exponent - SUB_BUCKET_BITS);
+		return lowest + (width - 1);
+	}
+
+	private static double toMillis(double value, TimeUnit unit) {
+		double millis = value * unit.toNanos(1) / 1000000d;
+		return Math.round(millis * 1000) / 1000d;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,15 +16,19 @@
 
 package org.springframework.util;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +71,16 @@ public abstract class ReflectionUtils {
 	 */
 	private static final Map<Class<?>, Field[]> declaredFieldsCache = new ConcurrentReferenceHashMap<>(256);
 
+	/**
+	 * Cache for methods by name across a class hierarchy, in {@link #findMethod} search order.
+	 */
+	private static final Map<Class<?>, Map<String, Method[]>> methodIndexCache = new ConcurrentReferenceHashMap<>(256);
+
+	/**
+	 * Cache for fields by name across a class hierarchy, in {@link #findField} search order.
+	 */
+	private static final Map<Class<?>, Map<String, Field[]>> fieldIndexCache = new ConcurrentReferenceHashMap<>(256);
+
 
 	/**
 	 * Attempt to find a {@link Field field} on the supplied {@link Class} with the
@@ -91,6 +105,26 @@ public abstract class ReflectionUtils {
 	public static Field findField(Class<?> clazz, String name, Class<?> type) {
 		Assert.notNull(clazz, "Class must not be null");
 		Assert.isTrue(name != null || type != null, "Either name or type of the field must be specified");
+		if (name != null) {
+			Map<String, Field[]> index = null;
+			try {
+				index = getFieldIndex(clazz);
+			}
+			catch (IllegalStateException ex) {
+				// Some superclass not introspectable - fall back to step-by-step search below
+			}
+			if (index != null) {
+				Field[] candidates = index.get(name);
+				if (candidates != null) {
+					for (Field field : candidates) {
+						if (type == null || type.equals(field.getType())) {
+							return field;
+						}
+					}
+				}
+				return null;
+			}
+		}
 		Class<?> searchType = clazz;
 		while (Object.class != searchType && searchType != null) {
 			Field[] fields = getDeclaredFields(searchType);
@@ -172,6 +206,25 @@ public abstract class ReflectionUtils {
 	public static Method findMethod(Class<?> clazz, String name, Class<?>... paramTypes) {
 		Assert.notNull(clazz, "Class must not be null");
 		Assert.notNull(name, "Method name must not be null");
+		Map<String, Method[]> index = null;
+		try {
+			index = getMethodIndex(clazz);
+		}
+		catch (IllegalStateException ex) {
+			// Some superclass not introspectable - fall back to step-by-step search below
+		}
+		if (index != null) {
+			Method[] candidates = index.get(name);
+			if (candidates != null) {
+				for (Method method : candidates) {
+					if (paramTypes == null || (paramTypes.length == method.getParameterCount() &&
+							Arrays.equals(paramTypes, method.getParameterTypes()))) {
+						return method;
+					}
+				}
+			}
+			return null;
+		}
 		Class<?> searchType = clazz;
 		while (searchType != null) {
 			Method[] methods = (searchType.isInterface() ? searchType.getMethods() : getDeclaredMethods(searchType));
@@ -655,6 +708,90 @@ public abstract class ReflectionUtils {
 		return result;
 	}
 
+	/**
+	 * Return the methods of the given class and its superclasses grouped by name,
+	 * each group in the order that {@link #findMethod} searches the hierarchy.
+	 * Interfaces are indexed based on {@link Class#getMethods()}.
+	 * @param clazz the class to introspect
+	 * @return the cached method index
+	 * @throws IllegalStateException if introspection fails
+	 */
+	private static Map<String, Method[]> getMethodIndex(Class<?> clazz) {
+		Map<String, Method[]> result = methodIndexCache.get(clazz);
+		if (result == null) {
+			if (clazz.isInterface()) {
+				try {
+					result = buildIndex(clazz.getMethods(), null);
+				}
+				catch (Throwable ex) {
+					throw new IllegalStateException("Failed to introspect Class [" + clazz.getName() +
+							"] from ClassLoader [" + clazz.getClassLoader() + "]", ex);
+				}
+			}
+			else {
+				Class<?> superclass = clazz.getSuperclass();
+				result = buildIndex(getDeclaredMethods(clazz), (superclass != null ? getMethodIndex(superclass) : null));
+			}
+			methodIndexCache.put(clazz, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the fields of the given class and its superclasses up to {@link Object}
+	 * grouped by name, each group in the order that {@link #findField} searches the hierarchy.
+	 * @param clazz the class to introspect
+	 * @return the cached field index
+	 * @throws IllegalStateException if introspection fails
+	 */
+	private static Map<String, Field[]> getFieldIndex(Class<?> clazz) {
+		if (Object.class == clazz) {
+			return Collections.emptyMap();
+		}
+		Map<String, Field[]> result = fieldIndexCache.get(clazz);
+		if (result == null) {
+			Class<?> superclass = clazz.getSuperclass();
+			result = buildIndex(getDeclaredFields(clazz), (superclass != null ? getFieldIndex(superclass) : null));
+			fieldIndexCache.put(clazz, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Group the given members by name, appending the groups of the given
+	 * superclass index after the locally declared members.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends Member> Map<String, T[]> buildIndex(T[] members, Map<String, T[]> superIndex) {
+		Map<String, T[]> index = new HashMap<>((members.length + (superIndex != null ? superIndex.size() : 0)) * 2);
+		for (T member : members) {
+			T[] group = index.get(member.getName());
+			if (group == null) {
+				group = (T[]) Array.newInstance(members.getClass().getComponentType(), 1);
+			}
+			else {
+				group = Arrays.copyOf(group, group.length + 1);
+			}
+			group[group.length - 1] = member;
+			index.put(member.getName(), group);
+		}
+		if (superIndex != null) {
+			for (Map.Entry<String, T[]> entry : superIndex.entrySet()) {
+				T[] group = index.get(entry.getKey());
+				if (group == null) {
+					index.put(entry.getKey(), entry.getValue());
+				}
+				else {
+					T[] superGroup = entry.getValue();
+					T[] merged = Arrays.copyOf(group, group.length + superGroup.length);
+					System.arraycopy(superGroup, 0, merged, group.length, superGroup.length);
+					index.put(entry.getKey(), merged);
+				}
+			}
+		}
+		return index;
+	}
+
 	private static List<Method> findConcreteMethodsOnInterfaces(Class<?> clazz) {
 		List<Method> result = null;
 		for (Class<?> ifc : clazz.getInterfaces()) {
@@ -788,6 +925,8 @@ public abstract class ReflectionUtils {
 	public static void clearCache() {
 		declaredMethodsCache.clear();
 		declaredFieldsCache.clear();
+		methodIndexCache.clear();
+		fieldIndexCache.clear();
 	}
 
 
@@ -116,6 +116,18 @@ public class ResolvableTypeTests {
 		assertTrue(type.isAssignableFrom(String.class));
 	}
 
+	@Test
+	public void forClassIsShared() throws Exception {
+		ResolvableType type = ResolvableType.forClass(ExtendsList.class);
+		assertThat(ResolvableType.forClass(ExtendsList.class), sameInstance(type));
+		assertThat(ResolvableType.forType(ExtendsList.class), sameInstance(type));
+		assertThat(ResolvableType.forClass(null), sameInstance(ResolvableType.forClass(Object.class)));
+		ResolvableType.clearCache();
+		ResolvableType other = ResolvableType.forClass(ExtendsList.class);
+		assertThat(other, not(sameInstance(type)));
+		assertThat(other, equalTo(type));
+	}
+
 	@Test
 	public void forRawClass() throws Exception {
 		ResolvableType type = ResolvableType.forRawClass(ExtendsList.class);
@@ -394,6 +406,25 @@ public class ResolvableTypeTests {
 		assertThat(type.as(ExtendsList.class), equalTo(type));
 	}
 
+	@Test
+	public void asIsMemoized() throws Exception {
+		ResolvableType type = ResolvableType.forClass(ExtendsList.class);
+		ResolvableType listType = type.as(List.class);
+		assertThat(type.as(List.class), sameInstance(listType));
+		assertThat(type.as(Map.class), sameInstance(ResolvableType.NONE));
+		assertThat(type.as(Map.class), sameInstance(ResolvableType.NONE));
+	}
+
+	@Test
+	public void getSuperTypeAndInterfacesAreMemoized() throws Exception {
+		ResolvableType type = ResolvableType.forClass(ExtendsList.class);
+		assertThat(type.getSuperType(), sameInstance(type.getSuperType()));
+		assertThat(type.getInterfaces(), sameInstance(type.getInterfaces()));
+		ResolvableType objectType = ResolvableType.forClass(Object.class);
+		assertThat(objectType.getSuperType(), sameInstance(ResolvableType.NONE));
+		assertThat(objectType.getInterfaces().length, equalTo(0));
+	}
+
 	@Test
 	public void getSuperType() throws Exception {
 		ResolvableType type = ResolvableType.forClass(ExtendsList.class).getSuperType();
@@ -978,6 +1009,22 @@ public class ResolvableTypeTests {
 		assertFalse(stringType.isInstance(new StringBuilder("a StringBuilder")));
 	}
 
+	@Test
+	public void isAssignableFromForPlainClassAndGenericType() throws Exception {
+		ResolvableType objectType = ResolvableType.forClass(Object.class);
+		ResolvableType charSequenceType = ResolvableType.forClass(CharSequence.class);
+		ResolvableType listOfString = ResolvableType.forClassWithGenerics(List.class, String.class);
+
+		assertTrue(objectType.isAssignableFrom((Class<?>) null));
+		assertFalse(charSequenceType.isAssignableFrom((Class<?>) null));
+		assertTrue(objectType.isAssignableFrom(listOfString));
+		assertFalse(charSequenceType.isAssignableFrom(listOfString));
+		assertTrue(objectType.isAssignableFrom(String[].class));
+		assertFalse(ResolvableType.forClass(Object[].class).isAssignableFrom(String.class));
+		assertTrue(ResolvableType.forClass(Object[].class).isAssignableFrom(String[].class));
+		assertTrue(ResolvableType.forClass(int.class).isAssignableFrom(Integer.class));
+	}
+
 	@Test
 	public void isAssignableFromCannotBeResolved() throws Exception {
 		ResolvableType objectType = ResolvableType.forClass(Object.class);
@@ -652,6 +652,34 @@ public class AnnotatedElementUtilsTests {
 		assertEquals("TX qualifier via synthesized annotation.", "aliasForQualifier", annotation.qualifier());
 	}
 
+	@Test
+	public void findMergedAnnotationIsResolvedOnce() {
+		Class<?> element = AliasedTransactionalComponentClass.class;
+		AliasedTransactional annotation = findMergedAnnotation(element, AliasedTransactional.class);
+		assertSame(annotation, findMergedAnnotation(element, AliasedTransactional.class));
+		assertEquals("aliasForQualifier", annotation.value());
+	}
+
+	@Test
+	public void getMergedAnnotationIsResolvedOnce() {
+		Class<?> element = AliasedTransactionalComponentClass.class;
+		AliasedTransactional annotation = getMergedAnnotation(element, AliasedTransactional.class);
+		assertSame(annotation, getMergedAnnotation(element, AliasedTransactional.class));
+		assertNotSame(annotation, findMergedAnnotation(element, AliasedTransactional.class));
+	}
+
+	@Test
+	public void absentAnnotationOnRepeatedLookups() {
+		for (int i = 0; i < 2; i++) {
+			assertFalse(isAnnotated(NonAnnotatedClass.class, Transactional.class));
+			assertFalse(hasAnnotation(NonAnnotatedClass.class, Transactional.class));
+			assertNull(getMergedAnnotation(NonAnnotatedClass.class, Transactional.class));
+			assertNull(findMergedAnnotation(NonAnnotatedClass.class, Transactional.class));
+			assertNull(getMergedAnnotationAttributes(NonAnnotatedClass.class, TX_NAME));
+			assertNull(AnnotatedElementUtils.findMergedAnnotationAttributes(NonAnnotatedClass.class, TX_NAME, false, false));
+		}
+	}
+
 	@Test
 	public void findMergedAnnotationForMultipleMetaAnnotationsWithClashingAttributeNames() {
 		String[] xmlLocations = asArray("test.xml");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -641,6 +641,69 @@ public class GenericConversionServiceTests {
 				conversionService.convert("test", TypeDescriptor.valueOf(String.class), new TypeDescriptor(getClass().getField("integerCollection"))));
 	}
 
+	@Test
+	public void convertByClassAfterConverterAdded() {
+		conversionService.addConverter(String.class, Integer.class, Integer::valueOf);
+		assertEquals(Integer.valueOf(3), conversionService.convert("3", Integer.class));
+
+		conversionService.addConverter(String.class, Integer.class, source -> source.length());
+		assertEquals(Integer.valueOf(2), conversionService.convert("33", Integer.class));
+
+		conversionService.removeConvertible(String.class, Integer.class);
+		try {
+			conversionService.convert("3", Integer.class);
+			fail("Should have thrown ConverterNotFoundException");
+		}
+		catch (ConverterNotFoundException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void convertByClassWithOverriddenConversion() {
+		GenericConversionService conversionService = new GenericConversionService() {
+			@Override
+			public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return (source instanceof String ? 0 : super.convert(source, sourceType, targetType));
+			}
+		};
+		conversionService.addConverter(String.class, Integer.class, Integer::valueOf);
+		assertEquals(Integer.valueOf(0), conversionService.convert("3", Integer.class));
+		assertEquals(Integer.valueOf(0), conversionService.convertElements(Arrays.asList("1", "2"), Integer.class).get(1));
+	}
+
+	@Test
+	public void convertElements() {
+		conversionService.addConverter(new GenericConverter() {
+			@Override
+			public Set<ConvertiblePair> getConvertibleTypes() {
+				return Collections.singleton(new ConvertiblePair(Number.class, String.class));
+			}
+			@Override
+			public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return sourceType.getType().getSimpleName() + ":" + source;
+			}
+		});
+		conversionService.addConverter(String.class, String.class, String::toUpperCase);
+
+		List<String> result = conversionService.convertElements(
+				Arrays.asList(1, 2, null, 3L, "a", 4), String.class);
+		assertEquals(Arrays.asList("Integer:1", "Integer:2", null, "Long:3", "A", "Integer:4"), result);
+	}
+
+	@Test
+	public void convertElementsWithCollectionType() throws Exception {
+		conversionService.addConverter(new ColorConverter());
+		List<Object> result = conversionService.convertElements(Arrays.asList("#000000", "#ffffff"),
+				new TypeDescriptor(getClass().getField("stringCollection")), TypeDescriptor.valueOf(Color.class));
+		assertEquals(Arrays.asList(Color.BLACK, Color.WHITE), result);
+	}
+
+	@Test(expected = ConverterNotFoundException.class)
+	public void convertElementsWithoutConverter() {
+		conversionService.convertElements(Arrays.asList("1", "2"), Integer.class);
+	}
+
 
 	@ExampleAnnotation(active = true)
 	public String annotatedString;
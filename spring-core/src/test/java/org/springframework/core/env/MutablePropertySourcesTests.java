@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -153,4 +153,28 @@ public class MutablePropertySourcesTests {
 		assertThat(sources.get("bogus"), nullValue());
 	}
 
+	@Test
+	public void modificationCount() {
+		MutablePropertySources sources = new MutablePropertySources();
+		long count = sources.getModificationCount();
+		sources.addLast(new MockPropertySource("b"));
+		assertTrue(sources.getModificationCount() > count);
+
+		count = sources.getModificationCount();
+		sources.addFirst(new MockPropertySource("a"));
+		assertTrue(sources.getModificationCount() > count);
+
+		count = sources.getModificationCount();
+		sources.replace("a", new MockPropertySource("a"));
+		assertTrue(sources.getModificationCount() > count);
+
+		count = sources.getModificationCount();
+		sources.remove("a");
+		assertTrue(sources.getModificationCount() > count);
+
+		count = sources.getModificationCount();
+		sources.remove("a");
+		assertEquals(count, sources.getModificationCount());
+	}
+
 }
@@ -17,6 +17,7 @@
 package org.springframework.core.env;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -24,6 +25,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import org.springframework.core.convert.ConverterNotFoundException;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.mock.env.MockPropertySource;
 
 import static org.hamcrest.Matchers.*;
@@ -367,4 +369,91 @@ public class PropertySourcesPropertyResolverTests {
 		}
 	}
 
+	@Test
+	public void cachedPropertiesAreInvalidatedOnPropertySourcesChange() {
+		MutablePropertySources ps = new MutablePropertySources();
+		MockPropertySource source = new MockPropertySource("low").withProperty("num", "1");
+		ps.addFirst(source);
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCacheProperties(true);
+		assertThat(pr.getProperty("num"), equalTo("1"));
+		assertThat(pr.getProperty("num", Integer.class), equalTo(1));
+		assertThat(pr.getProperty("missing"), nullValue());
+
+		source.setProperty("num", "2");
+		assertThat(pr.getProperty("num"), equalTo("1"));
+
+		ps.addFirst(new MockPropertySource("high").withProperty("missing", "found"));
+		assertThat(pr.getProperty("num"), equalTo("2"));
+		assertThat(pr.getProperty("num", Integer.class), equalTo(2));
+		assertThat(pr.getProperty("missing"), equalTo("found"));
+
+		ps.remove("high");
+		assertThat(pr.getProperty("missing"), nullValue());
+
+		source.setProperty("num", "3");
+		pr.clearCache();
+		assertThat(pr.getProperty("num", Integer.class), equalTo(3));
+	}
+
+	@Test
+	public void cachedPropertiesWithNestedPlaceholders() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource()
+				.withProperty("p1", "v1")
+				.withProperty("p2", "${p1}:v2"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCacheProperties(true);
+		assertThat(pr.getProperty("p2"), equalTo("v1:v2"));
+		assertThat(pr.getProperty("p2"), equalTo("v1:v2"));
+
+		ps.addFirst(new MockPropertySource("override").withProperty("p1", "o1"));
+		assertThat(pr.getProperty("p2"), equalTo("o1:v2"));
+	}
+
+	@Test
+	public void cachedPropertiesAreInvalidatedOnSettingsChange() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource()
+				.withProperty("num", "1")
+				.withProperty("p1", "${bogus}"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCacheProperties(true);
+		pr.setIgnoreUnresolvableNestedPlaceholders(true);
+		assertThat(pr.getProperty("p1"), equalTo("${bogus}"));
+		assertThat(pr.getProperty("num", Integer.class), equalTo(1));
+
+		pr.setIgnoreUnresolvableNestedPlaceholders(false);
+		try {
+			pr.getProperty("p1");
+			fail("Expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException ex) {
+			// expected
+		}
+
+		DefaultConversionService conversionService = new DefaultConversionService();
+		conversionService.addConverter(String.class, Integer.class, source -> 42);
+		pr.setConversionService(conversionService);
+		assertThat(pr.getProperty("num", Integer.class), equalTo(42));
+	}
+
+	@Test
+	public void cachedArrayPropertiesAreNotShared() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource().withProperty("list", "a,b"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setCacheProperties(true);
+
+		String[] values = pr.getProperty("list", String[].class);
+		assertThat(values, equalTo(new String[] {"a", "b"}));
+		values[0] = "modified";
+		assertThat(pr.getProperty("list", String[].class), equalTo(new String[] {"a", "b"}));
+		assertNotSame(pr.getProperty("list", String[].class), pr.getProperty("list", String[].class));
+
+		List<?> list = pr.getProperty("list", List.class);
+		assertNotSame(list, pr.getProperty("list", List.class));
+		assertEquals(list, pr.getProperty("list", List.class));
+	}
+
 }
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -106,6 +107,24 @@ public class PathMatchingResourcePatternResolverTests {
 		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
 	}
 
+	@Test
+	public void classpathStarWithPatternInJarAfterIndexing() throws IOException {
+		Resource[] resources = resolver.getResources("classpath*:org/reactivestreams/*.class");
+		resolver.setJarEntryIndexing(true);
+		assertArrayEquals(resources, resolver.getResources("classpath*:org/reactivestreams/*.class"));
+		assertArrayEquals(resources, resolver.getResources("classpath*:org/reactivestreams/*.class"));
+		resolver.clearCache();
+		assertArrayEquals(resources, resolver.getResources("classpath*:org/reactivestreams/*.class"));
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+	}
+
+	@Test
+	public void classpathStarWithPatternInJarWithScanningPool() throws IOException {
+		Resource[] resources = resolver.getResources("classpath*:org/**/package-info.class");
+		resolver.setScanningPool(ForkJoinPool.commonPool());
+		assertArrayEquals(resources, resolver.getResources("classpath*:org/**/package-info.class"));
+	}
+
 	@Test
 	public void rootPatternRetrievalInJarFiles() throws IOException {
 		Resource[] resources = resolver.getResources("classpath*:*.dtd");
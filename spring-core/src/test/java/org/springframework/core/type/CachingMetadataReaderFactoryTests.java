@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the shared cache of {@link CachingMetadataReaderFactory}.
+ */
+public class CachingMetadataReaderFactoryTests {
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+
+	@After
+	public void clearSharedCache() {
+		CachingMetadataReaderFactory.clearSharedCache(this.classLoader);
+	}
+
+
+	@Test
+	public void sharedAcrossFactoriesAndResourceHandles() throws Exception {
+		Resource classPathResource = new ClassPathResource(getClass().getName().replace('.', '/') + ".class");
+		Resource urlResource = new UrlResource(classPathResource.getURL());
+
+		MetadataReader reader1 = new CachingMetadataReaderFactory(this.classLoader).getMetadataReader(classPathResource);
+		MetadataReader reader2 = new CachingMetadataReaderFactory(this.classLoader).getMetadataReader(urlResource);
+		assertSame(reader1.getAnnotationMetadata(), reader2.getAnnotationMetadata());
+		assertSame(classPathResource, reader1.getResource());
+		assertSame(urlResource, reader2.getResource());
+		assertEquals(getClass().getName(), reader2.getClassMetadata().getClassName());
+	}
+
+	@Test
+	public void sharedCacheCanBeCleared() throws Exception {
+		Resource resource = new ClassPathResource(getClass().getName().replace('.', '/') + ".class");
+		MetadataReader reader1 = new CachingMetadataReaderFactory(this.classLoader).getMetadataReader(resource);
+		CachingMetadataReaderFactory.clearSharedCache(this.classLoader);
+		MetadataReader reader2 = new CachingMetadataReaderFactory(this.classLoader).getMetadataReader(resource);
+		assertNotSame(reader1.getAnnotationMetadata(), reader2.getAnnotationMetadata());
+	}
+
+	@Test
+	public void modifiedClassFileIsReadAgain() throws Exception {
+		File classFile = File.createTempFile("CachingMetadataReaderFactoryTests", ".class");
+		try {
+			URL url = getClass().getResource(getClass().getSimpleName() + ".class");
+			try (InputStream is = url.openStream()) {
+				Files.copy(is, classFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			Resource resource = new FileSystemResource(classFile);
+
+			MetadataReader reader1 = new CachingMetadataReaderFactory(this.classLoader).getMetadataReader(resource);
+			MetadataReader reader2 = new CachingMetadataReaderFactory(this.classLoader).getMetadataReader(resource);
+			assertSame(reader1.getAnnotationMetadata(), reader2.getAnnotationMetadata());
+
+			assertTrue(classFile.setLastModified(classFile.lastModified() - 10000));
+			MetadataReader reader3 = new CachingMetadataReaderFactory(this.classLoader).getMetadataReader(resource);
+			assertNotSame(reader1.getAnnotationMetadata(), reader3.getAnnotationMetadata());
+			assertEquals(getClass().getName(), reader3.getClassMetadata().getClassName());
+		}
+		finally {
+			classFile.delete();
+		}
+	}
+
+}
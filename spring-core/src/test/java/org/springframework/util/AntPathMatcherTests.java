@@ -616,10 +616,44 @@ public class AntPathMatcherTests {
 		assertTrue(pathMatcher.stringMatcherCache.size() > 20);
 
 		for (int i = 0; i < 65536; i++) {
-			pathMatcher.match("test" + i, "test");
+			pathMatcher.match("test" + i, "test" + i);
 		}
-		// Cache turned off because it went beyond the threshold
-		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
+		// Cache bounded by the default limit
+		assertEquals(AntPathMatcher.DEFAULT_CACHE_LIMIT, pathMatcher.stringMatcherCache.size());
+	}
+
+	@Test
+	public void cacheLimitKeepsFrequentlyUsedPatterns() {
+		pathMatcher.setCacheLimit(16);
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(pathMatcher.match("/hot/*", "/hot/" + i));
+			pathMatcher.match("/cold" + i + "/*", "/cold" + i + "/" + i);
+		}
+		assertEquals(16, pathMatcher.stringMatcherCache.size());
+		assertNotNull(pathMatcher.stringMatcherCache.get("*"));
+		assertNotNull(pathMatcher.stringMatcherCache.get("hot"));
+	}
+
+	@Test
+	public void cacheLimitSetToZero() {
+		pathMatcher.setCacheLimit(0);
+		match();
+		assertEquals(0, pathMatcher.stringMatcherCache.size());
+	}
+
+	@Test
+	public void patternCacheStatistics() {
+		assertEquals(0, pathMatcher.getPatternCacheHitCount());
+		assertEquals(0, pathMatcher.getPatternCacheMissCount());
+
+		pathMatcher.match("/test/*", "/test/a");
+		long misses = pathMatcher.getPatternCacheMissCount();
+		assertTrue(misses > 0);
+		assertEquals(0, pathMatcher.getPatternCacheHitCount());
+
+		pathMatcher.match("/test/*", "/test/b");
+		assertEquals(misses, pathMatcher.getPatternCacheMissCount());
+		assertEquals(misses, pathMatcher.getPatternCacheHitCount());
 	}
 
 	@Test
@@ -671,7 +705,7 @@ public class AntPathMatcherTests {
 	public void cachePatternsSetToFalse() {
 		pathMatcher.setCachePatterns(false);
 		match();
-		assertTrue(pathMatcher.stringMatcherCache.isEmpty());
+		assertEquals(0, pathMatcher.stringMatcherCache.size());
 	}
 
 	@Test
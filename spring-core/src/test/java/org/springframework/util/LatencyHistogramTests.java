@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTests {
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+
+	@Test
+	public void empty() {
+		assertEquals(0, this.histogram.getCount());
+		assertEquals(0, this.histogram.getMax());
+		assertEquals(0, this.histogram.getMean(), 0);
+		assertEquals(0, this.histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		for (int i = 1; i <= 10; i++) {
+			this.histogram.record(i);
+		}
+		assertEquals(10, this.histogram.getCount());
+		assertEquals(10, this.histogram.getMax());
+		assertEquals(5.5, this.histogram.getMean(), 0);
+		assertEquals(5, this.histogram.getValueAtPercentile(50));
+		assertEquals(9, this.histogram.getValueAtPercentile(90));
+		assertEquals(10, this.histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void largeValuesWithinPrecision() {
+		for (long i = 1; i <= 1000; i++) {
+			this.histogram.record(i * 1000000);
+		}
+		assertEquals(1000000000, this.histogram.getMax());
+		assertWithinPrecision(500000000, this.histogram.getValueAtPercentile(50));
+		assertWithinPrecision(990000000, this.histogram.getValueAtPercentile(99));
+		assertEquals(1000000000, this.histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void bucketBoundaries() {
+		for (long value : new long[] {0, 31, 32, 33, 63, 64, 65, 1000, 123456789, Long.MAX_VALUE}) {
+			int index = LatencyHistogram.bucketIndex(value);
+			long highest = LatencyHistogram.highestValueInBucket(index);
+			assertTrue(value + " above " + highest, value <= highest);
+			assertTrue(highest == Long.MAX_VALUE || LatencyHistogram.bucketIndex(highest + 1) == index + 1);
+		}
+	}
+
+	@Test
+	public void negativeValueRecordedAsZero() {
+		this.histogram.record(-5);
+		assertEquals(1, this.histogram.getCount());
+		assertEquals(0, this.histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void reset() {
+		this.histogram.record(42);
+		this.histogram.reset();
+		assertEquals(0, this.histogram.getCount());
+		assertEquals(0, this.histogram.getMax());
+		assertEquals(0, this.histogram.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void concurrentRecording() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		CountDownLatch latch = new CountDownLatch(4);
+		for (int i = 0; i < 4; i++) {
+			executor.execute(() -> {
+				for (int j = 0; j < 10000; j++) {
+					this.histogram.record(j);
+				}
+				latch.countDown();
+			});
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		executor.shutdown();
+		assertEquals(40000, this.histogram.getCount());
+		assertEquals(9999, this.histogram.getMax());
+	}
+
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertTrue("Expected ~" + expected + " but was " + actual,
+				Math.abs(actual - expected) <= expected / 32);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -219,6 +219,35 @@ public class ReflectionUtilsTests {
 		assertNotNull(ReflectionUtils.findMethod(B.class, "getClass"));
 	}
 
+	@Test
+	public void findMethodInHierarchyOrder() throws Exception {
+		assertEquals(C.class, ReflectionUtils.findMethod(C.class, "foo", Integer.class).getDeclaringClass());
+		assertEquals(A.class, ReflectionUtils.findMethod(B.class, "foo", Integer.class).getDeclaringClass());
+		assertEquals(C.class, ReflectionUtils.findMethod(C.class, "foo", (Class<?>[]) null).getDeclaringClass());
+		assertEquals(A.class, ReflectionUtils.findMethod(C.class, "foo", String.class).getDeclaringClass());
+		assertNull(ReflectionUtils.findMethod(C.class, "foo", Long.class));
+		assertNull(ReflectionUtils.findMethod(C.class, "baz"));
+	}
+
+	@Test
+	public void findMethodOnInterfaces() throws Exception {
+		assertEquals(D.class, ReflectionUtils.findMethod(C.class, "qux").getDeclaringClass());
+		assertEquals(D.class, ReflectionUtils.findMethod(E.class, "qux").getDeclaringClass());
+		assertNotNull(ReflectionUtils.findMethod(E.class, "quux"));
+		assertNull(ReflectionUtils.findMethod(E.class, "getClass"));
+	}
+
+	@Test
+	public void findShadowedField() {
+		Field field = ReflectionUtils.findField(C.class, "value");
+		assertEquals(C.class, field.getDeclaringClass());
+		field = ReflectionUtils.findField(C.class, "value", String.class);
+		assertEquals(A.class, field.getDeclaringClass());
+		assertNull(ReflectionUtils.findField(C.class, "value", Long.class));
+		assertNull(ReflectionUtils.findField(C.class, "other"));
+		assertNull(ReflectionUtils.findField(Object.class, "value"));
+	}
+
 	@Ignore("[SPR-8644] findMethod() does not currently support var-args")
 	@Test
 	public void findMethodWithVarArgs() throws Exception {
@@ -411,9 +440,16 @@ public class ReflectionUtilsTests {
 
 	private static class A {
 
+		@SuppressWarnings("unused")
+		private String value;
+
 		@SuppressWarnings("unused")
 		private void foo(Integer i) throws RemoteException {
 		}
+
+		@SuppressWarnings("unused")
+		private void foo(String s) {
+		}
 	}
 
 	@SuppressWarnings("unused")
@@ -431,4 +467,28 @@ public class ReflectionUtilsTests {
 		}
 	}
 
+	@SuppressWarnings("unused")
+	private static class C extends B implements E {
+
+		private Integer value;
+
+		void foo(Integer i) {
+		}
+
+		@Override
+		public void quux() {
+		}
+	}
+
+	private interface D {
+
+		default void qux() {
+		}
+	}
+
+	private interface E extends D {
+
+		void quux();
+	}
+
 }
@@ -16,7 +16,9 @@
 
 package org.springframework.messaging.simp.broker;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -26,19 +28,30 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
+import org.springframework.expression.spel.CompilablePropertyAccessor;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.Indexer;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
-import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
@@ -54,6 +67,15 @@ import org.springframework.util.PathMatcher;
  * header on subscription messages with Spring EL expressions evaluated against
  * the headers to filter out messages in addition to destination matching.
  *
+ * <p>As of 5.0, selectors of the form {@code headers.foo == 'bar'} (or
+ * {@code headers['foo'] == 'bar'}) are recognized when the subscription is
+ * added. For each cached destination, the subscriptions with such selectors
+ * are indexed by header name and value, so that matching a message resolves
+ * each selector header once and looks up the subscriptions for its value,
+ * rather than checking every subscription. Other selectors are parsed in
+ * {@link SpelCompilerMode#MIXED mixed} compiler mode so they are compiled to
+ * bytecode once they have been evaluated a number of times.
+ *
  * @author Rossen Stoyanchev
  * @author Sebastien Deleuze
  * @author Juergen Hoeller
@@ -73,7 +95,8 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	private volatile boolean selectorHeaderInUse = false;
 
-	private final ExpressionParser expressionParser = new SpelExpressionParser();
+	private final ExpressionParser expressionParser = new SpelExpressionParser(
+			new SpelParserConfiguration(SpelCompilerMode.MIXED, DefaultSubscriptionRegistry.class.getClassLoader()));
 
 	private final DestinationCache destinationCache = new DestinationCache();
 
@@ -140,11 +163,13 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			String sessionId, String subsId, String destination, Message<?> message) {
 
 		Expression expression = null;
+		HeaderValueSelector headerValueSelector = null;
 		MessageHeaders headers = message.getHeaders();
 		String selector = SimpMessageHeaderAccessor.getFirstNativeHeader(getSelectorHeaderName(), headers);
 		if (selector != null) {
 			try {
 				expression = this.expressionParser.parseExpression(selector);
+				headerValueSelector = HeaderValueSelector.from(expression);
 				this.selectorHeaderInUse = true;
 				if (logger.isTraceEnabled()) {
 					logger.trace("Subscription selector: [" + selector + "]");
@@ -156,7 +181,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 				}
 			}
 		}
-		this.subscriptionRegistry.addSubscription(sessionId, subsId, destination, expression);
+		this.subscriptionRegistry.addSubscription(sessionId, subsId, destination, expression, headerValueSelector);
 		this.destinationCache.updateAfterNewSubscription(destination, sessionId, subsId);
 	}
 
@@ -181,53 +206,30 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	@Override
 	protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
-		MultiValueMap<String, String> result = this.destinationCache.getSubscriptions(destination, message);
-		return filterSubscriptions(result, message);
+		LinkedMultiValueMap<String, String> result = this.destinationCache.getSubscriptions(destination, message);
+		return filterSubscriptions(destination, result, message);
 	}
 
 	private MultiValueMap<String, String> filterSubscriptions(
-			MultiValueMap<String, String> allMatches, Message<?> message) {
+			String destination, LinkedMultiValueMap<String, String> allMatches, Message<?> message) {
 
 		if (!this.selectorHeaderInUse) {
 			return allMatches;
 		}
-		EvaluationContext context = null;
-		MultiValueMap<String, String> result = new LinkedMultiValueMap<>(allMatches.size());
-		for (String sessionId : allMatches.keySet()) {
-			for (String subId : allMatches.get(sessionId)) {
-				SessionSubscriptionInfo info = this.subscriptionRegistry.getSubscriptions(sessionId);
-				if (info == null) {
-					continue;
-				}
-				Subscription sub = info.getSubscription(subId);
-				if (sub == null) {
-					continue;
-				}
-				Expression expression = sub.getSelectorExpression();
-				if (expression == null) {
-					result.add(sessionId, subId);
-					continue;
-				}
-				if (context == null) {
-					context = new StandardEvaluationContext(message);
-					context.getPropertyAccessors().add(new SimpMessageHeaderPropertyAccessor());
-				}
-				try {
-					if (expression.getValue(context, boolean.class)) {
-						result.add(sessionId, subId);
-					}
-				}
-				catch (SpelEvaluationException ex) {
-					if (logger.isDebugEnabled()) {
-						logger.debug("Failed to evaluate selector: " + ex.getMessage());
-					}
-				}
-				catch (Throwable ex) {
-					logger.debug("Failed to evaluate selector", ex);
-				}
-			}
+		return this.destinationCache.getSelectorIndex(destination, allMatches).match(message);
+	}
+
+	/**
+	 * Resolve a header the way {@link SimpMessageHeaderPropertyAccessor} does
+	 * for {@code headers.foo}: the destination, or else the first native header
+	 * value, or else the message header of that name.
+	 */
+	private static Object getHeaderValue(MessageHeaders headers, String name) {
+		if ("destination".equalsIgnoreCase(name)) {
+			return SimpMessageHeaderAccessor.getDestination(headers);
 		}
-		return result;
+		Object value = SimpMessageHeaderAccessor.getFirstNativeHeader(name, headers);
+		return (value != null ? value : headers.get(name));
 	}
 
 	@Override
@@ -254,6 +256,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
 						if (size() > getCacheLimit()) {
 							accessCache.remove(eldest.getKey());
+							selectorIndexCache.remove(eldest.getKey());
 							return true;
 						}
 						else {
@@ -262,6 +265,9 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 					}
 				};
 
+		/** Map from destination -> selector index over its entry in the access cache */
+		private final Map<String, SelectorIndex> selectorIndexCache = new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
+
 
 		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
 			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
@@ -286,6 +292,26 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			return result;
 		}
 
+		/**
+		 * Return the selector index for the given subscriptions of a destination,
+		 * re-using the cached index as long as the subscriptions are unchanged.
+		 * Every change to the subscriptions of a destination puts a new copy
+		 * into the access cache, which invalidates its index.
+		 */
+		public SelectorIndex getSelectorIndex(String destination, LinkedMultiValueMap<String, String> subscriptions) {
+			SelectorIndex index = this.selectorIndexCache.get(destination);
+			if (index != null && index.getSubscriptions() == subscriptions) {
+				return index;
+			}
+			index = new SelectorIndex(subscriptions);
+			synchronized (this.updateCache) {
+				if (this.accessCache.get(destination) == subscriptions) {
+					this.selectorIndexCache.put(destination, index);
+				}
+			}
+			return index;
+		}
+
 		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
 			synchronized (this.updateCache) {
 				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
@@ -322,6 +348,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 				for (String destination : destinationsToRemove) {
 					this.updateCache.remove(destination);
 					this.accessCache.remove(destination);
+					this.selectorIndexCache.remove(destination);
 				}
 			}
 		}
@@ -344,6 +371,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 				for (String destination : destinationsToRemove) {
 					this.updateCache.remove(destination);
 					this.accessCache.remove(destination);
+					this.selectorIndexCache.remove(destination);
 				}
 			}
 		}
@@ -355,6 +383,135 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	}
 
 
+	/**
+	 * Index over the subscriptions of a destination, by selector: subscriptions
+	 * with a {@link HeaderValueSelector} are bucketed by header and value, and
+	 * all other selectors are kept in a list to be evaluated in turn.
+	 */
+	private class SelectorIndex {
+
+		private final LinkedMultiValueMap<String, String> subscriptions;
+
+		private final LinkedMultiValueMap<String, String> unfiltered = new LinkedMultiValueMap<>();
+
+		// header name -> header value -> <sessionId, subscriptionId>, for headers.foo
+		private final Map<String, Map<String, LinkedMultiValueMap<String, String>>> propertyLookup = new HashMap<>();
+
+		// header name -> header value -> <sessionId, subscriptionId>, for headers['foo']
+		private final Map<String, Map<String, LinkedMultiValueMap<String, String>>> indexedLookup = new HashMap<>();
+
+		private final List<SelectorEntry> expressions = new ArrayList<>();
+
+		public SelectorIndex(LinkedMultiValueMap<String, String> subscriptions) {
+			this.subscriptions = subscriptions;
+			for (Map.Entry<String, List<String>> entry : subscriptions.entrySet()) {
+				String sessionId = entry.getKey();
+				SessionSubscriptionInfo info = subscriptionRegistry.getSubscriptions(sessionId);
+				if (info == null) {
+					continue;
+				}
+				for (String subId : entry.getValue()) {
+					Subscription sub = info.getSubscription(subId);
+					if (sub == null) {
+						continue;
+					}
+					HeaderValueSelector selector = sub.getHeaderValueSelector();
+					if (sub.getSelectorExpression() == null) {
+						this.unfiltered.add(sessionId, subId);
+					}
+					else if (selector != null) {
+						Map<String, Map<String, LinkedMultiValueMap<String, String>>> lookup =
+								(selector.isIndexed() ? this.indexedLookup : this.propertyLookup);
+						lookup.computeIfAbsent(selector.getHeaderName(), name -> new HashMap<>())
+								.computeIfAbsent(selector.getValue(), value -> new LinkedMultiValueMap<>())
+								.add(sessionId, subId);
+					}
+					else {
+						this.expressions.add(new SelectorEntry(sessionId, subId, sub.getSelectorExpression()));
+					}
+				}
+			}
+		}
+
+		public LinkedMultiValueMap<String, String> getSubscriptions() {
+			return this.subscriptions;
+		}
+
+		public MultiValueMap<String, String> match(Message<?> message) {
+			if (this.propertyLookup.isEmpty() && this.indexedLookup.isEmpty() && this.expressions.isEmpty()) {
+				return this.unfiltered;
+			}
+			MessageHeaders headers = message.getHeaders();
+			LinkedMultiValueMap<String, String> result = new LinkedMultiValueMap<>(this.subscriptions.size());
+			addAll(result, this.unfiltered);
+			for (Map.Entry<String, Map<String, LinkedMultiValueMap<String, String>>> entry :
+					this.propertyLookup.entrySet()) {
+				addMatches(result, entry.getValue(), getHeaderValue(headers, entry.getKey()));
+			}
+			for (Map.Entry<String, Map<String, LinkedMultiValueMap<String, String>>> entry :
+					this.indexedLookup.entrySet()) {
+				addMatches(result, entry.getValue(), headers.get(entry.getKey()));
+			}
+			if (!this.expressions.isEmpty()) {
+				EvaluationContext context = new StandardEvaluationContext(message);
+				context.getPropertyAccessors().add(new SimpMessageHeaderPropertyAccessor());
+				for (SelectorEntry entry : this.expressions) {
+					try {
+						if (entry.expression.getValue(context, boolean.class)) {
+							result.add(entry.sessionId, entry.subscriptionId);
+						}
+					}
+					catch (SpelEvaluationException ex) {
+						if (logger.isDebugEnabled()) {
+							logger.debug("Failed to evaluate selector: " + ex.getMessage());
+						}
+					}
+					catch (Throwable ex) {
+						logger.debug("Failed to evaluate selector", ex);
+					}
+				}
+			}
+			return result;
+		}
+
+		private void addMatches(LinkedMultiValueMap<String, String> result,
+				Map<String, LinkedMultiValueMap<String, String>> valueLookup, Object headerValue) {
+
+			if (headerValue instanceof CharSequence) {
+				LinkedMultiValueMap<String, String> matches = valueLookup.get(headerValue.toString());
+				if (matches != null) {
+					addAll(result, matches);
+				}
+			}
+		}
+
+		private void addAll(LinkedMultiValueMap<String, String> result, LinkedMultiValueMap<String, String> matches) {
+			for (Map.Entry<String, List<String>> entry : matches.entrySet()) {
+				result.addAll(entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+
+	/**
+	 * A subscription with a selector that is not indexed.
+	 */
+	private static final class SelectorEntry {
+
+		final String sessionId;
+
+		final String subscriptionId;
+
+		final Expression expression;
+
+		SelectorEntry(String sessionId, String subscriptionId, Expression expression) {
+			this.sessionId = sessionId;
+			this.subscriptionId = subscriptionId;
+			this.expression = expression;
+		}
+	}
+
+
 	/**
 	 * Provide access to session subscriptions by sessionId.
 	 */
@@ -372,7 +529,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		}
 
 		public SessionSubscriptionInfo addSubscription(String sessionId, String subscriptionId,
-				String destination, Expression selectorExpression) {
+				String destination, Expression selectorExpression, HeaderValueSelector headerValueSelector) {
 
 			SessionSubscriptionInfo info = this.sessions.get(sessionId);
 			if (info == null) {
@@ -382,7 +539,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 					info = value;
 				}
 			}
-			info.addSubscription(destination, subscriptionId, selectorExpression);
+			info.addSubscription(destination, subscriptionId, selectorExpression, headerValueSelector);
 			return info;
 		}
 
@@ -438,7 +595,9 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			return null;
 		}
 
-		public void addSubscription(String destination, String subscriptionId, Expression selectorExpression) {
+		public void addSubscription(String destination, String subscriptionId,
+				Expression selectorExpression, HeaderValueSelector headerValueSelector) {
+
 			Set<Subscription> subs = this.destinationLookup.get(destination);
 			if (subs == null) {
 				synchronized (this.destinationLookup) {
@@ -449,7 +608,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 					}
 				}
 			}
-			subs.add(new Subscription(subscriptionId, selectorExpression));
+			subs.add(new Subscription(subscriptionId, selectorExpression, headerValueSelector));
 		}
 
 		public String removeSubscription(String subscriptionId) {
@@ -484,10 +643,13 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		private final Expression selectorExpression;
 
-		public Subscription(String id, Expression selector) {
+		private final HeaderValueSelector headerValueSelector;
+
+		public Subscription(String id, Expression selector, HeaderValueSelector headerValueSelector) {
 			Assert.notNull(id, "Subscription id must not be null");
 			this.id = id;
 			this.selectorExpression = selector;
+			this.headerValueSelector = headerValueSelector;
 		}
 
 		public String getId() {
@@ -498,6 +660,10 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			return this.selectorExpression;
 		}
 
+		public HeaderValueSelector getHeaderValueSelector() {
+			return this.headerValueSelector;
+		}
+
 		@Override
 		public boolean equals(Object other) {
 			return (this == other || (other instanceof Subscription && this.id.equals(((Subscription) other).id)));
@@ -515,7 +681,100 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	}
 
 
-	private static class SimpMessageHeaderPropertyAccessor implements PropertyAccessor {
+	/**
+	 * A selector of the form {@code headers.foo == 'bar'} that can be matched
+	 * against a header value without evaluating the SpEL expression.
+	 * <p>As with SpEL evaluation, {@code headers.foo} is resolved through
+	 * {@link SimpMessageHeaderPropertyAccessor} while {@code headers['foo']}
+	 * indexes into the {@link MessageHeaders} map only.
+	 */
+	private static final class HeaderValueSelector {
+
+		private final String headerName;
+
+		private final boolean indexed;
+
+		private final String value;
+
+		private HeaderValueSelector(String headerName, boolean indexed, String value) {
+			this.headerName = headerName;
+			this.indexed = indexed;
+			this.value = value;
+		}
+
+		public String getHeaderName() {
+			return this.headerName;
+		}
+
+		public boolean isIndexed() {
+			return this.indexed;
+		}
+
+		public String getValue() {
+			return this.value;
+		}
+
+		/**
+		 * Return a selector for the given expression, or {@code null} if the
+		 * expression is not a simple header equality check.
+		 */
+		public static HeaderValueSelector from(Expression expression) {
+			if (!(expression instanceof SpelExpression)) {
+				return null;
+			}
+			SpelNode node = ((SpelExpression) expression).getAST();
+			if (!(node instanceof OpEQ) || node.getChildCount() != 2) {
+				return null;
+			}
+			SpelNode reference = node.getChild(0);
+			SpelNode literal = node.getChild(1);
+			String headerName = getHeaderName(reference);
+			if (headerName == null) {
+				reference = node.getChild(1);
+				literal = node.getChild(0);
+				headerName = getHeaderName(reference);
+			}
+			if (headerName == null || !(literal instanceof StringLiteral)) {
+				return null;
+			}
+			boolean indexed = (reference.getChild(1) instanceof Indexer);
+			return new HeaderValueSelector(headerName, indexed,
+					(String) ((StringLiteral) literal).getLiteralValue().getValue());
+		}
+
+		private static String getHeaderName(SpelNode node) {
+			if (!(node instanceof CompoundExpression) || node.getChildCount() != 2) {
+				return null;
+			}
+			SpelNode headers = node.getChild(0);
+			if (!(headers instanceof PropertyOrFieldReference) ||
+					!"headers".equals(((PropertyOrFieldReference) headers).getName())) {
+				return null;
+			}
+			SpelNode header = node.getChild(1);
+			if (header instanceof PropertyOrFieldReference && !((PropertyOrFieldReference) header).isNullSafe()) {
+				return ((PropertyOrFieldReference) header).getName();
+			}
+			if (header instanceof Indexer && header.getChildCount() == 1 &&
+					header.getChild(0) instanceof StringLiteral) {
+				return (String) ((StringLiteral) header.getChild(0)).getLiteralValue().getValue();
+			}
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return (this.indexed ? "headers['" + this.headerName + "']" : "headers." + this.headerName) +
+					" == '" + this.value + "'";
+		}
+	}
+
+
+	/**
+	 * Resolves {@code headers.foo} against {@link MessageHeaders}, with support
+	 * for compiling selector expressions that use it.
+	 */
+	private static class SimpMessageHeaderPropertyAccessor implements CompilablePropertyAccessor {
 
 		@Override
 		public Class<?>[] getSpecificTargetClasses() {
@@ -529,20 +788,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		@Override
 		public TypedValue read(EvaluationContext context, Object target, String name) throws AccessException {
-			MessageHeaders headers = (MessageHeaders) target;
-			SimpMessageHeaderAccessor accessor =
-					MessageHeaderAccessor.getAccessor(headers, SimpMessageHeaderAccessor.class);
-			Object value;
-			if ("destination".equalsIgnoreCase(name)) {
-				value = accessor.getDestination();
-			}
-			else {
-				value = accessor.getFirstNativeHeader(name);
-				if (value == null) {
-					value = headers.get(name);
-				}
-			}
-			return new TypedValue(value);
+			return new TypedValue(getHeaderValue((MessageHeaders) target, name));
 		}
 
 		@Override
@@ -553,6 +799,50 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		@Override
 		public void write(EvaluationContext context, Object target, String name, Object value) {
 		}
+
+		@Override
+		public boolean isCompilable() {
+			return true;
+		}
+
+		@Override
+		public Class<?> getPropertyType() {
+			return Object.class;
+		}
+
+		@Override
+		public void generateCode(String propertyName, MethodVisitor mv, CodeFlow cf) {
+			String descriptor = cf.lastDescriptor();
+			if (descriptor == null || !descriptor.equals("Ljava/util/Map")) {
+				if (descriptor == null) {
+					cf.loadTarget(mv);
+				}
+				CodeFlow.insertCheckCast(mv, "Ljava/util/Map");
+			}
+			if ("destination".equalsIgnoreCase(propertyName)) {
+				mv.visitMethodInsn(INVOKESTATIC, "org/springframework/messaging/simp/SimpMessageHeaderAccessor",
+						"getDestination", "(Ljava/util/Map;)Ljava/lang/String;", false);
+				return;
+			}
+			// Same as getHeaderValue: first native header value, or else the message header
+			Label nativeValue = new Label();
+			Label end = new Label();
+			mv.visitInsn(DUP);
+			mv.visitLdcInsn(propertyName);
+			mv.visitInsn(SWAP);
+			mv.visitMethodInsn(INVOKESTATIC, "org/springframework/messaging/support/NativeMessageHeaderAccessor",
+					"getFirstNativeHeader", "(Ljava/lang/String;Ljava/util/Map;)Ljava/lang/String;", false);
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, nativeValue);
+			mv.visitInsn(POP);
+			mv.visitLdcInsn(propertyName);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "get", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitJumpInsn(GOTO, end);
+			mv.visitLabel(nativeValue);
+			mv.visitInsn(SWAP);
+			mv.visitInsn(POP);
+			mv.visitLabel(end);
+		}
 	}
 
 }
@@ -50,6 +50,7 @@ import org.springframework.messaging.simp.user.UserRegistryMessageHandler;
 import org.springframework.messaging.support.AbstractSubscribableChannel;
 import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.ImmutableMessageChannelInterceptor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.Assert;
@@ -323,9 +324,16 @@ public abstract class AbstractMessageBrokerConfiguration implements ApplicationC
 				messageBrokerTaskScheduler());
 	}
 
+	/**
+	 * The scheduler for user registry broadcasts and, with the WebSocket message
+	 * broker configuration, for SockJS tasks.
+	 * <p>Override this method to use a different scheduler, e.g. a
+	 * {@link org.springframework.scheduling.concurrent.HashedWheelTaskScheduler}
+	 * for many SockJS sessions with heartbeat and disconnect timeouts.
+	 */
 	// Expose alias for 4.1 compatibility
 	@Bean(name = {"messageBrokerTaskScheduler", "messageBrokerSockJsTaskScheduler"})
-	public ThreadPoolTaskScheduler messageBrokerTaskScheduler() {
+	public TaskScheduler messageBrokerTaskScheduler() {
 		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
 		scheduler.setThreadNamePrefix("MessageBroker-");
 		scheduler.setPoolSize(Runtime.getRuntime().availableProcessors());
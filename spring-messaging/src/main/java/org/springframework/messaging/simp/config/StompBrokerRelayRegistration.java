@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -49,6 +49,10 @@ public class StompBrokerRelayRegistration extends AbstractBrokerRegistration {
 
 	private boolean autoStartup = true;
 
+	private Integer maxPendingSendsPerConnection;
+
+	private Long sendBackpressureTimeout;
+
 	private String userDestinationBroadcast;
 
 	private String userRegistryBroadcast;
@@ -160,6 +164,31 @@ public class StompBrokerRelayRegistration extends AbstractBrokerRegistration {
 		return this;
 	}
 
+	/**
+	 * Configure the maximum number of frames written to a broker connection
+	 * but not yet flushed, beyond which forwarding client frames blocks until
+	 * the broker catches up.
+	 * <p>By default this is not limited.
+	 * @since 5.0
+	 * @see StompBrokerRelayMessageHandler#setMaxPendingSendsPerConnection
+	 */
+	public StompBrokerRelayRegistration setMaxPendingSendsPerConnection(int maxPendingSendsPerConnection) {
+		this.maxPendingSendsPerConnection = maxPendingSendsPerConnection;
+		return this;
+	}
+
+	/**
+	 * Configure how long, in milliseconds, to wait for a broker connection to
+	 * accept more frames before considering it failed.
+	 * <p>By default this is set to 10 seconds.
+	 * @since 5.0
+	 * @see StompBrokerRelayMessageHandler#setSendBackpressureTimeout
+	 */
+	public StompBrokerRelayRegistration setSendBackpressureTimeout(long sendBackpressureTimeout) {
+		this.sendBackpressureTimeout = sendBackpressureTimeout;
+		return this;
+	}
+
 	/**
 	 * Configure whether the {@link StompBrokerRelayMessageHandler} should start
 	 * automatically when the Spring ApplicationContext is refreshed.
@@ -231,6 +260,12 @@ public class StompBrokerRelayRegistration extends AbstractBrokerRegistration {
 		if (this.virtualHost != null) {
 			handler.setVirtualHost(this.virtualHost);
 		}
+		if (this.maxPendingSendsPerConnection != null) {
+			handler.setMaxPendingSendsPerConnection(this.maxPendingSendsPerConnection);
+		}
+		if (this.sendBackpressureTimeout != null) {
+			handler.setSendBackpressureTimeout(this.sendBackpressureTimeout);
+		}
 
 		handler.setAutoStartup(this.autoStartup);
 
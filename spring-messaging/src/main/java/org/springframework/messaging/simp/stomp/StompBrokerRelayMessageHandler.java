@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -127,6 +128,10 @@ public class StompBrokerRelayMessageHandler extends AbstractBrokerMessageHandler
 
 	private MessageHeaderInitializer headerInitializer;
 
+	private int maxPendingSendsPerConnection = 0;
+
+	private long sendBackpressureTimeout = 10 * 1000;
+
 	private final Stats stats = new Stats();
 
 	private final Map<String, StompConnectionHandler> connectionHandlers = new ConcurrentHashMap<>();
@@ -365,6 +370,52 @@ public class StompBrokerRelayMessageHandler extends AbstractBrokerMessageHandler
 		return this.headerInitializer;
 	}
 
+	/**
+	 * Configure the maximum number of frames that may be written to a single
+	 * broker connection without having been flushed yet. Once that limit is
+	 * reached, forwarding of further client frames blocks the calling thread,
+	 * typically a thread of the "clientInboundChannel" executor, until the broker
+	 * connection catches up or the {@link #setSendBackpressureTimeout timeout}
+	 * expires. Combined with a bounded queue for the "clientInboundChannel"
+	 * executor, this propagates backpressure from a slow broker back to
+	 * clients rather than accumulating writes in memory.
+	 * <p>By default this is set to 0, which means sends are not limited.
+	 * @since 5.0
+	 */
+	public void setMaxPendingSendsPerConnection(int maxPendingSendsPerConnection) {
+		Assert.isTrue(maxPendingSendsPerConnection >= 0, "maxPendingSendsPerConnection must be >= 0");
+		this.maxPendingSendsPerConnection = maxPendingSendsPerConnection;
+	}
+
+	/**
+	 * Return the configured maximum number of pending sends per connection.
+	 * @since 5.0
+	 */
+	public int getMaxPendingSendsPerConnection() {
+		return this.maxPendingSendsPerConnection;
+	}
+
+	/**
+	 * Configure how long, in milliseconds, to wait for a broker connection to
+	 * accept more frames once {@link #setMaxPendingSendsPerConnection
+	 * maxPendingSendsPerConnection} is reached. When the timeout expires, the
+	 * broker connection is considered failed: the client is sent an ERROR frame
+	 * and the connection is closed.
+	 * <p>By default this is set to 10 seconds (value of 10000).
+	 * @since 5.0
+	 */
+	public void setSendBackpressureTimeout(long sendBackpressureTimeout) {
+		this.sendBackpressureTimeout = sendBackpressureTimeout;
+	}
+
+	/**
+	 * Return the configured send backpressure timeout.
+	 * @since 5.0
+	 */
+	public long getSendBackpressureTimeout() {
+		return this.sendBackpressureTimeout;
+	}
+
 	/**
 	 * Return a String describing internal state and counters.
 	 */
@@ -546,6 +597,9 @@ public class StompBrokerRelayMessageHandler extends AbstractBrokerMessageHandler
 
 		private volatile boolean isStompConnected;
 
+		/* Permits for frames written but not yet flushed, or null if not limited */
+		private final Semaphore sendPermits;
+
 
 		private StompConnectionHandler(String sessionId, StompHeaderAccessor connectHeaders) {
 			this(sessionId, connectHeaders, true);
@@ -557,6 +611,8 @@ public class StompBrokerRelayMessageHandler extends AbstractBrokerMessageHandler
 			this.sessionId = sessionId;
 			this.connectHeaders = connectHeaders;
 			this.isRemoteClientSession = isClientSession;
+			int maxPendingSends = getMaxPendingSendsPerConnection();
+			this.sendPermits = (maxPendingSends > 0 ? new Semaphore(maxPendingSends) : null);
 		}
 
 		public String getSessionId() {
@@ -795,16 +851,28 @@ public class StompBrokerRelayMessageHandler extends AbstractBrokerMessageHandler
 				logger.trace("Forwarding " + accessor.getDetailedLogMessage(message.getPayload()));
 			}
 
+			if (!acquireSendPermit()) {
+				String error = "Broker did not accept frames within " + getSendBackpressureTimeout() +
+						" ms, dropped " + accessor.getShortLogMessage(message.getPayload());
+				if (!this.isRemoteClientSession) {
+					throw new IllegalStateException(error);
+				}
+				handleTcpConnectionFailure(error, null);
+				return EMPTY_TASK;
+			}
+
 			ListenableFuture<Void> future = conn.send((Message<byte[]>) messageToSend);
 			future.addCallback(new ListenableFutureCallback<Void>() {
 				@Override
 				public void onSuccess(Void result) {
+					releaseSendPermit();
 					if (accessor.getCommand() == StompCommand.DISCONNECT) {
 						afterDisconnectSent(accessor);
 					}
 				}
 				@Override
 				public void onFailure(Throwable ex) {
+					releaseSendPermit();
 					if (tcpConnection != null) {
 						handleTcpConnectionFailure("failed to forward " +
 								accessor.getShortLogMessage(message.getPayload()), ex);
@@ -817,6 +885,31 @@ public class StompBrokerRelayMessageHandler extends AbstractBrokerMessageHandler
 			return future;
 		}
 
+		/**
+		 * Wait for the broker connection to accept another frame, if the number
+		 * of pending sends is limited.
+		 * @return {@code false} if the wait timed out or was interrupted
+		 */
+		private boolean acquireSendPermit() {
+			if (this.sendPermits == null || this.sendPermits.tryAcquire()) {
+				return true;
+			}
+			stats.incrementBackpressureCount();
+			try {
+				return this.sendPermits.tryAcquire(getSendBackpressureTimeout(), TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		private void releaseSendPermit() {
+			if (this.sendPermits != null) {
+				this.sendPermits.release();
+			}
+		}
+
 		/**
 		 * After a DISCONNECT there should be no more client frames so we can
 		 * close the connection pro-actively. However, if the DISCONNECT has a
@@ -987,6 +1080,8 @@ public class StompBrokerRelayMessageHandler extends AbstractBrokerMessageHandler
 
 		private final AtomicInteger disconnect = new AtomicInteger();
 
+		private final AtomicInteger backpressure = new AtomicInteger();
+
 		public void incrementConnectCount() {
 			this.connect.incrementAndGet();
 		}
@@ -999,11 +1094,16 @@ public class StompBrokerRelayMessageHandler extends AbstractBrokerMessageHandler
 			this.disconnect.incrementAndGet();
 		}
 
+		public void incrementBackpressureCount() {
+			this.backpressure.incrementAndGet();
+		}
+
 		public String toString() {
 			return (connectionHandlers.size() + " sessions, " + relayHost + ":" + relayPort +
 					(isBrokerAvailable() ? " (available)" : " (not available)") +
 					", processed CONNECT(" + this.connect.get() + ")-CONNECTED(" +
-					this.connected.get() + ")-DISCONNECT(" + this.disconnect.get() + ")");
+					this.connected.get() + ")-DISCONNECT(" + this.disconnect.get() + ")" +
+					", send backpressure waits " + this.backpressure.get());
 		}
 	}
 
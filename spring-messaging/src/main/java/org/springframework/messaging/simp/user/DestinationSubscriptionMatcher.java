@@ -0,0 +1,57 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.user;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SimpSubscriptionMatcher} that matches subscriptions to an exact
+ * destination. Registries that maintain an index by destination, such as
+ * {@link MultiServerUserRegistry} for remote registries, use it to look up
+ * matching subscriptions without iterating over all users.
+ *
+ * @since 5.0
+ */
+public class DestinationSubscriptionMatcher implements SimpSubscriptionMatcher {
+
+	private final String destination;
+
+
+	public DestinationSubscriptionMatcher(String destination) {
+		Assert.notNull(destination, "Destination must not be null");
+		this.destination = destination;
+	}
+
+
+	/**
+	 * Return the destination to match.
+	 */
+	public String getDestination() {
+		return this.destination;
+	}
+
+	@Override
+	public boolean match(SimpSubscription subscription) {
+		return this.destination.equals(subscription.getDestination());
+	}
+
+	@Override
+	public String toString() {
+		return "destination=" + this.destination;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.messaging.simp.user;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -25,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.event.SmartApplicationListener;
@@ -41,6 +43,12 @@ import org.springframework.util.ObjectUtils;
  * handled by {@link UserRegistryMessageHandler} which in turn notifies this
  * registry when updates are received.
  *
+ * <p>Broadcasts carry either a full snapshot of the local registry or, in
+ * incremental mode, a versioned delta relative to the previous broadcast.
+ * A receiver that detects a gap in the version sequence of a remote registry
+ * asks for a full resync, which the owning server honors with its next
+ * broadcast.
+ *
  * @author Rossen Stoyanchev
  * @since 4.2
  */
@@ -58,6 +66,19 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 	/* Cross-server session lookup (e.g. same user connected to multiple servers) */
 	private final SessionLookup sessionLookup = new SessionLookup();
 
+	/* Version of the most recent broadcast of the local registry */
+	private final AtomicLong localVersion = new AtomicLong();
+
+	/* Local registry content as of the most recent broadcast, for computing deltas */
+	private UserRegistrySnapshot lastBroadcast;
+
+	private final Object broadcastMonitor = new Object();
+
+	private volatile boolean fullResyncRequested;
+
+	/* Ids of remote registries for which a gap was detected */
+	private final Set<String> pendingResyncRequests = ConcurrentHashMap.newKeySet();
+
 
 	/**
 	 * Create an instance wrapping the local user registry.
@@ -145,6 +166,12 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 		return userCount;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>Remote registries are indexed by destination: if the given matcher is a
+	 * {@link DestinationSubscriptionMatcher}, matching remote subscriptions are
+	 * looked up directly rather than by iterating over all remote users.
+	 */
 	@Override
 	public Set<SimpSubscription> findSubscriptions(SimpSubscriptionMatcher matcher) {
 		Set<SimpSubscription> result = new HashSet<>();
@@ -159,15 +186,69 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 	// Internal methods for UserRegistryMessageHandler to manage broadcasts
 
 	Object getLocalRegistryDto() {
-		return new UserRegistrySnapshot(this.id, this.localRegistry);
+		return getLocalRegistryDto(false);
+	}
+
+	/**
+	 * Create the DTO to broadcast for the local registry.
+	 * @param incremental whether a delta relative to the previous broadcast
+	 * may be sent instead of a full snapshot
+	 */
+	Object getLocalRegistryDto(boolean incremental) {
+		synchronized (this.broadcastMonitor) {
+			UserRegistrySnapshot current = new UserRegistrySnapshot(this.id, this.localRegistry);
+			long previousVersion = this.localVersion.get();
+			current.setVersion(this.localVersion.incrementAndGet());
+			UserRegistrySnapshot previous = this.lastBroadcast;
+			this.lastBroadcast = current;
+			if (!incremental || previous == null || this.fullResyncRequested) {
+				this.fullResyncRequested = false;
+				return current;
+			}
+			return UserRegistrySnapshot.createDelta(previous, current, previousVersion);
+		}
+	}
+
+	/**
+	 * Return a DTO requesting a full resync from a remote registry for which
+	 * a gap in received deltas was detected, or {@code null} if none.
+	 */
+	Object getResyncRequestDto() {
+		Iterator<String> iterator = this.pendingResyncRequests.iterator();
+		if (!iterator.hasNext()) {
+			return null;
+		}
+		String remoteId = iterator.next();
+		iterator.remove();
+		return UserRegistrySnapshot.createResyncRequest(this.id, remoteId);
 	}
 
 	void addRemoteRegistryDto(Message<?> message, MessageConverter converter, long expirationPeriod) {
 		UserRegistrySnapshot registry = (UserRegistrySnapshot) converter.fromMessage(message, UserRegistrySnapshot.class);
-		if (registry != null && !registry.getId().equals(this.id)) {
+		if (registry == null) {
+			return;
+		}
+		if (registry.getResyncRequestFor() != null) {
+			if (registry.getResyncRequestFor().equals(this.id)) {
+				this.fullResyncRequested = true;
+			}
+			return;
+		}
+		if (registry.getId().equals(this.id)) {
+			return;
+		}
+		if (!registry.isDelta()) {
 			registry.init(expirationPeriod, this.sessionLookup);
 			this.remoteRegistries.put(registry.getId(), registry);
+			this.pendingResyncRequests.remove(registry.getId());
+			return;
 		}
+		UserRegistrySnapshot existing = this.remoteRegistries.get(registry.getId());
+		if (existing == null || existing.getVersion() != registry.getBaseVersion()) {
+			this.pendingResyncRequests.add(registry.getId());
+			return;
+		}
+		existing.applyDelta(registry, expirationPeriod);
 	}
 
 	void purgeExpiredRegistries() {
@@ -196,10 +277,29 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 
 		private String id;
 
-		private Map<String, TransferSimpUser> users;
+		private Map<String, TransferSimpUser> users = Collections.emptyMap();
+
+		private long version;
+
+		private boolean delta;
+
+		private long baseVersion;
+
+		private Set<String> removedSessionIds = Collections.emptySet();
+
+		private Map<String, Set<String>> removedSubscriptionIds = Collections.emptyMap();
+
+		private String resyncRequestFor;
 
 		private long expirationTime;
 
+		/* Remote registry lookups, populated on init */
+		private final Map<String, TransferSimpSession> sessions = new ConcurrentHashMap<>();
+
+		private final Map<String, Set<SimpSubscription>> destinationIndex = new ConcurrentHashMap<>();
+
+		private SessionLookup sessionLookup;
+
 		/**
 		 * Default constructor for JSON deserialization.
 		 */
@@ -235,18 +335,158 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 			return this.users;
 		}
 
+		public void setVersion(long version) {
+			this.version = version;
+		}
+
+		public long getVersion() {
+			return this.version;
+		}
+
+		public void setDelta(boolean delta) {
+			this.delta = delta;
+		}
+
+		public boolean isDelta() {
+			return this.delta;
+		}
+
+		public void setBaseVersion(long baseVersion) {
+			this.baseVersion = baseVersion;
+		}
+
+		public long getBaseVersion() {
+			return this.baseVersion;
+		}
+
+		public void setRemovedSessionIds(Set<String> removedSessionIds) {
+			this.removedSessionIds = removedSessionIds;
+		}
+
+		public Set<String> getRemovedSessionIds() {
+			return this.removedSessionIds;
+		}
+
+		public void setRemovedSubscriptionIds(Map<String, Set<String>> removedSubscriptionIds) {
+			this.removedSubscriptionIds = removedSubscriptionIds;
+		}
+
+		public Map<String, Set<String>> getRemovedSubscriptionIds() {
+			return this.removedSubscriptionIds;
+		}
+
+		public void setResyncRequestFor(String resyncRequestFor) {
+			this.resyncRequestFor = resyncRequestFor;
+		}
+
+		public String getResyncRequestFor() {
+			return this.resyncRequestFor;
+		}
+
 		public boolean isExpired(long now) {
 			return (now > this.expirationTime);
 		}
 
 		public void init(long expirationPeriod, SessionLookup sessionLookup) {
 			this.expirationTime = System.currentTimeMillis() + expirationPeriod;
+			this.sessionLookup = sessionLookup;
+			this.users = new ConcurrentHashMap<>(this.users);
 			for (TransferSimpUser user : this.users.values()) {
 				user.afterDeserialization(sessionLookup);
+				for (TransferSimpSession session : user.sessions) {
+					index(session);
+				}
+			}
+		}
+
+		/**
+		 * Apply a delta received from the same remote registry, which must
+		 * have been created against the version currently held.
+		 */
+		public void applyDelta(UserRegistrySnapshot delta, long expirationPeriod) {
+			for (String sessionId : delta.getRemovedSessionIds()) {
+				TransferSimpSession session = this.sessions.remove(sessionId);
+				if (session != null) {
+					unindex(session.subscriptions);
+					TransferSimpUser user = session.getUser();
+					user.sessions.remove(session);
+					if (user.sessions.isEmpty()) {
+						this.users.remove(user.getName());
+					}
+				}
+			}
+			for (Map.Entry<String, Set<String>> entry : delta.getRemovedSubscriptionIds().entrySet()) {
+				TransferSimpSession session = this.sessions.get(entry.getKey());
+				if (session != null) {
+					Set<TransferSimpSubscription> removed = session.removeSubscriptions(entry.getValue());
+					unindex(removed);
+				}
+			}
+			for (TransferSimpUser deltaUser : delta.getUserMap().values()) {
+				TransferSimpUser user = this.users.get(deltaUser.getName());
+				if (user == null) {
+					deltaUser.afterDeserialization(this.sessionLookup);
+					this.users.put(deltaUser.getName(), deltaUser);
+					for (TransferSimpSession session : deltaUser.sessions) {
+						index(session);
+					}
+					continue;
+				}
+				for (TransferSimpSession deltaSession : deltaUser.sessions) {
+					TransferSimpSession session = this.sessions.get(deltaSession.getId());
+					if (session == null) {
+						deltaSession.setUser(user);
+						deltaSession.afterDeserialization();
+						user.sessions.add(deltaSession);
+						index(deltaSession);
+					}
+					else {
+						for (TransferSimpSubscription subscription : deltaSession.subscriptions) {
+							subscription.setSession(session);
+							session.subscriptions.add(subscription);
+							index(subscription);
+						}
+					}
+				}
+			}
+			this.version = delta.getVersion();
+			this.expirationTime = System.currentTimeMillis() + expirationPeriod;
+		}
+
+		private void index(TransferSimpSession session) {
+			this.sessions.put(session.getId(), session);
+			for (TransferSimpSubscription subscription : session.subscriptions) {
+				index(subscription);
+			}
+		}
+
+		private void index(TransferSimpSubscription subscription) {
+			if (subscription.getDestination() != null) {
+				this.destinationIndex.computeIfAbsent(subscription.getDestination(),
+						destination -> ConcurrentHashMap.newKeySet()).add(subscription);
+			}
+		}
+
+		private void unindex(Set<TransferSimpSubscription> subscriptions) {
+			for (TransferSimpSubscription subscription : subscriptions) {
+				if (subscription.getDestination() != null) {
+					Set<SimpSubscription> set = this.destinationIndex.get(subscription.getDestination());
+					if (set != null) {
+						set.remove(subscription);
+						if (set.isEmpty()) {
+							this.destinationIndex.remove(subscription.getDestination(), set);
+						}
+					}
+				}
 			}
 		}
 
 		public Set<SimpSubscription> findSubscriptions(SimpSubscriptionMatcher matcher) {
+			if (matcher instanceof DestinationSubscriptionMatcher) {
+				String destination = ((DestinationSubscriptionMatcher) matcher).getDestination();
+				Set<SimpSubscription> subscriptions = this.destinationIndex.get(destination);
+				return (subscriptions != null ? new HashSet<>(subscriptions) : Collections.emptySet());
+			}
 			Set<SimpSubscription> result = new HashSet<>();
 			for (TransferSimpUser user : this.users.values()) {
 				for (TransferSimpSession session : user.sessions) {
@@ -260,9 +500,80 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 			return result;
 		}
 
+		/**
+		 * Create a delta with the changes from one local snapshot to the next.
+		 */
+		public static UserRegistrySnapshot createDelta(
+				UserRegistrySnapshot previous, UserRegistrySnapshot current, long baseVersion) {
+
+			UserRegistrySnapshot delta = new UserRegistrySnapshot();
+			delta.id = current.id;
+			delta.version = current.version;
+			delta.delta = true;
+			delta.baseVersion = baseVersion;
+			delta.users = new HashMap<>();
+			delta.removedSessionIds = new HashSet<>();
+			delta.removedSubscriptionIds = new HashMap<>();
+
+			Map<String, TransferSimpSession> previousSessions = new HashMap<>();
+			for (TransferSimpUser user : previous.users.values()) {
+				for (TransferSimpSession session : user.sessions) {
+					previousSessions.put(session.getId(), session);
+				}
+			}
+			for (TransferSimpUser user : current.users.values()) {
+				TransferSimpUser deltaUser = null;
+				for (TransferSimpSession session : user.sessions) {
+					TransferSimpSession previousSession = previousSessions.remove(session.getId());
+					TransferSimpSession deltaSession = session;
+					if (previousSession != null) {
+						Map<String, TransferSimpSubscription> previousSubscriptions = new HashMap<>();
+						for (TransferSimpSubscription subscription : previousSession.subscriptions) {
+							previousSubscriptions.put(subscription.getId(), subscription);
+						}
+						deltaSession = new TransferSimpSession(session.getId());
+						for (TransferSimpSubscription subscription : session.subscriptions) {
+							TransferSimpSubscription previousSubscription = previousSubscriptions.get(subscription.getId());
+							if (previousSubscription != null && ObjectUtils.nullSafeEquals(
+									previousSubscription.getDestination(), subscription.getDestination())) {
+								previousSubscriptions.remove(subscription.getId());
+							}
+							else {
+								// New, or id reused for another destination: removed first, then added
+								deltaSession.subscriptions.add(subscription);
+							}
+						}
+						if (!previousSubscriptions.isEmpty()) {
+							delta.removedSubscriptionIds.put(session.getId(), previousSubscriptions.keySet());
+						}
+						if (deltaSession.subscriptions.isEmpty()) {
+							continue;
+						}
+					}
+					if (deltaUser == null) {
+						deltaUser = new TransferSimpUser(user.getName());
+						delta.users.put(user.getName(), deltaUser);
+					}
+					deltaUser.sessions.add(deltaSession);
+				}
+			}
+			delta.removedSessionIds.addAll(previousSessions.keySet());
+			return delta;
+		}
+
+		/**
+		 * Create a request for a full resync of the given remote registry.
+		 */
+		public static UserRegistrySnapshot createResyncRequest(String id, String remoteId) {
+			UserRegistrySnapshot request = new UserRegistrySnapshot();
+			request.id = id;
+			request.resyncRequestFor = remoteId;
+			return request;
+		}
+
 		@Override
 		public String toString() {
-			return "id=" + this.id + ", users=" + this.users;
+			return "id=" + this.id + ", version=" + this.version + ", users=" + this.users;
 		}
 	}
 
@@ -285,6 +596,14 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 		 */
 		@SuppressWarnings("unused")
 		public TransferSimpUser() {
+			this.sessions = ConcurrentHashMap.newKeySet(1);
+		}
+
+		/**
+		 * Constructor to create a user carrying delta information.
+		 */
+		public TransferSimpUser(String name) {
+			this.name = name;
 			this.sessions = new HashSet<>(1);
 		}
 
@@ -391,6 +710,14 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 		 */
 		@SuppressWarnings("unused")
 		public TransferSimpSession() {
+			this.subscriptions = ConcurrentHashMap.newKeySet(4);
+		}
+
+		/**
+		 * Constructor to create a session carrying delta information.
+		 */
+		public TransferSimpSession(String id) {
+			this.id = id;
 			this.subscriptions = new HashSet<>(4);
 		}
 
@@ -434,9 +761,24 @@ public class MultiServerUserRegistry implements SimpUserRegistry, SmartApplicati
 		}
 
 		private void afterDeserialization() {
-			for (TransferSimpSubscription subscription : this.subscriptions) {
+			// Subscriptions hash on their session: re-add after setting it
+			Set<TransferSimpSubscription> subscriptions = new HashSet<>(this.subscriptions);
+			this.subscriptions.clear();
+			for (TransferSimpSubscription subscription : subscriptions) {
 				subscription.setSession(this);
+				this.subscriptions.add(subscription);
+			}
+		}
+
+		private Set<TransferSimpSubscription> removeSubscriptions(Set<String> subscriptionIds) {
+			Set<TransferSimpSubscription> removed = new HashSet<>(subscriptionIds.size());
+			for (TransferSimpSubscription subscription : this.subscriptions) {
+				if (subscriptionIds.contains(subscription.getId())) {
+					removed.add(subscription);
+				}
 			}
+			this.subscriptions.removeAll(removed);
+			return removed;
 		}
 
 		@Override
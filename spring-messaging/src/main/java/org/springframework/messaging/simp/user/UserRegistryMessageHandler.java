@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,6 +57,8 @@ public class UserRegistryMessageHandler implements MessageHandler, ApplicationLi
 
 	private long registryExpirationPeriod = 20 * 1000;
 
+	private boolean incrementalBroadcast = false;
+
 
 	/**
 	 * Constructor.
@@ -105,6 +107,28 @@ public class UserRegistryMessageHandler implements MessageHandler, ApplicationLi
 		return this.registryExpirationPeriod;
 	}
 
+	/**
+	 * Whether to broadcast only the changes to the local user registry since
+	 * the previous broadcast, rather than a full snapshot every time.
+	 * <p>Deltas are versioned; a server that detects a gap (e.g. after a missed
+	 * broadcast or when joining late) requests a full snapshot which is then
+	 * sent with the next broadcast. All servers sharing the broadcast
+	 * destination must use the same setting.
+	 * <p>By default this is set to {@code false}.
+	 * @since 5.0
+	 */
+	public void setIncrementalBroadcast(boolean incrementalBroadcast) {
+		this.incrementalBroadcast = incrementalBroadcast;
+	}
+
+	/**
+	 * Whether incremental broadcasts are enabled.
+	 * @since 5.0
+	 */
+	public boolean isIncrementalBroadcast() {
+		return this.incrementalBroadcast;
+	}
+
 
 	@Override
 	public void onApplicationEvent(BrokerAvailabilityEvent event) {
@@ -122,6 +146,20 @@ public class UserRegistryMessageHandler implements MessageHandler, ApplicationLi
 	public void handleMessage(Message<?> message) throws MessagingException {
 		MessageConverter converter = this.brokerTemplate.getMessageConverter();
 		this.userRegistry.addRemoteRegistryDto(message, converter, getRegistryExpirationPeriod());
+		if (isIncrementalBroadcast()) {
+			Object resyncRequest = this.userRegistry.getResyncRequestDto();
+			while (resyncRequest != null) {
+				broadcast(resyncRequest);
+				resyncRequest = this.userRegistry.getResyncRequestDto();
+			}
+		}
+	}
+
+	private void broadcast(Object payload) {
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		accessor.setHeader(SimpMessageHeaderAccessor.IGNORE_ERROR, true);
+		accessor.setLeaveMutable(true);
+		this.brokerTemplate.convertAndSend(getBroadcastDestination(), payload, accessor.getMessageHeaders());
 	}
 
 
@@ -130,11 +168,7 @@ public class UserRegistryMessageHandler implements MessageHandler, ApplicationLi
 		@Override
 		public void run() {
 			try {
-				SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
-				accessor.setHeader(SimpMessageHeaderAccessor.IGNORE_ERROR, true);
-				accessor.setLeaveMutable(true);
-				Object payload = userRegistry.getLocalRegistryDto();
-				brokerTemplate.convertAndSend(getBroadcastDestination(), payload, accessor.getMessageHeaders());
+				broadcast(userRegistry.getLocalRegistryDto(isIncrementalBroadcast()));
 			}
 			finally {
 				userRegistry.purgeExpiredRegistries();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -281,6 +281,147 @@ public class DefaultSubscriptionRegistryTests {
 		assertEquals(0, actual.size());
 	}
 
+	@Test
+	public void registerSubscriptionsWithHeaderValueSelectors() throws Exception {
+		String destination = "/foo";
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", destination, "headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", destination, "headers['foo'] == 'baz'"));
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs01", destination, "'bar' == headers.foo"));
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs02", destination, "headers.foo != 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess03", "subs01", destination,
+				"headers.priority == '5' and headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess03", "subs02", destination, "headers.destination == '/foo'"));
+
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+		accessor.setDestination(destination);
+		accessor.setNativeHeader("foo", "bar");
+		accessor.setNativeHeader("priority", "5");
+		Message<?> message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(message);
+		assertNotNull(actual);
+		assertEquals(3, actual.size());
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess01"));
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess02"));
+		assertEquals(Arrays.asList("subs01", "subs02"), sort(actual.get("sess03")));
+
+		actual = this.registry.findSubscriptions(createMessage(destination));
+		assertNotNull(actual);
+		assertEquals(2, actual.size());
+		assertEquals(Collections.singletonList("subs02"), actual.get("sess02"));
+		assertEquals(Collections.singletonList("subs02"), actual.get("sess03"));
+	}
+
+	@Test
+	public void registerSubscriptionsWithHeaderValueSelectorsKeepsLookupOrder() throws Exception {
+		String destination = "/foo";
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", destination, "headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", destination, "headers['foo'] == 'bar'"));
+
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+		accessor.setDestination(destination);
+		accessor.setNativeHeader("foo", "baz");
+		accessor.setHeader("foo", "bar");
+		Message<?> message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(message);
+		assertNotNull(actual);
+		assertEquals(Collections.singletonList("subs02"), actual.get("sess01"));
+
+		accessor = SimpMessageHeaderAccessor.create();
+		accessor.setDestination(destination);
+		accessor.setNativeHeader("foo", "bar");
+		message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+
+		actual = this.registry.findSubscriptions(message);
+		assertNotNull(actual);
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess01"));
+	}
+
+	@Test
+	public void registerManySubscriptionsWithHeaderValueSelectors() throws Exception {
+		String destination = "/foo";
+		int sessionCount = 500;
+		for (int i = 0; i < sessionCount; i++) {
+			String sessionId = "sess" + i;
+			this.registry.registerSubscription(subscribeMessage(sessionId, "subs01", destination, "headers.foo == 'v" + i + "'"));
+			this.registry.registerSubscription(subscribeMessage(sessionId, "subs02", destination, "headers.bar == 'v" + i + "'"));
+		}
+		this.registry.registerSubscription(subscribeMessage("sessA", "subs01", destination));
+		this.registry.registerSubscription(subscribeMessage("sessB", "subs01", destination, "headers.foo != 'v1'"));
+
+		for (int i = 0; i < sessionCount; i += 7) {
+			SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+			accessor.setDestination(destination);
+			accessor.setNativeHeader("foo", "v" + i);
+			accessor.setNativeHeader("bar", "v" + (i + 1));
+			Message<?> message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+
+			MultiValueMap<String, String> actual = this.registry.findSubscriptions(message);
+			assertNotNull(actual);
+			assertEquals("Message " + i, 4, actual.size());
+			assertEquals(Collections.singletonList("subs01"), actual.get("sess" + i));
+			assertEquals(Collections.singletonList("subs02"), actual.get("sess" + (i + 1)));
+			assertEquals(Collections.singletonList("subs01"), actual.get("sessA"));
+			assertEquals(Collections.singletonList("subs01"), actual.get("sessB"));
+		}
+	}
+
+	@Test
+	public void registerSubscriptionsWithHeaderValueSelectorsAfterLookup() throws Exception {
+		String destination = "/foo";
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", destination, "headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs01", destination, "headers.foo == 'baz'"));
+
+		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+		accessor.setDestination(destination);
+		accessor.setNativeHeader("foo", "bar");
+		Message<?> message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(message);
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess01"));
+
+		this.registry.registerSubscription(subscribeMessage("sess02", "subs02", destination, "headers.foo == 'bar'"));
+		this.registry.registerSubscription(subscribeMessage("sess03", "subs01", destination));
+		actual = this.registry.findSubscriptions(message);
+		assertEquals(3, actual.size());
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess01"));
+		assertEquals(Collections.singletonList("subs02"), actual.get("sess02"));
+		assertEquals(Collections.singletonList("subs01"), actual.get("sess03"));
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess01", "subs01"));
+		this.registry.unregisterAllSubscriptions("sess03");
+		actual = this.registry.findSubscriptions(message);
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("subs02"), actual.get("sess02"));
+	}
+
+	@Test
+	public void registerSubscriptionWithCompiledSelector() throws Exception {
+		String destination = "/foo";
+		String selector = "headers.foo == 'bar' or headers.destination == '/bar'";
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", destination, selector));
+		this.registry.registerSubscription(subscribeMessage("sess01", "subs02", "/bar", selector));
+
+		// Enough evaluations for the selector to be compiled in mixed mode
+		for (int i = 0; i < 200; i++) {
+			SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+			accessor.setDestination(destination);
+			accessor.setNativeHeader("foo", (i % 2 == 0 ? "bar" : "baz"));
+			Message<?> message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+			MultiValueMap<String, String> actual = this.registry.findSubscriptions(message);
+			assertEquals("Evaluation " + i, (i % 2 == 0 ? 1 : 0), actual.size());
+
+			accessor = SimpMessageHeaderAccessor.create();
+			accessor.setDestination("/bar");
+			accessor.setHeader("foo", "baz");
+			message = MessageBuilder.createMessage("", accessor.getMessageHeaders());
+			actual = this.registry.findSubscriptions(message);
+			assertEquals("Evaluation " + i, Collections.singletonList("subs02"), actual.get("sess01"));
+		}
+	}
+
 	@Test  // SPR-11931
 	public void registerSubscriptionTwiceAndUnregister() {
 		this.registry.registerSubscription(subscribeMessage("sess01", "subs01", "/foo"));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -43,6 +44,7 @@ import org.springframework.messaging.tcp.TcpConnectionHandler;
 import org.springframework.messaging.tcp.TcpOperations;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.util.concurrent.ListenableFutureTask;
+import org.springframework.util.concurrent.SettableListenableFuture;
 
 /**
  * Unit tests for StompBrokerRelayMessageHandler.
@@ -220,6 +222,48 @@ public class StompBrokerRelayMessageHandlerTests {
 		assertSame(message, captor.getValue());
 	}
 
+	@Test
+	public void sendBackpressure() throws Exception {
+
+		this.brokerRelay.setMaxPendingSendsPerConnection(1);
+		this.brokerRelay.start();
+		this.brokerRelay.handleMessage(connectMessage("sess1", "joe"));
+		this.tcpClient.handleMessage(message(StompCommand.CONNECTED, null, null, null));
+		this.outboundChannel.getMessages().clear();
+		assertEquals(2, this.brokerRelay.getConnectionCount());
+
+		this.tcpClient.connection.setCompleteSends(false);
+		this.brokerRelay.handleMessage(message(StompCommand.SEND, "sess1", "joe", "/topic/foo"));
+		assertEquals(3, this.tcpClient.getSentMessages().size());
+
+		// Previous send pending: wait for a permit until the send is completed
+		Thread sender = new Thread(() ->
+				this.brokerRelay.handleMessage(message(StompCommand.SEND, "sess1", "joe", "/topic/foo")));
+		sender.start();
+		while (sender.getState() != Thread.State.TIMED_WAITING) {
+			assertTrue("Sender did not wait for a permit", sender.isAlive());
+			Thread.yield();
+		}
+		assertEquals(3, this.tcpClient.getSentMessages().size());
+		this.tcpClient.connection.completePendingSends();
+		sender.join(5000);
+		assertFalse(sender.isAlive());
+		assertEquals(4, this.tcpClient.getSentMessages().size());
+		assertEquals(0, this.outboundChannel.getMessages().size());
+
+		// Previous send pending and never completed: time out
+		this.brokerRelay.setSendBackpressureTimeout(0);
+		this.brokerRelay.handleMessage(message(StompCommand.SEND, "sess1", "joe", "/topic/foo"));
+		assertEquals(4, this.tcpClient.getSentMessages().size());
+		assertEquals(1, this.brokerRelay.getConnectionCount());
+
+		Message<byte[]> message = this.outboundChannel.getMessages().get(0);
+		StompHeaderAccessor accessor = StompHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+		assertEquals(StompCommand.ERROR, accessor.getCommand());
+		assertEquals("sess1", accessor.getSessionId());
+		assertTrue(this.brokerRelay.getStatsInfo().contains("send backpressure waits 2"));
+	}
+
 	private Message<byte[]> connectMessage(String sessionId, String user) {
 		StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.CONNECT);
 		headers.setSessionId(sessionId);
@@ -315,15 +359,35 @@ public class StompBrokerRelayMessageHandlerTests {
 
 		private final List<Message<byte[]>> messages = new ArrayList<>();
 
+		private final List<SettableListenableFuture<Void>> pendingSends = new CopyOnWriteArrayList<>();
+
+		private boolean completeSends = true;
+
 
 		public List<Message<byte[]>> getMessages() {
 			return this.messages;
 		}
 
+		public void setCompleteSends(boolean completeSends) {
+			this.completeSends = completeSends;
+		}
+
+		public void completePendingSends() {
+			for (SettableListenableFuture<Void> future : this.pendingSends) {
+				this.pendingSends.remove(future);
+				future.set(null);
+			}
+		}
+
 		@Override
 		public ListenableFuture<Void> send(Message<byte[]> message) {
 			this.messages.add(message);
-			return getVoidFuture();
+			if (this.completeSends) {
+				return getVoidFuture();
+			}
+			SettableListenableFuture<Void> future = new SettableListenableFuture<>();
+			this.pendingSends.add(future);
+			return future;
 		}
 
 		@Override
@@ -173,6 +173,141 @@ public class MultiServerUserRegistryTests {
 		assertEquals(remoteSession, user.getSession("sess456"));
 	}
 
+	@Test
+	public void findSubscriptionsByDestinationFromRemoteRegistry() throws Exception {
+
+		// Prepare broadcast message from remote server
+		TestSimpUser user1 = new TestSimpUser("joe");
+		TestSimpUser user2 = new TestSimpUser("jane");
+		TestSimpSession session1 = new TestSimpSession("sess1");
+		TestSimpSession session2 = new TestSimpSession("sess2");
+		session1.addSubscriptions(new TestSimpSubscription("sub1", "/match"));
+		session2.addSubscriptions(new TestSimpSubscription("sub1", "/not-a-match"));
+		user1.addSessions(session1);
+		user2.addSessions(session2);
+		SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+		when(userRegistry.getUsers()).thenReturn(new HashSet<>(Arrays.asList(user1, user2)));
+		Object registryDto = new MultiServerUserRegistry(userRegistry).getLocalRegistryDto();
+		Message<?> message = this.converter.toMessage(registryDto, null);
+
+		// Add remote registry
+		this.registry.addRemoteRegistryDto(message, this.converter, 20000);
+
+
+		Set<SimpSubscription> matches = this.registry.findSubscriptions(new DestinationSubscriptionMatcher("/match"));
+		assertEquals(1, matches.size());
+		SimpSubscription subscription = matches.iterator().next();
+		assertEquals("sub1", subscription.getId());
+		assertEquals("sess1", subscription.getSession().getId());
+		assertEquals("joe", subscription.getSession().getUser().getName());
+	}
+
+	@Test
+	public void incrementalBroadcast() throws Exception {
+
+		// Full snapshot from remote server
+		TestSimpUser user1 = new TestSimpUser("joe");
+		TestSimpSession session1 = new TestSimpSession("sess1");
+		session1.addSubscriptions(new TestSimpSubscription("sub1", "/dest1"));
+		user1.addSessions(session1);
+		TestSimpUser user2 = new TestSimpUser("jane");
+		user2.addSessions(new TestSimpSession("sess2"));
+		SimpUserRegistry remoteLocalRegistry = mock(SimpUserRegistry.class);
+		when(remoteLocalRegistry.getUsers()).thenReturn(new HashSet<>(Arrays.asList(user1, user2)));
+		MultiServerUserRegistry remoteRegistry = new MultiServerUserRegistry(remoteLocalRegistry);
+		Message<?> message = this.converter.toMessage(remoteRegistry.getLocalRegistryDto(true), null);
+		this.registry.addRemoteRegistryDto(message, this.converter, 20000);
+
+		assertEquals(2, this.registry.getUserCount());
+
+		// Delta: jane disconnects, joe subscribes to /dest2 and unsubscribes from /dest1, jack connects
+		user1 = new TestSimpUser("joe");
+		session1 = new TestSimpSession("sess1");
+		session1.addSubscriptions(new TestSimpSubscription("sub2", "/dest2"));
+		user1.addSessions(session1);
+		TestSimpUser user3 = new TestSimpUser("jack");
+		TestSimpSession session3 = new TestSimpSession("sess3");
+		session3.addSubscriptions(new TestSimpSubscription("sub1", "/dest1"));
+		user3.addSessions(session3);
+		when(remoteLocalRegistry.getUsers()).thenReturn(new HashSet<>(Arrays.asList(user1, user3)));
+		message = this.converter.toMessage(remoteRegistry.getLocalRegistryDto(true), null);
+		this.registry.addRemoteRegistryDto(message, this.converter, 20000);
+
+		assertEquals(2, this.registry.getUserCount());
+		assertNull(this.registry.getUser("jane"));
+		SimpUser joe = this.registry.getUser("joe");
+		assertNotNull(joe);
+		assertEquals(1, joe.getSessions().size());
+		Set<SimpSubscription> subscriptions = joe.getSession("sess1").getSubscriptions();
+		assertEquals(1, subscriptions.size());
+		assertEquals("/dest2", subscriptions.iterator().next().getDestination());
+
+		Set<SimpSubscription> matches = this.registry.findSubscriptions(new DestinationSubscriptionMatcher("/dest1"));
+		assertEquals(1, matches.size());
+		assertEquals("jack", matches.iterator().next().getSession().getUser().getName());
+		assertEquals(1, this.registry.findSubscriptions(new DestinationSubscriptionMatcher("/dest2")).size());
+		assertNull(this.registry.getResyncRequestDto());
+	}
+
+	@Test
+	public void incrementalBroadcastWithReusedSubscriptionId() throws Exception {
+
+		// Full snapshot from remote server
+		TestSimpUser user = new TestSimpUser("joe");
+		TestSimpSession session = new TestSimpSession("sess1");
+		session.addSubscriptions(new TestSimpSubscription("sub1", "/dest1"));
+		user.addSessions(session);
+		SimpUserRegistry remoteLocalRegistry = mock(SimpUserRegistry.class);
+		when(remoteLocalRegistry.getUsers()).thenReturn(Collections.singleton(user));
+		MultiServerUserRegistry remoteRegistry = new MultiServerUserRegistry(remoteLocalRegistry);
+		Message<?> message = this.converter.toMessage(remoteRegistry.getLocalRegistryDto(true), null);
+		this.registry.addRemoteRegistryDto(message, this.converter, 20000);
+
+		// Delta: joe unsubscribes from /dest1 and subscribes to /dest2 with the same subscription id
+		user = new TestSimpUser("joe");
+		session = new TestSimpSession("sess1");
+		session.addSubscriptions(new TestSimpSubscription("sub1", "/dest2"));
+		user.addSessions(session);
+		when(remoteLocalRegistry.getUsers()).thenReturn(Collections.singleton(user));
+		message = this.converter.toMessage(remoteRegistry.getLocalRegistryDto(true), null);
+		this.registry.addRemoteRegistryDto(message, this.converter, 20000);
+
+		Set<SimpSubscription> subscriptions = this.registry.getUser("joe").getSession("sess1").getSubscriptions();
+		assertEquals(1, subscriptions.size());
+		assertEquals("sub1", subscriptions.iterator().next().getId());
+		assertEquals("/dest2", subscriptions.iterator().next().getDestination());
+		assertEquals(0, this.registry.findSubscriptions(new DestinationSubscriptionMatcher("/dest1")).size());
+		assertEquals(1, this.registry.findSubscriptions(new DestinationSubscriptionMatcher("/dest2")).size());
+		assertNull(this.registry.getResyncRequestDto());
+	}
+
+	@Test
+	public void incrementalBroadcastWithGap() throws Exception {
+		TestSimpUser user = new TestSimpUser("joe");
+		user.addSessions(new TestSimpSession("sess1"));
+		SimpUserRegistry remoteLocalRegistry = mock(SimpUserRegistry.class);
+		when(remoteLocalRegistry.getUsers()).thenReturn(Collections.singleton(user));
+		MultiServerUserRegistry remoteRegistry = new MultiServerUserRegistry(remoteLocalRegistry);
+
+		// Full snapshot is missed, only the subsequent delta is received
+		remoteRegistry.getLocalRegistryDto(true);
+		Message<?> message = this.converter.toMessage(remoteRegistry.getLocalRegistryDto(true), null);
+		this.registry.addRemoteRegistryDto(message, this.converter, 20000);
+
+		assertEquals(0, this.registry.getUserCount());
+		Object resyncRequest = this.registry.getResyncRequestDto();
+		assertNotNull(resyncRequest);
+		assertNull(this.registry.getResyncRequestDto());
+
+		// Remote server handles the resync request and sends a full snapshot next
+		remoteRegistry.addRemoteRegistryDto(this.converter.toMessage(resyncRequest, null), this.converter, 20000);
+		message = this.converter.toMessage(remoteRegistry.getLocalRegistryDto(true), null);
+		this.registry.addRemoteRegistryDto(message, this.converter, 20000);
+
+		assertEquals(1, this.registry.getUserCount());
+		assertNotNull(this.registry.getUser("joe"));
+	}
+
 	@Test
 	public void purgeExpiredRegistries() throws Exception {
 
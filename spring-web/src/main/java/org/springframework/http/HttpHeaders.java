@@ -17,6 +17,8 @@
 package org.springframework.http;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.charset.Charset;
@@ -29,9 +31,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -42,8 +43,10 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -391,34 +394,51 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 
 	private static TimeZone GMT = TimeZone.getTimeZone("GMT");
 
+	/**
+	 * Lower case variants of the header names declared in this class, keyed by
+	 * name as declared and in lower case, so that well-known names do not need
+	 * to be converted on every lookup.
+	 */
+	private static final Map<String, String> LOWER_CASE_HEADER_NAMES = new HashMap<>(128);
+
+	static {
+		for (Field field : HttpHeaders.class.getFields()) {
+			int modifiers = field.getModifiers();
+			if (Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers) && field.getType() == String.class) {
+				String name = (String) ReflectionUtils.getField(field, null);
+				String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+				LOWER_CASE_HEADER_NAMES.put(name, lowerCaseName);
+				LOWER_CASE_HEADER_NAMES.put(lowerCaseName, lowerCaseName);
+			}
+		}
+	}
 
-	private final Map<String, List<String>> headers;
+
+	final MultiValueMap<String, String> headers;
 
 
 	/**
 	 * Constructs a new, empty instance of the {@code HttpHeaders} object.
 	 */
 	public HttpHeaders() {
-		this(new LinkedCaseInsensitiveMap<>(8, Locale.ENGLISH), false);
+		this(CollectionUtils.toMultiValueMap(new HeaderNameMap<>()));
 	}
 
 	/**
-	 * Private constructor that can create read-only {@code HttpHeader} instances.
+	 * Construct a new {@code HttpHeaders} instance backed by an existing map,
+	 * e.g. an adapter for the header container of an underlying HTTP server,
+	 * so that headers do not have to be copied.
+	 * <p>The given map is expected to treat header names case-insensitively.
+	 * Changes made through the methods of this instance write through to the
+	 * given map, and vice versa. Depending on the map, value lists returned
+	 * from {@link #get} may be copies, so changes to such lists may not be
+	 * reflected.
+	 * @param headers the headers map to adapt
+	 * @since 5.0
 	 */
-	private HttpHeaders(Map<String, List<String>> headers, boolean readOnly) {
+	public HttpHeaders(MultiValueMap<String, String> headers) {
 		Assert.notNull(headers, "'headers' must not be null");
-		if (readOnly) {
-			Map<String, List<String>> map =
-					new LinkedCaseInsensitiveMap<>(headers.size(), Locale.ENGLISH);
-			for (Entry<String, List<String>> entry : headers.entrySet()) {
-				List<String> values = Collections.unmodifiableList(entry.getValue());
-				map.put(entry.getKey(), values);
-			}
-			this.headers = Collections.unmodifiableMap(map);
-		}
-		else {
-			this.headers = headers;
-		}
+		this.headers = headers;
 	}
 
 
@@ -1319,8 +1339,7 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 */
 	@Override
 	public String getFirst(String headerName) {
-		List<String> headerValues = this.headers.get(headerName);
-		return (headerValues != null ? headerValues.get(0) : null);
+		return this.headers.getFirst(headerName);
 	}
 
 	/**
@@ -1333,14 +1352,12 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 */
 	@Override
 	public void add(String headerName, String headerValue) {
-		List<String> headerValues = this.headers.computeIfAbsent(headerName, k -> new LinkedList<>());
-		headerValues.add(headerValue);
+		this.headers.add(headerName, headerValue);
 	}
 
 	@Override
 	public void addAll(String key, List<String> values) {
-		List<String> currentValues = this.headers.computeIfAbsent(key, k -> new LinkedList<>());
-		currentValues.addAll(values);
+		this.headers.addAll(key, values);
 	}
 
 	/**
@@ -1353,25 +1370,17 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 	 */
 	@Override
 	public void set(String headerName, String headerValue) {
-		List<String> headerValues = new LinkedList<>();
-		headerValues.add(headerValue);
-		this.headers.put(headerName, headerValues);
+		this.headers.set(headerName, headerValue);
 	}
 
 	@Override
 	public void setAll(Map<String, String> values) {
-		for (Entry<String, String> entry : values.entrySet()) {
-			set(entry.getKey(), entry.getValue());
-		}
+		this.headers.setAll(values);
 	}
 
 	@Override
 	public Map<String, String> toSingleValueMap() {
-		LinkedHashMap<String, String> singleValueMap = new LinkedHashMap<>(this.headers.size());
-		for (Entry<String, List<String>> entry : this.headers.entrySet()) {
-			singleValueMap.put(entry.getKey(), entry.getValue().get(0));
-		}
-		return singleValueMap;
+		return this.headers.toSingleValueMap();
 	}
 
 
@@ -1463,9 +1472,50 @@ public class HttpHeaders implements MultiValueMap<String, String>, Serializable
 
 	/**
 	 * Return a {@code HttpHeaders} object that can only be read, not written to.
+	 * <p>The returned object is a snapshot of the given headers: later changes
+	 * to the given headers are not reflected.
+	 * @see #readOnlyHttpHeadersView(HttpHeaders)
 	 */
 	public static HttpHeaders readOnlyHttpHeaders(HttpHeaders headers) {
-		return new HttpHeaders(headers, true);
+		Assert.notNull(headers, "'headers' must not be null");
+		HttpHeaders copy = new HttpHeaders();
+		for (Entry<String, List<String>> entry : headers.entrySet()) {
+			copy.headers.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+		}
+		return new ReadOnlyHttpHeaders(copy.headers);
+	}
+
+	/**
+	 * Return a {@code HttpHeaders} object that can only be read, not written to,
+	 * as a view of the given headers rather than a copy, so that later changes
+	 * to the given headers are reflected.
+	 * <p>Intended for headers that are no longer modified once exposed, such as
+	 * the adapted request headers of an underlying server, where a copy would
+	 * be wasted work. Use {@link #readOnlyHttpHeaders(HttpHeaders)} otherwise.
+	 * @since 5.0
+	 */
+	public static HttpHeaders readOnlyHttpHeadersView(HttpHeaders headers) {
+		Assert.notNull(headers, "'headers' must not be null");
+		return (headers instanceof ReadOnlyHttpHeaders ? headers : new ReadOnlyHttpHeaders(headers.headers));
+	}
+
+
+	/**
+	 * Case-insensitive map of header names that does not convert well-known
+	 * header names on lookup.
+	 */
+	@SuppressWarnings("serial")
+	private static class HeaderNameMap<V> extends LinkedCaseInsensitiveMap<V> {
+
+		public HeaderNameMap() {
+			super(8, Locale.ENGLISH);
+		}
+
+		@Override
+		protected String convertKey(String key) {
+			String lowerCaseName = LOWER_CASE_HEADER_NAMES.get(key);
+			return (lowerCaseName != null ? lowerCaseName : super.convertKey(key));
+		}
 	}
 
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.reactive;
+
+/**
+ * Statistics for the connection pool of a {@link ClientHttpConnector}, e.g. to
+ * tune the number of connections and the concurrency of {@code WebClient}
+ * requests under load.
+ *
+ * <p>Counts are snapshots that may be stale by the time they are returned,
+ * and may not be consistent with each other.
+ *
+ * @since 5.0
+ * @see ReactorClientHttpConnector#getConnectionPoolMetrics()
+ * @see JettyClientHttpConnector#getConnectionPoolMetrics()
+ */
+public interface ConnectionPoolMetrics {
+
+	/**
+	 * Return the number of connections currently in use by a request.
+	 */
+	int getActiveConnectionCount();
+
+	/**
+	 * Return the number of open connections that are not currently in use.
+	 */
+	int getIdleConnectionCount();
+
+	/**
+	 * Return the number of requests waiting for a connection to become available.
+	 */
+	int getPendingAcquireCount();
+
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.reactive;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.DuplexConnectionPool;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.MultiplexConnectionPool;
+import org.eclipse.jetty.client.PoolingHttpDestination;
+import org.eclipse.jetty.client.api.Destination;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.util.Callback;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.Assert;
+
+/**
+ * Jetty implementation of {@link ClientHttpConnector}, based on the
+ * asynchronous API of the Jetty {@link HttpClient}.
+ *
+ * <p>Connections are pooled per host, i.e. per destination in Jetty terms,
+ * with the pool size and the number of requests allowed to wait for a
+ * connection configurable through {@link #setMaxConnectionsPerHost} and
+ * {@link #setMaxPendingAcquiresPerHost}. The statistics of all pools are
+ * exposed through {@link #getConnectionPoolMetrics()}.
+ *
+ * <p>To multiplex requests over HTTP/2 connections, create the connector
+ * with an {@link HttpClient} configured with the HTTP/2 transport from the
+ * {@code org.eclipse.jetty.http2:http2-http-client-transport} module:
+ *
+ * <pre class="code">
+ * HttpClient httpClient = new HttpClient(new HttpClientTransportOverHTTP2(new HTTP2Client()), sslContextFactory);
+ * ClientHttpConnector connector = new JettyClientHttpConnector(httpClient);
+ * </pre>
+ *
+ * <p>The response body is consumed with backpressure: Jetty is not asked for
+ * more content until the previous chunk has been requested downstream.
+ * Cancelling the response, or its body before it has been fully read, aborts
+ * the exchange and closes its connection.
+ *
+ * <p>The {@link HttpClient} is started on the first request if it has not been
+ * started already, and is stopped on {@link #destroy()} if it was started by
+ * this connector.
+ *
+ * @since 5.0
+ * @see HttpClient
+ */
+public class JettyClientHttpConnector implements ClientHttpConnector, DisposableBean {
+
+	private final HttpClient httpClient;
+
+	private volatile boolean startedHttpClient;
+
+	private final ConnectionPoolMetrics poolMetrics = new JettyConnectionPoolMetrics();
+
+	private DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+
+	/**
+	 * Create a Jetty {@link ClientHttpConnector} with a default {@link HttpClient}.
+	 */
+	public JettyClientHttpConnector() {
+		this(new HttpClient());
+	}
+
+	/**
+	 * Create a Jetty {@link ClientHttpConnector} with the given {@link HttpClient},
+	 * which is started on the first request if not started already.
+	 * <p><b>NOTE:</b> a client that is already started will <strong>not</strong>
+	 * be stopped by this connector; doing so remains the responsibility of the
+	 * caller.
+	 */
+	public JettyClientHttpConnector(HttpClient httpClient) {
+		Assert.notNull(httpClient, "HttpClient must not be null");
+		this.httpClient = httpClient;
+	}
+
+
+	/**
+	 * Set the maximum number of connections to open to a single host.
+	 * <p>Only applies to hosts for which no request has been made yet.
+	 * @see HttpClient#setMaxConnectionsPerDestination(int)
+	 */
+	public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+		this.httpClient.setMaxConnectionsPerDestination(maxConnectionsPerHost);
+	}
+
+	/**
+	 * Set the maximum number of requests that may wait for a connection to a
+	 * single host. Further requests are rejected.
+	 * <p>Only applies to hosts for which no request has been made yet.
+	 * @see HttpClient#setMaxRequestsQueuedPerDestination(int)
+	 */
+	public void setMaxPendingAcquiresPerHost(int maxPendingAcquiresPerHost) {
+		this.httpClient.setMaxRequestsQueuedPerDestination(maxPendingAcquiresPerHost);
+	}
+
+	/**
+	 * Set the factory for the data buffers of response bodies.
+	 * <p>By default a {@link DefaultDataBufferFactory} is used.
+	 */
+	public void setBufferFactory(DataBufferFactory bufferFactory) {
+		Assert.notNull(bufferFactory, "DataBufferFactory must not be null");
+		this.bufferFactory = bufferFactory;
+	}
+
+	/**
+	 * Return the underlying Jetty {@link HttpClient}.
+	 */
+	public HttpClient getHttpClient() {
+		return this.httpClient;
+	}
+
+	/**
+	 * Return the statistics of the connection pools of all hosts to which
+	 * this connector has made requests.
+	 */
+	public ConnectionPoolMetrics getConnectionPoolMetrics() {
+		return this.poolMetrics;
+	}
+
+
+	@Override
+	public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+			Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+
+		return Mono.create(sink -> {
+			startHttpClient();
+			Request jettyRequest = this.httpClient.newRequest(uri).method(method.toString());
+			ResponseListener listener = new ResponseListener(jettyRequest, sink);
+			JettyClientHttpRequest request = new JettyClientHttpRequest(method, uri, jettyRequest,
+					this.bufferFactory, () -> jettyRequest.send(listener));
+			Disposable writing = requestCallback.apply(request).subscribe(null, ex -> {
+				jettyRequest.abort(ex);
+				sink.error(ex);
+			});
+			sink.onCancel(() -> {
+				writing.dispose();
+				jettyRequest.abort(new CancellationException("Request cancelled"));
+			});
+		});
+	}
+
+	private void startHttpClient() {
+		if (this.httpClient.isStarted()) {
+			return;
+		}
+		synchronized (this.httpClient) {
+			if (!this.httpClient.isStarted()) {
+				try {
+					this.httpClient.start();
+					this.startedHttpClient = true;
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException("Failed to start Jetty HttpClient", ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stop the Jetty {@link HttpClient} if it was started by this connector.
+	 */
+	@Override
+	public void destroy() throws Exception {
+		synchronized (this.httpClient) {
+			if (this.startedHttpClient) {
+				this.startedHttpClient = false;
+				this.httpClient.stop();
+			}
+		}
+	}
+
+
+	/**
+	 * Jetty response listener that publishes the response once its headers are
+	 * received, and relays its content to the response body publisher.
+	 */
+	private class ResponseListener extends Response.Listener.Adapter {
+
+		private final MonoSink<ClientHttpResponse> sink;
+
+		private final JettyClientHttpResponse.BodyPublisher body;
+
+		private volatile boolean headersReceived;
+
+		public ResponseListener(Request request, MonoSink<ClientHttpResponse> sink) {
+			this.sink = sink;
+			this.body = new JettyClientHttpResponse.BodyPublisher(request, bufferFactory);
+		}
+
+		@Override
+		public void onHeaders(Response response) {
+			this.headersReceived = true;
+			this.sink.success(new JettyClientHttpResponse(response, this.body));
+		}
+
+		@Override
+		public void onContent(Response response, ByteBuffer content, Callback callback) {
+			this.body.offer(content, callback);
+		}
+
+		@Override
+		public void onComplete(Result result) {
+			if (result.isSucceeded()) {
+				this.body.onAllDataRead();
+			}
+			else if (this.headersReceived) {
+				this.body.onError(result.getFailure());
+			}
+			else {
+				this.sink.error(result.getFailure());
+			}
+		}
+	}
+
+
+	/**
+	 * {@link ConnectionPoolMetrics} aggregated over the connection pools of
+	 * all destinations of the {@link HttpClient}.
+	 */
+	private class JettyConnectionPoolMetrics implements ConnectionPoolMetrics {
+
+		@Override
+		public int getActiveConnectionCount() {
+			int count = 0;
+			for (Destination destination : httpClient.getDestinations()) {
+				ConnectionPool pool = getConnectionPool(destination);
+				if (pool instanceof DuplexConnectionPool) {
+					count += ((DuplexConnectionPool) pool).getActiveConnectionCount();
+				}
+				else if (pool instanceof MultiplexConnectionPool) {
+					count += ((MultiplexConnectionPool) pool).getActiveConnectionCount();
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public int getIdleConnectionCount() {
+			int count = 0;
+			for (Destination destination : httpClient.getDestinations()) {
+				ConnectionPool pool = getConnectionPool(destination);
+				if (pool instanceof DuplexConnectionPool) {
+					count += ((DuplexConnectionPool) pool).getIdleConnectionCount();
+				}
+				else if (pool instanceof MultiplexConnectionPool) {
+					count += ((MultiplexConnectionPool) pool).getIdleConnectionCount();
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public int getPendingAcquireCount() {
+			int count = 0;
+			for (Destination destination : httpClient.getDestinations()) {
+				if (destination instanceof HttpDestination) {
+					count += ((HttpDestination) destination).getQueuedRequestCount();
+				}
+			}
+			return count;
+		}
+
+		private ConnectionPool getConnectionPool(Destination destination) {
+			return (destination instanceof PoolingHttpDestination ?
+					((PoolingHttpDestination<?>) destination).getConnectionPool() : null);
+		}
+
+		@Override
+		public String toString() {
+			return "active=" + getActiveConnectionCount() + ", idle=" + getIdleConnectionCount() +
+					", pending=" + getPendingAcquireCount();
+		}
+	}
+
+}
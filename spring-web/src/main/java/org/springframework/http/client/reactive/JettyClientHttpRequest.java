@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.reactive;
+
+import java.net.HttpCookie;
+import java.net.URI;
+import java.util.Collection;
+import java.util.concurrent.CancellationException;
+
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.util.DeferredContentProvider;
+import org.eclipse.jetty.util.Callback;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+
+/**
+ * {@link ClientHttpRequest} implementation for the Jetty HTTP client.
+ *
+ * <p>The request is sent when it is committed, and its body is offered to
+ * Jetty one buffer at a time, the next buffer being requested only once the
+ * previous one has been written. If writing the body is cancelled, the
+ * request content is failed so that Jetty aborts the request.
+ *
+ * @since 5.0
+ * @see JettyClientHttpConnector
+ */
+class JettyClientHttpRequest extends AbstractClientHttpRequest {
+
+	private final HttpMethod httpMethod;
+
+	private final URI uri;
+
+	private final Request jettyRequest;
+
+	private final DataBufferFactory bufferFactory;
+
+	private final Runnable sendAction;
+
+
+	public JettyClientHttpRequest(HttpMethod httpMethod, URI uri, Request jettyRequest,
+			DataBufferFactory bufferFactory, Runnable sendAction) {
+
+		this.httpMethod = httpMethod;
+		this.uri = uri;
+		this.jettyRequest = jettyRequest;
+		this.bufferFactory = bufferFactory;
+		this.sendAction = sendAction;
+	}
+
+
+	@Override
+	public DataBufferFactory bufferFactory() {
+		return this.bufferFactory;
+	}
+
+	@Override
+	public HttpMethod getMethod() {
+		return this.httpMethod;
+	}
+
+	@Override
+	public URI getURI() {
+		return this.uri;
+	}
+
+	@Override
+	public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+		return doCommit(() -> Mono.defer(() -> {
+			DeferredContentProvider provider = new DeferredContentProvider();
+			this.jettyRequest.content(provider);
+			this.sendAction.run();
+			return Flux.from(body)
+					.concatMap(buffer -> offer(provider, buffer))
+					.then()
+					.doOnSuccess(aVoid -> provider.close())
+					.doOnError(provider::failed)
+					.doOnCancel(() -> provider.failed(new CancellationException("Request body cancelled")));
+		}));
+	}
+
+	private static Mono<Void> offer(DeferredContentProvider provider, DataBuffer buffer) {
+		return Mono.create(sink -> provider.offer(buffer.asByteBuffer(), new Callback() {
+			@Override
+			public void succeeded() {
+				DataBufferUtils.release(buffer);
+				sink.success();
+			}
+			@Override
+			public void failed(Throwable ex) {
+				DataBufferUtils.release(buffer);
+				sink.error(ex);
+			}
+		}));
+	}
+
+	@Override
+	public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+		return writeWith(Flux.from(body).concatMap(Flux::from));
+	}
+
+	@Override
+	public Mono<Void> setComplete() {
+		return doCommit(() -> Mono.defer(() -> {
+			this.sendAction.run();
+			return Mono.empty();
+		}));
+	}
+
+	@Override
+	protected void applyHeaders() {
+		getHeaders().forEach((name, values) -> values.forEach(value -> this.jettyRequest.header(name, value)));
+	}
+
+	@Override
+	protected void applyCookies() {
+		getCookies().values().stream().flatMap(Collection::stream)
+				.map(cookie -> new HttpCookie(cookie.getName(), cookie.getValue()))
+				.forEach(this.jettyRequest::cookie);
+	}
+
+}
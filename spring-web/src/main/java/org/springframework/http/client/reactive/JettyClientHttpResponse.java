@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.reactive;
+
+import java.net.HttpCookie;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.util.Callback;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.AbstractListenerReadPublisher;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@link ClientHttpResponse} implementation for the Jetty HTTP client.
+ *
+ * @since 5.0
+ * @see JettyClientHttpConnector
+ */
+class JettyClientHttpResponse implements ClientHttpResponse {
+
+	private final Response response;
+
+	private final BodyPublisher body;
+
+
+	public JettyClientHttpResponse(Response response, BodyPublisher body) {
+		this.response = response;
+		this.body = body;
+	}
+
+
+	@Override
+	public Flux<DataBuffer> getBody() {
+		return Flux.from(this.body);
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		for (HttpField field : this.response.getHeaders()) {
+			headers.add(field.getName(), field.getValue());
+		}
+		return headers;
+	}
+
+	@Override
+	public HttpStatus getStatusCode() {
+		return HttpStatus.valueOf(this.response.getStatus());
+	}
+
+	@Override
+	public MultiValueMap<String, ResponseCookie> getCookies() {
+		MultiValueMap<String, ResponseCookie> result = new LinkedMultiValueMap<>();
+		List<String> headers = getHeaders().get(HttpHeaders.SET_COOKIE);
+		if (headers != null) {
+			for (String header : headers) {
+				for (HttpCookie cookie : HttpCookie.parse(header)) {
+					ResponseCookie responseCookie = ResponseCookie.from(cookie.getName(), cookie.getValue())
+							.domain(cookie.getDomain())
+							.path(cookie.getPath())
+							.maxAge(cookie.getMaxAge())
+							.secure(cookie.getSecure())
+							.httpOnly(cookie.isHttpOnly())
+							.build();
+					result.add(cookie.getName(), responseCookie);
+				}
+			}
+		}
+		return CollectionUtils.unmodifiableMultiValueMap(result);
+	}
+
+	@Override
+	public String toString() {
+		return "JettyClientHttpResponse{" +
+				"request=" + this.response.getRequest().getMethod() + " " + this.response.getRequest().getURI() + "," +
+				"status=" + getStatusCode() +
+				'}';
+	}
+
+
+	/**
+	 * Publisher for the content of a Jetty response: each chunk is copied into
+	 * a data buffer when requested, after which the Jetty callback is completed
+	 * so that the next chunk is read. If the subscriber cancels, the pending
+	 * callback is failed and the exchange is aborted, so that the connection
+	 * is not held by a response that is no longer read.
+	 */
+	static class BodyPublisher extends AbstractListenerReadPublisher<DataBuffer> {
+
+		private final Request request;
+
+		private final DataBufferFactory bufferFactory;
+
+		private volatile ByteBuffer content;
+
+		private volatile Callback callback;
+
+		public BodyPublisher(Request request, DataBufferFactory bufferFactory) {
+			this.request = request;
+			this.bufferFactory = bufferFactory;
+		}
+
+		public void offer(ByteBuffer content, Callback callback) {
+			this.callback = callback;
+			this.content = content;
+			onDataAvailable();
+		}
+
+		@Override
+		protected void checkOnDataAvailable() {
+			if (this.content != null) {
+				onDataAvailable();
+			}
+		}
+
+		@Override
+		protected DataBuffer read() {
+			ByteBuffer content = this.content;
+			if (content == null) {
+				return null;
+			}
+			this.content = null;
+			DataBuffer buffer = this.bufferFactory.allocateBuffer(content.remaining());
+			buffer.write(content);
+			Callback callback = this.callback;
+			this.callback = null;
+			callback.succeeded();
+			return buffer;
+		}
+
+		@Override
+		protected void readingCancelled() {
+			CancellationException ex = new CancellationException("Response body cancelled");
+			this.content = null;
+			Callback callback = this.callback;
+			this.callback = null;
+			if (callback != null) {
+				callback.failed(ex);
+			}
+			this.request.abort(ex);
+		}
+	}
+
+}
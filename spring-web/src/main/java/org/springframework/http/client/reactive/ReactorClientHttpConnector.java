@@ -24,18 +24,26 @@ import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.client.HttpClientOptions;
 import reactor.ipc.netty.options.ClientOptions;
 import reactor.ipc.netty.http.client.HttpClient;
+import reactor.ipc.netty.resources.PoolResources;
+import reactor.ipc.netty.resources.TcpResources;
 
 import org.springframework.http.HttpMethod;
+import org.springframework.util.Assert;
 
 /**
  * Reactor-Netty implementation of {@link ClientHttpConnector}
  *
+ * <p>The statistics of the connection pool used by this connector are exposed
+ * through {@link #getConnectionPoolMetrics()}.
+ *
  * @author Brian Clozel
  * @see HttpClient
  * @since 5.0
  */
 public class ReactorClientHttpConnector implements ClientHttpConnector {
 
+	private final ReactorConnectionPoolMetrics poolMetrics = new ReactorConnectionPoolMetrics();
+
 	private final HttpClient httpClient;
 
 
@@ -44,14 +52,47 @@ public class ReactorClientHttpConnector implements ClientHttpConnector {
 	 * and SSL support enabled.
 	 */
 	public ReactorClientHttpConnector() {
-		this.httpClient = HttpClient.create();
+		this(TcpResources.get(), options -> {});
 	}
 
 	/**
-	 * Create a Reactor Netty {@link ClientHttpConnector} with the given {@link ClientOptions}
+	 * Create a Reactor Netty {@link ClientHttpConnector} with the given {@link ClientOptions}.
+	 * <p>Note that if the given options configure their own {@link PoolResources},
+	 * the {@link #getConnectionPoolMetrics() connection pool metrics} are not collected;
+	 * use {@link #ReactorClientHttpConnector(PoolResources, Consumer)} instead.
 	 */
 	public ReactorClientHttpConnector(Consumer<? super HttpClientOptions> clientOptions) {
-		this.httpClient = HttpClient.create(clientOptions);
+		this(TcpResources.get(), clientOptions);
+	}
+
+	/**
+	 * Create a Reactor Netty {@link ClientHttpConnector} with the given
+	 * {@link PoolResources}, e.g. with a fixed number of connections per host
+	 * created through {@link PoolResources#fixed(String, int)}, and the given
+	 * {@link ClientOptions}.
+	 * @param poolResources the connection pool resources to use
+	 * @param clientOptions the client options to apply
+	 */
+	public ReactorClientHttpConnector(PoolResources poolResources,
+			Consumer<? super HttpClientOptions> clientOptions) {
+
+		Assert.notNull(poolResources, "'poolResources' must not be null");
+		PoolResources resources = this.poolMetrics.decorate(poolResources);
+		this.httpClient = HttpClient.create(options -> {
+			options.poolResources(resources);
+			clientOptions.accept(options);
+		});
+	}
+
+
+	/**
+	 * Return the statistics of the connection pool used by this connector.
+	 * <p>Only connections acquired through this connector are reflected, even
+	 * when the underlying pool resources are shared, e.g. the global
+	 * {@link TcpResources}.
+	 */
+	public ConnectionPoolMetrics getConnectionPoolMetrics() {
+		return this.poolMetrics;
 	}
 
 
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.reactive;
+
+import java.net.SocketAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import reactor.ipc.netty.resources.PoolResources;
+
+/**
+ * {@link ConnectionPoolMetrics} for Reactor Netty, collected by decorating the
+ * {@link PoolResources} and the Netty {@link ChannelPool}s they create.
+ *
+ * <p>Channels are tracked from the time they are first acquired through the
+ * decorated pool resources until they are closed, rather than from their
+ * creation, since the creation callback is only registered by whichever
+ * client first uses a pool, e.g. for the shared {@code TcpResources}.
+ * Hence, when the pool resources are shared with other clients, idle
+ * channels that were never acquired through this instance are not included.
+ *
+ * @since 5.0
+ */
+class ReactorConnectionPoolMetrics implements ConnectionPoolMetrics {
+
+	/** Open channels that have been acquired at least once */
+	private final Set<Channel> channels = ConcurrentHashMap.newKeySet();
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final AtomicInteger pendingCount = new AtomicInteger();
+
+
+	/**
+	 * Decorate the given pool resources to record metrics with this instance.
+	 */
+	public PoolResources decorate(PoolResources poolResources) {
+		return new MetricsPoolResources(poolResources);
+	}
+
+
+	@Override
+	public int getActiveConnectionCount() {
+		return this.activeCount.get();
+	}
+
+	@Override
+	public int getIdleConnectionCount() {
+		return Math.max(0, this.channels.size() - this.activeCount.get());
+	}
+
+	@Override
+	public int getPendingAcquireCount() {
+		return this.pendingCount.get();
+	}
+
+	@Override
+	public String toString() {
+		return "active=" + getActiveConnectionCount() + ", idle=" + getIdleConnectionCount() +
+				", pending=" + getPendingAcquireCount();
+	}
+
+
+	private class MetricsPoolResources implements PoolResources {
+
+		private final PoolResources delegate;
+
+		public MetricsPoolResources(PoolResources delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public ChannelPool selectOrCreate(SocketAddress address, Supplier<? extends Bootstrap> bootstrap,
+				Consumer<? super Channel> onChannelCreate, EventLoopGroup group) {
+
+			return new MetricsChannelPool(this.delegate.selectOrCreate(address, bootstrap, onChannelCreate, group));
+		}
+
+		@Override
+		public void dispose() {
+			this.delegate.dispose();
+		}
+	}
+
+
+	private class MetricsChannelPool implements ChannelPool {
+
+		private final ChannelPool delegate;
+
+		public MetricsChannelPool(ChannelPool delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Future<Channel> acquire() {
+			pendingCount.incrementAndGet();
+			return this.delegate.acquire().addListener(this::acquired);
+		}
+
+		@Override
+		public Future<Channel> acquire(Promise<Channel> promise) {
+			pendingCount.incrementAndGet();
+			return this.delegate.acquire(promise).addListener(this::acquired);
+		}
+
+		private void acquired(Future<? super Channel> future) {
+			pendingCount.decrementAndGet();
+			if (future.isSuccess()) {
+				activeCount.incrementAndGet();
+				Channel channel = (Channel) future.getNow();
+				if (channels.add(channel)) {
+					channel.closeFuture().addListener(closeFuture -> channels.remove(channel));
+				}
+			}
+		}
+
+		@Override
+		public Future<Void> release(Channel channel) {
+			activeCount.decrementAndGet();
+			return this.delegate.release(channel);
+		}
+
+		@Override
+		public Future<Void> release(Channel channel, Promise<Void> promise) {
+			activeCount.decrementAndGet();
+			return this.delegate.release(channel, promise);
+		}
+
+		@Override
+		public void close() {
+			this.delegate.close();
+		}
+	}
+
+}
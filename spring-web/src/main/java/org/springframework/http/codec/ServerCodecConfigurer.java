@@ -20,6 +20,7 @@ import java.util.List;
 import org.springframework.core.codec.Encoder;
 import org.springframework.core.codec.StringDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.multipart.MultipartHttpMessageReader;
 
 /**
  * Helps to configure a list of server-side HTTP message readers and writers
@@ -53,6 +54,7 @@ public class ServerCodecConfigurer extends AbstractCodecConfigurer {
 	protected void addDefaultTypedReaders(List<HttpMessageReader<?>> result) {
 		super.addDefaultTypedReaders(result);
 		defaultCodec().addReaderTo(result, FormHttpMessageReader::new);
+		defaultCodec().addReaderTo(result, MultipartHttpMessageReader::new);
 	}
 
 
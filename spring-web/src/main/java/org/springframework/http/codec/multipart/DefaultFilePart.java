@@ -0,0 +1,144 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Default {@link FilePart}, with its content held either in memory or in a
+ * temporary file, which is accessed on a scheduler for blocking operations.
+ *
+ * @since 5.0
+ */
+class DefaultFilePart implements FilePart {
+
+	private final HttpHeaders headers;
+
+	private final String name;
+
+	private final String filename;
+
+	private final byte[] content;
+
+	private volatile Path file;
+
+	private volatile boolean transferred;
+
+	private final DataBufferFactory bufferFactory;
+
+	private final int bufferSize;
+
+	private final Scheduler blockingScheduler;
+
+
+	/**
+	 * Create a part with either in-memory content or a temporary file.
+	 */
+	DefaultFilePart(HttpHeaders headers, String name, String filename, byte[] content, Path file,
+			DataBufferFactory bufferFactory, int bufferSize, Scheduler blockingScheduler) {
+
+		this.headers = headers;
+		this.name = name;
+		this.filename = filename;
+		this.content = content;
+		this.file = file;
+		this.bufferFactory = bufferFactory;
+		this.bufferSize = bufferSize;
+		this.blockingScheduler = blockingScheduler;
+	}
+
+
+	@Override
+	public String name() {
+		return this.name;
+	}
+
+	@Override
+	public HttpHeaders headers() {
+		return this.headers;
+	}
+
+	@Override
+	public String filename() {
+		return this.filename;
+	}
+
+	@Override
+	public Flux<DataBuffer> content() {
+		if (this.content != null) {
+			return Flux.defer(() -> Flux.just(this.bufferFactory.wrap(this.content)));
+		}
+		return Flux.defer(() -> {
+			try {
+				FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ);
+				return DataBufferUtils.read(channel, this.bufferFactory, this.bufferSize);
+			}
+			catch (IOException ex) {
+				return Flux.<DataBuffer>error(ex);
+			}
+		}).subscribeOn(this.blockingScheduler);
+	}
+
+	@Override
+	public Mono<Void> transferTo(File dest) {
+		return Mono.fromCallable(() -> {
+			if (this.content != null) {
+				Files.write(dest.toPath(), this.content);
+			}
+			else if (this.transferred) {
+				Files.copy(this.file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			else {
+				this.file = Files.move(this.file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				this.transferred = true;
+			}
+			return dest;
+		}).subscribeOn(this.blockingScheduler).then();
+	}
+
+	@Override
+	public Mono<Void> delete() {
+		return Mono.fromCallable(() -> {
+			if (this.file != null && !this.transferred) {
+				Files.deleteIfExists(this.file);
+			}
+			return this.name;
+		}).subscribeOn(this.blockingScheduler).then();
+	}
+
+	@Override
+	public String toString() {
+		return "FilePart '" + this.name + "', filename='" + this.filename + "'" +
+				(this.file != null ? ", stored in " + this.file : "");
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.nio.charset.Charset;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Default {@link FormFieldPart}, with its content held in memory.
+ *
+ * @since 5.0
+ */
+class DefaultFormFieldPart implements FormFieldPart {
+
+	private final HttpHeaders headers;
+
+	private final String name;
+
+	private final byte[] content;
+
+	private final Charset charset;
+
+	private final DataBufferFactory bufferFactory;
+
+
+	DefaultFormFieldPart(HttpHeaders headers, String name, byte[] content, Charset charset,
+			DataBufferFactory bufferFactory) {
+
+		this.headers = headers;
+		this.name = name;
+		this.content = content;
+		this.charset = charset;
+		this.bufferFactory = bufferFactory;
+	}
+
+
+	@Override
+	public String name() {
+		return this.name;
+	}
+
+	@Override
+	public HttpHeaders headers() {
+		return this.headers;
+	}
+
+	@Override
+	public String value() {
+		return new String(this.content, this.charset);
+	}
+
+	@Override
+	public Flux<DataBuffer> content() {
+		return Flux.defer(() -> Flux.just(this.bufferFactory.wrap(this.content)));
+	}
+
+	@Override
+	public String toString() {
+		return "FormFieldPart '" + this.name + "'";
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@code HttpMessageReader} for reading {@code "multipart/form-data"} requests
+ * into a {@code MultiValueMap<String, Part>}.
+ *
+ * <p>Parsing is delegated to a {@link PartHttpMessageReader}, through which
+ * the in-memory and disk thresholds and limits can be configured.
+ *
+ * @since 5.0
+ */
+public class MultipartHttpMessageReader implements HttpMessageReader<MultiValueMap<String, Part>> {
+
+	private static final ResolvableType MULTIPART_VALUE_TYPE =
+			ResolvableType.forClassWithGenerics(MultiValueMap.class, String.class, Part.class);
+
+	private static final ResolvableType PART_TYPE = ResolvableType.forClass(Part.class);
+
+
+	private final HttpMessageReader<Part> partReader;
+
+
+	/**
+	 * Create a reader with a default {@link PartHttpMessageReader}.
+	 */
+	public MultipartHttpMessageReader() {
+		this(new PartHttpMessageReader());
+	}
+
+	/**
+	 * Create a reader that delegates to the given reader of parts.
+	 * @param partReader the reader to parse the request body into parts with
+	 */
+	public MultipartHttpMessageReader(HttpMessageReader<Part> partReader) {
+		Assert.notNull(partReader, "'partReader' is required");
+		this.partReader = partReader;
+	}
+
+
+	/**
+	 * Return the configured reader of parts.
+	 */
+	public HttpMessageReader<Part> getPartReader() {
+		return this.partReader;
+	}
+
+	@Override
+	public List<MediaType> getReadableMediaTypes() {
+		return Collections.singletonList(MediaType.MULTIPART_FORM_DATA);
+	}
+
+	@Override
+	public boolean canRead(ResolvableType elementType, MediaType mediaType) {
+		return MULTIPART_VALUE_TYPE.isAssignableFrom(elementType) &&
+				(mediaType == null || MediaType.MULTIPART_FORM_DATA.isCompatibleWith(mediaType));
+	}
+
+	@Override
+	public Flux<MultiValueMap<String, Part>> read(ResolvableType elementType,
+			ReactiveHttpInputMessage message, Map<String, Object> hints) {
+
+		return Flux.from(readMono(elementType, message, hints));
+	}
+
+	@Override
+	public Mono<MultiValueMap<String, Part>> readMono(ResolvableType elementType,
+			ReactiveHttpInputMessage message, Map<String, Object> hints) {
+
+		return this.partReader.read(PART_TYPE, message, hints)
+				.collect(LinkedMultiValueMap::new, (map, part) -> map.add(part.name(), part));
+	}
+
+	@Override
+	public Mono<MultiValueMap<String, Part>> readMono(ResolvableType actualType, ResolvableType elementType,
+			ServerHttpRequest request, ServerHttpResponse response, Map<String, Object> hints) {
+
+		return this.partReader.read(PART_TYPE, PART_TYPE, request, response, hints)
+				.collect(LinkedMultiValueMap::new, (map, part) -> map.add(part.name(), part));
+	}
+
+}
@@ -0,0 +1,468 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.StringUtils;
+
+/**
+ * Incremental parser for a "multipart/form-data" body, fed one data buffer
+ * at a time by {@link PartHttpMessageReader}.
+ *
+ * <p>Delimiters are found with a Knuth-Morris-Pratt matcher, so that a delimiter
+ * may span any number of buffers. Bytes that could be the start of a delimiter
+ * are held back until the match either completes or fails, at which point they
+ * are known to be a prefix of the delimiter and are written from it.
+ *
+ * <p>Instances are stateful and must be used for a single request only.
+ * All temporary files created are tracked, and deleted through {@link #dispose()},
+ * which may be called from any thread.
+ *
+ * @since 5.0
+ */
+class MultipartParser {
+
+	private enum State {PREAMBLE, DELIMITER, HEADERS, BODY, EPILOGUE}
+
+	private static final byte CR = '\r';
+
+	private static final byte LF = '\n';
+
+	private static final byte HYPHEN = '-';
+
+	private static final int HEADERS_END = 0x0D0A0D0A;
+
+
+	private final PartHttpMessageReader config;
+
+	/** The delimiter preceding every boundary: CRLF, two hyphens, the boundary */
+	private final byte[] delimiter;
+
+	/** KMP failure table for the delimiter */
+	private final int[] failure;
+
+	private State state = State.PREAMBLE;
+
+	/** Number of delimiter bytes matched and held back so far */
+	private int matchIndex = 2;  // the first delimiter is not preceded by CRLF
+
+	/** The byte seen after a delimiter, i.e. the start of "--" or CRLF */
+	private byte delimiterByte;
+
+	private final ByteArrayOutputStream headerBytes = new ByteArrayOutputStream(256);
+
+	/** The last 4 bytes of the headers seen so far */
+	private int headerTail;
+
+	private PartWriter partWriter;
+
+	private int partCount;
+
+	/** All temporary files created so far */
+	private final List<Path> files = new ArrayList<>(1);
+
+	private boolean disposed;
+
+
+	MultipartParser(String boundary, PartHttpMessageReader config) {
+		this.config = config;
+		this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+		this.failure = failureTable(this.delimiter);
+	}
+
+
+	/**
+	 * Parse the given data buffer, which is released.
+	 * @return the parts completed within the buffer, if any
+	 */
+	public synchronized List<Part> parse(DataBuffer buffer) {
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		DataBufferUtils.release(buffer);
+		if (this.disposed) {
+			return Collections.emptyList();
+		}
+
+		List<Part> parts = Collections.emptyList();
+		int pos = 0;
+		while (pos < bytes.length) {
+			switch (this.state) {
+				case PREAMBLE:
+				case BODY:
+					pos = parseContent(bytes, pos);
+					if (this.state == State.DELIMITER && this.partWriter != null) {
+						if (parts.isEmpty()) {
+							parts = new ArrayList<>(2);
+						}
+						parts.add(this.partWriter.complete());
+						this.partWriter = null;
+					}
+					break;
+				case DELIMITER:
+					parseDelimiterSuffix(bytes[pos++]);
+					break;
+				case HEADERS:
+					parseHeaderByte(bytes[pos++]);
+					break;
+				case EPILOGUE:
+					pos = bytes.length;
+					break;
+			}
+		}
+		return parts;
+	}
+
+	/**
+	 * Signal the end of the request body.
+	 * @return any remaining parts, i.e. none
+	 */
+	public synchronized List<Part> complete() {
+		if (this.state != State.EPILOGUE) {
+			dispose();
+			throw new CodecException("Premature end of multipart request body");
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Release the storage of the part being parsed, if any, and delete all
+	 * temporary files created so far, including those of parts already
+	 * completed. Further content is ignored.
+	 */
+	public synchronized void dispose() {
+		this.disposed = true;
+		if (this.partWriter != null) {
+			this.partWriter.dispose();
+			this.partWriter = null;
+		}
+		for (Path file : this.files) {
+			try {
+				Files.deleteIfExists(file);
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+		this.files.clear();
+	}
+
+
+	private int parseContent(byte[] bytes, int start) {
+		int held = this.matchIndex;
+		int j = this.matchIndex;
+		for (int i = start; i < bytes.length; i++) {
+			byte b = bytes[i];
+			while (j > 0 && b != this.delimiter[j]) {
+				j = this.failure[j - 1];
+			}
+			if (b == this.delimiter[j]) {
+				j++;
+			}
+			if (j == this.delimiter.length) {
+				writeContent(held, bytes, start, i + 1 - j);
+				this.matchIndex = 0;
+				this.delimiterByte = 0;
+				this.state = State.DELIMITER;
+				return i + 1;
+			}
+		}
+		writeContent(held, bytes, start, bytes.length - j);
+		this.matchIndex = j;
+		return bytes.length;
+	}
+
+	/**
+	 * Write the held back delimiter bytes followed by the given buffer range,
+	 * up to the given end, which may be before the start if part of the held
+	 * back bytes turned out to be the start of the delimiter after all.
+	 */
+	private void writeContent(int held, byte[] bytes, int start, int end) {
+		if (this.partWriter == null) {
+			return;
+		}
+		int count = held + end - start;
+		int heldCount = Math.min(held, count);
+		if (heldCount > 0) {
+			this.partWriter.write(this.delimiter, 0, heldCount);
+		}
+		if (end > start) {
+			this.partWriter.write(bytes, start, end - start);
+		}
+	}
+
+	private void parseDelimiterSuffix(byte b) {
+		if (this.delimiterByte == HYPHEN) {
+			if (b != HYPHEN) {
+				throw new CodecException("Invalid multipart boundary delimiter");
+			}
+			this.state = State.EPILOGUE;
+		}
+		else if (this.delimiterByte == CR) {
+			if (b != LF) {
+				throw new CodecException("Invalid multipart boundary delimiter");
+			}
+			this.headerBytes.reset();
+			this.headerTail = 0;
+			this.state = State.HEADERS;
+		}
+		else if (b == HYPHEN || b == CR) {
+			this.delimiterByte = b;
+		}
+		else if (b != ' ' && b != '\t') {
+			throw new CodecException("Invalid multipart boundary delimiter");
+		}
+	}
+
+	private void parseHeaderByte(byte b) {
+		this.headerBytes.write(b);
+		this.headerTail = (this.headerTail << 8) | (b & 0xFF);
+		int size = this.headerBytes.size();
+		if (size > this.config.getMaxHeadersSize()) {
+			throw new CodecException("Part headers exceed the maximum size of " +
+					this.config.getMaxHeadersSize() + " bytes");
+		}
+		if (this.headerTail == HEADERS_END || (size == 2 && this.headerTail == 0x0D0A)) {
+			this.partCount++;
+			if (this.config.getMaxParts() >= 0 && this.partCount > this.config.getMaxParts()) {
+				throw new CodecException("Multipart request exceeds the maximum of " +
+						this.config.getMaxParts() + " parts");
+			}
+			String headers = new String(this.headerBytes.toByteArray(), this.config.getHeadersCharset());
+			this.partWriter = new PartWriter(parseHeaders(headers));
+			this.matchIndex = 0;
+			this.state = State.BODY;
+		}
+	}
+
+
+	private static HttpHeaders parseHeaders(String headers) {
+		HttpHeaders result = new HttpHeaders();
+		String name = null;
+		StringBuilder value = null;
+		for (String line : StringUtils.delimitedListToStringArray(headers, "\r\n")) {
+			if (line.isEmpty()) {
+				continue;
+			}
+			if ((line.charAt(0) == ' ' || line.charAt(0) == '\t') && value != null) {
+				value.append(' ').append(line.trim());
+				continue;
+			}
+			if (name != null) {
+				result.add(name, value.toString());
+			}
+			int index = line.indexOf(':');
+			if (index <= 0) {
+				throw new CodecException("Invalid part header: " + line);
+			}
+			name = line.substring(0, index).trim();
+			value = new StringBuilder(line.substring(index + 1).trim());
+		}
+		if (name != null) {
+			result.add(name, value.toString());
+		}
+		return result;
+	}
+
+	/**
+	 * Return the value of the given parameter of a Content-Disposition header,
+	 * or {@code null} if not present.
+	 */
+	static String getDispositionParameter(String disposition, String parameter) {
+		int length = disposition.length();
+		int index = disposition.indexOf(';');
+		while (index != -1 && index < length) {
+			int start = index + 1;
+			while (start < length && disposition.charAt(start) == ' ') {
+				start++;
+			}
+			int equals = disposition.indexOf('=', start);
+			if (equals == -1) {
+				return null;
+			}
+			String name = disposition.substring(start, equals).trim();
+			StringBuilder value = new StringBuilder();
+			int i = equals + 1;
+			while (i < length && disposition.charAt(i) == ' ') {
+				i++;
+			}
+			if (i < length && disposition.charAt(i) == '"') {
+				for (i++; i < length && disposition.charAt(i) != '"'; i++) {
+					char c = disposition.charAt(i);
+					if (c == '\\' && i + 1 < length && disposition.charAt(i + 1) == '"') {
+						c = disposition.charAt(++i);
+					}
+					value.append(c);
+				}
+				index = disposition.indexOf(';', i);
+			}
+			else {
+				index = disposition.indexOf(';', i);
+				value.append(disposition.substring(i, (index != -1 ? index : length)).trim());
+			}
+			if (name.equalsIgnoreCase(parameter)) {
+				return value.toString();
+			}
+		}
+		return null;
+	}
+
+	private static int[] failureTable(byte[] pattern) {
+		int[] result = new int[pattern.length];
+		int j = 0;
+		for (int i = 1; i < pattern.length; i++) {
+			while (j > 0 && pattern[i] != pattern[j]) {
+				j = result[j - 1];
+			}
+			if (pattern[i] == pattern[j]) {
+				j++;
+			}
+			result[i] = j;
+		}
+		return result;
+	}
+
+
+	/**
+	 * Accumulates the content of a single part in memory, switching to a
+	 * temporary file once the in-memory limit is exceeded.
+	 */
+	private class PartWriter {
+
+		private final HttpHeaders headers;
+
+		private final String name;
+
+		private final String filename;
+
+		private FastByteArrayOutputStream memory = new FastByteArrayOutputStream(256);
+
+		private Path file;
+
+		private FileChannel channel;
+
+		private long size;
+
+		public PartWriter(HttpHeaders headers) {
+			String disposition = headers.getFirst("Content-Disposition");
+			String name = (disposition != null ? getDispositionParameter(disposition, "name") : null);
+			if (!StringUtils.hasLength(name)) {
+				throw new CodecException("No part name found in Content-Disposition: " + disposition);
+			}
+			this.headers = headers;
+			this.name = name;
+			this.filename = getDispositionParameter(disposition, "filename");
+		}
+
+		public void write(byte[] bytes, int offset, int length) {
+			this.size += length;
+			if (config.getMaxPartSize() >= 0 && this.size > config.getMaxPartSize()) {
+				throw new CodecException("Part \"" + this.name + "\" exceeds the maximum size of " +
+						config.getMaxPartSize() + " bytes");
+			}
+			try {
+				if (this.channel == null && this.memory.size() + length > config.getMaxInMemorySize()) {
+					if (this.filename == null) {
+						throw new CodecException("Form field \"" + this.name +
+								"\" exceeds the maximum in-memory size of " + config.getMaxInMemorySize() + " bytes");
+					}
+					this.file = Files.createTempFile(config.getFileStorageDirectory(), "multipart-", ".tmp");
+					files.add(this.file);
+					this.channel = FileChannel.open(this.file, StandardOpenOption.WRITE);
+					writeToChannel(ByteBuffer.wrap(this.memory.toByteArrayUnsafe(), 0, this.memory.size()));
+					this.memory = null;
+				}
+				if (this.channel != null) {
+					writeToChannel(ByteBuffer.wrap(bytes, offset, length));
+				}
+				else {
+					this.memory.write(bytes, offset, length);
+				}
+			}
+			catch (IOException ex) {
+				dispose();
+				throw new CodecException("Failed to write content of part \"" + this.name + "\"", ex);
+			}
+		}
+
+		private void writeToChannel(ByteBuffer byteBuffer) throws IOException {
+			while (byteBuffer.hasRemaining()) {
+				this.channel.write(byteBuffer);
+			}
+		}
+
+		public Part complete() {
+			if (this.filename != null) {
+				if (this.channel != null) {
+					try {
+						this.channel.close();
+					}
+					catch (IOException ex) {
+						dispose();
+						throw new CodecException("Failed to write content of part \"" + this.name + "\"", ex);
+					}
+					return new DefaultFilePart(this.headers, this.name, this.filename, null, this.file,
+							config.getBufferFactory(), config.getBufferSize(), config.getBlockingScheduler());
+				}
+				return new DefaultFilePart(this.headers, this.name, this.filename, this.memory.toByteArray(), null,
+						config.getBufferFactory(), config.getBufferSize(), config.getBlockingScheduler());
+			}
+			MediaType contentType = this.headers.getContentType();
+			Charset charset = (contentType != null && contentType.getCharset() != null ?
+					contentType.getCharset() : config.getHeadersCharset());
+			return new DefaultFormFieldPart(this.headers, this.name, this.memory.toByteArray(), charset,
+					config.getBufferFactory());
+		}
+
+		public void dispose() {
+			if (this.channel != null) {
+				try {
+					this.channel.close();
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+			}
+			if (this.file != null) {
+				try {
+					Files.deleteIfExists(this.file);
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Representation for a part in a "multipart/form-data" request.
+ *
+ * <p>The origin of a multipart request may be a browser form in which case each
+ * part is either a {@link FormFieldPart} or a {@link FilePart}.
+ *
+ * <p>Multipart requests may also be used outside of a browser for data of any
+ * content type (e.g. JSON, PDF, etc).
+ *
+ * @since 5.0
+ * @see PartHttpMessageReader
+ * @see <a href="https://tools.ietf.org/html/rfc7578">RFC 7578 (multipart/form-data)</a>
+ */
+public interface Part {
+
+	/**
+	 * Return the name of the part in the multipart form.
+	 * @return the name of the part, never {@code null} or empty
+	 */
+	String name();
+
+	/**
+	 * Return the headers associated with the part.
+	 */
+	HttpHeaders headers();
+
+	/**
+	 * Return the content for this part.
+	 * <p>Content held on disk is read lazily, in chunks, as demanded by the
+	 * subscriber, and may be read more than once until {@link #delete() deleted}.
+	 */
+	Flux<DataBuffer> content();
+
+	/**
+	 * Delete the underlying storage for this part, if any, e.g. a temporary
+	 * file the content was written to because it exceeded the in-memory limit.
+	 * <p>The default implementation does nothing.
+	 */
+	default Mono<Void> delete() {
+		return Mono.empty();
+	}
+
+}
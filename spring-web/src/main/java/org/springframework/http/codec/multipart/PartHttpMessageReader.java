@@ -0,0 +1,320 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code HttpMessageReader} for parsing {@code "multipart/form-data"} requests
+ * to a stream of {@link Part}s.
+ *
+ * <p>The request body is parsed incrementally as data buffers arrive, and each
+ * part is emitted as soon as its content is complete. Part content is held in
+ * memory up to {@link #setMaxInMemorySize maxInMemorySize} bytes, beyond which
+ * the content of {@link FilePart}s is written to a temporary file in the
+ * {@link #setFileStorageDirectory file storage directory}, so that uploads far
+ * larger than the available heap can be accepted. Temporary files are removed
+ * through {@link Part#delete()}, or moved through {@link FilePart#transferTo}.
+ *
+ * <p>Parsing, and all access to temporary files, happens on a
+ * {@link #setBlockingScheduler blocking scheduler} rather than on the thread
+ * on which the request body is received, which may be an event loop thread.
+ *
+ * <p>All temporary files created for a request, including those of parts
+ * already emitted, are deleted if parsing fails or the stream of parts is
+ * cancelled. On the server side, remaining temporary files are also deleted
+ * when the response is committed, so the content of file parts needs to be
+ * consumed or {@link FilePart#transferTo transferred} before then.
+ *
+ * <p>The total number of parts and the size of each part can be limited through
+ * {@link #setMaxParts maxParts} and {@link #setMaxPartSize maxPartSize}.
+ * Exceeding any limit results in a {@link CodecException}.
+ *
+ * @since 5.0
+ * @see MultipartHttpMessageReader
+ */
+public class PartHttpMessageReader implements HttpMessageReader<Part> {
+
+	/** Default maximum number of bytes of a part to hold in memory: 256K */
+	public static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+
+	/** Default maximum size of the headers of a single part: 8K */
+	public static final int DEFAULT_MAX_HEADERS_SIZE = 8 * 1024;
+
+	private static final ResolvableType PART_TYPE = ResolvableType.forClass(Part.class);
+
+	/** Number of request body buffers to prefetch onto the blocking scheduler */
+	private static final int PREFETCH = 8;
+
+
+	private int maxInMemorySize = DEFAULT_MAX_IN_MEMORY_SIZE;
+
+	private int maxHeadersSize = DEFAULT_MAX_HEADERS_SIZE;
+
+	private long maxPartSize = -1;
+
+	private int maxParts = -1;
+
+	private Path fileStorageDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+
+	private Charset headersCharset = StandardCharsets.UTF_8;
+
+	private DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+	private int bufferSize = 4096;
+
+	private Scheduler blockingScheduler;
+
+
+	/**
+	 * Configure the maximum number of bytes of a part to hold in memory.
+	 * The content of file parts larger than that is written to a temporary
+	 * file, while form fields larger than that are rejected.
+	 * <p>By default this is set to 256K.
+	 */
+	public void setMaxInMemorySize(int maxInMemorySize) {
+		Assert.isTrue(maxInMemorySize >= 0, "'maxInMemorySize' must not be negative");
+		this.maxInMemorySize = maxInMemorySize;
+	}
+
+	/**
+	 * Return the configured maximum number of bytes of a part held in memory.
+	 */
+	public int getMaxInMemorySize() {
+		return this.maxInMemorySize;
+	}
+
+	/**
+	 * Configure the maximum size of the headers section of a single part.
+	 * <p>By default this is set to 8K.
+	 */
+	public void setMaxHeadersSize(int maxHeadersSize) {
+		Assert.isTrue(maxHeadersSize > 0, "'maxHeadersSize' must be greater than 0");
+		this.maxHeadersSize = maxHeadersSize;
+	}
+
+	/**
+	 * Return the configured maximum size of the headers of a single part.
+	 */
+	public int getMaxHeadersSize() {
+		return this.maxHeadersSize;
+	}
+
+	/**
+	 * Configure the maximum size of the content of a single part, whether
+	 * held in memory or on disk.
+	 * <p>By default this is set to -1, meaning the size is not limited.
+	 */
+	public void setMaxPartSize(long maxPartSize) {
+		this.maxPartSize = maxPartSize;
+	}
+
+	/**
+	 * Return the configured maximum size of a single part, or -1 if not limited.
+	 */
+	public long getMaxPartSize() {
+		return this.maxPartSize;
+	}
+
+	/**
+	 * Configure the maximum number of parts allowed in a request.
+	 * <p>By default this is set to -1, meaning the number of parts is not limited.
+	 */
+	public void setMaxParts(int maxParts) {
+		this.maxParts = maxParts;
+	}
+
+	/**
+	 * Return the configured maximum number of parts, or -1 if not limited.
+	 */
+	public int getMaxParts() {
+		return this.maxParts;
+	}
+
+	/**
+	 * Configure the directory in which to store the content of parts exceeding
+	 * the {@link #setMaxInMemorySize in-memory limit}.
+	 * <p>By default this is the directory given by the "java.io.tmpdir"
+	 * system property.
+	 */
+	public void setFileStorageDirectory(Path fileStorageDirectory) {
+		Assert.notNull(fileStorageDirectory, "'fileStorageDirectory' must not be null");
+		this.fileStorageDirectory = fileStorageDirectory;
+	}
+
+	/**
+	 * Return the configured directory for temporary files.
+	 */
+	public Path getFileStorageDirectory() {
+		return this.fileStorageDirectory;
+	}
+
+	/**
+	 * Configure the character set used to decode part headers, and the value
+	 * of form fields that do not specify a charset.
+	 * <p>By default this is set to "UTF-8".
+	 */
+	public void setHeadersCharset(Charset headersCharset) {
+		Assert.notNull(headersCharset, "'headersCharset' must not be null");
+		this.headersCharset = headersCharset;
+	}
+
+	/**
+	 * Return the configured character set for part headers.
+	 */
+	public Charset getHeadersCharset() {
+		return this.headersCharset;
+	}
+
+	/**
+	 * Configure the factory for the data buffers of part content, and the size
+	 * of the buffers in which content held on disk is read.
+	 * <p>By default a {@link DefaultDataBufferFactory} is used, with buffers of 4K.
+	 */
+	public void setBufferFactory(DataBufferFactory bufferFactory, int bufferSize) {
+		Assert.notNull(bufferFactory, "'bufferFactory' must not be null");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be greater than 0");
+		this.bufferFactory = bufferFactory;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Configure the {@link Scheduler} on which parts are parsed and on which
+	 * temporary files are written, read, moved and deleted.
+	 * <p>By default a shared elastic scheduler is used, creating daemon threads
+	 * on demand and disposing of them after 60 seconds of inactivity, so that
+	 * slow file system operations of concurrent uploads do not hold up each
+	 * other. Configure a scheduler of your own, e.g. one with a bounded number
+	 * of threads, to limit the threads dedicated to uploads, and pass this
+	 * reader to {@link MultipartHttpMessageReader} to use it for multipart data.
+	 */
+	public void setBlockingScheduler(Scheduler blockingScheduler) {
+		Assert.notNull(blockingScheduler, "'blockingScheduler' must not be null");
+		this.blockingScheduler = blockingScheduler;
+	}
+
+	/**
+	 * Return the configured scheduler for blocking file system operations.
+	 */
+	public Scheduler getBlockingScheduler() {
+		return (this.blockingScheduler != null ? this.blockingScheduler : DefaultBlockingScheduler.INSTANCE);
+	}
+
+
+	@Override
+	public List<MediaType> getReadableMediaTypes() {
+		return Collections.singletonList(MediaType.MULTIPART_FORM_DATA);
+	}
+
+	@Override
+	public boolean canRead(ResolvableType elementType, MediaType mediaType) {
+		return PART_TYPE.isAssignableFrom(elementType) &&
+				(mediaType == null || MediaType.MULTIPART_FORM_DATA.isCompatibleWith(mediaType));
+	}
+
+	@Override
+	public Flux<Part> read(ResolvableType elementType, ReactiveHttpInputMessage message, Map<String, Object> hints) {
+		return readParts(message, null);
+	}
+
+	@Override
+	public Flux<Part> read(ResolvableType actualType, ResolvableType elementType, ServerHttpRequest request,
+			ServerHttpResponse response, Map<String, Object> hints) {
+
+		return readParts(request, response);
+	}
+
+	private Flux<Part> readParts(ReactiveHttpInputMessage message, ServerHttpResponse response) {
+		MediaType contentType = message.getHeaders().getContentType();
+		String boundary = (contentType != null ? contentType.getParameter("boundary") : null);
+		if (!StringUtils.hasLength(boundary)) {
+			return Flux.error(new CodecException("No multipart boundary found in Content-Type: " + contentType));
+		}
+		if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+			boundary = boundary.substring(1, boundary.length() - 1);
+		}
+		String boundaryToUse = boundary;
+		Scheduler scheduler = getBlockingScheduler();
+		return Flux.defer(() -> {
+			MultipartParser parser = new MultipartParser(boundaryToUse, this);
+			if (response != null) {
+				// Delete remaining temporary files at the end of the request
+				response.beforeCommit(() -> deleteFiles(parser, scheduler));
+			}
+			return message.getBody()
+					.publishOn(scheduler, PREFETCH)
+					.concatMap(buffer -> Flux.fromIterable(parser.parse(buffer)))
+					.concatWith(Flux.defer(() -> Flux.fromIterable(parser.complete())))
+					.doOnError(ex -> deleteFiles(parser, scheduler).subscribe())
+					.doOnCancel(() -> deleteFiles(parser, scheduler).subscribe());
+		});
+	}
+
+	private static Mono<Void> deleteFiles(MultipartParser parser, Scheduler scheduler) {
+		return Mono.<Void>fromRunnable(parser::dispose).subscribeOn(scheduler);
+	}
+
+	@Override
+	public Mono<Part> readMono(ResolvableType elementType, ReactiveHttpInputMessage message,
+			Map<String, Object> hints) {
+
+		return Mono.error(new UnsupportedOperationException(
+				"Can't read a multipart request body into a single Part."));
+	}
+
+
+	DataBufferFactory getBufferFactory() {
+		return this.bufferFactory;
+	}
+
+	int getBufferSize() {
+		return this.bufferSize;
+	}
+
+
+	/**
+	 * Holder for the default scheduler, created on first use.
+	 */
+	private static class DefaultBlockingScheduler {
+
+		static final Scheduler INSTANCE = Schedulers.newElastic("multipart-file", 60, true);
+	}
+
+}
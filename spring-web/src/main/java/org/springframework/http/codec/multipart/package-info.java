@@ -0,0 +1,6 @@
+/**
+ * Multipart support for reactive HTTP message readers, parsing
+ * {@code "multipart/form-data"} request bodies into
+ * {@link org.springframework.http.codec.multipart.Part Part}s.
+ */
+package org.springframework.http.codec.multipart;
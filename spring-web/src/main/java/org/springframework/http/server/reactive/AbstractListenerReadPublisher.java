@@ -110,6 +110,14 @@ public abstract class AbstractListenerReadPublisher<T> implements Publisher<T> {
 	 */
 	protected abstract T read() throws IOException;
 
+	/**
+	 * Invoked once the subscriber has cancelled, e.g. to release data that was
+	 * received but not read, or to abort the underlying exchange.
+	 * <p>The default implementation is empty.
+	 */
+	protected void readingCancelled() {
+	}
+
 
 	/**
 	 * Read and publish data from the input. Continue till there is no more
@@ -302,7 +310,9 @@ public abstract class AbstractListenerReadPublisher<T> implements Publisher<T> {
 		}
 
 		<T> void cancel(AbstractListenerReadPublisher<T> publisher) {
-			publisher.changeState(this, COMPLETED);
+			if (publisher.changeState(this, COMPLETED)) {
+				publisher.readingCancelled();
+			}
 		}
 
 		<T> void onDataAvailable(AbstractListenerReadPublisher<T> publisher) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.http.server.reactive;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.reactivestreams.Processor;
 import org.reactivestreams.Publisher;
@@ -36,6 +37,8 @@ public abstract class AbstractListenerServerHttpResponse extends AbstractServerH
 
 	private final AtomicBoolean writeCalled = new AtomicBoolean();
 
+	private final LongAdder writeWaitNanos = new LongAdder();
+
 
 	public AbstractListenerServerHttpResponse(DataBufferFactory dataBufferFactory) {
 		super(dataBufferFactory);
@@ -62,6 +65,25 @@ public abstract class AbstractListenerServerHttpResponse extends AbstractServerH
 				"writeWith() or writeAndFlushWith() has already been called"));
 	}
 
+	/**
+	 * Return the total time, in nanoseconds, that writing the response body
+	 * has been waiting for the underlying output to become writable again,
+	 * i.e. the time spent under backpressure from the client connection.
+	 */
+	public long getWriteWaitNanos() {
+		return this.writeWaitNanos.sum();
+	}
+
+	/**
+	 * Record time spent waiting for the output to become writable.
+	 * Invoked by the body processors of subclasses.
+	 * @param waitNanos the time spent waiting, in nanoseconds
+	 * @see AbstractListenerWriteProcessor#writeWaitCompleted(long)
+	 */
+	protected void recordWriteWait(long waitNanos) {
+		this.writeWaitNanos.add(waitNanos);
+	}
+
 	/**
 	 * Abstract template method to create a {@code Processor<Publisher<DataBuffer>, Void>}
 	 * that will write the response body with flushes to the underlying output. Called from
@@ -52,6 +52,8 @@ public abstract class AbstractListenerWriteProcessor<T> implements Processor<T,
 
 	private volatile boolean subscriberCompleted;
 
+	private volatile long writeWaitStart;
+
 	private Subscription subscription;
 
 
@@ -150,6 +152,16 @@ public abstract class AbstractListenerWriteProcessor<T> implements Processor<T,
 	 */
 	protected abstract boolean write(T data) throws IOException;
 
+	/**
+	 * Invoked when writing becomes possible again after the current data
+	 * could not be written, with the time spent waiting, i.e. the time the
+	 * output applied backpressure.
+	 * <p>The default implementation does nothing.
+	 * @param waitNanos the time spent waiting, in nanoseconds
+	 */
+	protected void writeWaitCompleted(long waitNanos) {
+	}
+
 
 	private boolean changeState(State oldState, State newState) {
 		return this.state.compareAndSet(oldState, newState);
@@ -159,6 +171,17 @@ public abstract class AbstractListenerWriteProcessor<T> implements Processor<T,
 		if (isWritePossible()) {
 			onWritePossible();
 		}
+		else if (this.writeWaitStart == 0) {
+			this.writeWaitStart = System.nanoTime();
+		}
+	}
+
+	private void checkWriteWaitCompleted() {
+		long start = this.writeWaitStart;
+		if (start != 0) {
+			this.writeWaitStart = 0;
+			writeWaitCompleted(System.nanoTime() - start);
+		}
 	}
 
 
@@ -241,6 +264,7 @@ public abstract class AbstractListenerWriteProcessor<T> implements Processor<T,
 			@Override
 			public <T> void onWritePossible(AbstractListenerWriteProcessor<T> processor) {
 				if (processor.changeState(this, WRITING)) {
+					processor.checkWriteWaitCompleted();
 					T data = processor.currentData;
 					try {
 						boolean writeCompleted = processor.write(data);
@@ -55,7 +55,7 @@ public abstract class AbstractServerHttpRequest implements ServerHttpRequest {
 	 */
 	public AbstractServerHttpRequest(URI uri, HttpHeaders headers) {
 		this.uri = uri;
-		this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+		this.headers = HttpHeaders.readOnlyHttpHeadersView(headers);
 	}
 
 
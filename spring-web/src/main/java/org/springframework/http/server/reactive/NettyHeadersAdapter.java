@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.netty.handler.codec.http.HttpHeaders;
+
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@code MultiValueMap} implementation for wrapping Netty HTTP headers,
+ * so that they can be exposed as {@link org.springframework.http.HttpHeaders}
+ * without being copied.
+ *
+ * <p>Value lists returned from {@link #get}, {@link #values()} and
+ * {@link #entrySet()} are copies: changes must be made through the methods
+ * of this map, which write through to the Netty headers.
+ *
+ * @since 5.0
+ */
+class NettyHeadersAdapter implements MultiValueMap<String, String> {
+
+	private final HttpHeaders headers;
+
+
+	NettyHeadersAdapter(HttpHeaders headers) {
+		this.headers = headers;
+	}
+
+
+	@Override
+	public String getFirst(String key) {
+		return this.headers.get(key);
+	}
+
+	@Override
+	public void add(String key, String value) {
+		this.headers.add(key, value);
+	}
+
+	@Override
+	public void addAll(String key, List<String> values) {
+		this.headers.add(key, values);
+	}
+
+	@Override
+	public void set(String key, String value) {
+		this.headers.set(key, value);
+	}
+
+	@Override
+	public void setAll(Map<String, String> values) {
+		values.forEach(this.headers::set);
+	}
+
+	@Override
+	public Map<String, String> toSingleValueMap() {
+		Map<String, String> singleValueMap = new LinkedCaseInsensitiveMap<>(this.headers.size(), Locale.ENGLISH);
+		this.headers.entries().forEach(entry -> singleValueMap.putIfAbsent(entry.getKey(), entry.getValue()));
+		return singleValueMap;
+	}
+
+	@Override
+	public int size() {
+		return this.headers.names().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.headers.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (key instanceof String && this.headers.contains((String) key));
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return (value instanceof String && this.headers.entries().stream()
+				.anyMatch(entry -> value.equals(entry.getValue())));
+	}
+
+	@Override
+	public List<String> get(Object key) {
+		return (containsKey(key) ? this.headers.getAll((String) key) : null);
+	}
+
+	@Override
+	public List<String> put(String key, List<String> value) {
+		List<String> previousValues = get(key);
+		this.headers.set(key, value);
+		return previousValues;
+	}
+
+	@Override
+	public List<String> remove(Object key) {
+		List<String> previousValues = get(key);
+		if (previousValues != null) {
+			this.headers.remove((String) key);
+		}
+		return previousValues;
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends List<String>> map) {
+		map.forEach(this.headers::set);
+	}
+
+	@Override
+	public void clear() {
+		this.headers.clear();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return this.headers.names();
+	}
+
+	@Override
+	public Collection<List<String>> values() {
+		return this.headers.names().stream()
+				.map(this.headers::getAll)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public Set<Entry<String, List<String>>> entrySet() {
+		Map<String, List<String>> map = new LinkedHashMap<>(this.headers.size());
+		this.headers.names().forEach(name -> map.put(name, this.headers.getAll(name)));
+		return map.entrySet();
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof Map)) {
+			return false;
+		}
+		return entrySet().equals(((Map<?, ?>) other).entrySet());
+	}
+
+	@Override
+	public int hashCode() {
+		return entrySet().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return entrySet().stream()
+				.map(entry -> entry.getKey() + "=" + entry.getValue())
+				.collect(Collectors.joining(", ", "{", "}"));
+	}
+
+}
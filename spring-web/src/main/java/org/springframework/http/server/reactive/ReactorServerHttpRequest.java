@@ -73,11 +73,7 @@ public class ReactorServerHttpRequest extends AbstractServerHttpRequest {
 	}
 
 	private static HttpHeaders initHeaders(HttpServerRequest channel) {
-		HttpHeaders headers = new HttpHeaders();
-		for (String name : channel.requestHeaders().names()) {
-			headers.put(name, channel.requestHeaders().getAll(name));
-		}
-		return headers;
+		return new HttpHeaders(new NettyHeadersAdapter(channel.requestHeaders()));
 	}
 
 
@@ -282,6 +282,11 @@ public class ServletServerHttpResponse extends AbstractListenerServerHttpRespons
 			return dataBuffer.readableByteCount() == 0;
 		}
 
+		@Override
+		protected void writeWaitCompleted(long waitNanos) {
+			recordWriteWait(waitNanos);
+		}
+
 		@Override
 		protected boolean write(DataBuffer dataBuffer) throws IOException {
 			if (ServletServerHttpResponse.this.flushOnNext) {
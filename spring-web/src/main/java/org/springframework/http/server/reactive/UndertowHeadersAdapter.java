@@ -0,0 +1,208 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.HttpString;
+
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@code MultiValueMap} implementation for wrapping an Undertow {@link HeaderMap},
+ * so that it can be exposed as {@link org.springframework.http.HttpHeaders}
+ * without being copied.
+ *
+ * <p>Header names are converted through {@link HttpString#tryFromString},
+ * which returns the pre-interned {@code HttpString} for well-known names.
+ *
+ * <p>Value lists returned from {@link #get}, {@link #values()} and
+ * {@link #entrySet()} are copies: changes must be made through the methods
+ * of this map, which write through to the Undertow headers.
+ *
+ * @since 5.0
+ */
+class UndertowHeadersAdapter implements MultiValueMap<String, String> {
+
+	private final HeaderMap headers;
+
+
+	UndertowHeadersAdapter(HeaderMap headers) {
+		this.headers = headers;
+	}
+
+
+	@Override
+	public String getFirst(String key) {
+		return this.headers.getFirst(key);
+	}
+
+	@Override
+	public void add(String key, String value) {
+		this.headers.add(HttpString.tryFromString(key), value);
+	}
+
+	@Override
+	public void addAll(String key, List<String> values) {
+		this.headers.addAll(HttpString.tryFromString(key), values);
+	}
+
+	@Override
+	public void set(String key, String value) {
+		this.headers.put(HttpString.tryFromString(key), value);
+	}
+
+	@Override
+	public void setAll(Map<String, String> values) {
+		values.forEach(this::set);
+	}
+
+	@Override
+	public Map<String, String> toSingleValueMap() {
+		Map<String, String> singleValueMap = new LinkedCaseInsensitiveMap<>(this.headers.size(), Locale.ENGLISH);
+		for (HeaderValues values : this.headers) {
+			singleValueMap.putIfAbsent(values.getHeaderName().toString(), values.getFirst());
+		}
+		return singleValueMap;
+	}
+
+	@Override
+	public int size() {
+		return this.headers.getHeaderNames().size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (this.headers.size() == 0);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (key instanceof String && this.headers.contains((String) key));
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		if (value instanceof String) {
+			for (HeaderValues values : this.headers) {
+				if (values.contains(value)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public List<String> get(Object key) {
+		if (key instanceof String) {
+			HeaderValues values = this.headers.get((String) key);
+			if (values != null) {
+				return new ArrayList<>(values);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public List<String> put(String key, List<String> value) {
+		// Copy both before mutating, as Undertow clears the live HeaderValues first
+		List<String> previousValues = get(key);
+		this.headers.putAll(HttpString.tryFromString(key), new ArrayList<>(value));
+		return previousValues;
+	}
+
+	@Override
+	public List<String> remove(Object key) {
+		if (key instanceof String) {
+			Collection<String> previousValues = this.headers.remove((String) key);
+			if (previousValues != null) {
+				return new ArrayList<>(previousValues);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends List<String>> map) {
+		map.forEach(this::put);
+	}
+
+	@Override
+	public void clear() {
+		this.headers.clear();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return this.headers.getHeaderNames().stream()
+				.map(HttpString::toString)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	@Override
+	public Collection<List<String>> values() {
+		return this.headers.getHeaderNames().stream()
+				.<List<String>>map(name -> new ArrayList<>(this.headers.get(name)))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public Set<Entry<String, List<String>>> entrySet() {
+		Map<String, List<String>> map = new LinkedHashMap<>(this.headers.size());
+		for (HeaderValues values : this.headers) {
+			map.put(values.getHeaderName().toString(), new ArrayList<>(values));
+		}
+		return map.entrySet();
+	}
+
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof Map)) {
+			return false;
+		}
+		return entrySet().equals(((Map<?, ?>) other).entrySet());
+	}
+
+	@Override
+	public int hashCode() {
+		return entrySet().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return entrySet().stream()
+				.map(entry -> entry.getKey() + "=" + entry.getValue())
+				.collect(Collectors.joining(", ", "{", "}"));
+	}
+
+}
@@ -144,7 +144,7 @@ public class UndertowServerHttpResponse extends AbstractListenerServerHttpRespon
 	}
 
 
-	private static class ResponseBodyProcessor extends AbstractListenerWriteProcessor<DataBuffer> {
+	private class ResponseBodyProcessor extends AbstractListenerWriteProcessor<DataBuffer> {
 
 		private final StreamSinkChannel channel;
 
@@ -165,6 +165,11 @@ public class UndertowServerHttpResponse extends AbstractListenerServerHttpRespon
 			return false;
 		}
 
+		@Override
+		protected void writeWaitCompleted(long waitNanos) {
+			recordWriteWait(waitNanos);
+		}
+
 		@Override
 		protected boolean write(DataBuffer dataBuffer) throws IOException {
 			if (this.byteBuffer == null) {
@@ -42,6 +42,10 @@ import org.springframework.web.util.WebUtils;
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
  *
+ * <p>The response content is cached in memory in order to compute the ETag.
+ * A {@link #setContentCacheLimit content cache limit} can be set to bound
+ * that memory: larger responses are written through without an ETag.
+ *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
  *
@@ -66,6 +70,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private boolean writeWeakETag = false;
 
+	private int contentCacheLimit = -1;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -86,6 +92,29 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the maximum number of response bytes to cache in order to compute an
+	 * ETag. Once a response body exceeds this limit, the content cached so far
+	 * is written to the response along with the rest of the body, and no ETag
+	 * is generated for it.
+	 * <p>By default this is set to -1, i.e. the complete body is always cached.
+	 * <p>Can be configured using an {@code <init-param>} for parameter name
+	 * "contentCacheLimit" in the filter definition in {@code web.xml}.
+	 * @since 5.0
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of response bytes to cache in order to compute
+	 * an ETag, or -1 if not limited.
+	 * @since 5.0
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -102,7 +131,9 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request) && !(response instanceof ContentCachingResponseWrapper)) {
-			responseToUse = new HttpStreamingAwareContentCachingResponseWrapper(response, request);
+			responseToUse = (this.contentCacheLimit >= 0 ?
+					new HttpStreamingAwareContentCachingResponseWrapper(response, request, this.contentCacheLimit) :
+					new HttpStreamingAwareContentCachingResponseWrapper(response, request));
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -122,6 +153,13 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		if (rawResponse.isCommitted()) {
 			responseWrapper.copyBodyToResponse();
 		}
+		else if (responseWrapper.isContentCacheLimitExceeded()) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Response exceeded content cache limit of " + this.contentCacheLimit +
+						" bytes: not eligible for ETag");
+			}
+			responseWrapper.copyBodyToResponse();
+		}
 		else if (isEligibleForEtag(request, responseWrapper, statusCode, responseWrapper.getContentInputStream())) {
 			String responseETag = generateETagHeaderValue(responseWrapper.getContentInputStream(), this.writeWeakETag);
 			rawResponse.setHeader(HEADER_ETAG, responseETag);
@@ -227,6 +265,13 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 			this.request = request;
 		}
 
+		public HttpStreamingAwareContentCachingResponseWrapper(HttpServletResponse response,
+				HttpServletRequest request, int contentCacheLimit) {
+
+			super(response, contentCacheLimit);
+			this.request = request;
+		}
+
 		@Override
 		public ServletOutputStream getOutputStream() throws IOException {
 			return (useRawResponse() ? getResponse().getOutputStream() : super.getOutputStream());
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.AbstractListenerServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.server.trace.RequestTrace;
+import org.springframework.web.server.trace.RequestTraceListener;
+
+/**
+ * Reactive {@link WebFilter} that traces the processing phases of each request
+ * and reports them to the configured {@link RequestTraceListener}s, e.g. a
+ * {@link org.springframework.web.server.trace.RequestTraceHistograms
+ * RequestTraceHistograms}.
+ *
+ * <p>A {@link RequestTrace} is exposed as an exchange attribute, in which
+ * framework components such as the WebFlux {@code DispatcherHandler} record
+ * handler mapping, argument resolution, and handler invocation times. This
+ * filter records the time spent encoding and writing the response body, and,
+ * for Servlet and Undertow responses, the time spent waiting for the client
+ * connection to accept more data.
+ *
+ * <p>Requests are reported however they terminate, including when the
+ * response is cancelled, e.g. because the client disconnected. The
+ * {@link RequestTrace#getSignalType() signal type} of a trace tells these
+ * cases apart.
+ *
+ * <p>This filter has the highest precedence by default, so that the trace
+ * covers the processing by other filters.
+ *
+ * @since 5.0
+ */
+public class RequestTracingWebFilter implements WebFilter, Ordered {
+
+	private static final Log logger = LogFactory.getLog(RequestTracingWebFilter.class);
+
+
+	private final List<RequestTraceListener> listeners = new ArrayList<>();
+
+	private int order = Ordered.HIGHEST_PRECEDENCE;
+
+
+	/**
+	 * Create a filter that reports to the given listeners.
+	 */
+	public RequestTracingWebFilter(RequestTraceListener... listeners) {
+		for (RequestTraceListener listener : listeners) {
+			addListener(listener);
+		}
+	}
+
+
+	/**
+	 * Add a listener to notify of completed requests.
+	 */
+	public void addListener(RequestTraceListener listener) {
+		Assert.notNull(listener, "RequestTraceListener must not be null");
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Return the configured listeners.
+	 */
+	public List<RequestTraceListener> getListeners() {
+		return this.listeners;
+	}
+
+	/**
+	 * Set the order of this filter.
+	 * <p>By default this is set to {@link Ordered#HIGHEST_PRECEDENCE}.
+	 */
+	public void setOrder(int order) {
+		this.order = order;
+	}
+
+	@Override
+	public int getOrder() {
+		return this.order;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		RequestTrace trace = new RequestTrace();
+		exchange.getAttributes().put(RequestTrace.TRACE_ATTRIBUTE, trace);
+		ServerHttpResponse response = new TracingResponseDecorator(exchange.getResponse(), trace);
+		ServerWebExchange tracedExchange = exchange.mutate().response(response).build();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		return chain.filter(tracedExchange)
+				.doOnError(error::set)
+				.doFinally(signalType -> complete(tracedExchange, trace, signalType, error.get()));
+	}
+
+	private void complete(ServerWebExchange exchange, RequestTrace trace, SignalType signalType, Throwable error) {
+		AbstractListenerServerHttpResponse listenerResponse = getListenerResponse(exchange.getResponse());
+		if (listenerResponse != null) {
+			trace.record(RequestTrace.Phase.WRITE_BACKPRESSURE, listenerResponse.getWriteWaitNanos());
+		}
+		trace.complete(signalType, error);
+		for (RequestTraceListener listener : this.listeners) {
+			try {
+				listener.onRequestComplete(exchange, trace);
+			}
+			catch (Throwable ex) {
+				logger.error("RequestTraceListener failed: " + listener, ex);
+			}
+		}
+	}
+
+	private static AbstractListenerServerHttpResponse getListenerResponse(ServerHttpResponse response) {
+		while (response instanceof ServerHttpResponseDecorator) {
+			response = ((ServerHttpResponseDecorator) response).getDelegate();
+		}
+		return (response instanceof AbstractListenerServerHttpResponse ?
+				(AbstractListenerServerHttpResponse) response : null);
+	}
+
+
+	private static class TracingResponseDecorator extends ServerHttpResponseDecorator {
+
+		private final RequestTrace trace;
+
+		public TracingResponseDecorator(ServerHttpResponse delegate, RequestTrace trace) {
+			super(delegate);
+			this.trace = trace;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			return this.trace.record(RequestTrace.Phase.RESPONSE_WRITE, super.writeWith(body));
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			return this.trace.record(RequestTrace.Phase.RESPONSE_WRITE, super.writeAndFlushWith(body));
+		}
+	}
+
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+/**
+ * Reactive {@link WebFilter} that generates an {@code ETag} value based on the
+ * content of the response. This ETag is compared to the {@code If-None-Match}
+ * header of the request. If these headers are equal, the response content is
+ * not sent, but rather a {@code 304 "Not Modified"} status instead.
+ *
+ * <p>The MD5 digest of the content is updated as each {@link DataBuffer} is
+ * written, while the buffers themselves are held back until the body is
+ * complete, since the ETag header must be written before the body. Responses
+ * whose body exceeds the {@link #setContentCacheLimit content cache limit} are
+ * written through without an ETag as soon as the limit is reached.
+ *
+ * <p>Only the responses to GET requests written with
+ * {@link ServerHttpResponse#writeWith} are considered: streaming responses
+ * written with {@link ServerHttpResponse#writeAndFlushWith} are left untouched.
+ *
+ * @since 5.0
+ * @see org.springframework.web.filter.ShallowEtagHeaderFilter
+ */
+public class ShallowEtagHeaderFilter implements WebFilter {
+
+	/** Default maximum number of response bytes to hold back: 256K */
+	public static final int DEFAULT_CONTENT_CACHE_LIMIT = 256 * 1024;
+
+	private static final String DIRECTIVE_NO_STORE = "no-store";
+
+	private static final char[] HEX_CHARS =
+			{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+	private static final Log logger = LogFactory.getLog(ShallowEtagHeaderFilter.class);
+
+
+	private boolean writeWeakETag = false;
+
+	private int contentCacheLimit = DEFAULT_CONTENT_CACHE_LIMIT;
+
+
+	/**
+	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
+	 * @see <a href="https://tools.ietf.org/html/rfc7232#section-2.3">RFC 7232 section 2.3</a>
+	 */
+	public void setWriteWeakETag(boolean writeWeakETag) {
+		this.writeWeakETag = writeWeakETag;
+	}
+
+	/**
+	 * Return whether the ETag value written to the response should be weak, as per RFC 7232.
+	 */
+	public boolean isWriteWeakETag() {
+		return this.writeWeakETag;
+	}
+
+	/**
+	 * Set the maximum number of response bytes to hold back in order to
+	 * compute an ETag. Once a response body exceeds this limit, the buffers
+	 * held back so far are written along with the rest of the body, and no
+	 * ETag is generated for it.
+	 * <p>By default this is set to 256K.
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of response bytes to hold back in order to
+	 * compute an ETag.
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+		if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+			return chain.filter(exchange);
+		}
+		ServerHttpResponse response = new EtagResponseDecorator(exchange.getRequest(), exchange.getResponse());
+		return chain.filter(exchange.mutate().response(response).build());
+	}
+
+	/**
+	 * Indicates whether the given response is eligible for ETag generation,
+	 * once its body is about to be written.
+	 * <p>The default implementation returns {@code true} if the response status
+	 * is not set or in the {@code 2xx} series, and the response Cache-Control
+	 * header is not set or does not contain a "no-store" directive.
+	 * @param response the HTTP response
+	 * @return {@code true} if eligible for ETag generation; {@code false} otherwise
+	 */
+	protected boolean isEligibleForEtag(ServerHttpResponse response) {
+		HttpStatus status = response.getStatusCode();
+		if (status != null && !status.is2xxSuccessful()) {
+			return false;
+		}
+		String cacheControl = response.getHeaders().getCacheControl();
+		return (cacheControl == null || !cacheControl.contains(DIRECTIVE_NO_STORE));
+	}
+
+	private String generateETagHeaderValue(byte[] digest) {
+		// length of W/ + 0 + " + 32bits md5 hash + "
+		StringBuilder builder = new StringBuilder(37);
+		if (this.writeWeakETag) {
+			builder.append("W/");
+		}
+		builder.append("\"0");
+		for (byte b : digest) {
+			builder.append(HEX_CHARS[(b >> 4) & 0xF]).append(HEX_CHARS[b & 0xF]);
+		}
+		builder.append('"');
+		return builder.toString();
+	}
+
+	private static boolean matches(String responseETag, List<String> requestETags) {
+		String responseTag = responseETag.replaceFirst("^W/", "");
+		for (String requestETag : requestETags) {
+			if ("*".equals(requestETag) || responseTag.equals(requestETag.replaceFirst("^W/", ""))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	private class EtagResponseDecorator extends ServerHttpResponseDecorator {
+
+		private final ServerHttpRequest request;
+
+		public EtagResponseDecorator(ServerHttpRequest request, ServerHttpResponse delegate) {
+			super(delegate);
+			this.request = request;
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (!isEligibleForEtag(getDelegate())) {
+				return super.writeWith(body);
+			}
+			EtagContent content = new EtagContent();
+			Flux<DataBuffer> flux = Flux.from(body)
+					.concatMap(content::append)
+					.concatWith(Flux.defer(() -> content.complete(getDelegate(), this.request)))
+					.doOnCancel(content::release)
+					.doOnError(ex -> content.release());
+			return super.writeWith(flux);
+		}
+	}
+
+
+	/**
+	 * Holds back the buffers of a response body while updating its digest,
+	 * until the body is complete or exceeds the content cache limit.
+	 */
+	private class EtagContent {
+
+		private final MessageDigest digest;
+
+		private List<DataBuffer> buffers = new ArrayList<>();
+
+		private long size;
+
+		private boolean overflow;
+
+		public EtagContent() {
+			try {
+				this.digest = MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+			}
+		}
+
+		public Publisher<DataBuffer> append(DataBuffer buffer) {
+			if (this.overflow) {
+				return Mono.just(buffer);
+			}
+			this.size += buffer.readableByteCount();
+			this.buffers.add(buffer);
+			if (this.size > contentCacheLimit) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Response exceeded content cache limit of " + contentCacheLimit +
+							" bytes: not eligible for ETag");
+				}
+				this.overflow = true;
+				return Flux.fromIterable(drain());
+			}
+			this.digest.update(buffer.asByteBuffer());
+			return Flux.empty();
+		}
+
+		public Publisher<DataBuffer> complete(ServerHttpResponse response, ServerHttpRequest request) {
+			if (this.overflow) {
+				return Flux.empty();
+			}
+			String responseETag = generateETagHeaderValue(this.digest.digest());
+			response.getHeaders().setETag(responseETag);
+			List<String> requestETags = request.getHeaders().getIfNoneMatch();
+			if (matches(responseETag, requestETags)) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("ETag [" + responseETag + "] equal to If-None-Match, sending 304");
+				}
+				response.setStatusCode(HttpStatus.NOT_MODIFIED);
+				release();
+				return Flux.empty();
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("ETag [" + responseETag + "] not equal to If-None-Match " + requestETags +
+						", sending normal response");
+			}
+			response.getHeaders().setContentLength(this.size);
+			return Flux.fromIterable(drain());
+		}
+
+		public void release() {
+			drain().forEach(DataBufferUtils::release);
+		}
+
+		private List<DataBuffer> drain() {
+			List<DataBuffer> result = this.buffers;
+			this.buffers = new ArrayList<>();
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link HandlerMethodInvokerFactory} that generates a CGLIB {@link FastClass}
+ * per handler type, invoking handler methods through a direct call on the
+ * generated class rather than through {@link Method#invoke}.
+ *
+ * <p>Argument values are checked against the method signature before the
+ * invocation, so that mismatches result in an {@link IllegalArgumentException}
+ * just like with reflection. Methods that cannot be invoked through a
+ * {@code FastClass}, i.e. private and static methods, or methods of types for
+ * which no {@code FastClass} can be generated, are invoked through reflection.
+ *
+ * @since 5.0
+ */
+public class FastClassHandlerMethodInvokerFactory implements HandlerMethodInvokerFactory {
+
+	private static final Log logger = LogFactory.getLog(FastClassHandlerMethodInvokerFactory.class);
+
+
+	private final Map<Class<?>, FastClass> fastClassCache = new ConcurrentReferenceHashMap<>(64);
+
+
+	@Override
+	public HandlerMethodInvoker createInvoker(HandlerMethod handlerMethod) {
+		Method method = handlerMethod.getBridgedMethod();
+		int modifiers = method.getModifiers();
+		if (!Modifier.isPrivate(modifiers) && !Modifier.isStatic(modifiers)) {
+			try {
+				FastClass fastClass = getFastClass(method.getDeclaringClass());
+				int index = fastClass.getIndex(method.getName(), method.getParameterTypes());
+				if (index >= 0) {
+					return new FastClassInvoker(method, fastClass, index);
+				}
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not generate FastClass for " + method.toGenericString() +
+							": falling back to reflection", ex);
+				}
+			}
+		}
+		return new ReflectiveInvoker(method);
+	}
+
+	private FastClass getFastClass(Class<?> type) {
+		FastClass fastClass = this.fastClassCache.get(type);
+		if (fastClass == null) {
+			fastClass = FastClass.create(type.getClassLoader(), type);
+			this.fastClassCache.put(type, fastClass);
+		}
+		return fastClass;
+	}
+
+
+	/**
+	 * Invoker calling a method through its index in a {@code FastClass}.
+	 */
+	private static class FastClassInvoker implements HandlerMethodInvoker {
+
+		private final Class<?> declaringClass;
+
+		private final Class<?>[] parameterTypes;
+
+		private final FastClass fastClass;
+
+		private final int index;
+
+		public FastClassInvoker(Method method, FastClass fastClass, int index) {
+			this.declaringClass = method.getDeclaringClass();
+			this.parameterTypes = method.getParameterTypes();
+			this.fastClass = fastClass;
+			this.index = index;
+		}
+
+		@Override
+		public Object invoke(Object bean, Object[] args) throws Exception {
+			if (!this.declaringClass.isInstance(bean)) {
+				throw new IllegalArgumentException("object is not an instance of declaring class");
+			}
+			int argCount = (args != null ? args.length : 0);
+			if (argCount != this.parameterTypes.length) {
+				throw new IllegalArgumentException("wrong number of arguments");
+			}
+			for (int i = 0; i < argCount; i++) {
+				if (!ClassUtils.isAssignableValue(this.parameterTypes[i], args[i])) {
+					throw new IllegalArgumentException("argument type mismatch");
+				}
+			}
+			return this.fastClass.invoke(this.index, bean, args);
+		}
+	}
+
+
+	/**
+	 * Invoker calling a method through reflection.
+	 */
+	private static class ReflectiveInvoker implements HandlerMethodInvoker {
+
+		private final Method method;
+
+		public ReflectiveInvoker(Method method) {
+			ReflectionUtils.makeAccessible(method);
+			this.method = method;
+		}
+
+		@Override
+		public Object invoke(Object bean, Object[] args) throws Exception {
+			return this.method.invoke(bean, args);
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method;
+
+import java.lang.reflect.Method;
+
+/**
+ * Strategy for invoking the method of a {@link HandlerMethod}, e.g. through a
+ * generated invoker rather than through {@link Method#invoke}.
+ *
+ * <p>Implementations follow the contract of {@link Method#invoke}: an exception
+ * thrown by the method itself is wrapped in an
+ * {@link java.lang.reflect.InvocationTargetException}, while argument values
+ * that do not match the method signature result in an
+ * {@link IllegalArgumentException}.
+ *
+ * @since 5.0
+ * @see HandlerMethodInvokerFactory
+ */
+@FunctionalInterface
+public interface HandlerMethodInvoker {
+
+	/**
+	 * Invoke the method on the given bean with the given argument values.
+	 * @param bean the bean to invoke the method on
+	 * @param args the argument values, one per method parameter
+	 * @return the value returned by the method, or {@code null} for void methods
+	 * @throws Exception as per {@link Method#invoke}
+	 */
+	Object invoke(Object bean, Object[] args) throws Exception;
+
+}
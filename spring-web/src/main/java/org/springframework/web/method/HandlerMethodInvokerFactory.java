@@ -0,0 +1,36 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method;
+
+/**
+ * Strategy for creating the {@link HandlerMethodInvoker} for a handler method.
+ * Invokers are expected to be created once per method and then reused.
+ *
+ * @since 5.0
+ * @see FastClassHandlerMethodInvokerFactory
+ */
+public interface HandlerMethodInvokerFactory {
+
+	/**
+	 * Create an invoker for the {@link HandlerMethod#getBridgedMethod() bridged method}
+	 * of the given handler method.
+	 * @param handlerMethod the handler method
+	 * @return the invoker (never {@code null})
+	 */
+	HandlerMethodInvoker createInvoker(HandlerMethod handlerMethod);
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -121,6 +121,23 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 		return resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
 	}
 
+	/**
+	 * Select the resolver for each of the given method parameters up front,
+	 * e.g. to bind a handler method to its resolvers once rather than look
+	 * them up on every invocation.
+	 * @param parameters the method parameters
+	 * @return the resolver for each parameter, or {@code null} for parameters
+	 * that are not supported by any registered resolver
+	 * @since 5.0
+	 */
+	public HandlerMethodArgumentResolver[] selectArgumentResolvers(MethodParameter[] parameters) {
+		HandlerMethodArgumentResolver[] result = new HandlerMethodArgumentResolver[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			result[i] = getArgumentResolver(parameters[i]);
+		}
+		return result;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports the given method parameter.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -94,6 +94,40 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 		return null;
 	}
 
+	/**
+	 * Select the handler for the given return type up front, e.g. to bind a
+	 * handler method to its return value handler once rather than look it up
+	 * on every invocation.
+	 * <p>The returned handler checks whether a return value is asynchronous
+	 * only if that changes the selection, i.e. if the first handler that
+	 * supports the return type is not also the first asynchronous one.
+	 * Note that it is only equivalent to this composite for return values
+	 * whose type is the declared return type, or {@code null}.
+	 * @param returnType the declared return type
+	 * @return the bound handler, or {@code null} if no registered handler
+	 * supports the return type
+	 * @since 5.0
+	 */
+	public HandlerMethodReturnValueHandler selectReturnValueHandler(MethodParameter returnType) {
+		HandlerMethodReturnValueHandler handler = null;
+		HandlerMethodReturnValueHandler asyncHandler = null;
+		for (HandlerMethodReturnValueHandler candidate : this.returnValueHandlers) {
+			if (candidate.supportsReturnType(returnType)) {
+				if (handler == null) {
+					handler = candidate;
+				}
+				if (candidate instanceof AsyncHandlerMethodReturnValueHandler) {
+					asyncHandler = candidate;
+					break;
+				}
+			}
+		}
+		if (handler == null) {
+			return null;
+		}
+		return (handler == asyncHandler ? handler : new BoundReturnValueHandler(handler, asyncHandler));
+	}
+
 	private boolean isAsyncReturnValue(Object value, MethodParameter returnType) {
 		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
 			if (handler instanceof AsyncHandlerMethodReturnValueHandler) {
@@ -125,4 +159,41 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 		return this;
 	}
 
+
+	/**
+	 * Handler bound to the synchronous and asynchronous selection for a given
+	 * return type, deciding between them per return value.
+	 */
+	private class BoundReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+		private final HandlerMethodReturnValueHandler handler;
+
+		private final HandlerMethodReturnValueHandler asyncHandler;
+
+		public BoundReturnValueHandler(HandlerMethodReturnValueHandler handler,
+				HandlerMethodReturnValueHandler asyncHandler) {
+
+			this.handler = handler;
+			this.asyncHandler = asyncHandler;
+		}
+
+		@Override
+		public boolean supportsReturnType(MethodParameter returnType) {
+			return this.handler.supportsReturnType(returnType);
+		}
+
+		@Override
+		public void handleReturnValue(Object returnValue, MethodParameter returnType,
+				ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+
+			HandlerMethodReturnValueHandler selected =
+					(isAsyncReturnValue(returnValue, returnType) ? this.asyncHandler : this.handler);
+			if (selected == null) {
+				throw new IllegalArgumentException(
+						"Unknown return value type: " + returnType.getParameterType().getName());
+			}
+			selected.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+		}
+	}
+
 }
@@ -23,6 +23,7 @@ import java.util.Arrays;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.WebDataBinder;
@@ -30,6 +31,7 @@ import org.springframework.web.bind.support.SessionStatus;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
 
 /**
  * Provides a method for invoking the handler method for a given request after resolving its
@@ -51,6 +53,10 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private HandlerMethodArgumentResolverComposite argumentResolvers = new HandlerMethodArgumentResolverComposite();
 
+	private HandlerMethodArgumentResolver[] boundArgumentResolvers;
+
+	private HandlerMethodInvoker invoker;
+
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
 
@@ -98,6 +104,32 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.argumentResolvers = argumentResolvers;
 	}
 
+	/**
+	 * Bind each parameter of this method to the given resolver, as selected
+	 * through {@link HandlerMethodArgumentResolverComposite#selectArgumentResolvers},
+	 * so that no resolver lookup is needed when resolving argument values.
+	 * <p>A {@code null} element indicates a parameter without a suitable resolver.
+	 * @param argumentResolvers the resolver for each method parameter, in order,
+	 * or {@code null} to look up resolvers through the configured composite
+	 * @since 5.0
+	 * @see #setHandlerMethodArgumentResolvers
+	 */
+	public void setBoundArgumentResolvers(HandlerMethodArgumentResolver[] argumentResolvers) {
+		Assert.isTrue(argumentResolvers == null || argumentResolvers.length == getMethodParameters().length,
+				"Expected one argument resolver per method parameter");
+		this.boundArgumentResolvers = argumentResolvers;
+	}
+
+	/**
+	 * Set the {@link HandlerMethodInvoker} to invoke the bridged method with,
+	 * as created through a {@link org.springframework.web.method.HandlerMethodInvokerFactory}.
+	 * <p>By default the method is invoked through reflection.
+	 * @since 5.0
+	 */
+	public void setHandlerMethodInvoker(HandlerMethodInvoker invoker) {
+		this.invoker = invoker;
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer for resolving parameter names when needed
 	 * (e.g. default request attribute name).
@@ -153,10 +185,10 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			if (args[i] != null) {
 				continue;
 			}
-			if (this.argumentResolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = getArgumentResolver(parameter, i);
+			if (resolver != null) {
 				try {
-					args[i] = this.argumentResolvers.resolveArgument(
-							parameter, mavContainer, request, this.dataBinderFactory);
+					args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 					continue;
 				}
 				catch (Exception ex) {
@@ -175,6 +207,13 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		return args;
 	}
 
+	private HandlerMethodArgumentResolver getArgumentResolver(MethodParameter parameter, int index) {
+		if (this.boundArgumentResolvers != null) {
+			return this.boundArgumentResolvers[index];
+		}
+		return (this.argumentResolvers.supportsParameter(parameter) ? this.argumentResolvers : null);
+	}
+
 	private String getArgumentResolutionErrorMessage(String text, int index) {
 		Class<?> paramType = getMethodParameters()[index].getParameterType();
 		return text + " argument " + index + " of type '" + paramType.getName() + "'";
@@ -200,8 +239,11 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 * Invoke the handler method with the given argument values.
 	 */
 	protected Object doInvoke(Object... args) throws Exception {
-		ReflectionUtils.makeAccessible(getBridgedMethod());
 		try {
+			if (this.invoker != null) {
+				return this.invoker.invoke(getBean(), args);
+			}
+			ReflectionUtils.makeAccessible(getBridgedMethod());
 			return getBridgedMethod().invoke(getBean(), args);
 		}
 		catch (IllegalArgumentException ex) {
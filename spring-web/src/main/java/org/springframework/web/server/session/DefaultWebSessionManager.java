@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -82,12 +82,17 @@ public class DefaultWebSessionManager implements WebSessionManager {
 	 * Configure the {@link Clock} for access to current time. During tests you
 	 * may use {code Clock.offset(clock, Duration.ofMinutes(-31))} to set the
 	 * clock back for example to test changes after sessions expire.
+	 * <p>If the session store is an {@link InMemoryWebSessionStore}, the clock
+	 * is also used to schedule its sweeps for expired sessions.
 	 * <p>By default {@link Clock#systemDefaultZone()} is used.
 	 * @param clock the clock to use
 	 */
 	public void setClock(Clock clock) {
 		Assert.notNull(clock, "'clock' is required.");
 		this.clock = clock;
+		if (this.sessionStore instanceof InMemoryWebSessionStore) {
+			((InMemoryWebSessionStore) this.sessionStore).setClock(clock);
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,39 +15,278 @@
  */
 package org.springframework.web.server.session;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
 
+import org.springframework.util.Assert;
 import org.springframework.web.server.WebSession;
 
 /**
  * Simple Map-based storage for {@link WebSession} instances.
  *
+ * <p>Expired sessions are removed in a sweep that runs at most once per
+ * {@link #setExpirationCheckInterval expiration check interval}, triggered
+ * when a session is stored. {@link #removeExpiredSessions()} may also be
+ * invoked directly, e.g. from a scheduled task.
+ *
+ * <p>The number of sessions may be bounded through {@link #setMaxSessions
+ * maxSessions}. When a new session is stored and the limit is reached, expired
+ * sessions are removed first. If that is not enough, storing the session fails
+ * with an {@link IllegalStateException}, unless
+ * {@link #setEvictLeastRecentlyAccessedSessions eviction} of the least recently
+ * accessed sessions has been switched on.
+ *
  * @author Rossen Stoyanchev
  * @since 5.0
  */
 public class InMemoryWebSessionStore implements WebSessionStore {
 
+	private static final Log logger = LogFactory.getLog(InMemoryWebSessionStore.class);
+
+
 	private final Map<String, WebSession> sessions = new ConcurrentHashMap<>();
 
+	private int maxSessions = Integer.MAX_VALUE;
+
+	private boolean evictLeastRecentlyAccessedSessions = false;
+
+	private Duration expirationCheckInterval = Duration.ofSeconds(60);
+
+	private Clock clock = Clock.systemDefaultZone();
+
+	private volatile Instant nextExpirationCheckTime = Instant.now(this.clock).plus(this.expirationCheckInterval);
+
+	private final ReentrantLock sweepLock = new ReentrantLock();
+
+	private final AtomicLong expiredCount = new AtomicLong();
+
+	private final AtomicLong evictedCount = new AtomicLong();
+
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+
+	/**
+	 * Set the maximum number of sessions that can be stored. Once the limit is
+	 * reached, storing a new session triggers removal of expired sessions. If
+	 * the store is still full, the new session is rejected, or the least
+	 * recently accessed sessions are evicted if
+	 * {@link #setEvictLeastRecentlyAccessedSessions} is switched on.
+	 * <p>By default there is no limit.
+	 * @param maxSessions the maximum number of sessions
+	 */
+	public void setMaxSessions(int maxSessions) {
+		Assert.isTrue(maxSessions > 0, "'maxSessions' must be greater than 0");
+		this.maxSessions = maxSessions;
+	}
+
+	/**
+	 * Return the maximum number of sessions that can be stored.
+	 */
+	public int getMaxSessions() {
+		return this.maxSessions;
+	}
+
+	/**
+	 * Set whether to evict live sessions when the {@link #setMaxSessions maxSessions}
+	 * limit is reached and there are not enough expired sessions to remove.
+	 * Eviction then removes the least recently accessed tenth of the sessions at
+	 * once, so that the cost of finding them is amortized over many additions.
+	 * <p>By default this is "false" and a new session is rejected instead.
+	 * @param evictLeastRecentlyAccessedSessions whether to evict live sessions
+	 * @see #getEvictedSessionCount()
+	 */
+	public void setEvictLeastRecentlyAccessedSessions(boolean evictLeastRecentlyAccessedSessions) {
+		this.evictLeastRecentlyAccessedSessions = evictLeastRecentlyAccessedSessions;
+	}
+
+	/**
+	 * Return whether live sessions are evicted when the store is full.
+	 */
+	public boolean isEvictLeastRecentlyAccessedSessions() {
+		return this.evictLeastRecentlyAccessedSessions;
+	}
+
+	/**
+	 * Set the minimum amount of time between two sweeps for expired sessions.
+	 * <p>By default this is set to 60 seconds.
+	 * @param expirationCheckInterval the interval between expiration checks
+	 */
+	public void setExpirationCheckInterval(Duration expirationCheckInterval) {
+		Assert.notNull(expirationCheckInterval, "'expirationCheckInterval' is required.");
+		this.expirationCheckInterval = expirationCheckInterval;
+		this.nextExpirationCheckTime = Instant.now(this.clock).plus(expirationCheckInterval);
+	}
+
+	/**
+	 * Return the minimum amount of time between two sweeps for expired sessions.
+	 */
+	public Duration getExpirationCheckInterval() {
+		return this.expirationCheckInterval;
+	}
+
+	/**
+	 * Configure the {@link Clock} used to decide when to check for expired
+	 * sessions. {@link DefaultWebSessionManager} passes its own clock to the
+	 * default store it creates.
+	 * <p>By default {@link Clock#systemDefaultZone()} is used.
+	 * @param clock the clock to use
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "'clock' is required.");
+		this.clock = clock;
+		this.nextExpirationCheckTime = Instant.now(clock).plus(this.expirationCheckInterval);
+	}
+
+	/**
+	 * Return the configured clock.
+	 */
+	public Clock getClock() {
+		return this.clock;
+	}
+
+
+	/**
+	 * Return the number of sessions currently held in the store.
+	 */
+	public int getActiveSessionCount() {
+		return this.sessions.size();
+	}
+
+	/**
+	 * Return the total number of sessions removed from the store because
+	 * they had expired.
+	 */
+	public long getExpiredSessionCount() {
+		return this.expiredCount.get();
+	}
+
+	/**
+	 * Return the total number of sessions evicted from the store before
+	 * expiring because the {@link #setMaxSessions maxSessions} limit was reached.
+	 */
+	public long getEvictedSessionCount() {
+		return this.evictedCount.get();
+	}
+
+	/**
+	 * Return the total number of new sessions that could not be stored because
+	 * the {@link #setMaxSessions maxSessions} limit was reached.
+	 */
+	public long getRejectedSessionCount() {
+		return this.rejectedCount.get();
+	}
+
 
 	@Override
 	public Mono<Void> storeSession(WebSession session) {
+		checkExpiredSessions();
+		if (this.sessions.size() >= this.maxSessions && !this.sessions.containsKey(session.getId()) && !makeRoom()) {
+			this.rejectedCount.incrementAndGet();
+			return Mono.error(new IllegalStateException("Max sessions limit reached: " + this.maxSessions));
+		}
 		this.sessions.put(session.getId(), session);
 		return Mono.empty();
 	}
 
 	@Override
 	public Mono<WebSession> retrieveSession(String id) {
-		return (this.sessions.containsKey(id) ? Mono.just(this.sessions.get(id)) : Mono.empty());
+		WebSession session = this.sessions.get(id);
+		return (session != null ? Mono.just(session) : Mono.empty());
 	}
 
 	@Override
 	public Mono<Void> removeSession(String id) {
-		this.sessions.remove(id);
+		WebSession session = this.sessions.remove(id);
+		if (session != null && session.isExpired()) {
+			this.expiredCount.incrementAndGet();
+		}
 		return Mono.empty();
 	}
 
+	/**
+	 * Remove all expired sessions from the store.
+	 * @return the number of sessions removed
+	 */
+	public int removeExpiredSessions() {
+		int count = 0;
+		for (WebSession session : this.sessions.values()) {
+			if (session.isExpired() && this.sessions.remove(session.getId(), session)) {
+				count++;
+			}
+		}
+		this.expiredCount.addAndGet(count);
+		return count;
+	}
+
+	private void checkExpiredSessions() {
+		Instant now = Instant.now(this.clock);
+		if (now.isBefore(this.nextExpirationCheckTime) || !this.sweepLock.tryLock()) {
+			return;
+		}
+		try {
+			this.nextExpirationCheckTime = now.plus(this.expirationCheckInterval);
+			removeExpiredSessions();
+		}
+		finally {
+			this.sweepLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove expired sessions and, if the store is still full and eviction is
+	 * switched on, evict the least recently accessed tenth of the sessions so
+	 * that the cost of sorting is amortized over many subsequent additions.
+	 * @return whether there is room for a new session
+	 */
+	private boolean makeRoom() {
+		this.sweepLock.lock();
+		try {
+			if (this.sessions.size() < this.maxSessions) {
+				return true;
+			}
+			this.nextExpirationCheckTime = Instant.now(this.clock).plus(this.expirationCheckInterval);
+			if (removeExpiredSessions() > 0 && this.sessions.size() < this.maxSessions) {
+				return true;
+			}
+			if (!this.evictLeastRecentlyAccessedSessions) {
+				return false;
+			}
+			// Capture access times up front: they may change while sorting
+			List<Map.Entry<WebSession, Instant>> candidates = new ArrayList<>(this.sessions.size());
+			for (WebSession session : this.sessions.values()) {
+				candidates.add(new AbstractMap.SimpleImmutableEntry<>(session, session.getLastAccessTime()));
+			}
+			candidates.sort(Map.Entry.comparingByValue());
+			int toEvict = Math.max(1, this.sessions.size() - this.maxSessions + 1 + this.maxSessions / 10);
+			int evicted = 0;
+			for (int i = 0; i < candidates.size() && evicted < toEvict; i++) {
+				WebSession session = candidates.get(i).getKey();
+				if (this.sessions.remove(session.getId(), session)) {
+					evicted++;
+				}
+			}
+			this.evictedCount.addAndGet(evicted);
+			if (logger.isWarnEnabled()) {
+				logger.warn("Evicted " + evicted + " least recently accessed sessions before expiration: " +
+						"maxSessions limit of " + this.maxSessions + " reached");
+			}
+			return true;
+		}
+		finally {
+			this.sweepLock.unlock();
+		}
+	}
+
 }
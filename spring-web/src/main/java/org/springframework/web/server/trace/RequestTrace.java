@@ -0,0 +1,177 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.server.trace;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Records the time spent in each processing {@link Phase} of a single
+ * request. A trace is exposed as an exchange attribute by the
+ * {@link org.springframework.web.filter.reactive.RequestTracingWebFilter
+ * RequestTracingWebFilter}, for framework components to record phases in
+ * without blocking, and is reported to {@link RequestTraceListener}s once
+ * the request completes.
+ *
+ * <p>Components check for a trace with {@link #get(ServerWebExchange)},
+ * so that no timing is performed when tracing is not enabled.
+ *
+ * @since 5.0
+ */
+public class RequestTrace {
+
+	/**
+	 * Name of the exchange attribute that holds the trace of the request.
+	 */
+	public static final String TRACE_ATTRIBUTE = RequestTrace.class.getName() + ".TRACE";
+
+
+	/**
+	 * The processing phases of a request.
+	 */
+	public enum Phase {
+
+		/** Finding the handler for the request */
+		HANDLER_MAPPING,
+
+		/** Resolving the arguments of a handler method */
+		ARGUMENT_RESOLUTION,
+
+		/** Invoking the handler */
+		HANDLER_INVOCATION,
+
+		/** Encoding and writing the response body */
+		RESPONSE_WRITE,
+
+		/** Waiting for the connection to accept more of the response body */
+		WRITE_BACKPRESSURE
+	}
+
+	private static final Phase[] PHASES = Phase.values();
+
+
+	private final AtomicLongArray phaseNanos = new AtomicLongArray(PHASES.length);
+
+	private final long startNanos;
+
+	private volatile long totalNanos = -1;
+
+	private volatile SignalType signalType;
+
+	private volatile Throwable error;
+
+
+	/**
+	 * Create a new trace, starting now.
+	 */
+	public RequestTrace() {
+		this.startNanos = System.nanoTime();
+	}
+
+
+	/**
+	 * Add the given time to the given phase. Phases may be recorded more than
+	 * once per request, e.g. when handling an error.
+	 * @param phase the phase
+	 * @param nanos the time spent, in nanoseconds
+	 */
+	public void record(Phase phase, long nanos) {
+		this.phaseNanos.addAndGet(phase.ordinal(), nanos);
+	}
+
+	/**
+	 * Decorate the given {@code Mono} to record the time from its subscription
+	 * until its termination as the given phase, whether it completes, fails,
+	 * or is cancelled.
+	 * @param phase the phase
+	 * @param mono the {@code Mono} to time
+	 * @return the decorated {@code Mono}
+	 */
+	public <T> Mono<T> record(Phase phase, Mono<T> mono) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return mono.doFinally(signalType -> record(phase, System.nanoTime() - start));
+		});
+	}
+
+	/**
+	 * Return the time recorded for the given phase, in nanoseconds.
+	 */
+	public long getNanos(Phase phase) {
+		return this.phaseNanos.get(phase.ordinal());
+	}
+
+	/**
+	 * Return the total time of the request, in nanoseconds, or -1 if the
+	 * request has not completed yet.
+	 */
+	public long getTotalNanos() {
+		return this.totalNanos;
+	}
+
+	/**
+	 * Return how the request terminated, i.e. {@link SignalType#ON_COMPLETE},
+	 * {@link SignalType#ON_ERROR}, or {@link SignalType#CANCEL}, or
+	 * {@code null} if the request has not completed yet.
+	 */
+	public SignalType getSignalType() {
+		return this.signalType;
+	}
+
+	/**
+	 * Return the error the request completed with, or {@code null} if none.
+	 */
+	public Throwable getError() {
+		return this.error;
+	}
+
+	/**
+	 * Mark the request as complete.
+	 * @param signalType how the request terminated
+	 * @param error the error the request completed with, or {@code null}
+	 */
+	public void complete(SignalType signalType, Throwable error) {
+		this.signalType = signalType;
+		this.error = error;
+		this.totalNanos = System.nanoTime() - this.startNanos;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("RequestTrace [total=").append(this.totalNanos).append("ns")
+				.append(", signal=").append(this.signalType);
+		for (Phase phase : PHASES) {
+			builder.append(", ").append(phase).append('=').append(getNanos(phase)).append("ns");
+		}
+		return builder.append(']').toString();
+	}
+
+
+	/**
+	 * Return the trace of the given exchange, or {@code null} if the request
+	 * is not traced.
+	 * @param exchange the current exchange
+	 */
+	public static RequestTrace get(ServerWebExchange exchange) {
+		return (RequestTrace) exchange.getAttributes().get(TRACE_ATTRIBUTE);
+	}
+
+}
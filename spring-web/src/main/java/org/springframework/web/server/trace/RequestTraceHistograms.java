@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.server.trace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+import reactor.core.publisher.SignalType;
+
+import org.springframework.util.LatencyHistogram;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * {@link RequestTraceListener} that records the time of each
+ * {@link RequestTrace.Phase} of a request, as well as the total time, in
+ * lock-free {@link LatencyHistogram}s.
+ *
+ * <p>Implements the {@link RequestTraceHistogramsMXBean} management interface,
+ * so that a bean of this type is exposed through JMX by Spring's
+ * {@code MBeanExporter} without further configuration.
+ *
+ * @since 5.0
+ */
+public class RequestTraceHistograms implements RequestTraceListener, RequestTraceHistogramsMXBean {
+
+	private static final String TOTAL_KEY = "TOTAL";
+
+	private static final RequestTrace.Phase[] PHASES = RequestTrace.Phase.values();
+
+
+	private final LatencyHistogram[] phaseHistograms = new LatencyHistogram[PHASES.length];
+
+	private final LatencyHistogram totalHistogram = new LatencyHistogram();
+
+	private final LongAdder errorCount = new LongAdder();
+
+	private final LongAdder cancelledCount = new LongAdder();
+
+
+	public RequestTraceHistograms() {
+		for (int i = 0; i < this.phaseHistograms.length; i++) {
+			this.phaseHistograms[i] = new LatencyHistogram();
+		}
+	}
+
+
+	@Override
+	public void onRequestComplete(ServerWebExchange exchange, RequestTrace trace) {
+		for (RequestTrace.Phase phase : PHASES) {
+			long nanos = trace.getNanos(phase);
+			if (nanos > 0) {
+				this.phaseHistograms[phase.ordinal()].record(nanos);
+			}
+		}
+		this.totalHistogram.record(trace.getTotalNanos());
+		if (trace.getError() != null) {
+			this.errorCount.increment();
+		}
+		if (trace.getSignalType() == SignalType.CANCEL) {
+			this.cancelledCount.increment();
+		}
+	}
+
+	/**
+	 * Return the histogram of the given phase, in nanoseconds. Requests that
+	 * did not go through a phase are not recorded in its histogram.
+	 */
+	public LatencyHistogram getHistogram(RequestTrace.Phase phase) {
+		return this.phaseHistograms[phase.ordinal()];
+	}
+
+	/**
+	 * Return the histogram of the total time of requests, in nanoseconds.
+	 */
+	public LatencyHistogram getTotalHistogram() {
+		return this.totalHistogram;
+	}
+
+	@Override
+	public long getRequestCount() {
+		return this.totalHistogram.getCount();
+	}
+
+	@Override
+	public long getErrorCount() {
+		return this.errorCount.sum();
+	}
+
+	@Override
+	public long getCancelledCount() {
+		return this.cancelledCount.sum();
+	}
+
+	@Override
+	public Map<String, Double> getMeanMillis() {
+		return toMillis(LatencyHistogram::getMean);
+	}
+
+	@Override
+	public Map<String, Double> getMedianMillis() {
+		return toMillis(histogram -> histogram.getValueAtPercentile(50));
+	}
+
+	@Override
+	public Map<String, Double> getP99Millis() {
+		return toMillis(histogram -> histogram.getValueAtPercentile(99));
+	}
+
+	@Override
+	public Map<String, Double> getMaxMillis() {
+		return toMillis(LatencyHistogram::getMax);
+	}
+
+	@Override
+	public void reset() {
+		for (LatencyHistogram histogram : this.phaseHistograms) {
+			histogram.reset();
+		}
+		this.totalHistogram.reset();
+		this.errorCount.reset();
+		this.cancelledCount.reset();
+	}
+
+	private Map<String, Double> toMillis(ToDoubleFunction<LatencyHistogram> statistic) {
+		Map<String, Double> result = new LinkedHashMap<>(PHASES.length + 1);
+		for (RequestTrace.Phase phase : PHASES) {
+			result.put(phase.name(), statistic.applyAsDouble(getHistogram(phase)) / 1000000);
+		}
+		result.put(TOTAL_KEY, statistic.applyAsDouble(this.totalHistogram) / 1000000);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "RequestTraceHistograms [requests=" + getRequestCount() + ", errors=" + getErrorCount() +
+				", cancelled=" + getCancelledCount() +
+				", median=" + getMedianMillis() + ", p99=" + getP99Millis() + "]";
+	}
+
+}
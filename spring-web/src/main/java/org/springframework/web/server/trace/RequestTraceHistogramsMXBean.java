@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.server.trace;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link RequestTraceHistograms}, e.g. for export
+ * through Spring's {@code MBeanExporter}. Times are reported in milliseconds,
+ * keyed by {@link RequestTrace.Phase} name, along with {@code "TOTAL"}.
+ *
+ * @since 5.0
+ */
+public interface RequestTraceHistogramsMXBean {
+
+	/**
+	 * Return the number of completed requests, including failed and
+	 * cancelled requests.
+	 */
+	long getRequestCount();
+
+	/**
+	 * Return the number of requests that completed with an error.
+	 */
+	long getErrorCount();
+
+	/**
+	 * Return the number of requests that were cancelled before completing,
+	 * e.g. because the client disconnected.
+	 */
+	long getCancelledCount();
+
+	/**
+	 * Return the mean time per phase.
+	 */
+	Map<String, Double> getMeanMillis();
+
+	/**
+	 * Return the median time per phase.
+	 */
+	Map<String, Double> getMedianMillis();
+
+	/**
+	 * Return the 99th percentile time per phase.
+	 */
+	Map<String, Double> getP99Millis();
+
+	/**
+	 * Return the maximum time per phase.
+	 */
+	Map<String, Double> getMaxMillis();
+
+	/**
+	 * Clear all recorded requests.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.server.trace;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Callback notified of the {@link RequestTrace} of each completed request.
+ *
+ * <p>Listeners are invoked on the thread that completed the request, which
+ * may be a server I/O thread, and must therefore not block.
+ *
+ * @since 5.0
+ * @see org.springframework.web.filter.reactive.RequestTracingWebFilter
+ * @see RequestTraceHistograms
+ */
+@FunctionalInterface
+public interface RequestTraceListener {
+
+	/**
+	 * Invoked when the processing of a request has completed.
+	 * @param exchange the completed exchange
+	 * @param trace the trace of the request
+	 */
+	void onRequestComplete(ServerWebExchange exchange, RequestTrace trace);
+
+}
@@ -0,0 +1,6 @@
+/**
+ * Per-request tracing of the processing phases of a
+ * {@link org.springframework.web.server.ServerWebExchange}, along with
+ * latency histograms for them.
+ */
+package org.springframework.web.server.trace;
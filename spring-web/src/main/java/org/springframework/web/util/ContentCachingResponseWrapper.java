@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.web.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
@@ -34,6 +35,9 @@ import org.springframework.util.FastByteArrayOutputStream;
  * and allows this content to be retrieved via a {@link #getContentAsByteArray() byte array}.
  *
  * <p>Used e.g. by {@link org.springframework.web.filter.ShallowEtagHeaderFilter}.
+ * A {@linkplain #ContentCachingResponseWrapper(HttpServletResponse, int) content
+ * cache limit} may be specified, beyond which the cached content is copied to
+ * the response and subsequent content is written through without caching.
  * Note: As of Spring Framework 5.0, this wrapper is built on the Servlet 3.1 API.
  *
  * @author Juergen Hoeller
@@ -52,6 +56,10 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 
 	private Integer contentLength;
 
+	private final Integer contentCacheLimit;
+
+	private boolean contentCacheLimitExceeded = false;
+
 
 	/**
 	 * Create a new ContentCachingResponseWrapper for the given servlet response.
@@ -59,6 +67,20 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 	 */
 	public ContentCachingResponseWrapper(HttpServletResponse response) {
 		super(response);
+		this.contentCacheLimit = null;
+	}
+
+	/**
+	 * Create a new ContentCachingResponseWrapper for the given servlet response.
+	 * @param response the original servlet response
+	 * @param contentCacheLimit the maximum number of bytes to cache per response,
+	 * after which content is written through to the original response
+	 * @since 5.0
+	 * @see #handleContentOverflow(int)
+	 */
+	public ContentCachingResponseWrapper(HttpServletResponse response, int contentCacheLimit) {
+		super(response);
+		this.contentCacheLimit = contentCacheLimit;
 	}
 
 
@@ -129,11 +151,18 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 	@Override
 	public void flushBuffer() throws IOException {
 		// do not flush the underlying response as the content as not been copied to it yet
+		if (this.contentCacheLimitExceeded) {
+			super.flushBuffer();
+		}
 	}
 
 	@Override
 	public void setContentLength(int len) {
-		if (len > this.content.size()) {
+		if (this.contentCacheLimitExceeded) {
+			super.setContentLength(len);
+			return;
+		}
+		if (len > this.content.size() && (this.contentCacheLimit == null || len <= this.contentCacheLimit)) {
 			this.content.resize(len);
 		}
 		this.contentLength = len;
@@ -146,7 +175,11 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 					Integer.MAX_VALUE + "): " + len);
 		}
 		int lenInt = (int) len;
-		if (lenInt > this.content.size()) {
+		if (this.contentCacheLimitExceeded) {
+			super.setContentLength(lenInt);
+			return;
+		}
+		if (lenInt > this.content.size() && (this.contentCacheLimit == null || lenInt <= this.contentCacheLimit)) {
 			this.content.resize(lenInt);
 		}
 		this.contentLength = lenInt;
@@ -154,13 +187,16 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 
 	@Override
 	public void setBufferSize(int size) {
-		if (size > this.content.size()) {
+		if (size > this.content.size() && (this.contentCacheLimit == null || size <= this.contentCacheLimit)) {
 			this.content.resize(size);
 		}
 	}
 
 	@Override
 	public void resetBuffer() {
+		if (this.contentCacheLimitExceeded) {
+			super.resetBuffer();
+		}
 		this.content.reset();
 	}
 
@@ -168,6 +204,7 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 	public void reset() {
 		super.reset();
 		this.content.reset();
+		this.contentCacheLimitExceeded = false;
 	}
 
 	/**
@@ -200,6 +237,16 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 		return this.content.size();
 	}
 
+	/**
+	 * Return whether the {@linkplain #ContentCachingResponseWrapper(HttpServletResponse, int)
+	 * content cache limit} has been exceeded, in which case the cached content has
+	 * been copied to the response and further content has been written through.
+	 * @since 5.0
+	 */
+	public boolean isContentCacheLimitExceeded() {
+		return this.contentCacheLimitExceeded;
+	}
+
 	/**
 	 * Copy the complete cached body content to the response.
 	 * @since 4.2
@@ -229,6 +276,58 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 		}
 	}
 
+	/**
+	 * Template method for handling a content overflow: specifically, a response
+	 * body exceeding the specified content cache limit.
+	 * <p>The default implementation is empty. Subclasses may override this to
+	 * take action before the cached content is copied to the response, e.g.
+	 * removing headers that depend on the complete content.
+	 * @param contentCacheLimit the maximum number of bytes to cache per response
+	 * which has just been exceeded
+	 * @since 5.0
+	 * @see #ContentCachingResponseWrapper(HttpServletResponse, int)
+	 */
+	protected void handleContentOverflow(int contentCacheLimit) {
+	}
+
+	private void writeContent(int b) throws IOException {
+		if (!this.contentCacheLimitExceeded && this.contentCacheLimit != null &&
+				this.content.size() >= this.contentCacheLimit) {
+			overflow();
+		}
+		if (this.contentCacheLimitExceeded) {
+			getResponse().getOutputStream().write(b);
+		}
+		else {
+			this.content.write(b);
+		}
+	}
+
+	private void writeContent(byte[] b, int off, int len) throws IOException {
+		if (!this.contentCacheLimitExceeded && this.contentCacheLimit != null &&
+				this.content.size() + len > this.contentCacheLimit) {
+			overflow();
+		}
+		if (this.contentCacheLimitExceeded) {
+			getResponse().getOutputStream().write(b, off, len);
+		}
+		else {
+			this.content.write(b, off, len);
+		}
+	}
+
+	private void overflow() throws IOException {
+		if (!this.contentCacheLimitExceeded) {
+			this.contentCacheLimitExceeded = true;
+			handleContentOverflow(this.contentCacheLimit);
+			if (this.contentLength != null && !getResponse().isCommitted()) {
+				getResponse().setContentLength(this.contentLength);
+				this.contentLength = null;
+			}
+			copyBodyToResponse(false);
+		}
+	}
+
 
 	private class ResponseServletOutputStream extends ServletOutputStream {
 
@@ -240,12 +339,12 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 
 		@Override
 		public void write(int b) throws IOException {
-			content.write(b);
+			writeContent(b);
 		}
 
 		@Override
 		public void write(byte[] b, int off, int len) throws IOException {
-			content.write(b, off, len);
+			writeContent(b, off, len);
 		}
 
 		@Override
@@ -263,7 +362,7 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 	private class ResponsePrintWriter extends PrintWriter {
 
 		public ResponsePrintWriter(String characterEncoding) throws UnsupportedEncodingException {
-			super(new OutputStreamWriter(content, characterEncoding));
+			super(new OutputStreamWriter(new ContentOutputStream(), characterEncoding));
 		}
 
 		@Override
@@ -285,4 +384,18 @@ public class ContentCachingResponseWrapper extends HttpServletResponseWrapper {
 		}
 	}
 
+
+	private class ContentOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			writeContent(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			writeContent(b, off, len);
+		}
+	}
+
 }
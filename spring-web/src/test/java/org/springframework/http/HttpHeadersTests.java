@@ -456,4 +456,47 @@ public class HttpHeadersTests {
 		assertEquals("Expected one (first) locale", Locale.GERMAN, headers.getContentLanguage());
 	}
 
+	@Test
+	public void caseInsensitiveWellKnownHeaderName() {
+		headers.add("content-type", "text/plain");
+		headers.add("CONTENT-TYPE", "text/html");
+		assertEquals(1, headers.size());
+		assertEquals(Arrays.asList("text/plain", "text/html"), headers.get(HttpHeaders.CONTENT_TYPE));
+		assertEquals("content-type", headers.keySet().iterator().next());
+	}
+
+	@Test
+	public void readOnlyHttpHeadersAreSnapshot() {
+		headers.add(HttpHeaders.ACCEPT, "text/plain");
+		HttpHeaders readOnly = HttpHeaders.readOnlyHttpHeaders(headers);
+		headers.add(HttpHeaders.ACCEPT, "text/html");
+		headers.setContentLength(42);
+		assertEquals(Collections.singletonList("text/plain"), readOnly.get(HttpHeaders.ACCEPT));
+		assertEquals(-1, readOnly.getContentLength());
+	}
+
+	@Test
+	public void readOnlyHttpHeadersViewReflectChanges() {
+		HttpHeaders readOnly = HttpHeaders.readOnlyHttpHeadersView(headers);
+		headers.setContentLength(42);
+		assertEquals(42, readOnly.getContentLength());
+		assertSame(readOnly, HttpHeaders.readOnlyHttpHeadersView(readOnly));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void readOnlyHttpHeadersViewRejectChanges() {
+		HttpHeaders.readOnlyHttpHeadersView(headers).add(HttpHeaders.ACCEPT, "text/plain");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void readOnlyHttpHeadersRejectChanges() {
+		HttpHeaders.readOnlyHttpHeaders(headers).add(HttpHeaders.ACCEPT, "text/plain");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void readOnlyHttpHeadersRejectValueChanges() {
+		headers.add(HttpHeaders.ACCEPT, "text/plain");
+		HttpHeaders.readOnlyHttpHeaders(headers).get(HttpHeaders.ACCEPT).add("text/html");
+	}
+
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client.reactive;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import io.netty.util.concurrent.Promise;
+import org.junit.Test;
+import reactor.ipc.netty.resources.PoolResources;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ReactorConnectionPoolMetrics}.
+ */
+public class ReactorConnectionPoolMetricsTests {
+
+	private final ReactorConnectionPoolMetrics metrics = new ReactorConnectionPoolMetrics();
+
+	private final TestChannelPool channelPool = new TestChannelPool();
+
+	private final ChannelPool pool = this.metrics.decorate(new SharedPoolResources(this.channelPool))
+			.selectOrCreate(new InetSocketAddress("localhost", 8080), Bootstrap::new, channel -> {}, null);
+
+
+	@Test
+	public void pendingAcquire() {
+		Future<Channel> future = this.pool.acquire();
+		assertEquals(1, this.metrics.getPendingAcquireCount());
+		assertEquals(0, this.metrics.getActiveConnectionCount());
+
+		this.channelPool.lastPromise.setSuccess(new EmbeddedChannel());
+		assertTrue(future.isSuccess());
+		assertEquals(0, this.metrics.getPendingAcquireCount());
+		assertEquals(1, this.metrics.getActiveConnectionCount());
+	}
+
+	@Test
+	public void failedAcquire() {
+		this.pool.acquire();
+		this.channelPool.lastPromise.setFailure(new IllegalStateException("Pool exhausted"));
+		assertEquals(0, this.metrics.getPendingAcquireCount());
+		assertEquals(0, this.metrics.getActiveConnectionCount());
+		assertEquals(0, this.metrics.getIdleConnectionCount());
+	}
+
+	@Test
+	public void channelsCountedWithoutCreationCallback() {
+		Channel channel = new EmbeddedChannel();
+		this.pool.acquire();
+		this.channelPool.lastPromise.setSuccess(channel);
+		assertEquals(1, this.metrics.getActiveConnectionCount());
+		assertEquals(0, this.metrics.getIdleConnectionCount());
+
+		this.pool.release(channel);
+		assertEquals(0, this.metrics.getActiveConnectionCount());
+		assertEquals(1, this.metrics.getIdleConnectionCount());
+
+		this.pool.acquire();
+		this.channelPool.lastPromise.setSuccess(channel);
+		assertEquals(1, this.metrics.getActiveConnectionCount());
+		assertEquals(0, this.metrics.getIdleConnectionCount());
+
+		this.pool.release(channel);
+		channel.close();
+		assertEquals(0, this.metrics.getActiveConnectionCount());
+		assertEquals(0, this.metrics.getIdleConnectionCount());
+	}
+
+
+	/**
+	 * Pool resources shared with other clients, i.e. that ignore the creation
+	 * callback as the pool for the address already exists.
+	 */
+	private static class SharedPoolResources implements PoolResources {
+
+		private final ChannelPool channelPool;
+
+		public SharedPoolResources(ChannelPool channelPool) {
+			this.channelPool = channelPool;
+		}
+
+		@Override
+		public ChannelPool selectOrCreate(SocketAddress address, Supplier<? extends Bootstrap> bootstrap,
+				Consumer<? super Channel> onChannelCreate, EventLoopGroup group) {
+
+			return this.channelPool;
+		}
+
+		@Override
+		public void dispose() {
+		}
+	}
+
+
+	private static class TestChannelPool implements ChannelPool {
+
+		private Promise<Channel> lastPromise;
+
+		@Override
+		public Future<Channel> acquire() {
+			return acquire(ImmediateEventExecutor.INSTANCE.newPromise());
+		}
+
+		@Override
+		public Future<Channel> acquire(Promise<Channel> promise) {
+			this.lastPromise = promise;
+			return promise;
+		}
+
+		@Override
+		public Future<Void> release(Channel channel) {
+			return release(channel, ImmediateEventExecutor.INSTANCE.newPromise());
+		}
+
+		@Override
+		public Future<Void> release(Channel channel, Promise<Void> promise) {
+			return promise.setSuccess(null);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.multipart;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.MultiValueMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MultipartHttpMessageReader} and {@link PartHttpMessageReader}.
+ */
+public class MultipartHttpMessageReaderTests {
+
+	private static final MediaType MULTIPART_CONTENT_TYPE = MediaType.parseMediaType(
+			"multipart/form-data; boundary=\"----Boundary42\"");
+
+	private static final String BODY = "preamble\r\n" +
+			"------Boundary42\r\n" +
+			"Content-Disposition: form-data; name=\"fooField\"\r\n" +
+			"\r\n" +
+			"foo\r\n------Bound\r\n" +
+			"------Boundary42\r\n" +
+			"Content-Disposition: form-data; name=\"fileField\"; filename=\"file.txt\"\r\n" +
+			"Content-Type: text/plain\r\n" +
+			"\r\n" +
+			"first line\r\n\r\n------Boundary4 second line\r\n" +
+			"------Boundary42--\r\n" +
+			"epilogue";
+
+	private static final String FILE_FIRST_BODY = "------Boundary42\r\n" +
+			"Content-Disposition: form-data; name=\"fileField\"; filename=\"file.txt\"\r\n" +
+			"\r\n" +
+			"first line\r\n\r\n------Boundary4 second line\r\n" +
+			"------Boundary42\r\n" +
+			"Content-Disposition: form-data; name=\"fooField\"\r\n" +
+			"\r\n" +
+			"foo\r\n" +
+			"------Boundary42--\r\n";
+
+
+	private final PartHttpMessageReader partReader = new PartHttpMessageReader();
+
+	private final MultipartHttpMessageReader reader = new MultipartHttpMessageReader(this.partReader);
+
+	private Path storageDirectory;
+
+
+	@After
+	public void deleteStorageDirectory() {
+		if (this.storageDirectory != null) {
+			FileSystemUtils.deleteRecursively(this.storageDirectory.toFile());
+		}
+	}
+
+	@Test
+	public void canRead() {
+		assertTrue(this.reader.canRead(
+				ResolvableType.forClassWithGenerics(MultiValueMap.class, String.class, Part.class),
+				MediaType.MULTIPART_FORM_DATA));
+		assertFalse(this.reader.canRead(
+				ResolvableType.forClassWithGenerics(MultiValueMap.class, String.class, String.class),
+				MediaType.MULTIPART_FORM_DATA));
+		assertFalse(this.reader.canRead(
+				ResolvableType.forClassWithGenerics(MultiValueMap.class, String.class, Part.class),
+				MediaType.APPLICATION_FORM_URLENCODED));
+		assertTrue(this.partReader.canRead(ResolvableType.forClass(Part.class), MediaType.MULTIPART_FORM_DATA));
+	}
+
+	@Test
+	public void readMultipart() {
+		MultiValueMap<String, Part> parts = readMultipart(Flux.just(buffer(BODY)));
+		assertEquals(2, parts.size());
+
+		Part part = parts.getFirst("fooField");
+		assertTrue(part instanceof FormFieldPart);
+		assertEquals("foo\r\n------Bound", ((FormFieldPart) part).value());
+
+		part = parts.getFirst("fileField");
+		assertTrue(part instanceof FilePart);
+		assertEquals("file.txt", ((FilePart) part).filename());
+		assertEquals(MediaType.TEXT_PLAIN, part.headers().getContentType());
+		assertEquals("first line\r\n\r\n------Boundary4 second line", contentAsString(part));
+	}
+
+	@Test
+	public void readMultipartSplitIntoSmallBuffers() {
+		this.partReader.setMaxInMemorySize(16);
+		List<DataBuffer> buffers = new ArrayList<>();
+		byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < bytes.length; i += 3) {
+			byte[] chunk = new byte[Math.min(3, bytes.length - i)];
+			System.arraycopy(bytes, i, chunk, 0, chunk.length);
+			buffers.add(new DefaultDataBufferFactory().wrap(chunk));
+		}
+		MultiValueMap<String, Part> parts = readMultipart(Flux.fromIterable(buffers));
+
+		assertEquals("foo\r\n------Bound", ((FormFieldPart) parts.getFirst("fooField")).value());
+		Part part = parts.getFirst("fileField");
+		assertEquals("first line\r\n\r\n------Boundary4 second line", contentAsString(part));
+		assertEquals("first line\r\n\r\n------Boundary4 second line", contentAsString(part));
+		part.delete().block(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void transferToFile() throws Exception {
+		this.partReader.setMaxInMemorySize(16);
+		FilePart part = (FilePart) readMultipart(Flux.just(buffer(BODY))).getFirst("fileField");
+
+		File dest = File.createTempFile("MultipartHttpMessageReaderTests", ".txt");
+		try {
+			part.transferTo(dest).block(Duration.ofSeconds(5));
+			assertEquals("first line\r\n\r\n------Boundary4 second line",
+					new String(Files.readAllBytes(dest.toPath()), StandardCharsets.UTF_8));
+		}
+		finally {
+			assertTrue(dest.delete());
+		}
+	}
+
+	@Test
+	public void formFieldExceedingMaxInMemorySize() {
+		this.partReader.setMaxInMemorySize(2);
+		StepVerifier.create(readParts(BODY))
+				.expectError(CodecException.class)
+				.verify();
+	}
+
+	@Test
+	public void partExceedingMaxPartSize() {
+		this.partReader.setMaxPartSize(20);
+		StepVerifier.create(readParts(BODY))
+				.expectNextCount(1)
+				.expectError(CodecException.class)
+				.verify();
+	}
+
+	@Test
+	public void tooManyParts() {
+		this.partReader.setMaxParts(1);
+		StepVerifier.create(readParts(BODY))
+				.expectNextCount(1)
+				.expectError(CodecException.class)
+				.verify();
+	}
+
+	@Test
+	public void prematureEnd() {
+		StepVerifier.create(readParts(BODY.substring(0, BODY.indexOf("second line"))))
+				.expectNextCount(1)
+				.expectError(CodecException.class)
+				.verify();
+	}
+
+	@Test
+	public void temporaryFilesDeletedOnError() throws Exception {
+		useStorageDirectory();
+		this.partReader.setMaxParts(1);
+		StepVerifier.create(readParts(FILE_FIRST_BODY))
+				.expectNextMatches(part -> part instanceof FilePart)
+				.expectError(CodecException.class)
+				.verify();
+		assertEquals(0, storedFileCount());
+	}
+
+	@Test
+	public void temporaryFilesDeletedOnCancel() throws Exception {
+		useStorageDirectory();
+		StepVerifier.create(readParts(FILE_FIRST_BODY).take(1))
+				.expectNextMatches(part -> part instanceof FilePart)
+				.verifyComplete();
+		assertEquals(0, storedFileCount());
+	}
+
+	@Test
+	public void temporaryFilesDeletedAtEndOfRequest() throws Exception {
+		useStorageDirectory();
+		MockServerHttpRequest request = MockServerHttpRequest.post("/")
+				.contentType(MULTIPART_CONTENT_TYPE).body(FILE_FIRST_BODY);
+		MockServerHttpResponse response = new MockServerHttpResponse();
+		ResolvableType type = ResolvableType.forClassWithGenerics(MultiValueMap.class, String.class, Part.class);
+		MultiValueMap<String, Part> parts = this.reader.readMono(type, type, request, response,
+				Collections.emptyMap()).block(Duration.ofSeconds(5));
+
+		assertEquals("first line\r\n\r\n------Boundary4 second line", contentAsString(parts.getFirst("fileField")));
+		assertEquals(1, storedFileCount());
+
+		response.setComplete().block(Duration.ofSeconds(5));
+		assertEquals(0, storedFileCount());
+	}
+
+
+	private void useStorageDirectory() throws Exception {
+		this.storageDirectory = Files.createTempDirectory("MultipartHttpMessageReaderTests");
+		this.partReader.setFileStorageDirectory(this.storageDirectory);
+		this.partReader.setMaxInMemorySize(16);
+		this.partReader.setBlockingScheduler(Schedulers.immediate());
+	}
+
+	private long storedFileCount() throws Exception {
+		try (Stream<Path> files = Files.list(this.storageDirectory)) {
+			return files.count();
+		}
+	}
+
+	private MultiValueMap<String, Part> readMultipart(Flux<DataBuffer> body) {
+		MockServerHttpRequest request = MockServerHttpRequest.post("/")
+				.contentType(MULTIPART_CONTENT_TYPE).body(body);
+		return this.reader.readMono(ResolvableType.forClassWithGenerics(MultiValueMap.class, String.class,
+				Part.class), request, Collections.emptyMap()).block(Duration.ofSeconds(5));
+	}
+
+	private Flux<Part> readParts(String body) {
+		MockServerHttpRequest request = MockServerHttpRequest.post("/")
+				.contentType(MULTIPART_CONTENT_TYPE).body(body);
+		return this.partReader.read(ResolvableType.forClass(Part.class), request, Collections.emptyMap());
+	}
+
+	private static String contentAsString(Part part) {
+		return part.content()
+				.reduce(new DefaultDataBufferFactory().allocateBuffer(), (previous, current) -> {
+					previous.write(current);
+					DataBufferUtils.release(current);
+					return previous;
+				})
+				.map(buffer -> StandardCharsets.UTF_8.decode(buffer.asByteBuffer()).toString())
+				.block(Duration.ofSeconds(5));
+	}
+
+	private static DataBuffer buffer(String value) {
+		return new DefaultDataBufferFactory().wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
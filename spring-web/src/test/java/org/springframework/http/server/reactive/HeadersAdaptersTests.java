@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.server.reactive;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.undertow.util.HeaderMap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@code HttpHeaders} adapters over native server headers.
+ */
+@RunWith(Parameterized.class)
+public class HeadersAdaptersTests {
+
+	@Parameter(0)
+	public MultiValueMap<String, String> headers;
+
+	@Parameters(name = "headers [{0}]")
+	public static Object[][] arguments() {
+		return new Object[][] {
+				{new NettyHeadersAdapter(new DefaultHttpHeaders())},
+				{new UndertowHeadersAdapter(new HeaderMap())}
+		};
+	}
+
+
+	@Test
+	public void getWithUnknownHeaderShouldReturnNull() {
+		assertNull(this.headers.get("Unknown"));
+		assertNull(this.headers.getFirst("Unknown"));
+		assertFalse(this.headers.containsKey("Unknown"));
+	}
+
+	@Test
+	public void addShouldKeepOrdering() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("TestHeader", "second");
+		assertEquals("first", this.headers.getFirst("TestHeader"));
+		assertEquals(Arrays.asList("first", "second"), this.headers.get("TestHeader"));
+	}
+
+	@Test
+	public void putShouldOverrideExisting() {
+		this.headers.add("TestHeader", "first");
+		this.headers.put("TestHeader", Collections.singletonList("override"));
+		assertEquals("override", this.headers.getFirst("TestHeader"));
+		assertEquals(1, this.headers.get("TestHeader").size());
+	}
+
+	@Test
+	public void putWithCurrentValuesShouldKeepThem() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("TestHeader", "second");
+		List<String> previousValues = this.headers.put("TestHeader", this.headers.get("TestHeader"));
+		assertEquals(Arrays.asList("first", "second"), previousValues);
+		assertEquals(Arrays.asList("first", "second"), this.headers.get("TestHeader"));
+	}
+
+	@Test
+	public void putShouldReturnPreviousValuesUnchanged() {
+		this.headers.add("TestHeader", "first");
+		List<String> previousValues = this.headers.put("TestHeader", Collections.singletonList("override"));
+		assertEquals(Collections.singletonList("first"), previousValues);
+	}
+
+	@Test
+	public void removeShouldReturnPreviousValues() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("TestHeader", "second");
+		assertEquals(Arrays.asList("first", "second"), this.headers.remove("TestHeader"));
+		assertTrue(this.headers.isEmpty());
+		assertNull(this.headers.remove("TestHeader"));
+	}
+
+	@Test
+	public void sizeShouldCountHeaderNames() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("TestHeader", "second");
+		this.headers.add("OtherHeader", "value");
+		assertEquals(2, this.headers.size());
+		assertEquals(2, this.headers.keySet().size());
+		assertEquals(2, this.headers.entrySet().size());
+		assertEquals(2, this.headers.toSingleValueMap().size());
+	}
+
+	@Test
+	public void nameLookupShouldBeCaseInsensitive() {
+		this.headers.add("TestHeader", "first");
+		assertEquals("first", this.headers.getFirst("testheader"));
+		assertTrue(this.headers.containsKey("TESTHEADER"));
+	}
+
+	@Test
+	public void equalsAndHashCodeShouldFollowMapContract() {
+		this.headers.add("TestHeader", "first");
+		this.headers.add("TestHeader", "second");
+		this.headers.add("OtherHeader", "value");
+		MultiValueMap<String, String> other = new LinkedMultiValueMap<>();
+		other.add("TestHeader", "first");
+		other.add("TestHeader", "second");
+		other.add("OtherHeader", "value");
+
+		assertEquals(other, this.headers);
+		assertEquals(this.headers, other);
+		assertEquals(other.hashCode(), this.headers.hashCode());
+		assertEquals(new HttpHeaders(other), new HttpHeaders(this.headers));
+
+		other.add("OtherHeader", "another");
+		assertNotEquals(other, this.headers);
+		assertNotEquals(this.headers, other);
+	}
+
+	@Test
+	public void httpHeadersShouldWriteThrough() {
+		HttpHeaders httpHeaders = new HttpHeaders(this.headers);
+		httpHeaders.setContentLength(42);
+		assertEquals("42", this.headers.getFirst(HttpHeaders.CONTENT_LENGTH));
+		assertEquals(42, HttpHeaders.readOnlyHttpHeadersView(httpHeaders).getContentLength());
+	}
+
+}
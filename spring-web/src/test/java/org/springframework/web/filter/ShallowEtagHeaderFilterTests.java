@@ -179,6 +179,46 @@ public class ShallowEtagHeaderFilterTests {
 		assertArrayEquals(responseBody, response.getContentAsByteArray());
 	}
 
+	@Test
+	public void filterWithinContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		final byte[] responseBody = "Hello World".getBytes("UTF-8");
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			FileCopyUtils.copy(responseBody, filterResponse.getOutputStream());
+		};
+
+		this.filter.setContentCacheLimit(responseBody.length);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertEquals(200, response.getStatus());
+		assertEquals("\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("ETag"));
+		assertEquals(responseBody.length, response.getContentLength());
+		assertArrayEquals(responseBody, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void filterExceedingContentCacheLimit() throws Exception {
+		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
+		request.addHeader("If-None-Match", "\"0b10a8db164e0754105b7a99be72e3fe5\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		FilterChain filterChain = (filterRequest, filterResponse) -> {
+			((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+			filterResponse.getOutputStream().write("Hello".getBytes("UTF-8"));
+			filterResponse.getOutputStream().write(" World".getBytes("UTF-8"));
+		};
+
+		this.filter.setContentCacheLimit(8);
+		this.filter.doFilter(request, response, filterChain);
+
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader("ETag"));
+		assertEquals("Hello World", response.getContentAsString());
+	}
+
 	@Test
 	public void filterSendError() throws Exception {
 		final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hotels");
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.test.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.trace.RequestTrace;
+import org.springframework.web.server.trace.RequestTraceHistograms;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RequestTracingWebFilter} and {@link RequestTraceHistograms}.
+ */
+public class RequestTracingWebFilterTests {
+
+	private final RequestTraceHistograms histograms = new RequestTraceHistograms();
+
+	private final AtomicReference<RequestTrace> lastTrace = new AtomicReference<>();
+
+	private final CountDownLatch completed = new CountDownLatch(1);
+
+	private final RequestTracingWebFilter filter = new RequestTracingWebFilter(this.histograms,
+			(exchange, trace) -> {
+				this.lastTrace.set(trace);
+				this.completed.countDown();
+			});
+
+
+	@Test
+	public void traceRecorded() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/").toExchange();
+		this.filter.filter(exchange, this::handle).block(Duration.ofSeconds(5));
+		assertTrue(this.completed.await(5, TimeUnit.SECONDS));
+
+		RequestTrace trace = this.lastTrace.get();
+		assertNotNull(trace);
+		assertSame(trace, RequestTrace.get(exchange));
+		assertEquals(SignalType.ON_COMPLETE, trace.getSignalType());
+		assertNull(trace.getError());
+		assertTrue(trace.getNanos(RequestTrace.Phase.HANDLER_MAPPING) >= 5000000);
+		assertEquals(0, trace.getNanos(RequestTrace.Phase.ARGUMENT_RESOLUTION));
+		assertTrue(trace.getNanos(RequestTrace.Phase.RESPONSE_WRITE) >= 0);
+		assertTrue(trace.getTotalNanos() >= trace.getNanos(RequestTrace.Phase.HANDLER_MAPPING));
+		assertEquals("body", exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5)));
+
+		assertEquals(1, this.histograms.getRequestCount());
+		assertEquals(0, this.histograms.getErrorCount());
+		assertEquals(0, this.histograms.getCancelledCount());
+		assertEquals(1, this.histograms.getHistogram(RequestTrace.Phase.HANDLER_MAPPING).getCount());
+		assertEquals(0, this.histograms.getHistogram(RequestTrace.Phase.ARGUMENT_RESOLUTION).getCount());
+		assertTrue(this.histograms.getMaxMillis().get("HANDLER_MAPPING") >= 5);
+		assertTrue(this.histograms.getMedianMillis().containsKey("TOTAL"));
+	}
+
+	@Test
+	public void errorRecorded() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/").toExchange();
+		Mono<Void> result = this.filter.filter(exchange, ex -> Mono.error(new IllegalStateException()));
+		try {
+			result.block(Duration.ofSeconds(5));
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+
+		assertTrue(this.completed.await(5, TimeUnit.SECONDS));
+		assertEquals(SignalType.ON_ERROR, this.lastTrace.get().getSignalType());
+		assertTrue(this.lastTrace.get().getError() instanceof IllegalStateException);
+		assertEquals(1, this.histograms.getErrorCount());
+
+		this.histograms.reset();
+		assertEquals(0, this.histograms.getRequestCount());
+		assertEquals(0, this.histograms.getErrorCount());
+	}
+
+	@Test
+	public void cancellationRecorded() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/").toExchange();
+		Mono<Void> result = this.filter.filter(exchange,
+				ex -> RequestTrace.get(ex).record(RequestTrace.Phase.HANDLER_INVOCATION, Mono.never()));
+		StepVerifier.create(result).thenCancel().verify();
+
+		assertTrue(this.completed.await(5, TimeUnit.SECONDS));
+		RequestTrace trace = this.lastTrace.get();
+		assertEquals(SignalType.CANCEL, trace.getSignalType());
+		assertNull(trace.getError());
+		assertTrue(trace.getNanos(RequestTrace.Phase.HANDLER_INVOCATION) > 0);
+		assertTrue(trace.getTotalNanos() >= 0);
+
+		assertEquals(1, this.histograms.getRequestCount());
+		assertEquals(0, this.histograms.getErrorCount());
+		assertEquals(1, this.histograms.getCancelledCount());
+		assertEquals(1, this.histograms.getHistogram(RequestTrace.Phase.HANDLER_INVOCATION).getCount());
+	}
+
+
+	private Mono<Void> handle(ServerWebExchange exchange) {
+		RequestTrace trace = RequestTrace.get(exchange);
+		return trace.record(RequestTrace.Phase.HANDLER_MAPPING, Mono.delay(Duration.ofMillis(5)))
+				.then(exchange.getResponse().writeWith(Flux.just(
+						new DefaultDataBufferFactory().wrap("body".getBytes(StandardCharsets.UTF_8)))));
+	}
+
+}
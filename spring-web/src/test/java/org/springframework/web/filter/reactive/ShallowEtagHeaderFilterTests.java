@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.test.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link ShallowEtagHeaderFilter}.
+ */
+public class ShallowEtagHeaderFilterTests {
+
+	private static final String ETAG = "\"0b10a8db164e0754105b7a99be72e3fe5\"";
+
+	private final ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+
+	private final WebFilterChain filterChain = exchange ->
+			exchange.getResponse().writeWith(Flux.just(buffer("Hello"), buffer(" "), buffer("World")));
+
+
+	@Test
+	public void filterNoMatch() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/hotels").toExchange();
+		this.filter.filter(exchange, this.filterChain).block(Duration.ofSeconds(5));
+
+		assertEquals(ETAG, exchange.getResponse().getHeaders().getETag());
+		assertEquals(11, exchange.getResponse().getHeaders().getContentLength());
+		assertEquals("Hello World", exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	public void filterMatch() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/hotels").ifNoneMatch(ETAG).toExchange();
+		this.filter.filter(exchange, this.filterChain).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+		assertEquals(ETAG, exchange.getResponse().getHeaders().getETag());
+		assertEquals("", exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	public void filterMatchWeakETag() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/hotels").ifNoneMatch("W/" + ETAG).toExchange();
+		this.filter.setWriteWeakETag(true);
+		this.filter.filter(exchange, this.filterChain).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+		assertEquals("W/" + ETAG, exchange.getResponse().getHeaders().getETag());
+	}
+
+	@Test
+	public void filterExceedingContentCacheLimit() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.get("/hotels").ifNoneMatch(ETAG).toExchange();
+		this.filter.setContentCacheLimit(8);
+		this.filter.filter(exchange, this.filterChain).block(Duration.ofSeconds(5));
+
+		assertNull(exchange.getResponse().getHeaders().getETag());
+		assertEquals("Hello World", exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5)));
+	}
+
+	@Test
+	public void filterNotGet() throws Exception {
+		MockServerWebExchange exchange = MockServerHttpRequest.post("/hotels").toExchange();
+		this.filter.filter(exchange, this.filterChain).block(Duration.ofSeconds(5));
+
+		assertNull(exchange.getResponse().getHeaders().getETag());
+		assertEquals("Hello World", exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5)));
+	}
+
+
+	private static DataBuffer buffer(String value) {
+		return new DefaultDataBufferFactory().wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
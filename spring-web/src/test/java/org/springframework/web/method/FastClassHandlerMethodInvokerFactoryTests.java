@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.method;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link FastClassHandlerMethodInvokerFactory}.
+ */
+public class FastClassHandlerMethodInvokerFactoryTests {
+
+	private final FastClassHandlerMethodInvokerFactory factory = new FastClassHandlerMethodInvokerFactory();
+
+	private final Handler handler = new Handler();
+
+
+	@Test
+	public void invoke() throws Exception {
+		HandlerMethodInvoker invoker = createInvoker("handle", String.class, int.class);
+		assertEquals("foo-3", invoker.invoke(this.handler, new Object[] {"foo", 3}));
+		assertEquals("null-5", invoker.invoke(this.handler, new Object[] {null, 5}));
+	}
+
+	@Test
+	public void invokeVoidMethod() throws Exception {
+		HandlerMethodInvoker invoker = createInvoker("handleVoid");
+		assertNull(invoker.invoke(this.handler, new Object[0]));
+		assertEquals(1, this.handler.voidCount);
+	}
+
+	@Test
+	public void invokePackagePrivateMethod() throws Exception {
+		HandlerMethodInvoker invoker = createInvoker("handlePackagePrivate", String.class);
+		assertEquals("FOO", invoker.invoke(this.handler, new Object[] {"foo"}));
+	}
+
+	@Test
+	public void invokePrivateMethod() throws Exception {
+		HandlerMethodInvoker invoker = createInvoker("handlePrivate", String.class);
+		assertEquals("foo!", invoker.invoke(this.handler, new Object[] {"foo"}));
+	}
+
+	@Test
+	public void invokeSubclassOverride() throws Exception {
+		HandlerMethodInvoker invoker = createInvoker("handle", String.class, int.class);
+		assertEquals("sub-foo", invoker.invoke(new SubHandler(), new Object[] {"foo", 3}));
+	}
+
+	@Test
+	public void exceptionFromMethod() throws Exception {
+		HandlerMethodInvoker invoker = createInvoker("handleException", String.class);
+		try {
+			invoker.invoke(this.handler, new Object[] {"foo"});
+			fail("Expected InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertEquals(IllegalStateException.class, ex.getTargetException().getClass());
+			assertEquals("foo", ex.getTargetException().getMessage());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void argumentTypeMismatch() throws Exception {
+		createInvoker("handle", String.class, int.class).invoke(this.handler, new Object[] {"foo", "bar"});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullForPrimitiveArgument() throws Exception {
+		createInvoker("handle", String.class, int.class).invoke(this.handler, new Object[] {"foo", null});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongNumberOfArguments() throws Exception {
+		createInvoker("handle", String.class, int.class).invoke(this.handler, new Object[] {"foo"});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongTargetBean() throws Exception {
+		createInvoker("handle", String.class, int.class).invoke(new Object(), new Object[] {"foo", 3});
+	}
+
+	@Test
+	public void invokeIsFasterThanReflection() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+		Method method = Handler.class.getDeclaredMethod("handle", String.class, int.class);
+		HandlerMethodInvoker invoker = this.factory.createInvoker(new HandlerMethod(this.handler, method));
+		Object[] args = new Object[] {"foo", 3};
+		int iterations = 10000000;
+
+		// Warm up both paths
+		for (int i = 0; i < iterations; i++) {
+			method.invoke(this.handler, args);
+			invoker.invoke(this.handler, args);
+		}
+
+		StopWatch sw = new StopWatch();
+		sw.start("Method.invoke");
+		for (int i = 0; i < iterations; i++) {
+			method.invoke(this.handler, args);
+		}
+		sw.stop();
+		sw.start("FastClass invoker");
+		for (int i = 0; i < iterations; i++) {
+			invoker.invoke(this.handler, args);
+		}
+		sw.stop();
+		System.out.println(sw.prettyPrint());
+
+		long reflective = sw.getTaskInfo()[0].getTimeMillis();
+		long fastClass = sw.getTaskInfo()[1].getTimeMillis();
+		assertTrue("FastClass invoker took " + fastClass + " ms vs " + reflective + " ms with reflection",
+				fastClass <= reflective);
+	}
+
+
+	private HandlerMethodInvoker createInvoker(String methodName, Class<?>... parameterTypes) throws Exception {
+		Method method = Handler.class.getDeclaredMethod(methodName, parameterTypes);
+		return this.factory.createInvoker(new HandlerMethod(this.handler, method));
+	}
+
+
+	@SuppressWarnings("unused")
+	private static class Handler {
+
+		int voidCount;
+
+		public String handle(String value, int count) {
+			return value + "-" + count;
+		}
+
+		public void handleVoid() {
+			this.voidCount++;
+		}
+
+		String handlePackagePrivate(String value) {
+			return value.toUpperCase();
+		}
+
+		private String handlePrivate(String value) {
+			return value + "!";
+		}
+
+		public String handleException(String value) {
+			throw new IllegalStateException(value);
+		}
+	}
+
+
+	private static class SubHandler extends Handler {
+
+		@Override
+		public String handle(String value, int count) {
+			return "sub-" + value;
+		}
+	}
+
+}
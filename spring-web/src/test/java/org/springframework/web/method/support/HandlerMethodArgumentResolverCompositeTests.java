@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -77,6 +77,18 @@ public class HandlerMethodArgumentResolverCompositeTests {
 		this.resolvers.resolveArgument(paramStr, null, null, null);
 	}
 
+	@Test
+	public void selectArgumentResolvers() throws Exception {
+		StubArgumentResolver first = registerResolver(Integer.class, Integer.valueOf(1));
+		registerResolver(Integer.class, Integer.valueOf(2));
+		HandlerMethodArgumentResolver[] selected =
+				this.resolvers.selectArgumentResolvers(new MethodParameter[] {paramInt, paramStr});
+
+		assertEquals(2, selected.length);
+		assertSame(first, selected[0]);
+		assertNull(selected[1]);
+	}
+
 	protected StubArgumentResolver registerResolver(Class<?> supportedType, Object stubValue) {
 		StubArgumentResolver resolver = new StubArgumentResolver(supportedType, stubValue);
 		this.resolvers.addResolver(resolver);
@@ -22,6 +22,8 @@ import org.junit.Test;
 import org.springframework.core.MethodParameter;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -113,6 +115,48 @@ public class HandlerMethodReturnValueHandlerCompositeTests {
 		this.handlers.handleReturnValue("value", this.stringType, null, null);
 	}
 
+	@Test
+	public void selectReturnValueHandler() throws Exception {
+		HandlerMethodReturnValueHandler handler = this.handlers.selectReturnValueHandler(this.integerType);
+		handler.handleReturnValue(55, this.integerType, this.mavContainer, null);
+
+		verify(this.integerHandler).handleReturnValue(55, this.integerType, this.mavContainer, null);
+		assertNull(this.handlers.selectReturnValueHandler(this.stringType));
+	}
+
+	@Test
+	public void selectReturnValueHandlerWithAsyncHandler() throws Exception {
+		Promise<Integer> promise = new Promise<>();
+		Promise<Integer> resolvedPromise = new Promise<>();
+		MethodParameter promiseType = new MethodParameter(getClass().getDeclaredMethod("handlePromise"), -1);
+
+		HandlerMethodReturnValueHandler responseBodyHandler = mock(HandlerMethodReturnValueHandler.class);
+		when(responseBodyHandler.supportsReturnType(promiseType)).thenReturn(true);
+		this.handlers.addHandler(responseBodyHandler);
+
+		AsyncHandlerMethodReturnValueHandler promiseHandler = mock(AsyncHandlerMethodReturnValueHandler.class);
+		when(promiseHandler.supportsReturnType(promiseType)).thenReturn(true);
+		when(promiseHandler.isAsyncReturnValue(promise, promiseType)).thenReturn(true);
+		this.handlers.addHandler(promiseHandler);
+
+		HandlerMethodReturnValueHandler handler = this.handlers.selectReturnValueHandler(promiseType);
+		handler.handleReturnValue(promise, promiseType, this.mavContainer, null);
+		handler.handleReturnValue(resolvedPromise, promiseType, this.mavContainer, null);
+
+		verify(promiseHandler).handleReturnValue(promise, promiseType, this.mavContainer, null);
+		verify(responseBodyHandler).handleReturnValue(resolvedPromise, promiseType, this.mavContainer, null);
+	}
+
+	@Test
+	public void selectReturnValueHandlerWithAsyncHandlerOnly() throws Exception {
+		MethodParameter promiseType = new MethodParameter(getClass().getDeclaredMethod("handlePromise"), -1);
+		AsyncHandlerMethodReturnValueHandler promiseHandler = mock(AsyncHandlerMethodReturnValueHandler.class);
+		when(promiseHandler.supportsReturnType(promiseType)).thenReturn(true);
+		this.handlers.addHandler(promiseHandler);
+
+		assertSame(promiseHandler, this.handlers.selectReturnValueHandler(promiseType));
+	}
+
 
 	private Integer handleInteger() {
 		return null;
@@ -86,6 +86,39 @@ public class InvocableHandlerMethodTests {
 		assertEquals("null-null", returnValue);
 	}
 
+	@Test
+	public void resolveArgWithBoundResolvers() throws Exception {
+		StubArgumentResolver intResolver = new StubArgumentResolver(Integer.class, 99);
+		StubArgumentResolver stringResolver = new StubArgumentResolver(String.class, "value");
+
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolver(intResolver);
+		composite.addResolver(stringResolver);
+		handlerMethod.setHandlerMethodArgumentResolvers(composite);
+		handlerMethod.setBoundArgumentResolvers(composite.selectArgumentResolvers(handlerMethod.getMethodParameters()));
+
+		Object returnValue = handlerMethod.invokeForRequest(webRequest, null);
+		assertEquals(1, intResolver.getResolvedParameters().size());
+		assertEquals(1, stringResolver.getResolvedParameters().size());
+		assertEquals("99-value", returnValue);
+	}
+
+	@Test
+	public void cannotResolveArgWithBoundResolvers() throws Exception {
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolver(new StubArgumentResolver(String.class, "value"));
+		handlerMethod.setHandlerMethodArgumentResolvers(composite);
+		handlerMethod.setBoundArgumentResolvers(composite.selectArgumentResolvers(handlerMethod.getMethodParameters()));
+
+		try {
+			handlerMethod.invokeForRequest(webRequest, null);
+			fail("Expected exception");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("No suitable resolver for argument 0 of type 'java.lang.Integer'"));
+		}
+	}
+
 	@Test
 	public void cannotResolveArg() throws Exception {
 		try {
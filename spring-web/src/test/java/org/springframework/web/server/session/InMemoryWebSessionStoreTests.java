@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.server.session;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.Test;
+
+import org.springframework.web.server.WebSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for {@link InMemoryWebSessionStore}.
+ */
+public class InMemoryWebSessionStoreTests {
+
+	private final InMemoryWebSessionStore store = new InMemoryWebSessionStore();
+
+
+	@Test
+	public void removeExpiredSessions() throws Exception {
+		Clock clock = Clock.systemDefaultZone();
+		this.store.storeSession(startedSession("1", clock, Duration.ofMinutes(31))).block();
+		this.store.storeSession(startedSession("2", clock, Duration.ZERO)).block();
+
+		assertEquals(1, this.store.removeExpiredSessions());
+		assertEquals(1, this.store.getActiveSessionCount());
+		assertEquals(1, this.store.getExpiredSessionCount());
+		assertNull(this.store.retrieveSession("1").block());
+		assertNotNull(this.store.retrieveSession("2").block());
+	}
+
+	@Test
+	public void expiredSessionsRemovedOnStoreAfterCheckInterval() throws Exception {
+		Clock clock = Clock.systemDefaultZone();
+		this.store.storeSession(startedSession("1", clock, Duration.ofMinutes(31))).block();
+		this.store.storeSession(startedSession("2", clock, Duration.ZERO)).block();
+		assertEquals(2, this.store.getActiveSessionCount());
+
+		this.store.setExpirationCheckInterval(Duration.ofMinutes(-1));
+		this.store.storeSession(startedSession("3", clock, Duration.ZERO)).block();
+
+		assertEquals(2, this.store.getActiveSessionCount());
+		assertEquals(1, this.store.getExpiredSessionCount());
+		assertNull(this.store.retrieveSession("1").block());
+	}
+
+	@Test
+	public void removeSessionCountsExpired() throws Exception {
+		Clock clock = Clock.systemDefaultZone();
+		this.store.storeSession(startedSession("1", clock, Duration.ofMinutes(31))).block();
+		this.store.storeSession(startedSession("2", clock, Duration.ZERO)).block();
+
+		this.store.removeSession("1").block();
+		this.store.removeSession("2").block();
+
+		assertEquals(0, this.store.getActiveSessionCount());
+		assertEquals(1, this.store.getExpiredSessionCount());
+	}
+
+	@Test
+	public void evictLeastRecentlyAccessedWhenFull() throws Exception {
+		Clock clock = Clock.systemDefaultZone();
+		this.store.setMaxSessions(20);
+		this.store.setEvictLeastRecentlyAccessedSessions(true);
+		for (int i = 0; i < 20; i++) {
+			this.store.storeSession(startedSession("s" + i, clock, Duration.ofMinutes(20 - i))).block();
+		}
+		assertEquals(20, this.store.getActiveSessionCount());
+
+		// Replacing an existing session does not evict
+		WebSession existing = this.store.retrieveSession("s0").block();
+		this.store.storeSession(existing).block();
+		assertEquals(0, this.store.getEvictedSessionCount());
+
+		this.store.storeSession(startedSession("new", clock, Duration.ZERO)).block();
+
+		assertEquals(3, this.store.getEvictedSessionCount());
+		assertEquals(18, this.store.getActiveSessionCount());
+		assertNull(this.store.retrieveSession("s0").block());
+		assertNull(this.store.retrieveSession("s1").block());
+		assertNull(this.store.retrieveSession("s2").block());
+		assertNotNull(this.store.retrieveSession("s3").block());
+		assertNotNull(this.store.retrieveSession("new").block());
+	}
+
+	@Test
+	public void noLimitByDefault() throws Exception {
+		assertEquals(Integer.MAX_VALUE, this.store.getMaxSessions());
+		assertFalse(this.store.isEvictLeastRecentlyAccessedSessions());
+	}
+
+	@Test
+	public void rejectNewSessionWhenFull() throws Exception {
+		Clock clock = Clock.systemDefaultZone();
+		this.store.setMaxSessions(2);
+		this.store.storeSession(startedSession("1", clock, Duration.ofMinutes(2))).block();
+		this.store.storeSession(startedSession("2", clock, Duration.ofMinutes(1))).block();
+
+		try {
+			this.store.storeSession(startedSession("3", clock, Duration.ZERO)).block();
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			assertEquals("Max sessions limit reached: 2", ex.getMessage());
+		}
+		assertEquals(1, this.store.getRejectedSessionCount());
+		assertEquals(0, this.store.getEvictedSessionCount());
+		assertNotNull(this.store.retrieveSession("1").block());
+		assertNotNull(this.store.retrieveSession("2").block());
+		assertNull(this.store.retrieveSession("3").block());
+
+		// Replacing an existing session is still possible
+		WebSession existing = this.store.retrieveSession("1").block();
+		this.store.storeSession(existing).block();
+		assertEquals(1, this.store.getRejectedSessionCount());
+	}
+
+	@Test
+	public void removeExpiredBeforeEvicting() throws Exception {
+		Clock clock = Clock.systemDefaultZone();
+		this.store.setMaxSessions(2);
+		this.store.storeSession(startedSession("1", clock, Duration.ZERO)).block();
+		this.store.storeSession(startedSession("2", clock, Duration.ofMinutes(31))).block();
+		this.store.storeSession(startedSession("3", clock, Duration.ZERO)).block();
+
+		assertEquals(0, this.store.getEvictedSessionCount());
+		assertEquals(1, this.store.getExpiredSessionCount());
+		assertNotNull(this.store.retrieveSession("1").block());
+		assertNotNull(this.store.retrieveSession("3").block());
+	}
+
+
+	private static DefaultWebSession startedSession(String id, Clock clock, Duration idleTime) {
+		DefaultWebSession session = new DefaultWebSession(id, clock);
+		session.start();
+		session.setLastAccessTime(Instant.now(clock).minus(idleTime));
+		return session;
+	}
+
+}
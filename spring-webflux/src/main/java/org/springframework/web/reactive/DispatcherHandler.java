@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,6 +37,7 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebHandler;
 import org.springframework.web.server.adapter.HttpWebHandlerAdapter;
 import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import org.springframework.web.server.trace.RequestTrace;
 
 /**
  * Central dispatcher for HTTP request handlers/controllers. Dispatches to registered
@@ -122,9 +123,14 @@ public class DispatcherHandler implements WebHandler, ApplicationContextAware {
 			ServerHttpRequest request = exchange.getRequest();
 			logger.debug("Processing " + request.getMethod() + " request for [" + request.getURI() + "]");
 		}
-		return Flux.fromIterable(this.handlerMappings)
+		Mono<Object> handlerMono = Flux.fromIterable(this.handlerMappings)
 				.concatMap(mapping -> mapping.getHandler(exchange))
-				.next()
+				.next();
+		RequestTrace trace = RequestTrace.get(exchange);
+		if (trace != null) {
+			handlerMono = trace.record(RequestTrace.Phase.HANDLER_MAPPING, handlerMono);
+		}
+		return handlerMono
 				.otherwiseIfEmpty(Mono.error(HANDLER_NOT_FOUND_EXCEPTION))
 				.then(handler -> invokeHandler(exchange, handler))
 				.then(result -> handleResult(exchange, result));
@@ -52,6 +52,8 @@ class DefaultWebClientBuilder implements WebClient.Builder {
 
 	private ExchangeFunction exchangeFunction;
 
+	private ExchangeObserver exchangeObserver;
+
 
 	@Override
 	public WebClient.Builder baseUrl(String baseUrl) {
@@ -110,6 +112,12 @@ class DefaultWebClientBuilder implements WebClient.Builder {
 		return this;
 	}
 
+	@Override
+	public WebClient.Builder exchangeObserver(ExchangeObserver observer) {
+		this.exchangeObserver = observer;
+		return this;
+	}
+
 	@Override
 	public WebClient build() {
 		return new DefaultWebClient(initExchangeFunction(), initUriBuilderFactory(),
@@ -132,11 +140,12 @@ class DefaultWebClientBuilder implements WebClient.Builder {
 			return this.exchangeFunction;
 		}
 		else if (this.connector != null) {
-			return ExchangeFunctions.create(this.connector, this.exchangeStrategies);
+			return ExchangeFunctions.create(this.connector, this.exchangeStrategies, this.exchangeObserver);
 		}
 
 		else {
-			return ExchangeFunctions.create(new ReactorClientHttpConnector(), this.exchangeStrategies);
+			return ExchangeFunctions.create(new ReactorClientHttpConnector(), this.exchangeStrategies,
+					this.exchangeObserver);
 		}
 	}
 
@@ -18,9 +18,17 @@ package org.springframework.web.reactive.function.client;
 
 import java.util.logging.Level;
 
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.http.client.reactive.ClientHttpResponseDecorator;
 import org.springframework.util.Assert;
 
 /**
@@ -50,9 +58,23 @@ public abstract class ExchangeFunctions {
 	 * @return the created function
 	 */
 	public static ExchangeFunction create(ClientHttpConnector connector, ExchangeStrategies strategies) {
+		return create(connector, strategies, null);
+	}
+
+	/**
+	 * Create a new {@link ExchangeFunction} with the given connector and strategies,
+	 * reporting the timings and byte counts of each exchange to the given observer.
+	 * @param connector the connector to create connections
+	 * @param strategies the strategies to use
+	 * @param observer the observer to notify, or {@code null} for none
+	 * @return the created function
+	 */
+	public static ExchangeFunction create(ClientHttpConnector connector, ExchangeStrategies strategies,
+			ExchangeObserver observer) {
+
 		Assert.notNull(connector, "'connector' must not be null");
 		Assert.notNull(strategies, "'strategies' must not be null");
-		return new DefaultExchangeFunction(connector, strategies);
+		return new DefaultExchangeFunction(connector, strategies, observer);
 	}
 
 
@@ -62,14 +84,22 @@ public abstract class ExchangeFunctions {
 
 		private final ExchangeStrategies strategies;
 
-		public DefaultExchangeFunction(ClientHttpConnector connector, ExchangeStrategies strategies) {
+		private final ExchangeObserver observer;
+
+		public DefaultExchangeFunction(ClientHttpConnector connector, ExchangeStrategies strategies,
+				ExchangeObserver observer) {
+
 			this.connector = connector;
 			this.strategies = strategies;
+			this.observer = observer;
 		}
 
 		@Override
 		public Mono<ClientResponse> exchange(ClientRequest request) {
 			Assert.notNull(request, "'request' must not be null");
+			if (this.observer != null) {
+				return Mono.defer(() -> exchange(request, new ExchangeObservation(request)));
+			}
 			return this.connector
 					.connect(request.method(), request.url(),
 							clientHttpRequest -> request.writeTo(clientHttpRequest, this.strategies))
@@ -77,6 +107,87 @@ public abstract class ExchangeFunctions {
 					.map(clientHttpResponse -> new DefaultClientResponse(clientHttpResponse,
 							this.strategies));
 		}
+
+		private Mono<ClientResponse> exchange(ClientRequest request, ExchangeObservation observation) {
+			return this.connector
+					.connect(request.method(), request.url(),
+							clientHttpRequest -> {
+								observation.connected();
+								return request.writeTo(
+										new ObservedClientHttpRequest(clientHttpRequest, observation), this.strategies);
+							})
+					.log("org.springframework.web.reactive.function.client", Level.FINE)
+					.doOnError(ex -> complete(observation, SignalType.ON_ERROR, ex))
+					.map(clientHttpResponse -> {
+						observation.responseReceived(clientHttpResponse.getStatusCode());
+						return new DefaultClientResponse(
+								new ObservedClientHttpResponse(clientHttpResponse, observation), this.strategies);
+					})
+					.doFinally(signalType -> {
+						// Cancelled before the response, or the body was not subscribed to
+						// along with the response and may never be: report now.
+						if (signalType == SignalType.CANCEL || !observation.isBodySubscribed()) {
+							complete(observation, signalType, null);
+						}
+					});
+		}
+
+		private void complete(ExchangeObservation observation, SignalType signalType, Throwable error) {
+			if (observation.complete(signalType, error)) {
+				this.observer.onExchangeComplete(observation);
+			}
+		}
+
+
+		/**
+		 * Request decorator that counts the bytes of the request body.
+		 */
+		private static class ObservedClientHttpRequest extends ClientHttpRequestDecorator {
+
+			private final ExchangeObservation observation;
+
+			public ObservedClientHttpRequest(ClientHttpRequest delegate, ExchangeObservation observation) {
+				super(delegate);
+				this.observation = observation;
+			}
+
+			@Override
+			public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+				return super.writeWith(Flux.from(body)
+						.doOnNext(buffer -> this.observation.requestBytesWritten(buffer.readableByteCount())));
+			}
+
+			@Override
+			public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+				return super.writeAndFlushWith(Flux.from(body)
+						.map(publisher -> Flux.from(publisher)
+								.doOnNext(buffer -> this.observation.requestBytesWritten(buffer.readableByteCount()))));
+			}
+		}
+
+
+		/**
+		 * Response decorator that counts the bytes of the response body, and
+		 * completes the observation when the body terminates in any way.
+		 */
+		private class ObservedClientHttpResponse extends ClientHttpResponseDecorator {
+
+			private final ExchangeObservation observation;
+
+			public ObservedClientHttpResponse(ClientHttpResponse delegate, ExchangeObservation observation) {
+				super(delegate);
+				this.observation = observation;
+			}
+
+			@Override
+			public Flux<DataBuffer> getBody() {
+				return super.getBody()
+						.doOnSubscribe(subscription -> this.observation.bodySubscribed())
+						.doOnNext(buffer -> this.observation.responseBytesRead(buffer.readableByteCount()))
+						.doOnError(ex -> complete(this.observation, SignalType.ON_ERROR, ex))
+						.doFinally(signalType -> complete(this.observation, signalType, null));
+			}
+		}
 	}
 
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import reactor.core.publisher.SignalType;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The timings and byte counts of a single exchange, as reported to an
+ * {@link ExchangeObserver}.
+ *
+ * <p>All times are in nanoseconds and measured from the moment the exchange is
+ * subscribed to. A phase that was not reached, e.g. because the connection
+ * could not be established, is reported as -1.
+ *
+ * <p>The body read time is measured at the level of the raw response body
+ * buffers, from the moment the response headers were received until the body
+ * terminated. It reflects how fast the server sent the body and how fast it
+ * was consumed, and does not isolate the time spent decoding it.
+ *
+ * @since 5.0
+ */
+public final class ExchangeObservation {
+
+	private static final AtomicIntegerFieldUpdater<ExchangeObservation> COMPLETED_UPDATER =
+			AtomicIntegerFieldUpdater.newUpdater(ExchangeObservation.class, "completed");
+
+
+	private final ClientRequest request;
+
+	private final long startNanos;
+
+	private volatile long connectNanos = -1;
+
+	private volatile long firstByteNanos = -1;
+
+	private volatile long bodyReadNanos = -1;
+
+	private volatile long completeNanos = -1;
+
+	private volatile long requestBytes;
+
+	private volatile long responseBytes;
+
+	private volatile HttpStatus statusCode;
+
+	private volatile boolean bodySubscribed;
+
+	private volatile SignalType signalType;
+
+	private volatile Throwable error;
+
+	private volatile int completed;
+
+
+	ExchangeObservation(ClientRequest request) {
+		this.request = request;
+		this.startNanos = System.nanoTime();
+	}
+
+
+	/**
+	 * Return the observed request.
+	 */
+	public ClientRequest getRequest() {
+		return this.request;
+	}
+
+	/**
+	 * Return the time it took to acquire a connection, as signalled by the
+	 * connector when the request is ready to be written.
+	 */
+	public long getConnectNanos() {
+		return this.connectNanos;
+	}
+
+	/**
+	 * Return the time until the status and headers of the response were
+	 * received, including the time to connect and to write the request.
+	 */
+	public long getTimeToFirstByteNanos() {
+		return this.firstByteNanos;
+	}
+
+	/**
+	 * Return the time it took to read the raw response body, i.e. from the
+	 * moment the response headers were received until the body completed,
+	 * failed, or was cancelled, or -1 if the body was not subscribed to.
+	 */
+	public long getBodyReadNanos() {
+		return this.bodyReadNanos;
+	}
+
+	/**
+	 * Return the total duration of the exchange.
+	 */
+	public long getTotalNanos() {
+		return this.completeNanos;
+	}
+
+	/**
+	 * Return the number of request body bytes written.
+	 */
+	public long getRequestBytes() {
+		return this.requestBytes;
+	}
+
+	/**
+	 * Return the number of response body bytes read.
+	 */
+	public long getResponseBytes() {
+		return this.responseBytes;
+	}
+
+	/**
+	 * Return the response status, or {@code null} if no response was received.
+	 */
+	public HttpStatus getStatusCode() {
+		return this.statusCode;
+	}
+
+	/**
+	 * Return how the exchange terminated, i.e. {@link SignalType#ON_COMPLETE},
+	 * {@link SignalType#ON_ERROR}, or {@link SignalType#CANCEL}.
+	 */
+	public SignalType getSignalType() {
+		return this.signalType;
+	}
+
+	/**
+	 * Return the error the exchange failed with, or {@code null} if none.
+	 */
+	public Throwable getError() {
+		return this.error;
+	}
+
+
+	void connected() {
+		this.connectNanos = System.nanoTime() - this.startNanos;
+	}
+
+	void requestBytesWritten(int count) {
+		this.requestBytes += count;
+	}
+
+	void responseReceived(HttpStatus statusCode) {
+		this.firstByteNanos = System.nanoTime() - this.startNanos;
+		this.statusCode = statusCode;
+	}
+
+	void bodySubscribed() {
+		this.bodySubscribed = true;
+	}
+
+	boolean isBodySubscribed() {
+		return this.bodySubscribed;
+	}
+
+	void responseBytesRead(int count) {
+		this.responseBytes += count;
+	}
+
+	/**
+	 * Mark the exchange as complete, with the given error if any.
+	 * @return {@code true} if this was the first completion signal
+	 */
+	boolean complete(SignalType signalType, Throwable error) {
+		if (!COMPLETED_UPDATER.compareAndSet(this, 0, 1)) {
+			return false;
+		}
+		this.completeNanos = System.nanoTime() - this.startNanos;
+		if (this.bodySubscribed && this.firstByteNanos != -1) {
+			this.bodyReadNanos = this.completeNanos - this.firstByteNanos;
+		}
+		this.signalType = signalType;
+		this.error = error;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ExchangeObservation{" + this.request.method() + " " + this.request.url() +
+				", signal=" + this.signalType + ", status=" + this.statusCode + ", connect=" + this.connectNanos +
+				"ns, firstByte=" + this.firstByteNanos + "ns, bodyRead=" + getBodyReadNanos() +
+				"ns, sent=" + this.requestBytes + "B, received=" + this.responseBytes + "B}";
+	}
+
+}
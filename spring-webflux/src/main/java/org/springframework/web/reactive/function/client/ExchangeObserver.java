@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+/**
+ * Callback notified of the timings and byte counts of each exchange performed
+ * by an {@link ExchangeFunction} created through {@link ExchangeFunctions}.
+ *
+ * <p>Unlike an {@link ExchangeFilterFunction}, an observer does not wrap the
+ * exchange, and is notified once only, on completion. The observer is
+ * invoked on the thread that completed the exchange, and must not block.
+ *
+ * @since 5.0
+ * @see ExchangeFunctions#create(org.springframework.http.client.reactive.ClientHttpConnector, ExchangeStrategies, ExchangeObserver)
+ * @see WebClient.Builder#exchangeObserver(ExchangeObserver)
+ * @see HistogramExchangeObserver
+ */
+@FunctionalInterface
+public interface ExchangeObserver {
+
+	/**
+	 * Invoked when an exchange completes, i.e. once the response body has been
+	 * consumed, has failed, or was cancelled, or when the exchange failed or
+	 * was cancelled before a response was received.
+	 * <p>If the response body is not subscribed to by the time the response
+	 * has been emitted, e.g. when only the status is checked, the exchange is
+	 * reported at that point, without a body read time.
+	 * @param observation the timings and byte counts of the exchange
+	 */
+	void onExchangeComplete(ExchangeObservation observation);
+
+}
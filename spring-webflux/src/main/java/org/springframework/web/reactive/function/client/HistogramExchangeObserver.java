@@ -0,0 +1,230 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import reactor.core.publisher.SignalType;
+
+import org.springframework.util.LatencyHistogram;
+
+/**
+ * {@link ExchangeObserver} that records the phases of each exchange in
+ * {@link LatencyHistogram}s, both in total and per target host, so that slow
+ * downstream services can be identified without an external agent.
+ *
+ * <p>Recording does not allocate once a host has been seen, and does not lock.
+ * The number of hosts tracked individually is bounded by
+ * {@link #setMaxHosts maxHosts}; exchanges with further hosts are only
+ * recorded in the totals.
+ *
+ * @since 5.0
+ */
+public class HistogramExchangeObserver implements ExchangeObserver {
+
+	private final ExchangeHistograms total = new ExchangeHistograms();
+
+	private final Map<String, ExchangeHistograms> hosts = new ConcurrentHashMap<>();
+
+	private int maxHosts = 256;
+
+
+	/**
+	 * Set the maximum number of hosts, i.e. URL authorities, to record
+	 * histograms for individually.
+	 * <p>By default this is set to 256.
+	 */
+	public void setMaxHosts(int maxHosts) {
+		this.maxHosts = maxHosts;
+	}
+
+	/**
+	 * Return the maximum number of hosts to record histograms for individually.
+	 */
+	public int getMaxHosts() {
+		return this.maxHosts;
+	}
+
+
+	@Override
+	public void onExchangeComplete(ExchangeObservation observation) {
+		this.total.record(observation);
+		String host = observation.getRequest().url().getRawAuthority();
+		if (host != null) {
+			ExchangeHistograms histograms = this.hosts.get(host);
+			if (histograms == null && this.hosts.size() < this.maxHosts) {
+				histograms = this.hosts.computeIfAbsent(host, key -> new ExchangeHistograms());
+			}
+			if (histograms != null) {
+				histograms.record(observation);
+			}
+		}
+	}
+
+	/**
+	 * Return the histograms for all exchanges.
+	 */
+	public ExchangeHistograms getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * Return the histograms for the exchanges with the given host, in the form
+	 * of a URL authority such as {@code "example.org:8080"}, or {@code null}
+	 * if none were recorded.
+	 */
+	public ExchangeHistograms getHost(String host) {
+		return this.hosts.get(host);
+	}
+
+	/**
+	 * Return the histograms of all hosts recorded individually, keyed by
+	 * URL authority.
+	 */
+	public Map<String, ExchangeHistograms> getHosts() {
+		return Collections.unmodifiableMap(this.hosts);
+	}
+
+	/**
+	 * Clear all recorded exchanges.
+	 */
+	public void reset() {
+		this.total.reset();
+		this.hosts.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "HistogramExchangeObserver [" + this.total + "]";
+	}
+
+
+	/**
+	 * The histograms of the phases of a set of exchanges, in nanoseconds.
+	 */
+	public static class ExchangeHistograms {
+
+		private final LatencyHistogram connect = new LatencyHistogram();
+
+		private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+
+		private final LatencyHistogram bodyRead = new LatencyHistogram();
+
+		private final LongAdder requestBytes = new LongAdder();
+
+		private final LongAdder responseBytes = new LongAdder();
+
+		private final LongAdder errorCount = new LongAdder();
+
+		private final LongAdder cancelledCount = new LongAdder();
+
+		void record(ExchangeObservation observation) {
+			if (observation.getConnectNanos() != -1) {
+				this.connect.record(observation.getConnectNanos());
+			}
+			if (observation.getTimeToFirstByteNanos() != -1) {
+				this.timeToFirstByte.record(observation.getTimeToFirstByteNanos());
+			}
+			if (observation.getBodyReadNanos() != -1) {
+				this.bodyRead.record(observation.getBodyReadNanos());
+			}
+			this.requestBytes.add(observation.getRequestBytes());
+			this.responseBytes.add(observation.getResponseBytes());
+			if (observation.getError() != null) {
+				this.errorCount.increment();
+			}
+			if (observation.getSignalType() == SignalType.CANCEL) {
+				this.cancelledCount.increment();
+			}
+		}
+
+		/**
+		 * Return the histogram of the time to acquire a connection.
+		 */
+		public LatencyHistogram getConnect() {
+			return this.connect;
+		}
+
+		/**
+		 * Return the histogram of the time until the response headers were received.
+		 */
+		public LatencyHistogram getTimeToFirstByte() {
+			return this.timeToFirstByte;
+		}
+
+		/**
+		 * Return the histogram of the time to read the raw response body.
+		 * Exchanges whose body was not subscribed to are not recorded.
+		 * @see ExchangeObservation#getBodyReadNanos()
+		 */
+		public LatencyHistogram getBodyRead() {
+			return this.bodyRead;
+		}
+
+		/**
+		 * Return the total number of request body bytes written.
+		 */
+		public long getRequestBytes() {
+			return this.requestBytes.sum();
+		}
+
+		/**
+		 * Return the total number of response body bytes read.
+		 */
+		public long getResponseBytes() {
+			return this.responseBytes.sum();
+		}
+
+		/**
+		 * Return the number of exchanges that completed with an error.
+		 */
+		public long getErrorCount() {
+			return this.errorCount.sum();
+		}
+
+		/**
+		 * Return the number of exchanges that were cancelled before completing.
+		 */
+		public long getCancelledCount() {
+			return this.cancelledCount.sum();
+		}
+
+		void reset() {
+			this.connect.reset();
+			this.timeToFirstByte.reset();
+			this.bodyRead.reset();
+			this.requestBytes.reset();
+			this.responseBytes.reset();
+			this.errorCount.reset();
+			this.cancelledCount.reset();
+		}
+
+		@Override
+		public String toString() {
+			return "connect: " + this.connect.toSummaryString(TimeUnit.NANOSECONDS) +
+					"; firstByte: " + this.timeToFirstByte.toSummaryString(TimeUnit.NANOSECONDS) +
+					"; bodyRead: " + this.bodyRead.toSummaryString(TimeUnit.NANOSECONDS) +
+					"; sent=" + getRequestBytes() + "B, received=" + getResponseBytes() +
+					"B, errors=" + getErrorCount() + ", cancelled=" + getCancelledCount();
+		}
+	}
+
+}
@@ -265,6 +265,16 @@ public interface WebClient {
 		 */
 		Builder exchangeFunction(ExchangeFunction exchangeFunction);
 
+		/**
+		 * Configure an {@link ExchangeObserver} to notify of the timings and
+		 * byte counts of each exchange, e.g. a {@link HistogramExchangeObserver}.
+		 * <p>This is ignored if an {@link #exchangeFunction(ExchangeFunction)
+		 * ExchangeFunction} is provided.
+		 * @param observer the observer to use
+		 * @see ExchangeFunctions#create(ClientHttpConnector, ExchangeStrategies, ExchangeObserver)
+		 */
+		Builder exchangeObserver(ExchangeObserver observer);
+
 		/**
 		 * Builder the {@link WebClient} instance.
 		 */
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.util.patterns.PathPattern;
+
+/**
+ * A {@link RouterFunction} compiled from a composed router function through
+ * {@link RouterFunctions#compile(RouterFunction)}.
+ *
+ * <p>The composed function is flattened into an ordered list of routes, each
+ * with the HTTP method and the leading literal path segment it requires, if
+ * any. A request is only tested against the routes that can match its method
+ * and first path segment, in their original order. The predicates of those
+ * routes are still evaluated in full, e.g. to extract URI template variables.
+ *
+ * @since 5.0
+ * @param <T> the type of the {@linkplain HandlerFunction handler function} to route to
+ */
+public class CompiledRouterFunction<T extends ServerResponse> implements RouterFunction<T> {
+
+	private static final String ANY_SEGMENT = "";
+
+
+	private final List<Route> routes = new ArrayList<>();
+
+	/** Candidate routes by HTTP method, then by first path segment (lower case) */
+	private final Map<HttpMethod, Map<String, Route[]>> methodTable = new EnumMap<>(HttpMethod.class);
+
+	/** Candidate routes for requests without a (known) HTTP method */
+	private final Map<String, Route[]> anyMethodTable;
+
+
+	CompiledRouterFunction(RouterFunction<T> routerFunction) {
+		flatten(routerFunction, Collections.emptyList());
+		for (HttpMethod method : HttpMethod.values()) {
+			this.methodTable.put(method, buildSegmentTable(method));
+		}
+		this.anyMethodTable = buildSegmentTable(null);
+	}
+
+
+	/**
+	 * Return the routes of this function in evaluation order.
+	 */
+	public List<Route> getRoutes() {
+		return Collections.unmodifiableList(this.routes);
+	}
+
+	@Override
+	public Mono<HandlerFunction<T>> route(ServerRequest request) {
+		HttpMethod method = request.method();
+		Map<String, Route[]> segmentTable = (method != null ? this.methodTable.get(method) : this.anyMethodTable);
+		Route[] candidates = segmentTable.get(firstSegment(request.path()));
+		if (candidates == null) {
+			candidates = segmentTable.get(ANY_SEGMENT);
+		}
+		return route(request, candidates, 0);
+	}
+
+	private Mono<HandlerFunction<T>> route(ServerRequest request, Route[] candidates, int index) {
+		for (int i = index; i < candidates.length; i++) {
+			Route route = candidates[i];
+			ServerRequest nestedRequest = route.testNestPredicates(request);
+			if (nestedRequest == null) {
+				continue;
+			}
+			if (route.handlerFunction != null) {
+				if (route.predicate.test(nestedRequest)) {
+					route.matchCount.incrementAndGet();
+					return Mono.just(RouterFunctions.cast(route.handlerFunction));
+				}
+			}
+			else {
+				int next = i + 1;
+				return route.routerFunction.route(nestedRequest)
+						.map(RouterFunctions::<T>cast)
+						.doOnNext(handlerFunction -> route.matchCount.incrementAndGet())
+						.otherwiseIfEmpty(Mono.defer(() -> route(request, candidates, next)));
+			}
+		}
+		return Mono.empty();
+	}
+
+
+	private void flatten(RouterFunction<?> routerFunction, List<RequestPredicate> nestPredicates) {
+		if (routerFunction instanceof RouterFunctions.ComposedRouterFunction) {
+			RouterFunctions.ComposedRouterFunction<?> composed = (RouterFunctions.ComposedRouterFunction<?>) routerFunction;
+			flatten(composed.first, nestPredicates);
+			flatten(composed.second, nestPredicates);
+		}
+		else if (routerFunction instanceof RouterFunctions.DefaultNestedRouterFunction) {
+			RouterFunctions.DefaultNestedRouterFunction<?> nested =
+					(RouterFunctions.DefaultNestedRouterFunction<?>) routerFunction;
+			List<RequestPredicate> predicates = new ArrayList<>(nestPredicates);
+			predicates.add(nested.predicate);
+			flatten(nested.routerFunction, predicates);
+		}
+		else if (routerFunction instanceof RouterFunctions.DefaultRouterFunction) {
+			RouterFunctions.DefaultRouterFunction<?> route = (RouterFunctions.DefaultRouterFunction<?>) routerFunction;
+			this.routes.add(new Route(nestPredicates, route.predicate, route.handlerFunction, null));
+		}
+		else {
+			this.routes.add(new Route(nestPredicates, null, null, routerFunction));
+		}
+	}
+
+	private Map<String, Route[]> buildSegmentTable(HttpMethod method) {
+		Set<String> segments = new LinkedHashSet<>();
+		segments.add(ANY_SEGMENT);
+		for (Route route : this.routes) {
+			if (route.segment != null) {
+				segments.add(route.segment);
+			}
+		}
+		Map<String, Route[]> table = new HashMap<>(segments.size() * 2);
+		for (String segment : segments) {
+			List<Route> candidates = new ArrayList<>();
+			for (Route route : this.routes) {
+				if ((route.method == null || route.method == method) &&
+						(route.segment == null || route.segment.equals(segment))) {
+					candidates.add(route);
+				}
+			}
+			table.put(segment, candidates.toArray(new Route[candidates.size()]));
+		}
+		return table;
+	}
+
+	private static String firstSegment(String path) {
+		if (path == null || path.length() < 2 || path.charAt(0) != '/') {
+			return ANY_SEGMENT;
+		}
+		int end = path.indexOf('/', 1);
+		return (end != -1 ? path.substring(1, end) : path.substring(1)).toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Return the leading literal segment of the given pattern, in lower case,
+	 * or {@code null} if the pattern does not start with one.
+	 */
+	private static String firstLiteralSegment(PathPattern pattern) {
+		String patternString = pattern.getPatternString();
+		if (pattern.getSeparator() != '/' || patternString.length() < 2 || patternString.charAt(0) != '/') {
+			return null;
+		}
+		int end = patternString.indexOf('/', 1);
+		String segment = (end != -1 ? patternString.substring(1, end) : patternString.substring(1));
+		if (segment.isEmpty()) {
+			return null;
+		}
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '{' || c == '*' || c == '?' || c == '\\' || c > 127) {
+				return null;
+			}
+		}
+		return segment.toLowerCase(Locale.ENGLISH);
+	}
+
+
+	/**
+	 * A single route of a {@link CompiledRouterFunction}.
+	 */
+	public static final class Route {
+
+		private final RequestPredicate[] nestPredicates;
+
+		private final RequestPredicate predicate;
+
+		private final HandlerFunction<?> handlerFunction;
+
+		private final RouterFunction<?> routerFunction;
+
+		private final HttpMethod method;
+
+		private final String segment;
+
+		private final AtomicLong matchCount = new AtomicLong();
+
+		Route(List<RequestPredicate> nestPredicates, RequestPredicate predicate,
+				HandlerFunction<?> handlerFunction, RouterFunction<?> routerFunction) {
+
+			this.nestPredicates = nestPredicates.toArray(new RequestPredicate[nestPredicates.size()]);
+			this.predicate = predicate;
+			this.handlerFunction = handlerFunction;
+			this.routerFunction = routerFunction;
+
+			// HTTP method predicates do not depend on nesting: use the first one at any level
+			HttpMethod method = null;
+			for (RequestPredicate nestPredicate : this.nestPredicates) {
+				method = RequestPredicates.getRequiredMethod(nestPredicate);
+				if (method != null) {
+					break;
+				}
+			}
+			if (method == null && predicate != null) {
+				method = RequestPredicates.getRequiredMethod(predicate);
+			}
+			this.method = method;
+
+			// Nested predicates see a sub-path: only the outermost predicate sees the request path
+			RequestPredicate outermost = (this.nestPredicates.length > 0 ? this.nestPredicates[0] : predicate);
+			PathPattern pattern = (outermost != null ? RequestPredicates.getRequiredPathPattern(outermost) : null);
+			this.segment = (pattern != null ? firstLiteralSegment(pattern) : null);
+		}
+
+		/**
+		 * Test the predicates of all enclosing nested routes, returning the
+		 * nested request to route, or {@code null} if any of them does not match.
+		 */
+		ServerRequest testNestPredicates(ServerRequest request) {
+			for (RequestPredicate nestPredicate : this.nestPredicates) {
+				if (!nestPredicate.test(request)) {
+					return null;
+				}
+				request = nestPredicate.nestRequest(request);
+			}
+			return request;
+		}
+
+		/**
+		 * Return the HTTP method this route requires, or {@code null} if any.
+		 */
+		public HttpMethod getMethod() {
+			return this.method;
+		}
+
+		/**
+		 * Return the number of requests routed to this route so far.
+		 */
+		public long getMatchCount() {
+			return this.matchCount.get();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			for (RequestPredicate nestPredicate : this.nestPredicates) {
+				sb.append(nestPredicate).append(" -> ");
+			}
+			sb.append(this.predicate != null ? this.predicate : this.routerFunction);
+			return sb.toString();
+		}
+	}
+
+}
@@ -47,20 +47,7 @@ public interface RequestPredicate {
 	 */
 	default RequestPredicate and(RequestPredicate other) {
 		Assert.notNull(other, "'other' must not be null");
-		return new RequestPredicate() {
-			@Override
-			public boolean test(ServerRequest t) {
-				return RequestPredicate.this.test(t) && other.test(t);
-			}
-			@Override
-			public ServerRequest nestRequest(ServerRequest request) {
-				return other.nestRequest(RequestPredicate.this.nestRequest(request));
-			}
-			@Override
-			public String toString() {
-				return String.format("(%s && %s)", RequestPredicate.this, other);
-			}
-		};
+		return new RequestPredicates.AndRequestPredicate(this, other);
 	}
 
 	/**
@@ -320,6 +320,72 @@ public abstract class RequestPredicates {
 	}
 
 
+	/**
+	 * Return the HTTP method that a request must have for the given predicate
+	 * to match, or {@code null} if the predicate does not restrict the method.
+	 * Used by {@link CompiledRouterFunction} to build its method table.
+	 */
+	static HttpMethod getRequiredMethod(RequestPredicate predicate) {
+		if (predicate instanceof HttpMethodPredicate) {
+			return ((HttpMethodPredicate) predicate).httpMethod;
+		}
+		else if (predicate instanceof AndRequestPredicate) {
+			AndRequestPredicate and = (AndRequestPredicate) predicate;
+			HttpMethod method = getRequiredMethod(and.left);
+			return (method != null ? method : getRequiredMethod(and.right));
+		}
+		return null;
+	}
+
+	/**
+	 * Return a path pattern that the path of a request must match for the given
+	 * predicate to match, or {@code null} if the predicate does not restrict the path.
+	 * Used by {@link CompiledRouterFunction} to build its path index.
+	 */
+	static PathPattern getRequiredPathPattern(RequestPredicate predicate) {
+		if (predicate instanceof PathPatternPredicate) {
+			return ((PathPatternPredicate) predicate).pattern;
+		}
+		else if (predicate instanceof AndRequestPredicate) {
+			AndRequestPredicate and = (AndRequestPredicate) predicate;
+			PathPattern pattern = getRequiredPathPattern(and.left);
+			return (pattern != null ? pattern : getRequiredPathPattern(and.right));
+		}
+		return null;
+	}
+
+
+	/**
+	 * {@link RequestPredicate} returned from {@link RequestPredicate#and(RequestPredicate)}.
+	 */
+	static class AndRequestPredicate implements RequestPredicate {
+
+		private final RequestPredicate left;
+
+		private final RequestPredicate right;
+
+		public AndRequestPredicate(RequestPredicate left, RequestPredicate right) {
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public boolean test(ServerRequest t) {
+			return this.left.test(t) && this.right.test(t);
+		}
+
+		@Override
+		public ServerRequest nestRequest(ServerRequest request) {
+			return this.right.nestRequest(this.left.nestRequest(request));
+		}
+
+		@Override
+		public String toString() {
+			return String.format("(%s && %s)", this.left, this.right);
+		}
+	}
+
+
 	private static class HttpMethodPredicate implements RequestPredicate {
 
 		private final HttpMethod httpMethod;
@@ -47,8 +47,7 @@ public interface RouterFunction<T extends ServerResponse> {
 	 * @see #andOther(RouterFunction)
 	 */
 	default RouterFunction<T> and(RouterFunction<T> other) {
-		return request -> this.route(request)
-				.otherwiseIfEmpty(Mono.defer(() -> other.route(request)));
+		return new RouterFunctions.ComposedRouterFunction<>(this, other);
 	}
 
 	/**
@@ -61,10 +60,7 @@ public interface RouterFunction<T extends ServerResponse> {
 	 * @see #and(RouterFunction)
 	 */
 	default RouterFunction<?> andOther(RouterFunction<?> other) {
-		return request -> this.route(request)
-				.map(RouterFunctions::cast)
-				.otherwiseIfEmpty(
-						Mono.defer(() -> other.route(request).map(RouterFunctions::cast)));
+		return new RouterFunctions.ComposedRouterFunction<>(this, other);
 	}
 
 	/**
@@ -93,18 +93,7 @@ public abstract class RouterFunctions {
 		Assert.notNull(predicate, "'predicate' must not be null");
 		Assert.notNull(handlerFunction, "'handlerFunction' must not be null");
 
-		return request -> {
-			if (predicate.test(request)) {
-				if (logger.isDebugEnabled()) {
-					logger.debug(String.format("Predicate \"%s\" matches against \"%s\"",
-							predicate, request));
-				}
-				return Mono.just(handlerFunction);
-			}
-			else {
-				return Mono.empty();
-			}
-		};
+		return new DefaultRouterFunction<>(predicate, handlerFunction);
 	}
 
 	/**
@@ -136,19 +125,7 @@ public abstract class RouterFunctions {
 		Assert.notNull(predicate, "'predicate' must not be null");
 		Assert.notNull(routerFunction, "'routerFunction' must not be null");
 
-		return request -> {
-			if (predicate.test(request)) {
-				if (logger.isDebugEnabled()) {
-					logger.debug(String.format("Nested predicate \"%s\" matches against \"%s\"",
-							predicate, request));
-				}
-				ServerRequest subRequest = predicate.nestRequest(request);
-				return routerFunction.route(subRequest);
-			}
-			else {
-				return Mono.empty();
-			}
-		};
+		return new DefaultNestedRouterFunction<>(predicate, routerFunction);
 	}
 
 	/**
@@ -180,6 +157,26 @@ public abstract class RouterFunctions {
 		return request -> lookupFunction.apply(request).map(ResourceHandlerFunction::new);
 	}
 
+	/**
+	 * Compile the given router function into an equivalent one that dispatches
+	 * through a table of HTTP methods and leading literal path segments.
+	 * <p>Router functions composed with {@link #route}, {@link #nest},
+	 * {@link RouterFunction#and} and {@link RouterFunction#andOther}, and their
+	 * variants, are flattened into an ordered list of routes. For each request
+	 * only the routes whose HTTP method and leading path segment can match are
+	 * evaluated, in their original order, so the first matching route wins as
+	 * before. Other router functions, e.g. created through {@link #resources} or
+	 * {@link RouterFunction#filter}, are kept as opaque routes.
+	 * <p>The returned function also keeps a match counter per route.
+	 * @param routerFunction the router function to compile
+	 * @param <T> the type of response returned by the handler functions
+	 * @return the compiled router function
+	 */
+	public static <T extends ServerResponse> CompiledRouterFunction<T> compile(RouterFunction<T> routerFunction) {
+		Assert.notNull(routerFunction, "RouterFunction must not be null");
+		return new CompiledRouterFunction<>(routerFunction);
+	}
+
 	/**
 	 * Convert the given {@linkplain RouterFunction router function} into a {@link HttpHandler}.
 	 * This conversion uses {@linkplain HandlerStrategies#builder() default strategies}.
@@ -303,4 +300,89 @@ public abstract class RouterFunctions {
 		return (HandlerFunction<T>) handlerFunction;
 	}
 
+
+	/**
+	 * {@link RouterFunction} returned from {@link #route(RequestPredicate, HandlerFunction)}.
+	 */
+	static class DefaultRouterFunction<T extends ServerResponse> implements RouterFunction<T> {
+
+		final RequestPredicate predicate;
+
+		final HandlerFunction<T> handlerFunction;
+
+		public DefaultRouterFunction(RequestPredicate predicate, HandlerFunction<T> handlerFunction) {
+			this.predicate = predicate;
+			this.handlerFunction = handlerFunction;
+		}
+
+		@Override
+		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			if (this.predicate.test(request)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format("Predicate \"%s\" matches against \"%s\"",
+							this.predicate, request));
+				}
+				return Mono.just(this.handlerFunction);
+			}
+			else {
+				return Mono.empty();
+			}
+		}
+	}
+
+
+	/**
+	 * {@link RouterFunction} returned from {@link #nest(RequestPredicate, RouterFunction)}.
+	 */
+	static class DefaultNestedRouterFunction<T extends ServerResponse> implements RouterFunction<T> {
+
+		final RequestPredicate predicate;
+
+		final RouterFunction<T> routerFunction;
+
+		public DefaultNestedRouterFunction(RequestPredicate predicate, RouterFunction<T> routerFunction) {
+			this.predicate = predicate;
+			this.routerFunction = routerFunction;
+		}
+
+		@Override
+		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			if (this.predicate.test(request)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format("Nested predicate \"%s\" matches against \"%s\"",
+							this.predicate, request));
+				}
+				ServerRequest subRequest = this.predicate.nestRequest(request);
+				return this.routerFunction.route(subRequest);
+			}
+			else {
+				return Mono.empty();
+			}
+		}
+	}
+
+
+	/**
+	 * {@link RouterFunction} returned from {@link RouterFunction#and(RouterFunction)}
+	 * and {@link RouterFunction#andOther(RouterFunction)}.
+	 */
+	static class ComposedRouterFunction<T extends ServerResponse> implements RouterFunction<T> {
+
+		final RouterFunction<?> first;
+
+		final RouterFunction<?> second;
+
+		public ComposedRouterFunction(RouterFunction<?> first, RouterFunction<?> second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			return this.first.route(request)
+					.map(RouterFunctions::<T>cast)
+					.otherwiseIfEmpty(Mono.defer(() -> this.second.route(request).map(RouterFunctions::<T>cast)));
+		}
+	}
+
 }
@@ -33,14 +33,17 @@ import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.HandlerResult;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.trace.RequestTrace;
 
 /**
  * Extension of {@link HandlerMethod} that invokes the underlying method with
@@ -62,6 +65,10 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private List<HandlerMethodArgumentResolver> resolvers = new ArrayList<>();
 
+	private HandlerMethodArgumentResolver[] boundResolvers;
+
+	private HandlerMethodInvoker invoker;
+
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
 
@@ -101,6 +108,43 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		return this.resolvers;
 	}
 
+	/**
+	 * Bind each parameter of this method to the given resolver, selected
+	 * up front from the configured argument resolvers, so that no resolver
+	 * lookup is needed when resolving argument values.
+	 * <p>A {@code null} element indicates a parameter without a suitable resolver.
+	 * @param resolvers the resolver for each method parameter, in order,
+	 * or {@code null} to look up resolvers on every invocation
+	 */
+	public void setBoundArgumentResolvers(HandlerMethodArgumentResolver[] resolvers) {
+		Assert.isTrue(resolvers == null || resolvers.length == getMethodParameters().length,
+				"Expected one argument resolver per method parameter");
+		this.boundResolvers = resolvers;
+	}
+
+	/**
+	 * Return the bound argument resolvers, if any.
+	 */
+	public HandlerMethodArgumentResolver[] getBoundArgumentResolvers() {
+		return this.boundResolvers;
+	}
+
+	/**
+	 * Set the {@link HandlerMethodInvoker} to invoke the bridged method with,
+	 * as created through a {@link org.springframework.web.method.HandlerMethodInvokerFactory}.
+	 * <p>By default the method is invoked through reflection.
+	 */
+	public void setHandlerMethodInvoker(HandlerMethodInvoker invoker) {
+		this.invoker = invoker;
+	}
+
+	/**
+	 * Return the configured {@link HandlerMethodInvoker}, if any.
+	 */
+	public HandlerMethodInvoker getHandlerMethodInvoker() {
+		return this.invoker;
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer for resolving parameter names when needed
 	 * (e.g. default request attribute name).
@@ -128,9 +172,26 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	public Mono<HandlerResult> invoke(ServerWebExchange exchange, BindingContext bindingContext,
 			Object... providedArgs) {
 
-		return resolveArguments(exchange, bindingContext, providedArgs).then(args -> {
+		RequestTrace trace = RequestTrace.get(exchange);
+		Mono<Object[]> argsMono = resolveArguments(exchange, bindingContext, providedArgs);
+		if (trace != null) {
+			argsMono = trace.record(RequestTrace.Phase.ARGUMENT_RESOLUTION, argsMono);
+		}
+		return argsMono.then(args -> {
 			try {
-				Object value = doInvoke(args);
+				Object value;
+				if (trace != null) {
+					long start = System.nanoTime();
+					try {
+						value = doInvoke(args);
+					}
+					finally {
+						trace.record(RequestTrace.Phase.HANDLER_INVOCATION, System.nanoTime() - start);
+					}
+				}
+				else {
+					value = doInvoke(args);
+				}
 				HandlerResult result = new HandlerResult(this, value, getReturnType(), bindingContext);
 				if (this.responseStatus != null) {
 					exchange.getResponse().setStatusCode(this.responseStatus);
@@ -185,6 +246,13 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	}
 
 	private HandlerMethodArgumentResolver findResolver(MethodParameter param) {
+		if (this.boundResolvers != null) {
+			HandlerMethodArgumentResolver resolver = this.boundResolvers[param.getParameterIndex()];
+			if (resolver == null) {
+				throw getArgumentError("No suitable resolver for", param, null);
+			}
+			return resolver;
+		}
 		return this.resolvers.stream()
 				.filter(r -> r.supportsParameter(param))
 				.findFirst()
@@ -222,8 +290,14 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			logger.trace("Invoking '" + ClassUtils.getQualifiedMethodName(getMethod(), getBeanType()) +
 					"' with arguments " + Arrays.toString(args));
 		}
-		ReflectionUtils.makeAccessible(getBridgedMethod());
-		Object returnValue = getBridgedMethod().invoke(getBean(), args);
+		Object returnValue;
+		if (this.invoker != null) {
+			returnValue = this.invoker.invoke(getBean(), args);
+		}
+		else {
+			ReflectionUtils.makeAccessible(getBridgedMethod());
+			returnValue = getBridgedMethod().invoke(getBean(), args);
+		}
 		if (logger.isTraceEnabled()) {
 			logger.trace("Method [" + ClassUtils.getQualifiedMethodName(getMethod(), getBeanType()) +
 					"] returned [" + returnValue + "]");
@@ -33,6 +33,8 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -45,6 +47,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.method.ControllerAdviceBean;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvokerFactory;
 import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
 import org.springframework.web.reactive.result.method.InvocableHandlerMethod;
@@ -81,12 +84,17 @@ class ControllerMethodResolver {
 	private final List<HandlerMethodArgumentResolver> exceptionHandlerResolvers;
 
 
+	private HandlerMethodInvokerFactory handlerMethodInvokerFactory;
+
+
 	private final Map<Class<?>, Set<Method>> initBinderMethodCache = new ConcurrentHashMap<>(64);
 
 	private final Map<Class<?>, Set<Method>> modelAttributeMethodCache = new ConcurrentHashMap<>(64);
 
 	private final Map<Class<?>, ExceptionHandlerMethodResolver> exceptionHandlerCache = new ConcurrentHashMap<>(64);
 
+	private final Map<MethodClassKey, InvocableHandlerMethod> requestMappingMethodCache = new ConcurrentHashMap<>(256);
+
 
 	private final Map<ControllerAdviceBean, Set<Method>> initBinderAdviceCache = new LinkedHashMap<>(64);
 
@@ -199,16 +207,62 @@ class ControllerMethodResolver {
 	}
 
 
+	/**
+	 * Configure the strategy for creating the invoker of {@code @RequestMapping}
+	 * methods, or {@code null} to invoke them through reflection.
+	 */
+	public void setHandlerMethodInvokerFactory(HandlerMethodInvokerFactory invokerFactory) {
+		this.handlerMethodInvokerFactory = invokerFactory;
+		this.requestMappingMethodCache.clear();
+	}
+
+
 	/**
 	 * Return an {@link InvocableHandlerMethod} for the given
 	 * {@code @RequestMapping} method initialized with argument resolvers.
+	 * <p>The method parameters are bound to their resolvers the first time
+	 * the method is requested, and the resulting instance is reused for as
+	 * long as the controller instance does not change.
 	 */
 	public InvocableHandlerMethod getRequestMappingMethod(HandlerMethod handlerMethod) {
+		MethodClassKey key = new MethodClassKey(handlerMethod.getMethod(), handlerMethod.getBeanType());
+		InvocableHandlerMethod cached = this.requestMappingMethodCache.get(key);
+		if (cached != null && cached.getBean() == handlerMethod.getBean()) {
+			return cached;
+		}
 		InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod);
 		invocable.setArgumentResolvers(this.requestMappingResolvers);
+		if (cached != null) {
+			invocable.setBoundArgumentResolvers(cached.getBoundArgumentResolvers());
+			invocable.setHandlerMethodInvoker(cached.getHandlerMethodInvoker());
+		}
+		else {
+			invocable.setBoundArgumentResolvers(selectResolvers(invocable, this.requestMappingResolvers));
+			if (this.handlerMethodInvokerFactory != null) {
+				invocable.setHandlerMethodInvoker(
+						this.handlerMethodInvokerFactory.createInvoker(invocable));
+			}
+			this.requestMappingMethodCache.put(key, invocable);
+		}
 		return invocable;
 	}
 
+	private static HandlerMethodArgumentResolver[] selectResolvers(HandlerMethod handlerMethod,
+			List<HandlerMethodArgumentResolver> resolvers) {
+
+		MethodParameter[] parameters = handlerMethod.getMethodParameters();
+		HandlerMethodArgumentResolver[] result = new HandlerMethodArgumentResolver[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			for (HandlerMethodArgumentResolver resolver : resolvers) {
+				if (resolver.supportsParameter(parameters[i])) {
+					result[i] = resolver;
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Find {@code @InitBinder} methods in {@code @ControllerAdvice} components
 	 * or in the controller of the given {@code @RequestMapping} method.
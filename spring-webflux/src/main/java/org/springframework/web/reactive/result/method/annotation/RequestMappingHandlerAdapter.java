@@ -31,7 +31,9 @@ import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.support.WebBindingInitializer;
+import org.springframework.web.method.FastClassHandlerMethodInvokerFactory;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvokerFactory;
 import org.springframework.web.reactive.BindingContext;
 import org.springframework.web.reactive.HandlerAdapter;
 import org.springframework.web.reactive.HandlerResult;
@@ -59,6 +61,8 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 
 	private ConfigurableApplicationContext applicationContext;
 
+	private HandlerMethodInvokerFactory handlerMethodInvokerFactory = new FastClassHandlerMethodInvokerFactory();
+
 	private ControllerMethodResolver methodResolver;
 
 	private ModelInitializer modelInitializer;
@@ -141,6 +145,24 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 		return this.applicationContext;
 	}
 
+	/**
+	 * Configure the strategy for creating the invoker of each
+	 * {@code @RequestMapping} method, created once per method and reused
+	 * for every invocation.
+	 * <p>By default this is a {@link FastClassHandlerMethodInvokerFactory}.
+	 * Set this to {@code null} to invoke controller methods through reflection.
+	 */
+	public void setHandlerMethodInvokerFactory(HandlerMethodInvokerFactory invokerFactory) {
+		this.handlerMethodInvokerFactory = invokerFactory;
+	}
+
+	/**
+	 * Return the configured strategy for creating handler method invokers.
+	 */
+	public HandlerMethodInvokerFactory getHandlerMethodInvokerFactory() {
+		return this.handlerMethodInvokerFactory;
+	}
+
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
@@ -159,6 +181,7 @@ public class RequestMappingHandlerAdapter implements HandlerAdapter, Application
 
 		this.methodResolver = new ControllerMethodResolver(this.argumentResolverConfigurer,
 				this.messageCodecConfigurer, this.reactiveAdapterRegistry, this.applicationContext);
+		this.methodResolver.setHandlerMethodInvokerFactory(this.handlerMethodInvokerFactory);
 
 		this.modelInitializer = new ModelInitializer(this.reactiveAdapterRegistry);
 	}
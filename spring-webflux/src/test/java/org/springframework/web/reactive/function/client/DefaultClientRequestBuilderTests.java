@@ -19,6 +19,8 @@ package org.springframework.web.reactive.function.client;
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Test;
@@ -56,6 +58,21 @@ public class DefaultClientRequestBuilderTests {
 		assertEquals("qux", result.cookies().getFirst("baz"));
 	}
 
+	@Test
+	public void builderChangesAfterBuildNotReflected() throws Exception {
+		ClientRequest.Builder builder = ClientRequest.method(GET, URI.create("http://example.com"))
+				.header("foo", "bar");
+		ClientRequest first = builder.build();
+
+		builder.header("foo", "baz").header("qux", "quux");
+		ClientRequest second = builder.build();
+
+		assertEquals(Collections.singletonList("bar"), first.headers().get("foo"));
+		assertNull(first.headers().getFirst("qux"));
+		assertEquals(Arrays.asList("bar", "baz"), second.headers().get("foo"));
+		assertEquals("quux", second.headers().getFirst("qux"));
+	}
+
 	@Test
 	public void method() throws Exception {
 		URI url = new URI("http://example.com");
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link HistogramExchangeObserver} and the {@link ExchangeObservation}s
+ * reported through {@link WebClient.Builder#exchangeObserver(ExchangeObserver)}.
+ */
+public class HistogramExchangeObserverTests {
+
+	private MockWebServer server;
+
+	private String host;
+
+	private final HistogramExchangeObserver histograms = new HistogramExchangeObserver();
+
+	private volatile ExchangeObservation lastObservation;
+
+	private final CountDownLatch completed = new CountDownLatch(1);
+
+	private WebClient webClient;
+
+
+	@Before
+	public void setup() {
+		this.server = new MockWebServer();
+		String baseUrl = this.server.url("/").toString();
+		this.host = this.server.url("/").uri().getRawAuthority();
+		this.webClient = WebClient.builder()
+				.baseUrl(baseUrl)
+				.exchangeObserver(observation -> {
+					this.lastObservation = observation;
+					this.histograms.onExchangeComplete(observation);
+					this.completed.countDown();
+				})
+				.build();
+	}
+
+	@After
+	public void shutdown() throws Exception {
+		this.server.shutdown();
+	}
+
+
+	@Test
+	public void exchangeRecorded() throws Exception {
+		this.server.enqueue(new MockResponse().setHeader("Content-Type", "text/plain").setBody("Hello Spring!"));
+
+		Mono<String> result = this.webClient.post()
+				.uri("/greeting")
+				.contentType(MediaType.TEXT_PLAIN)
+				.body("Spring")
+				.retrieve()
+				.bodyToMono(String.class);
+
+		StepVerifier.create(result)
+				.expectNext("Hello Spring!")
+				.expectComplete()
+				.verify(Duration.ofSeconds(3));
+
+		ExchangeObservation observation = awaitObservation();
+		assertEquals(SignalType.ON_COMPLETE, observation.getSignalType());
+		assertEquals(HttpStatus.OK, observation.getStatusCode());
+		assertNull(observation.getError());
+		assertEquals(6, observation.getRequestBytes());
+		assertEquals(13, observation.getResponseBytes());
+		assertTrue(observation.getConnectNanos() >= 0);
+		assertTrue(observation.getTimeToFirstByteNanos() >= observation.getConnectNanos());
+		assertTrue(observation.getBodyReadNanos() >= 0);
+		assertEquals(observation.getTimeToFirstByteNanos() + observation.getBodyReadNanos(),
+				observation.getTotalNanos());
+
+		HistogramExchangeObserver.ExchangeHistograms total = this.histograms.getTotal();
+		assertEquals(1, total.getTimeToFirstByte().getCount());
+		assertEquals(1, total.getBodyRead().getCount());
+		assertEquals(13, total.getResponseBytes());
+		assertEquals(0, total.getErrorCount());
+		assertEquals(1, this.histograms.getHost(this.host).getConnect().getCount());
+	}
+
+	@Test
+	public void connectionFailureRecorded() throws Exception {
+		this.server.shutdown();
+
+		Mono<String> result = this.webClient.get()
+				.uri("/greeting")
+				.retrieve()
+				.bodyToMono(String.class);
+
+		StepVerifier.create(result)
+				.expectError()
+				.verify(Duration.ofSeconds(3));
+
+		ExchangeObservation observation = awaitObservation();
+		assertEquals(SignalType.ON_ERROR, observation.getSignalType());
+		assertNotNull(observation.getError());
+		assertNull(observation.getStatusCode());
+		assertEquals(-1, observation.getTimeToFirstByteNanos());
+		assertEquals(-1, observation.getBodyReadNanos());
+		assertEquals(1, this.histograms.getTotal().getErrorCount());
+		assertEquals(0, this.histograms.getTotal().getTimeToFirstByte().getCount());
+	}
+
+	@Test
+	public void unreadBodyRecorded() throws Exception {
+		this.server.enqueue(new MockResponse().setBody("Hello Spring!"));
+
+		ClientResponse response = this.webClient.get().uri("/greeting").exchange().block(Duration.ofSeconds(3));
+		assertEquals(HttpStatus.OK, response.statusCode());
+
+		ExchangeObservation observation = awaitObservation();
+		assertEquals(SignalType.ON_COMPLETE, observation.getSignalType());
+		assertEquals(HttpStatus.OK, observation.getStatusCode());
+		assertTrue(observation.getTimeToFirstByteNanos() >= 0);
+		assertEquals(-1, observation.getBodyReadNanos());
+		assertEquals(1, this.histograms.getTotal().getTimeToFirstByte().getCount());
+		assertEquals(0, this.histograms.getTotal().getBodyRead().getCount());
+	}
+
+	@Test
+	public void cancellationRecorded() throws Exception {
+		// No response enqueued: the server holds the request until shut down
+		Mono<ClientResponse> result = this.webClient.get().uri("/greeting").exchange();
+
+		StepVerifier.create(result)
+				.expectSubscription()
+				.thenCancel()
+				.verify(Duration.ofSeconds(3));
+
+		ExchangeObservation observation = awaitObservation();
+		assertEquals(SignalType.CANCEL, observation.getSignalType());
+		assertNull(observation.getError());
+		assertNull(observation.getStatusCode());
+		assertEquals(-1, observation.getTimeToFirstByteNanos());
+		assertEquals(1, this.histograms.getTotal().getCancelledCount());
+		assertEquals(0, this.histograms.getTotal().getErrorCount());
+	}
+
+	@Test
+	public void maxHosts() throws Exception {
+		this.histograms.setMaxHosts(0);
+		this.server.enqueue(new MockResponse().setBody("Hello Spring!"));
+
+		this.webClient.get().uri("/").retrieve().bodyToMono(String.class).block(Duration.ofSeconds(3));
+		awaitObservation();
+
+		assertEquals(1, this.histograms.getTotal().getBodyRead().getCount());
+		assertNull(this.histograms.getHost(this.host));
+		assertTrue(this.histograms.getHosts().isEmpty());
+	}
+
+
+	private ExchangeObservation awaitObservation() throws InterruptedException {
+		assertTrue("Exchange not reported", this.completed.await(3, TimeUnit.SECONDS));
+		return this.lastObservation;
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ConnectionPoolMetrics;
+import org.springframework.http.client.reactive.JettyClientHttpConnector;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Integration tests for {@link WebClient} with a {@link JettyClientHttpConnector}.
+ */
+public class JettyWebClientIntegrationTests {
+
+	private MockWebServer server;
+
+	private JettyClientHttpConnector connector;
+
+	private WebClient webClient;
+
+
+	@Before
+	public void setup() {
+		this.server = new MockWebServer();
+		this.connector = new JettyClientHttpConnector();
+		this.connector.setMaxConnectionsPerHost(2);
+		this.webClient = WebClient.builder()
+				.baseUrl(this.server.url("/").toString())
+				.clientConnector(this.connector)
+				.build();
+	}
+
+	@After
+	public void shutdown() throws Exception {
+		this.server.shutdown();
+		this.connector.destroy();
+	}
+
+
+	@Test
+	public void retrieveEntity() throws Exception {
+		this.server.enqueue(new MockResponse().setHeader("Content-Type", "text/plain")
+				.setHeader("Set-Cookie", "id=42; Path=/").setBody("Hello Spring!"));
+
+		Mono<ResponseEntity<String>> result = this.webClient.get()
+				.uri("/greeting?name=Spring")
+				.header("X-Test-Header", "testvalue")
+				.retrieve()
+				.bodyToEntity(String.class);
+
+		StepVerifier.create(result)
+				.consumeNextWith(entity -> {
+					assertEquals(HttpStatus.OK, entity.getStatusCode());
+					assertEquals(MediaType.TEXT_PLAIN, entity.getHeaders().getContentType());
+					assertEquals("Hello Spring!", entity.getBody());
+				})
+				.expectComplete()
+				.verify(Duration.ofSeconds(3));
+
+		RecordedRequest recordedRequest = this.server.takeRequest();
+		assertEquals("/greeting?name=Spring", recordedRequest.getPath());
+		assertEquals("testvalue", recordedRequest.getHeader("X-Test-Header"));
+	}
+
+	@Test
+	public void postBody() throws Exception {
+		this.server.enqueue(new MockResponse().setHeader("Content-Type", "text/plain").setBody("OK"));
+
+		Mono<String> result = this.webClient.post()
+				.uri("/echo")
+				.contentType(MediaType.TEXT_PLAIN)
+				.body("Hello Jetty!")
+				.retrieve()
+				.bodyToMono(String.class);
+
+		StepVerifier.create(result)
+				.expectNext("OK")
+				.expectComplete()
+				.verify(Duration.ofSeconds(3));
+
+		RecordedRequest recordedRequest = this.server.takeRequest();
+		assertEquals("Hello Jetty!", recordedRequest.getBody().readUtf8());
+		assertEquals("text/plain", recordedRequest.getHeader(HttpHeaders.CONTENT_TYPE));
+	}
+
+	@Test
+	public void connectionPoolMetrics() throws Exception {
+		this.server.enqueue(new MockResponse().setBody("first"));
+		this.server.enqueue(new MockResponse().setBody("second"));
+
+		for (int i = 0; i < 2; i++) {
+			this.webClient.get().uri("/").retrieve().bodyToMono(String.class).block(Duration.ofSeconds(3));
+		}
+
+		ConnectionPoolMetrics metrics = this.connector.getConnectionPoolMetrics();
+		assertEquals(0, metrics.getActiveConnectionCount());
+		assertEquals(1, metrics.getIdleConnectionCount());
+		assertEquals(0, metrics.getPendingAcquireCount());
+	}
+
+	@Test
+	public void cancelBeforeResponse() throws Exception {
+		// No response enqueued: the server holds the request until shut down
+		Mono<ClientResponse> result = this.webClient.get().uri("/pending").exchange();
+
+		StepVerifier.create(result)
+				.expectSubscription()
+				.then(this::awaitRequest)
+				.thenCancel()
+				.verify(Duration.ofSeconds(3));
+
+		assertNoActiveConnections();
+	}
+
+	@Test
+	public void cancelDuringResponseBody() throws Exception {
+		char[] body = new char[64 * 1024];
+		Arrays.fill(body, 'a');
+		this.server.enqueue(new MockResponse().setBody(new String(body)).throttleBody(1024, 1, TimeUnit.SECONDS));
+
+		Flux<DataBuffer> result = this.webClient.get().uri("/slow").exchange()
+				.flatMapMany(response -> response.bodyToFlux(DataBuffer.class));
+
+		StepVerifier.create(result)
+				.expectNextCount(1)
+				.thenCancel()
+				.verify(Duration.ofSeconds(3));
+
+		assertNoActiveConnections();
+	}
+
+
+	private void awaitRequest() {
+		try {
+			assertNotNull(this.server.takeRequest(3, TimeUnit.SECONDS));
+		}
+		catch (InterruptedException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private void assertNoActiveConnections() throws InterruptedException {
+		// The aborted connection is closed asynchronously by Jetty
+		ConnectionPoolMetrics metrics = this.connector.getConnectionPoolMetrics();
+		long deadline = System.currentTimeMillis() + 3000;
+		while (metrics.getActiveConnectionCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, metrics.getActiveConnectionCount());
+	}
+
+}
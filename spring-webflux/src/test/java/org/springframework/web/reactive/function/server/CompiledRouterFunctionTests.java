@@ -0,0 +1,130 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.server;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.http.HttpMethod;
+
+import static org.junit.Assert.*;
+import static org.springframework.web.reactive.function.server.RequestPredicates.*;
+import static org.springframework.web.reactive.function.server.RouterFunctions.*;
+
+/**
+ * Unit tests for {@link CompiledRouterFunction}.
+ *
+ * @since 5.0
+ */
+public class CompiledRouterFunctionTests {
+
+	private final HandlerFunction<ServerResponse> listUsers = request -> ServerResponse.ok().build();
+
+	private final HandlerFunction<ServerResponse> getUser = request -> ServerResponse.ok().build();
+
+	private final HandlerFunction<ServerResponse> createUser = request -> ServerResponse.ok().build();
+
+	private final HandlerFunction<ServerResponse> listOrders = request -> ServerResponse.ok().build();
+
+	private final HandlerFunction<ServerResponse> fallback = request -> ServerResponse.ok().build();
+
+	private final CompiledRouterFunction<ServerResponse> routerFunction = compile(
+			nest(pathPrefix("/users"),
+					route(GET("/"), this.listUsers)
+					.andRoute(GET("/{id}"), this.getUser)
+					.andRoute(POST("/"), this.createUser))
+			.andRoute(GET("/orders"), this.listOrders)
+			.and(request -> Mono.empty())
+			.andRoute(all(), this.fallback));
+
+
+	@Test
+	public void routes() throws Exception {
+		List<CompiledRouterFunction.Route> routes = this.routerFunction.getRoutes();
+		assertEquals(6, routes.size());
+		assertEquals(HttpMethod.GET, routes.get(0).getMethod());
+		assertEquals(HttpMethod.POST, routes.get(2).getMethod());
+		assertNull(routes.get(4).getMethod());
+	}
+
+	@Test
+	public void routeByMethodAndPath() throws Exception {
+		assertRoute(HttpMethod.GET, "/users/", this.listUsers);
+		assertRoute(HttpMethod.GET, "/users/42", this.getUser);
+		assertRoute(HttpMethod.POST, "/users/", this.createUser);
+		assertRoute(HttpMethod.GET, "/orders", this.listOrders);
+		assertRoute(HttpMethod.GET, "/ORDERS", this.fallback);
+		assertRoute(HttpMethod.DELETE, "/users/42", this.fallback);
+		assertRoute(HttpMethod.GET, "/", this.fallback);
+	}
+
+	@Test
+	public void pathVariables() throws Exception {
+		MockServerRequest request = MockServerRequest.builder().method(HttpMethod.GET)
+				.uri(URI.create("http://localhost/users/42")).build();
+		this.routerFunction.route(request).block();
+
+		assertEquals("42", request.attribute(RouterFunctions.URI_TEMPLATE_VARIABLES_ATTRIBUTE)
+				.map(variables -> ((Map<?, ?>) variables).get("id")).orElse(null));
+	}
+
+	@Test
+	public void matchCounts() throws Exception {
+		assertRoute(HttpMethod.GET, "/users/1", this.getUser);
+		assertRoute(HttpMethod.GET, "/users/2", this.getUser);
+		assertRoute(HttpMethod.PUT, "/orders", this.fallback);
+
+		List<CompiledRouterFunction.Route> routes = this.routerFunction.getRoutes();
+		assertEquals(0, routes.get(0).getMatchCount());
+		assertEquals(2, routes.get(1).getMatchCount());
+		assertEquals(0, routes.get(3).getMatchCount());
+		assertEquals(0, routes.get(4).getMatchCount());
+		assertEquals(1, routes.get(5).getMatchCount());
+	}
+
+	@Test
+	public void sameResultAsUncompiled() throws Exception {
+		RouterFunction<ServerResponse> uncompiled = route(GET("/a/{x}"), this.listUsers)
+				.andRoute(method(HttpMethod.GET).and(path("/a/b")), this.getUser)
+				.andRoute(path("/a/b").or(path("/c")), this.createUser);
+		CompiledRouterFunction<ServerResponse> compiled = compile(uncompiled);
+
+		for (HttpMethod method : new HttpMethod[] {HttpMethod.GET, HttpMethod.POST}) {
+			for (String path : new String[] {"/a/b", "/a/c", "/c", "/d"}) {
+				MockServerRequest request = MockServerRequest.builder().method(method)
+						.uri(URI.create("http://localhost" + path)).build();
+				assertSame(uncompiled.route(request).block(), compiled.route(request).block());
+			}
+		}
+	}
+
+
+	private void assertRoute(HttpMethod method, String path, HandlerFunction<ServerResponse> expected) {
+		MockServerRequest request = MockServerRequest.builder().method(method)
+				.uri(URI.create("http://localhost" + path)).build();
+		StepVerifier.create(this.routerFunction.route(request))
+				.expectNext(expected)
+				.expectComplete()
+				.verify();
+	}
+
+}
@@ -50,6 +50,8 @@ import org.springframework.web.server.ServerWebExchange;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 /**
  * Unit tests for {@link ControllerMethodResolver}.
@@ -119,6 +121,19 @@ public class ControllerMethodResolverTests {
 		assertEquals(ModelAttributeMethodArgumentResolver.class, next(resolvers, index).getClass());
 	}
 
+	@Test
+	public void requestMappingMethodBoundOnce() throws Exception {
+		InvocableHandlerMethod invocable = this.methodResolver.getRequestMappingMethod(this.handlerMethod);
+		assertNotNull(invocable.getBoundArgumentResolvers());
+		assertSame(invocable, this.methodResolver.getRequestMappingMethod(this.handlerMethod));
+
+		HandlerMethod otherHandlerMethod = new HandlerMethod(new TestController(), this.handlerMethod.getMethod());
+		InvocableHandlerMethod otherInvocable = this.methodResolver.getRequestMappingMethod(otherHandlerMethod);
+		assertNotSame(invocable, otherInvocable);
+		assertSame(otherHandlerMethod.getBean(), otherInvocable.getBean());
+		assertSame(invocable.getBoundArgumentResolvers(), otherInvocable.getBoundArgumentResolvers());
+	}
+
 	@Test
 	public void modelAttributeArgumentResolvers() throws Exception {
 
@@ -34,7 +34,9 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
@@ -69,7 +71,10 @@ import org.springframework.web.context.request.async.WebAsyncManager;
 import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.FastClassHandlerMethodInvokerFactory;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.HandlerMethodInvoker;
+import org.springframework.web.method.HandlerMethodInvokerFactory;
 import org.springframework.web.method.annotation.ErrorsMethodArgumentResolver;
 import org.springframework.web.method.annotation.ExpressionValueMethodArgumentResolver;
 import org.springframework.web.method.annotation.InitBinderDataBinderFactory;
@@ -152,6 +157,10 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private boolean synchronizeOnSession = false;
 
+	private boolean bindHandlerMethods = true;
+
+	private HandlerMethodInvokerFactory handlerMethodInvokerFactory = new FastClassHandlerMethodInvokerFactory();
+
 	private SessionAttributeStore sessionAttributeStore = new DefaultSessionAttributeStore();
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
@@ -159,6 +168,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	private ConfigurableBeanFactory beanFactory;
 
 
+	private final Map<MethodClassKey, HandlerMethodBinding> handlerMethodBindingCache =
+			new ConcurrentHashMap<>(256);
+
 	private final Map<Class<?>, SessionAttributesHandler> sessionAttributesHandlerCache =
 			new ConcurrentHashMap<>(64);
 
@@ -213,6 +225,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			this.argumentResolvers = new HandlerMethodArgumentResolverComposite();
 			this.argumentResolvers.addResolvers(argumentResolvers);
 		}
+		this.handlerMethodBindingCache.clear();
 	}
 
 	/**
@@ -272,6 +285,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			this.returnValueHandlers = new HandlerMethodReturnValueHandlerComposite();
 			this.returnValueHandlers.addHandlers(returnValueHandlers);
 		}
+		this.handlerMethodBindingCache.clear();
 	}
 
 	/**
@@ -497,6 +511,54 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.synchronizeOnSession = synchronizeOnSession;
 	}
 
+	/**
+	 * Set whether each handler method should be bound to a fixed argument
+	 * resolver per parameter, and to a fixed return value handler for its
+	 * declared return type, the first time it is invoked.
+	 * <p>Subsequent invocations then use the bound resolvers and handler
+	 * directly, rather than looking them up through the configured
+	 * {@link #setArgumentResolvers argument resolvers} and
+	 * {@link #setReturnValueHandlers return value handlers} per request.
+	 * Return values of a type other than the declared one, e.g. a subtype,
+	 * are still handled through a lookup.
+	 * <p>The default is "true". Switch this off if resolvers or handlers
+	 * decide on their support for a given type dynamically.
+	 * @since 5.0
+	 */
+	public void setBindHandlerMethods(boolean bindHandlerMethods) {
+		this.bindHandlerMethods = bindHandlerMethods;
+		this.handlerMethodBindingCache.clear();
+	}
+
+	/**
+	 * Return whether handler methods are bound to their argument resolvers
+	 * and return value handler.
+	 * @since 5.0
+	 */
+	public boolean isBindHandlerMethods() {
+		return this.bindHandlerMethods;
+	}
+
+	/**
+	 * Configure the strategy for creating the invoker of each handler method,
+	 * created once per method and reused for every invocation.
+	 * <p>By default this is a {@link FastClassHandlerMethodInvokerFactory}.
+	 * Set this to {@code null} to invoke handler methods through reflection.
+	 * @since 5.0
+	 */
+	public void setHandlerMethodInvokerFactory(HandlerMethodInvokerFactory handlerMethodInvokerFactory) {
+		this.handlerMethodInvokerFactory = handlerMethodInvokerFactory;
+		this.handlerMethodBindingCache.clear();
+	}
+
+	/**
+	 * Return the configured strategy for creating handler method invokers.
+	 * @since 5.0
+	 */
+	public HandlerMethodInvokerFactory getHandlerMethodInvokerFactory() {
+		return this.handlerMethodInvokerFactory;
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer to use for resolving method parameter names if needed
 	 * (e.g. for default attribute names).
@@ -818,6 +880,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
 			invocableMethod.setDataBinderFactory(binderFactory);
 			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+			getHandlerMethodBinding(handlerMethod).bind(invocableMethod);
 
 			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
 			mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
@@ -865,6 +928,25 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return new ServletInvocableHandlerMethod(handlerMethod);
 	}
 
+	private HandlerMethodBinding getHandlerMethodBinding(HandlerMethod handlerMethod) {
+		MethodClassKey key = new MethodClassKey(handlerMethod.getMethod(), handlerMethod.getBeanType());
+		HandlerMethodBinding binding = this.handlerMethodBindingCache.get(key);
+		if (binding == null) {
+			binding = new HandlerMethodBinding();
+			if (this.bindHandlerMethods) {
+				binding.argumentResolvers =
+						this.argumentResolvers.selectArgumentResolvers(handlerMethod.getMethodParameters());
+				binding.returnType = handlerMethod.getReturnType();
+				binding.returnValueHandler = this.returnValueHandlers.selectReturnValueHandler(binding.returnType);
+			}
+			if (this.handlerMethodInvokerFactory != null) {
+				binding.invoker = this.handlerMethodInvokerFactory.createInvoker(handlerMethod);
+			}
+			this.handlerMethodBindingCache.put(key, binding);
+		}
+		return binding;
+	}
+
 	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
 		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
 		Class<?> handlerType = handlerMethod.getBeanType();
@@ -986,4 +1068,28 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 	};
 
+
+	/**
+	 * The argument resolvers, return value handler, and invoker selected for
+	 * a handler method, any of which may be {@code null}.
+	 */
+	private static class HandlerMethodBinding {
+
+		private HandlerMethodArgumentResolver[] argumentResolvers;
+
+		private HandlerMethodReturnValueHandler returnValueHandler;
+
+		private MethodParameter returnType;
+
+		private HandlerMethodInvoker invoker;
+
+		public void bind(ServletInvocableHandlerMethod invocableMethod) {
+			invocableMethod.setBoundArgumentResolvers(this.argumentResolvers);
+			if (this.returnValueHandler != null) {
+				invocableMethod.setBoundReturnValueHandler(this.returnValueHandler, this.returnType);
+			}
+			invocableMethod.setHandlerMethodInvoker(this.invoker);
+		}
+	}
+
 }
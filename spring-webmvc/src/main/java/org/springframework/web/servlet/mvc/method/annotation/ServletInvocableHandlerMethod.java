@@ -66,6 +66,10 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 
 	private HandlerMethodReturnValueHandlerComposite returnValueHandlers;
 
+	private HandlerMethodReturnValueHandler boundReturnValueHandler;
+
+	private MethodParameter boundReturnType;
+
 
 	/**
 	 * Creates an instance from the given handler and method.
@@ -103,6 +107,26 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		this.returnValueHandlers = returnValueHandlers;
 	}
 
+	/**
+	 * Bind the return value of this method to the given handler, as selected
+	 * through {@link HandlerMethodReturnValueHandlerComposite#selectReturnValueHandler}
+	 * for the given return type, so that no handler lookup is needed for
+	 * return values of the declared type.
+	 * <p>Return values of any other type, e.g. a subtype of the declared
+	 * type, are still handled through the configured composite.
+	 * @param returnValueHandler the handler for the declared return type
+	 * @param returnType the declared return type of this method, as returned
+	 * by {@link #getReturnType()}, reused for every invocation
+	 * @since 5.0
+	 * @see #setHandlerMethodReturnValueHandlers
+	 */
+	public void setBoundReturnValueHandler(HandlerMethodReturnValueHandler returnValueHandler,
+			MethodParameter returnType) {
+
+		this.boundReturnValueHandler = returnValueHandler;
+		this.boundReturnType = returnType;
+	}
+
 
 	/**
 	 * Invoke the method and handle the return value through one of the
@@ -130,8 +154,15 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 
 		mavContainer.setRequestHandled(false);
 		try {
-			this.returnValueHandlers.handleReturnValue(
-					returnValue, getReturnValueType(returnValue), mavContainer, webRequest);
+			if (this.boundReturnValueHandler != null && (returnValue == null ||
+					returnValue.getClass() == this.boundReturnType.getParameterType())) {
+				this.boundReturnValueHandler.handleReturnValue(
+						returnValue, this.boundReturnType, mavContainer, webRequest);
+			}
+			else {
+				this.returnValueHandlers.handleReturnValue(
+						returnValue, getReturnValueType(returnValue), mavContainer, webRequest);
+			}
 		}
 		catch (Exception ex) {
 			if (logger.isTraceEnabled()) {
@@ -16,16 +16,17 @@
 
 package org.springframework.web.socket.config;
 
+import java.util.Date;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.HashedWheelTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.messaging.StompSubProtocolHandler;
@@ -63,7 +64,7 @@ public class WebSocketMessageBrokerStats {
 
 	private ThreadPoolExecutor outboundChannelExecutor;
 
-	private ScheduledThreadPoolExecutor sockJsTaskScheduler;
+	private TaskScheduler sockJsTaskScheduler;
 
 	private ScheduledFuture<?> loggingTask;
 
@@ -100,8 +101,13 @@ public class WebSocketMessageBrokerStats {
 		this.outboundChannelExecutor = outboundChannelExecutor.getThreadPoolExecutor();
 	}
 
-	public void setSockJsTaskScheduler(ThreadPoolTaskScheduler sockJsTaskScheduler) {
-		this.sockJsTaskScheduler = sockJsTaskScheduler.getScheduledThreadPoolExecutor();
+	/**
+	 * Set the scheduler to run the logging task on and to report stats about.
+	 * <p>Detailed stats are available for a {@link ThreadPoolTaskScheduler}
+	 * and a {@link HashedWheelTaskScheduler}.
+	 */
+	public void setSockJsTaskScheduler(TaskScheduler sockJsTaskScheduler) {
+		this.sockJsTaskScheduler = sockJsTaskScheduler;
 		this.loggingTask = initLoggingTask(1 * 60 * 1000);
 	}
 
@@ -112,7 +118,7 @@ public class WebSocketMessageBrokerStats {
 				public void run() {
 					logger.info(WebSocketMessageBrokerStats.this.toString());
 				}
-			}, initialDelay, this.loggingPeriod, TimeUnit.MILLISECONDS);
+			}, new Date(System.currentTimeMillis() + initialDelay), this.loggingPeriod);
 		}
 		return null;
 	}
@@ -176,7 +182,17 @@ public class WebSocketMessageBrokerStats {
 	 * Get stats about the SockJS task scheduler.
 	 */
 	public String getSockJsTaskSchedulerStatsInfo() {
-		return (this.sockJsTaskScheduler != null ? getExecutorStatsInfo(this.sockJsTaskScheduler) : "null");
+		if (this.sockJsTaskScheduler == null) {
+			return "null";
+		}
+		if (this.sockJsTaskScheduler instanceof ThreadPoolTaskScheduler) {
+			return getExecutorStatsInfo(((ThreadPoolTaskScheduler) this.sockJsTaskScheduler).getScheduledThreadPoolExecutor());
+		}
+		if (this.sockJsTaskScheduler instanceof HashedWheelTaskScheduler) {
+			HashedWheelTaskScheduler scheduler = (HashedWheelTaskScheduler) this.sockJsTaskScheduler;
+			return "pool size = " + scheduler.getPoolSize() + ", scheduled tasks = " + scheduler.getScheduledTaskCount();
+		}
+		return this.sockJsTaskScheduler.getClass().getSimpleName();
 	}
 
 	private String getExecutorStatsInfo(Executor executor) {
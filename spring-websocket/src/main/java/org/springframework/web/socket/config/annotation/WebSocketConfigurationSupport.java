@@ -17,6 +17,7 @@
 package org.springframework.web.socket.config.annotation;
 
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.servlet.HandlerMapping;
 
@@ -53,9 +54,13 @@ public class WebSocketConfigurationSupport {
 	 *   // ...
 	 * }
 	 * </pre>
+	 * <p>Override this method to use a different scheduler for all SockJS
+	 * services, e.g. a
+	 * {@link org.springframework.scheduling.concurrent.HashedWheelTaskScheduler}
+	 * for many connections with heartbeat and disconnect timeouts.
 	 */
 	@Bean
-	public ThreadPoolTaskScheduler defaultSockJsTaskScheduler() {
+	public TaskScheduler defaultSockJsTaskScheduler() {
 		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
 		scheduler.setThreadNamePrefix("SockJS-");
 		scheduler.setPoolSize(Runtime.getRuntime().availableProcessors());
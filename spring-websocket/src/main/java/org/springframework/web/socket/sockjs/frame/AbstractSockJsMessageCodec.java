@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,19 +27,25 @@ import org.springframework.util.Assert;
  */
 public abstract class AbstractSockJsMessageCodec implements SockJsMessageCodec {
 
+	private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+
 	@Override
 	public String encode(String... messages) {
 		Assert.notNull(messages, "messages must not be null");
-		StringBuilder sb = new StringBuilder();
+		int capacity = 3 + messages.length * 3;
+		for (String message : messages) {
+			capacity += message.length();
+		}
+		StringBuilder sb = new StringBuilder(capacity + (capacity >> 3));
 		sb.append("a[");
 		for (int i = 0; i < messages.length; i++) {
 			sb.append('"');
-			char[] quotedChars = applyJsonQuoting(messages[i]);
-			sb.append(escapeSockJsSpecialChars(quotedChars));
+			appendEscapedSockJsSpecialChars(applyJsonQuoting(messages[i]), sb);
 			sb.append('"');
-            if (i < messages.length - 1) {
-                sb.append(',');
-            }
+			if (i < messages.length - 1) {
+				sb.append(',');
+			}
 		}
 		sb.append(']');
 		return sb.toString();
@@ -52,32 +58,35 @@ public abstract class AbstractSockJsMessageCodec implements SockJsMessageCodec {
 
 	/**
 	 * See "JSON Unicode Encoding" section of SockJS protocol.
+	 * <p>Characters are appended directly to the frame being built, copying
+	 * runs of characters that do not require escaping in bulk.
 	 */
-	private String escapeSockJsSpecialChars(char[] characters) {
-		StringBuilder result = new StringBuilder();
-		for (char c : characters) {
+	private void appendEscapedSockJsSpecialChars(char[] characters, StringBuilder sb) {
+		int start = 0;
+		for (int i = 0; i < characters.length; i++) {
+			char c = characters[i];
 			if (isSockJsSpecialChar(c)) {
-				result.append('\\').append('u');
-				String hex = Integer.toHexString(c).toLowerCase();
-				for (int i = 0; i < (4 - hex.length()); i++) {
-					result.append('0');
+				if (i > start) {
+					sb.append(characters, start, i - start);
 				}
-				result.append(hex);
-			}
-			else {
-				result.append(c);
+				sb.append('\\').append('u');
+				sb.append(HEX_CHARS[(c >> 12) & 0xF]).append(HEX_CHARS[(c >> 8) & 0xF]);
+				sb.append(HEX_CHARS[(c >> 4) & 0xF]).append(HEX_CHARS[c & 0xF]);
+				start = i + 1;
 			}
 		}
-		return result.toString();
+		if (start < characters.length) {
+			sb.append(characters, start, characters.length - start);
+		}
 	}
 
 	/**
 	 * See `escapable_by_server` variable in the SockJS protocol test suite.
 	 */
 	private boolean isSockJsSpecialChar(char ch) {
-		return (ch >= '\u0000' && ch <= '\u001F') || (ch >= '\u200C' && ch <= '\u200F') ||
+		return (ch <= '\u001F') || (ch >= '\u200C' && ch <= '\u200F') ||
 				(ch >= '\u2028' && ch <= '\u202F') || (ch >= '\u2060' && ch <= '\u206F') ||
-				(ch >= '\uFFF0' && ch <= '\uFFFF') || (ch >= '\uD800' && ch <= '\uDFFF');
+				(ch >= '\uFFF0') || (ch >= '\uD800' && ch <= '\uDFFF');
 	}
 
 }
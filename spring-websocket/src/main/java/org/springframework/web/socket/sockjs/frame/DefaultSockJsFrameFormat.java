@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,10 @@ import org.springframework.util.Assert;
  * {@link org.springframework.web.socket.sockjs.frame.SockJsFrameFormat} that relies
  * on {@link java.lang.String#format(String, Object...)}..
  *
+ * <p>Formats with a single {@code %s} placeholder and no other conversions,
+ * which covers all SockJS transports, are split into a prefix and a suffix
+ * up front so that formatting a frame is a plain concatenation.
+ *
  * @author Rossen Stoyanchev
  * @since 4.0
  */
@@ -30,16 +34,34 @@ public class DefaultSockJsFrameFormat implements SockJsFrameFormat {
 
 	private final String format;
 
+	private final String prefix;
+
+	private final String suffix;
+
 
 	public DefaultSockJsFrameFormat(String format) {
 		Assert.notNull(format, "format must not be null");
 		this.format = format;
+		int index = format.indexOf("%s");
+		if (index != -1 && format.indexOf('%') == index && format.indexOf('%', index + 2) == -1) {
+			this.prefix = format.substring(0, index);
+			this.suffix = format.substring(index + 2);
+		}
+		else {
+			this.prefix = null;
+			this.suffix = null;
+		}
 	}
 
 
 	@Override
 	public String format(SockJsFrame frame) {
-		return String.format(this.format, preProcessContent(frame.getContent()));
+		String content = preProcessContent(frame.getContent());
+		if (this.prefix != null) {
+			return new StringBuilder(this.prefix.length() + content.length() + this.suffix.length())
+					.append(this.prefix).append(content).append(this.suffix).toString();
+		}
+		return String.format(this.format, content);
 	}
 
 	protected String preProcessContent(String content) {
@@ -17,6 +17,8 @@
 package org.springframework.web.socket.sockjs.transport.session;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.server.ServerHttpRequest;
@@ -68,24 +70,31 @@ public abstract class StreamingSockJsSession extends AbstractHttpSockJsSession {
 		flushCache();
 	}
 
+	/**
+	 * Write all messages cached at this point as a single message frame, rather
+	 * than one frame per message, then recycle the request once the streamed
+	 * bytes limit is reached.
+	 */
 	@Override
 	protected void flushCache() throws SockJsTransportFailureException {
-		while (!getMessageCache().isEmpty()) {
-			String message = getMessageCache().poll();
+		if (!getMessageCache().isEmpty()) {
+			List<String> messages = new ArrayList<>(getMessageCache().size());
+			String message;
+			while ((message = getMessageCache().poll()) != null) {
+				messages.add(message);
+			}
 			SockJsMessageCodec messageCodec = getSockJsServiceConfig().getMessageCodec();
-			SockJsFrame frame = SockJsFrame.messageFrame(messageCodec, message);
+			SockJsFrame frame = SockJsFrame.messageFrame(messageCodec, messages.toArray(new String[messages.size()]));
 			writeFrame(frame);
 
 			this.byteCount += (frame.getContentBytes().length + 1);
 			if (logger.isTraceEnabled()) {
-				logger.trace(this.byteCount + " bytes written so far, " +
-						getMessageCache().size() + " more messages not flushed");
+				logger.trace(this.byteCount + " bytes written so far, " + messages.size() + " message(s) in last frame");
 			}
 			if (this.byteCount >= getSockJsServiceConfig().getStreamBytesLimit()) {
 				logger.trace("Streamed bytes limit reached, recycling current request");
 				resetRequest();
 				this.byteCount = 0;
-				break;
 			}
 		}
 		scheduleHeartbeat();
@@ -47,6 +47,7 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.ImmutableMessageChannelInterceptor;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.HashedWheelTaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.servlet.HandlerMapping;
@@ -179,6 +180,17 @@ public class WebSocketMessageBrokerConfigurationSupportTests {
 		assertTrue("\nExpected: " + expected.replace("\\", "") + "\n  Actual: " + actual, actual.matches(expected));
 	}
 
+	@Test
+	public void customTaskScheduler() {
+		ApplicationContext config = createConfig(HashedWheelTaskSchedulerConfig.class, TestConfigurer.class);
+		TaskScheduler taskScheduler = config.getBean("messageBrokerTaskScheduler", TaskScheduler.class);
+		assertTrue(taskScheduler instanceof HashedWheelTaskScheduler);
+
+		WebSocketMessageBrokerStats stats = config.getBean(WebSocketMessageBrokerStats.class);
+		String actual = stats.getSockJsTaskSchedulerStatsInfo();
+		assertTrue("Actual: " + actual, actual.matches("pool size = 2, scheduled tasks = \\d+"));
+	}
+
 	@Test
 	public void webSocketHandlerDecorator() throws Exception {
 		ApplicationContext config = createConfig(WebSocketHandlerDecoratorConfig.class);
@@ -273,6 +285,19 @@ public class WebSocketMessageBrokerConfigurationSupportTests {
 		}
 	}
 
+	@Configuration
+	static class HashedWheelTaskSchedulerConfig extends TestChannelConfig {
+
+		@Override
+		@Bean
+		public TaskScheduler messageBrokerTaskScheduler() {
+			HashedWheelTaskScheduler scheduler = new HashedWheelTaskScheduler();
+			scheduler.setThreadNamePrefix("MessageBroker-");
+			scheduler.setPoolSize(2);
+			return scheduler;
+		}
+	}
+
 	@Configuration
 	static class WebSocketHandlerDecoratorConfig extends WebSocketMessageBrokerConfigurationSupport {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -56,6 +56,23 @@ public class SockJsFrameTests {
 		assertEquals("[\"m1\",\"m2\"]", frame.getFrameData());
 	}
 
+	@Test
+	public void messageArrayFrameWithSpecialChars() {
+		SockJsFrame frame = SockJsFrame.messageFrame(new Jackson2SockJsMessageCodec(), "a\"b\n\u0000", "c\u2028d\uFFFF");
+
+		assertEquals("a[\"a\\\"b\\n\\u0000\",\"c\\u2028d\\uffff\"]", frame.getContent());
+		assertEquals(SockJsFrameType.MESSAGE, frame.getType());
+	}
+
+	@Test
+	public void frameFormat() {
+		SockJsFrame frame = SockJsFrame.heartbeatFrame();
+
+		assertEquals("data: h\r\n\r\n", new DefaultSockJsFrameFormat("data: %s\r\n\r\n").format(frame));
+		assertEquals("h\n", new DefaultSockJsFrameFormat("%s\n").format(frame));
+		assertEquals("h%\n", new DefaultSockJsFrameFormat("%s%%\n").format(frame));
+	}
+
 	@Test
 	public void messageArrayFrameEmpty() {
 		SockJsFrame frame = new SockJsFrame("a");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -101,6 +101,23 @@ public class HttpSockJsSessionTests extends AbstractSockJsSessionTests<TestAbstr
 		verifyNoMoreInteractions(this.webSocketHandler);
 	}
 
+	@Test
+	public void flushCacheWritesSingleFrame() throws Exception {
+
+		StreamingSockJsSession session = new StreamingSockJsSession("2", this.sockJsConfig, this.webSocketHandler, null) {
+			@Override
+			protected byte[] getPrelude(ServerHttpRequest request) {
+				return new byte[0];
+			}
+		};
+		session.getMessageCache().add("m1");
+		session.getMessageCache().add("m2");
+		session.handleSuccessiveRequest(this.request, this.response, this.frameFormat);
+
+		assertEquals("a[\"m1\",\"m2\"]", this.servletResponse.getContentAsString());
+		assertTrue(session.getMessageCache().isEmpty());
+	}
+
 
 	static class TestAbstractHttpSockJsSession extends StreamingSockJsSession {
 